@@ -0,0 +1,23 @@
+package cn.wind.clear.codec;
+
+/**
+ * 存入 Redis 的值的二进制编解码
+ * <p>
+ * 字段以(字段号, 类型)标记逐个写出，与 protobuf 的线格式兼容:
+ * 新版本增加的字段旧版本读取时跳过，旧版本缺少的字段新版本读取时保持默认值，
+ * 因此同一个键在滚动发布期间可以被新旧两个版本交替读写。
+ * 约定: 字段号一旦使用不能改变含义和类型，删除的字段号不能复用
+ *
+ * @param <T> 值类型
+ */
+public interface BinaryCodec<T> {
+
+    /**
+     * 类型ID(在 BinaryCodecs 中登记)，写在值的头部，读取时类型不符视为不存在
+     */
+    int typeId();
+
+    void write(BinaryWriter writer, T value);
+
+    T read(BinaryReader reader);
+}
@@ -0,0 +1,50 @@
+package cn.wind.clear.codec;
+
+import lombok.extern.slf4j.Slf4j;
+
+/**
+ * 带头部的编解码入口
+ * <p>
+ * 值 = 标识字节 0xC1 + 类型ID(varint) + 字段。0xC1 不会出现在 UTF-8 文本的开头，
+ * 可以与改用二进制之前写入的 JSON / 字符串值区分；标识或类型不符、数据损坏时按不存在处理，调用方重新计算并覆盖
+ */
+@Slf4j
+public final class BinaryCodecs {
+
+    static final int MAGIC = 0xC1;
+
+    // 类型ID登记，新增类型在此分配，已分配的不能复用
+    public static final int TYPE_USER_ID = 1;
+    public static final int TYPE_TODO_CALENDAR = 2;
+
+    private BinaryCodecs() {
+    }
+
+    public static <T> byte[] encode(BinaryCodec<T> codec, T value) {
+        BinaryWriter writer = new BinaryWriter();
+        writer.writeRawByte(MAGIC);
+        writer.writeRawVarint(codec.typeId());
+        codec.write(writer, value);
+        return writer.toByteArray();
+    }
+
+    /**
+     * @return 值，数据为空或不是该类型时返回null
+     */
+    public static <T> T decode(BinaryCodec<T> codec, byte[] bytes) {
+        if (bytes == null || bytes.length == 0 || (bytes[0] & 0xFF) != MAGIC) {
+            return null;
+        }
+        try {
+            BinaryReader reader = new BinaryReader(bytes);
+            reader.readRawByte();
+            if (reader.readRawVarint() != codec.typeId()) {
+                return null;
+            }
+            return codec.read(reader);
+        } catch (RuntimeException e) {
+            log.warn("二进制值解码失败: {}", e.getMessage());
+            return null;
+        }
+    }
+}
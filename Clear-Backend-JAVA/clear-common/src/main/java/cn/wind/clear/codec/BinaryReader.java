@@ -0,0 +1,111 @@
+package cn.wind.clear.codec;
+
+import java.nio.charset.StandardCharsets;
+
+/**
+ * 二进制读取，与 BinaryWriter 对应
+ * <pre>
+ * while (reader.hasRemaining()) {
+ *     int tag = reader.readTag();
+ *     switch (BinaryReader.field(tag)) {
+ *         case 1 -&gt; value.setId(reader.readVarint());
+ *         default -&gt; reader.skip(tag);
+ *     }
+ * }
+ * </pre>
+ */
+public final class BinaryReader {
+
+    private final byte[] buffer;
+    private final int limit;
+    private int position;
+
+    public BinaryReader(byte[] buffer) {
+        this(buffer, 0, buffer.length);
+    }
+
+    private BinaryReader(byte[] buffer, int offset, int length) {
+        this.buffer = buffer;
+        this.position = offset;
+        this.limit = offset + length;
+    }
+
+    public static int field(int tag) {
+        return tag >>> 3;
+    }
+
+    public boolean hasRemaining() {
+        return position < limit;
+    }
+
+    public int readTag() {
+        return (int) readRawVarint();
+    }
+
+    public long readVarint() {
+        return readRawVarint();
+    }
+
+    public long readSignedVarint() {
+        long value = readRawVarint();
+        return (value >>> 1) ^ -(value & 1);
+    }
+
+    public String readString() {
+        int length = readLength();
+        String value = new String(buffer, position, length, StandardCharsets.UTF_8);
+        position += length;
+        return value;
+    }
+
+    /**
+     * 嵌套值，返回只覆盖该字段内容的读取器
+     */
+    public <T> T readMessage(BinaryCodec<T> codec) {
+        int length = readLength();
+        BinaryReader nested = new BinaryReader(buffer, position, length);
+        position += length;
+        return codec.read(nested);
+    }
+
+    /**
+     * 跳过不认识的字段(新版本写入的字段)
+     */
+    public void skip(int tag) {
+        switch (tag & 7) {
+            case BinaryWriter.WIRE_VARINT -> readRawVarint();
+            case BinaryWriter.WIRE_BYTES -> position += readLength();
+            default -> throw new IllegalStateException("不支持的字段类型: " + (tag & 7));
+        }
+        if (position > limit) {
+            throw new IllegalStateException("数据不完整");
+        }
+    }
+
+    int readRawByte() {
+        if (position >= limit) {
+            throw new IllegalStateException("数据不完整");
+        }
+        return buffer[position++] & 0xFF;
+    }
+
+    long readRawVarint() {
+        long value = 0;
+        for (int shift = 0; shift < 64; shift += 7) {
+            int b = readRawByte();
+            value |= (long) (b & 0x7F) << shift;
+            if ((b & 0x80) == 0) {
+                return value;
+            }
+        }
+        throw new IllegalStateException("varint 过长");
+    }
+
+    private int readLength() {
+        long length = readRawVarint();
+        if (length < 0 || length > limit - position) {
+            throw new IllegalStateException("数据不完整");
+        }
+        return (int) length;
+    }
+}
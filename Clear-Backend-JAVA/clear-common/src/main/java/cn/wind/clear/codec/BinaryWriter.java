@@ -0,0 +1,120 @@
+package cn.wind.clear.codec;
+
+import java.nio.charset.StandardCharsets;
+import java.util.Arrays;
+
+/**
+ * 二进制写入，整数使用变长编码(varint)，字符串与嵌套值带长度前缀
+ */
+public final class BinaryWriter {
+
+    static final int WIRE_VARINT = 0;
+    static final int WIRE_BYTES = 2;
+
+    private byte[] buffer;
+    private int position;
+
+    public BinaryWriter() {
+        this(64);
+    }
+
+    public BinaryWriter(int initialCapacity) {
+        this.buffer = new byte[initialCapacity];
+    }
+
+    /**
+     * 非负整数字段，负数占 10 字节，可能为负的值使用 writeSignedVarint
+     */
+    public BinaryWriter writeVarint(int field, long value) {
+        writeRawVarint((long) field << 3 | WIRE_VARINT);
+        writeRawVarint(value);
+        return this;
+    }
+
+    /**
+     * 有符号整数字段，ZigZag 编码后绝对值小的负数同样只占少量字节
+     */
+    public BinaryWriter writeSignedVarint(int field, long value) {
+        return writeVarint(field, (value << 1) ^ (value >> 63));
+    }
+
+    /**
+     * 字符串字段，null 不写出
+     */
+    public BinaryWriter writeString(int field, String value) {
+        if (value != null) {
+            writeBytes(field, value.getBytes(StandardCharsets.UTF_8));
+        }
+        return this;
+    }
+
+    public BinaryWriter writeBytes(int field, byte[] value) {
+        writeRawVarint((long) field << 3 | WIRE_BYTES);
+        writeRawVarint(value.length);
+        writeRaw(value, 0, value.length);
+        return this;
+    }
+
+    /**
+     * 嵌套值字段，重复调用即为列表
+     * <p>
+     * 先预留 1 字节长度直接写入嵌套值，长度超过 127 时再把内容后移，避免为嵌套值分配临时缓冲区
+     */
+    public <T> BinaryWriter writeMessage(int field, BinaryCodec<T> codec, T value) {
+        writeRawVarint((long) field << 3 | WIRE_BYTES);
+        ensureCapacity(1);
+        int lengthPosition = position++;
+        codec.write(this, value);
+        int length = position - lengthPosition - 1;
+        if (length < 0x80) {
+            buffer[lengthPosition] = (byte) length;
+            return this;
+        }
+        int lengthSize = varintSize(length);
+        ensureCapacity(lengthSize - 1);
+        System.arraycopy(buffer, lengthPosition + 1, buffer, lengthPosition + lengthSize, length);
+        position = lengthPosition;
+        writeRawVarint(length);
+        position += length;
+        return this;
+    }
+
+    public byte[] toByteArray() {
+        return Arrays.copyOf(buffer, position);
+    }
+
+    void writeRawVarint(long value) {
+        ensureCapacity(10);
+        while ((value & ~0x7FL) != 0) {
+            buffer[position++] = (byte) ((value & 0x7F) | 0x80);
+            value >>>= 7;
+        }
+        buffer[position++] = (byte) value;
+    }
+
+    private static int varintSize(long value) {
+        int size = 1;
+        while ((value & ~0x7FL) != 0) {
+            value >>>= 7;
+            size++;
+        }
+        return size;
+    }
+
+    void writeRawByte(int value) {
+        ensureCapacity(1);
+        buffer[position++] = (byte) value;
+    }
+
+    private void writeRaw(byte[] bytes, int offset, int length) {
+        ensureCapacity(length);
+        System.arraycopy(bytes, offset, buffer, position, length);
+        position += length;
+    }
+
+    private void ensureCapacity(int extra) {
+        if (position + extra > buffer.length) {
+            buffer = Arrays.copyOf(buffer, Math.max(buffer.length * 2, position + extra));
+        }
+    }
+}
@@ -0,0 +1,64 @@
+package cn.wind.clear.codec;
+
+/**
+ * 用户上下文(令牌 -> 用户ID)
+ * <p>
+ * 雪花ID按整数写出，9 字节以内；不是规范十进制整数的ID(历史数据)按字符串写出
+ */
+public final class UserIdCodec implements BinaryCodec<String> {
+
+    public static final UserIdCodec INSTANCE = new UserIdCodec();
+
+    private static final int ID = 1;
+    private static final int ID_TEXT = 2;
+
+    private UserIdCodec() {
+    }
+
+    @Override
+    public int typeId() {
+        return BinaryCodecs.TYPE_USER_ID;
+    }
+
+    @Override
+    public void write(BinaryWriter writer, String userId) {
+        long id = parseCanonical(userId);
+        if (id >= 0) {
+            writer.writeVarint(ID, id);
+        } else {
+            writer.writeString(ID_TEXT, userId);
+        }
+    }
+
+    @Override
+    public String read(BinaryReader reader) {
+        String userId = null;
+        while (reader.hasRemaining()) {
+            int tag = reader.readTag();
+            switch (BinaryReader.field(tag)) {
+                case ID -> userId = String.valueOf(reader.readVarint());
+                case ID_TEXT -> userId = reader.readString();
+                default -> reader.skip(tag);
+            }
+        }
+        return userId;
+    }
+
+    /**
+     * 解析不带前导零和符号的十进制整数，转换回字符串后与原值相同，否则返回 -1
+     */
+    private static long parseCanonical(String value) {
+        if (value.isEmpty() || value.length() > 18 || (value.length() > 1 && value.charAt(0) == '0')) {
+            return -1;
+        }
+        long result = 0;
+        for (int i = 0; i < value.length(); i++) {
+            char c = value.charAt(i);
+            if (c < '0' || c > '9') {
+                return -1;
+            }
+            result = result * 10 + (c - '0');
+        }
+        return result;
+    }
+}
@@ -13,7 +13,33 @@ public class MessageConstant {
     public static final String USER_NOT_EXIST = "用户不存在";
     public static final String PASSWORD_ERROR = "密码错误";
 
+    // 通用
+    public static final String INVALID_ID = "ID不合法或已存在";
+    public static final String VERSION_CONFLICT = "数据已在其他设备上修改，请刷新后重试";
+
     // Todo相关
     public static final String EMPTY_TITLE = "Todo的标题不能为空";
+    public static final String EMPTY_STATUS = "Todo的状态不能为空";
     public static final String DATE_EXPIRE = "截止日期不能小于当前时间";
+    public static final String CALENDAR_RANGE_ERROR = "日历查询参数错误";
+    public static final String TODO_NOT_EXIST = "Todo不存在";
+    public static final String EMPTY_FIELDS = "缺少需要更新的字段或版本号";
+    public static final String UNKNOWN_FIELD = "不支持更新的字段: ";
+    public static final String ANALYTICS_RANGE_ERROR = "统计查询参数错误";
+    public static final String UNKNOWN_ORDER = "不支持的排序方式: ";
+    public static final String RANK_CATEGORY_MISMATCH = "只能在同一分类内调整顺序";
+    public static final String MANUAL_ORDER_CATEGORY = "手动排序需要指定分类";
+    public static final String INVALID_RECURRENCE = "重复规则不正确";
+    public static final String RECURRENCE_DUE_DATE = "重复的待办需要截止日期";
+    public static final String RECURRENCE_RANGE_ERROR = "展开重复待办的日期范围过大";
+    public static final String OCCURRENCE_NOT_EXIST = "该日期没有重复实例";
+
+    // 分类相关
+    public static final String CATEGORY_NOT_EXIST = "分类不存在";
+
+    // 标签相关
+    public static final String EMPTY_TAG_NAME = "标签名称不能为空";
+    public static final String TAG_EXIST = "标签已存在";
+    public static final String TAG_NOT_EXIST = "标签不存在";
+    public static final String TOO_MANY_TAGS = "标签数量超出上限";
 }
@@ -0,0 +1,21 @@
+package cn.wind.clear.context;
+
+/**
+ * 当前请求的请求ID，由请求过滤器在进入时设置、离开时清除，JFR 事件据此把同一请求的各阶段关联起来
+ */
+public class RequestIdContext {
+
+    private static final ThreadLocal<String> REQUEST_ID = new ThreadLocal<>();
+
+    public static void setRequestId(String requestId) {
+        REQUEST_ID.set(requestId);
+    }
+
+    public static String getRequestId() {
+        return REQUEST_ID.get();
+    }
+
+    public static void clear() {
+        REQUEST_ID.remove();
+    }
+}
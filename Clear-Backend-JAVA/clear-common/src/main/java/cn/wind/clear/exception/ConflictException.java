@@ -0,0 +1,15 @@
+package cn.wind.clear.exception;
+
+/**
+ * 并发修改冲突异常，响应 409
+ */
+public class ConflictException extends BaseException {
+
+    public ConflictException() {
+    }
+
+    public ConflictException(String msg) {
+        super(msg);
+    }
+
+}
@@ -0,0 +1,25 @@
+package cn.wind.clear.jfr;
+
+import jdk.jfr.Category;
+import jdk.jfr.Description;
+import jdk.jfr.Label;
+import jdk.jfr.Name;
+import jdk.jfr.StackTrace;
+
+/**
+ * 令牌校验阶段，包括 JWT 解析和写入用户上下文
+ */
+@Name("cn.wind.clear.Auth")
+@Label("Auth")
+@Category({"Clear", "Auth"})
+@Description("JwtTokenInterceptor 校验令牌")
+@StackTrace(false)
+public class AuthEvent extends jdk.jfr.Event {
+
+    @Label("Request ID")
+    public String requestId;
+
+    @Label("Outcome")
+    @Description("ok / missing / malformed / invalid")
+    public String outcome;
+}
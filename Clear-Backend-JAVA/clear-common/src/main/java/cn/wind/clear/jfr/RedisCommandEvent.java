@@ -0,0 +1,28 @@
+package cn.wind.clear.jfr;
+
+import jdk.jfr.Category;
+import jdk.jfr.Description;
+import jdk.jfr.Label;
+import jdk.jfr.Name;
+import jdk.jfr.StackTrace;
+
+/**
+ * 一次 Redis(嵌入模式下为进程内存储)命令
+ */
+@Name("cn.wind.clear.Redis")
+@Label("Redis Command")
+@Category({"Clear", "Redis"})
+@Description("RedisUtils 执行一条命令")
+@StackTrace(false)
+public class RedisCommandEvent extends jdk.jfr.Event {
+
+    @Label("Request ID")
+    public String requestId;
+
+    @Label("Command")
+    public String command;
+
+    @Label("Key")
+    @Description("含令牌的键只记录前缀")
+    public String key;
+}
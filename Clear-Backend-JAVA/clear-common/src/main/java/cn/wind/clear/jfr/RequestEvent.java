@@ -0,0 +1,30 @@
+package cn.wind.clear.jfr;
+
+import jdk.jfr.Category;
+import jdk.jfr.Description;
+import jdk.jfr.Label;
+import jdk.jfr.Name;
+import jdk.jfr.StackTrace;
+
+/**
+ * 一次 HTTP 请求的完整耗时，同一请求ID的其它事件都落在它的时间范围内
+ */
+@Name("cn.wind.clear.Request")
+@Label("Request")
+@Category({"Clear", "Request"})
+@Description("HTTP 请求从进入过滤器链到响应完成")
+@StackTrace(false)
+public class RequestEvent extends jdk.jfr.Event {
+
+    @Label("Request ID")
+    public String requestId;
+
+    @Label("Method")
+    public String method;
+
+    @Label("URI")
+    public String uri;
+
+    @Label("Status")
+    public int status;
+}
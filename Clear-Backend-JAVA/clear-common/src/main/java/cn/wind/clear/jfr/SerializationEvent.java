@@ -0,0 +1,36 @@
+package cn.wind.clear.jfr;
+
+import jdk.jfr.Category;
+import jdk.jfr.DataAmount;
+import jdk.jfr.Description;
+import jdk.jfr.Label;
+import jdk.jfr.Name;
+import jdk.jfr.StackTrace;
+
+/**
+ * 消息转换器读取请求体或写出响应体
+ */
+@Name("cn.wind.clear.Serialization")
+@Label("Serialization")
+@Category({"Clear", "Serialization"})
+@Description("请求体反序列化或响应体序列化")
+@StackTrace(false)
+public class SerializationEvent extends jdk.jfr.Event {
+
+    @Label("Request ID")
+    public String requestId;
+
+    @Label("Direction")
+    @Description("read / write")
+    public String direction;
+
+    @Label("Media Type")
+    public String mediaType;
+
+    @Label("Value Type")
+    public String valueType;
+
+    @Label("Bytes")
+    @DataAmount
+    public long bytes;
+}
@@ -0,0 +1,32 @@
+package cn.wind.clear.jfr;
+
+import jdk.jfr.Category;
+import jdk.jfr.Description;
+import jdk.jfr.Label;
+import jdk.jfr.Name;
+import jdk.jfr.StackTrace;
+
+/**
+ * 一次 MyBatis 语句执行
+ */
+@Name("cn.wind.clear.Sql")
+@Label("SQL")
+@Category({"Clear", "SQL"})
+@Description("MyBatis 执行一条映射语句")
+@StackTrace(false)
+public class SqlEvent extends jdk.jfr.Event {
+
+    @Label("Request ID")
+    public String requestId;
+
+    @Label("Mapper ID")
+    public String mapperId;
+
+    @Label("Command")
+    @Description("SELECT / INSERT / UPDATE / DELETE")
+    public String command;
+
+    @Label("Rows")
+    @Description("查询返回的行数或更新影响的行数，执行失败时为 -1")
+    public int rows;
+}
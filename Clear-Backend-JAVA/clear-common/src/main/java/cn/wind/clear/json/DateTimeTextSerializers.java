@@ -0,0 +1,93 @@
+package cn.wind.clear.json;
+
+import com.fasterxml.jackson.core.JsonGenerator;
+import com.fasterxml.jackson.databind.SerializerProvider;
+import com.fasterxml.jackson.databind.ser.std.StdSerializer;
+
+import java.io.IOException;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.time.format.DateTimeFormatter;
+
+/**
+ * 日期时间序列化器
+ * <p>
+ * 直接把数字写入线程内复用的字符数组，不经过 DateTimeFormatter，也不创建中间字符串，
+ * 输出格式与 {@link JacksonObjectMapper#DEFAULT_DATE_TIME_FORMAT} 和
+ * {@link JacksonObjectMapper#DEFAULT_DATE_FORMAT} 一致
+ */
+public final class DateTimeTextSerializers {
+
+    private static final ThreadLocal<char[]> BUFFER = ThreadLocal.withInitial(() -> new char[16]);
+
+    private DateTimeTextSerializers() {
+    }
+
+    /**
+     * yyyy-MM-dd HH:mm
+     */
+    public static class LocalDateTimeSerializer extends StdSerializer<LocalDateTime> {
+
+        private static final DateTimeFormatter FALLBACK =
+                DateTimeFormatter.ofPattern(JacksonObjectMapper.DEFAULT_DATE_TIME_FORMAT);
+
+        public LocalDateTimeSerializer() {
+            super(LocalDateTime.class);
+        }
+
+        @Override
+        public void serialize(LocalDateTime value, JsonGenerator gen, SerializerProvider provider) throws IOException {
+            int year = value.getYear();
+            if (year < 0 || year > 9999) {
+                gen.writeString(FALLBACK.format(value));
+                return;
+            }
+            char[] buf = BUFFER.get();
+            writeDate(buf, year, value.getMonthValue(), value.getDayOfMonth());
+            buf[10] = ' ';
+            writeTwoDigits(buf, 11, value.getHour());
+            buf[13] = ':';
+            writeTwoDigits(buf, 14, value.getMinute());
+            gen.writeString(buf, 0, 16);
+        }
+    }
+
+    /**
+     * yyyy-MM-dd
+     */
+    public static class LocalDateSerializer extends StdSerializer<LocalDate> {
+
+        private static final DateTimeFormatter FALLBACK =
+                DateTimeFormatter.ofPattern(JacksonObjectMapper.DEFAULT_DATE_FORMAT);
+
+        public LocalDateSerializer() {
+            super(LocalDate.class);
+        }
+
+        @Override
+        public void serialize(LocalDate value, JsonGenerator gen, SerializerProvider provider) throws IOException {
+            int year = value.getYear();
+            if (year < 0 || year > 9999) {
+                gen.writeString(FALLBACK.format(value));
+                return;
+            }
+            char[] buf = BUFFER.get();
+            writeDate(buf, year, value.getMonthValue(), value.getDayOfMonth());
+            gen.writeString(buf, 0, 10);
+        }
+    }
+
+    private static void writeDate(char[] buf, int year, int month, int day) {
+        writeTwoDigits(buf, 0, year / 100);
+        writeTwoDigits(buf, 2, year % 100);
+        buf[4] = '-';
+        writeTwoDigits(buf, 5, month);
+        buf[7] = '-';
+        writeTwoDigits(buf, 8, day);
+    }
+
+    private static void writeTwoDigits(char[] buf, int offset, int value) {
+        buf[offset] = (char) ('0' + value / 10);
+        buf[offset + 1] = (char) ('0' + value % 10);
+    }
+}
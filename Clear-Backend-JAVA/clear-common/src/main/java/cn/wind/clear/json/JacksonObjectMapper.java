@@ -1,14 +1,17 @@
 package cn.wind.clear.json;
 
+import com.fasterxml.jackson.core.JsonFactory;
+import com.fasterxml.jackson.core.JsonGenerator;
 import com.fasterxml.jackson.databind.DeserializationFeature;
+import com.fasterxml.jackson.databind.JsonMappingException;
 import com.fasterxml.jackson.databind.ObjectMapper;
 import com.fasterxml.jackson.databind.module.SimpleModule;
+import com.fasterxml.jackson.databind.ser.impl.SimpleFilterProvider;
 import com.fasterxml.jackson.datatype.jsr310.deser.LocalDateDeserializer;
 import com.fasterxml.jackson.datatype.jsr310.deser.LocalDateTimeDeserializer;
 import com.fasterxml.jackson.datatype.jsr310.deser.LocalTimeDeserializer;
-import com.fasterxml.jackson.datatype.jsr310.ser.LocalDateSerializer;
-import com.fasterxml.jackson.datatype.jsr310.ser.LocalDateTimeSerializer;
 import com.fasterxml.jackson.datatype.jsr310.ser.LocalTimeSerializer;
+import com.fasterxml.jackson.module.blackbird.BlackbirdModule;
 
 import java.time.LocalDate;
 import java.time.LocalDateTime;
@@ -25,7 +28,15 @@ public class JacksonObjectMapper extends ObjectMapper {
     public static final String DEFAULT_TIME_FORMAT = "HH:mm:ss";
 
     public JacksonObjectMapper() {
-        super();
+        this(null);
+    }
+
+    /**
+     * 使用指定的数据格式，例如 CBORFactory、SmileFactory，日期格式等配置与 JSON 一致
+     * @param jsonFactory 数据格式工厂，为null时使用JSON
+     */
+    public JacksonObjectMapper(JsonFactory jsonFactory) {
+        super(jsonFactory);
         //收到未知属性时不报异常
         this.configure(FAIL_ON_UNKNOWN_PROPERTIES, false);
 
@@ -36,11 +47,34 @@ public class JacksonObjectMapper extends ObjectMapper {
                 .addDeserializer(LocalDateTime.class, new LocalDateTimeDeserializer(DateTimeFormatter.ofPattern(DEFAULT_DATE_TIME_FORMAT)))
                 .addDeserializer(LocalDate.class, new LocalDateDeserializer(DateTimeFormatter.ofPattern(DEFAULT_DATE_FORMAT)))
                 .addDeserializer(LocalTime.class, new LocalTimeDeserializer(DateTimeFormatter.ofPattern(DEFAULT_TIME_FORMAT)))
-                .addSerializer(LocalDateTime.class, new LocalDateTimeSerializer(DateTimeFormatter.ofPattern(DEFAULT_DATE_TIME_FORMAT)))
-                .addSerializer(LocalDate.class, new LocalDateSerializer(DateTimeFormatter.ofPattern(DEFAULT_DATE_FORMAT)))
+                .addSerializer(LocalDateTime.class, new DateTimeTextSerializers.LocalDateTimeSerializer())
+                .addSerializer(LocalDate.class, new DateTimeTextSerializers.LocalDateSerializer())
                 .addSerializer(LocalTime.class, new LocalTimeSerializer(DateTimeFormatter.ofPattern(DEFAULT_TIME_FORMAT)));
 
         //注册功能模块 例如，可以添加自定义序列化器和反序列化器
         this.registerModule(simpleModule);
+
+        //未指定属性过滤器时输出全部字段
+        this.setFilterProvider(new SimpleFilterProvider().setFailOnUnknownId(false));
+
+        //使用生成的字节码访问属性，代替反射
+        this.registerModule(new BlackbirdModule());
+
+        //序列化结束时不刷新底层输出流，由容器一次性写出响应并设置 Content-Length
+        this.configure(JsonGenerator.Feature.FLUSH_PASSED_TO_STREAM, false);
+    }
+
+    /**
+     * 预先解析并缓存指定类型的序列化器，避免首个请求承担解析开销
+     * @param types 需要预热的类型
+     */
+    public void prefetchSerializers(Class<?>... types) {
+        for (Class<?> type : types) {
+            try {
+                this.getSerializerProviderInstance().findTypedValueSerializer(type, true, null);
+            } catch (JsonMappingException e) {
+                // 无法解析的类型在首次序列化时再报告
+            }
+        }
     }
 }
@@ -0,0 +1,34 @@
+package cn.wind.clear.logging;
+
+import ch.qos.logback.classic.AsyncAppender;
+import ch.qos.logback.classic.spi.ILoggingEvent;
+
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * 统计丢弃条数的异步追加器
+ * <p>
+ * 队列有界且 neverBlock=true: 队列已满时直接丢弃，请求线程不会因为控制台或磁盘变慢而阻塞；
+ * 队列剩余容量低于 discardingThreshold 时丢弃 INFO 及以下级别，保留 WARN/ERROR。
+ * Logback 本身不统计丢弃，入队前按队列剩余容量判断，并发时为近似值
+ */
+public class DropCountingAsyncAppender extends AsyncAppender {
+
+    private final LongAdder dropped = new LongAdder();
+
+    @Override
+    protected void append(ILoggingEvent eventObject) {
+        int remaining = getRemainingCapacity();
+        if (remaining == 0 || (remaining < getDiscardingThreshold() && isDiscardable(eventObject))) {
+            dropped.increment();
+        }
+        super.append(eventObject);
+    }
+
+    /**
+     * 启动以来丢弃的日志条数
+     */
+    public long getDroppedCount() {
+        return dropped.sum();
+    }
+}
@@ -0,0 +1,51 @@
+package cn.wind.clear.logging;
+
+import java.time.Duration;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * 热点路径日志限流
+ * <p>
+ * 每个时间窗口最多放行 permits 条，其余只计数；放行的日志通过 drainSuppressed() 带上之前被抑制的条数，
+ * 日志量与请求量脱钩，同时不丢失频率信息。每个日志语句持有一个实例
+ * <pre>
+ * if (log.isInfoEnabled() &amp;&amp; PAGE_LOG.tryAcquire()) {
+ *     log.atInfo().setMessage("...").addKeyValue("suppressed", PAGE_LOG.drainSuppressed()).log();
+ * }
+ * </pre>
+ */
+public class LogRateLimiter {
+
+    private final int permits;
+    private final long windowNanos;
+    private final AtomicLong windowStart = new AtomicLong(System.nanoTime());
+    private final AtomicInteger used = new AtomicInteger();
+    private final LongAdder suppressed = new LongAdder();
+
+    public LogRateLimiter(int permits, Duration window) {
+        this.permits = permits;
+        this.windowNanos = window.toNanos();
+    }
+
+    public boolean tryAcquire() {
+        long now = System.nanoTime();
+        long start = windowStart.get();
+        if (now - start >= windowNanos && windowStart.compareAndSet(start, now)) {
+            used.set(0);
+        }
+        if (used.incrementAndGet() <= permits) {
+            return true;
+        }
+        suppressed.increment();
+        return false;
+    }
+
+    /**
+     * 取出并清零上次放行以来被抑制的条数
+     */
+    public long drainSuppressed() {
+        return suppressed.sumThenReset();
+    }
+}
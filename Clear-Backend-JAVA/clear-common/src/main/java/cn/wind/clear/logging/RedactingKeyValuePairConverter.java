@@ -0,0 +1,17 @@
+package cn.wind.clear.logging;
+
+import ch.qos.logback.classic.pattern.KeyValuePairConverter;
+import ch.qos.logback.classic.spi.ILoggingEvent;
+
+/**
+ * 脱敏后的结构化键值对(SLF4J addKeyValue)，logback 配置中以 %redactedKvp 代替 %kvp，
+ * 有键值对时以空格开头，直接接在消息后面
+ */
+public class RedactingKeyValuePairConverter extends KeyValuePairConverter {
+
+    @Override
+    public String convert(ILoggingEvent event) {
+        String keyValuePairs = super.convert(event);
+        return keyValuePairs.isEmpty() ? keyValuePairs : " " + Redaction.redact(keyValuePairs);
+    }
+}
@@ -0,0 +1,15 @@
+package cn.wind.clear.logging;
+
+import ch.qos.logback.classic.pattern.MessageConverter;
+import ch.qos.logback.classic.spi.ILoggingEvent;
+
+/**
+ * 脱敏后的日志消息，logback 配置中以 %redactedMsg 代替 %msg
+ */
+public class RedactingMessageConverter extends MessageConverter {
+
+    @Override
+    public String convert(ILoggingEvent event) {
+        return Redaction.redact(super.convert(event));
+    }
+}
@@ -0,0 +1,35 @@
+package cn.wind.clear.logging;
+
+import java.util.regex.Pattern;
+
+/**
+ * 日志脱敏规则: JWT、Bearer 令牌，以及 toString / JSON 中的密码、密钥和令牌字段
+ */
+final class Redaction {
+
+    private static final Pattern JWT = Pattern.compile("eyJ[A-Za-z0-9_-]*\\.[A-Za-z0-9_-]+\\.[A-Za-z0-9_-]*");
+    private static final Pattern BEARER = Pattern.compile("(Bearer\\s+)\\S+");
+    private static final Pattern JSON_FIELD = Pattern.compile("(?i)(\"(?:password|secret|secretKey|token|tk)\"\\s*:\\s*\")[^\"]*\"");
+    private static final Pattern FIELD = Pattern.compile("(?i)\\b(password|secret|secretKey|token|tk)(\"?\\s*[=:]\\s*\"?)[^,)}\"\\s]+");
+
+    private Redaction() {
+    }
+
+    static String redact(String message) {
+        if (message == null || !mayContainSecret(message)) {
+            return message;
+        }
+        String redacted = JWT.matcher(message).replaceAll("***");
+        redacted = BEARER.matcher(redacted).replaceAll("$1***");
+        redacted = JSON_FIELD.matcher(redacted).replaceAll("$1***\"");
+        return FIELD.matcher(redacted).replaceAll("$1$2***");
+    }
+
+    /**
+     * 绝大多数日志不含敏感字段，先用字符串查找跳过正则匹配
+     */
+    private static boolean mayContainSecret(String message) {
+        return message.contains("eyJ") || message.contains("Bearer") || message.contains("assword")
+                || message.contains("ecret") || message.contains("oken") || message.contains("tk");
+    }
+}
@@ -0,0 +1,34 @@
+package cn.wind.clear.properties;
+
+import lombok.Data;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.stereotype.Component;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+
+@Data
+@Component
+@ConfigurationProperties(prefix = "clear.affinity")
+public class AffinityProperties {
+    // 是否按用户一致性哈希把请求转发到负责该用户的实例
+    private Boolean enabled = false;
+    // 本实例的地址(含 context-path)，其他实例按此地址转发，如 http://10.0.0.5:8888/api
+    private String self;
+    // 成员发现方式: static(使用 nodes) 或 redis(心跳注册)
+    private String discovery = "static";
+    // 静态成员列表，需包含本实例
+    private List<String> nodes = new ArrayList<>();
+    // 每个实例在哈希环上的虚拟节点数
+    private Integer virtualNodes = 160;
+    // 刷新成员列表(redis 方式同时发送心跳)的间隔
+    private Duration refreshInterval = Duration.ofSeconds(5);
+    // redis 方式下超过该时间没有心跳的实例视为下线
+    private Duration nodeTtl = Duration.ofSeconds(15);
+    // 转发请求的连接与响应超时，超时后读请求由本实例直接处理、写请求返回502；转发期间占用工作线程，应远小于客户端超时
+    private Duration connectTimeout = Duration.ofSeconds(1);
+    private Duration forwardTimeout = Duration.ofSeconds(2);
+    // 参与转发的路径(Servlet url-pattern，不含 context-path)
+    private List<String> urlPatterns = List.of("/todo/*", "/category/*", "/tag/*", "/user/*");
+}
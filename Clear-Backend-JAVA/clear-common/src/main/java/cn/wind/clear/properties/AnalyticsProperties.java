@@ -0,0 +1,17 @@
+package cn.wind.clear.properties;
+
+import lombok.Data;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.stereotype.Component;
+
+@Data
+@Component
+@ConfigurationProperties(prefix = "clear.analytics")
+public class AnalyticsProperties {
+    // 单次统计查询的最大天数
+    private Integer maxRangeDays = 366;
+    // 启动后按现有数据重新统计所有用户的每日统计(升级后执行一次)
+    private Boolean backfill = false;
+    // 回填时每批处理的用户数
+    private Integer backfillBatchSize = 100;
+}
@@ -0,0 +1,19 @@
+package cn.wind.clear.properties;
+
+import lombok.Data;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.stereotype.Component;
+
+@Data
+@Component
+@ConfigurationProperties(prefix = "clear.archive")
+public class ArchiveProperties {
+    // 是否开启归档
+    private Boolean enabled = true;
+    // 已完成超过多少天的 to do 移入归档表
+    private Integer retentionDays = 30;
+    // 每批迁移的行数
+    private Integer batchSize = 500;
+    // 每次任务最多执行的批次数
+    private Integer maxBatchesPerRun = 20;
+}
@@ -0,0 +1,15 @@
+package cn.wind.clear.properties;
+
+import lombok.Data;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.stereotype.Component;
+
+@Data
+@Component
+@ConfigurationProperties(prefix = "clear.event")
+public class EventBusProperties {
+    // 环形队列容量，会向上取整为2的幂
+    private Integer bufferSize = 4096;
+    // 消费者单批最多处理的事件数
+    private Integer maxBatch = 256;
+}
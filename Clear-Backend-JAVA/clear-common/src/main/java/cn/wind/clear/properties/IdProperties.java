@@ -0,0 +1,15 @@
+package cn.wind.clear.properties;
+
+import lombok.Data;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.stereotype.Component;
+
+@Data
+@Component
+@ConfigurationProperties(prefix = "clear.id")
+public class IdProperties {
+    // 工作节点id，多实例部署时每个实例必须不同(0-1007)
+    private Long workerId = 0L;
+    // 客户端生成的ID允许的时间戳超前量(毫秒)，用于容忍客户端时钟偏差
+    private Long maxClientSkewMillis = 300000L;
+}
@@ -0,0 +1,22 @@
+package cn.wind.clear.properties;
+
+import lombok.Data;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.stereotype.Component;
+
+import java.time.Duration;
+
+@Data
+@Component
+@ConfigurationProperties(prefix = "clear.jfr")
+public class JfrProperties {
+    // 是否开启 JFR 事件与录制端点
+    private Boolean enabled = true;
+    // 按需录制使用的 JDK 预置配置: default(开销约 1%) / profile(开销约 2%，含方法采样与锁等待)
+    private String settings = "default";
+    // 未指定时长时的录制时长
+    private Duration defaultDuration = Duration.ofSeconds(60);
+    // 单次录制的最长时长与最大体积，超出时录制停止或丢弃最早的数据
+    private Duration maxDuration = Duration.ofMinutes(10);
+    private Long maxSizeMb = 64L;
+}
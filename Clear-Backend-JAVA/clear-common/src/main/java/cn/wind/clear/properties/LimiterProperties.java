@@ -0,0 +1,29 @@
+package cn.wind.clear.properties;
+
+import lombok.Data;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.stereotype.Component;
+
+import java.util.List;
+
+@Data
+@Component
+@ConfigurationProperties(prefix = "clear.limiter")
+public class LimiterProperties {
+    // 是否开启准入控制
+    private Boolean enabled = true;
+    // 受控的访问数据库的路径(Servlet url-pattern，不含 context-path)
+    private List<String> urlPatterns = List.of("/todo/*", "/category/*", "/tag/*", "/user/status");
+    // 并发上限的初始值、下限和上限
+    private Integer initialLimit = 20;
+    private Integer minLimit = 4;
+    private Integer maxLimit = 200;
+    // 重新计算上限的间隔
+    private Long windowMillis = 100L;
+    // 重新探测无排队延迟的间隔
+    private Long probeSeconds = 60L;
+    // 每个用户至少可占用的并发数
+    private Integer minPerUser = 2;
+    // 用户计数分片数，取 2 的幂
+    private Integer stripes = 256;
+}
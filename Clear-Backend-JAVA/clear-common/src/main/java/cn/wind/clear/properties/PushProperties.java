@@ -0,0 +1,25 @@
+package cn.wind.clear.properties;
+
+import lombok.Data;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.stereotype.Component;
+
+@Data
+@Component
+@ConfigurationProperties(prefix = "clear.push")
+public class PushProperties {
+    // 事件广播方式: redis(多实例) 或 local(单实例/测试)
+    private String broker = "redis";
+    // Redis 发布订阅频道
+    private String channel = "clear:push:events";
+    // 心跳间隔(秒)
+    private Long heartbeatSeconds = 25L;
+    // 连接超时(分钟)，超时后客户端自动重连
+    private Long timeoutMinutes = 30L;
+    // 单个连接允许积压的最大事件数，超过则断开连接
+    private Integer maxPending = 64;
+    // 单个用户允许的最大连接数
+    private Integer maxConnectionsPerUser = 8;
+    // 发送事件的线程数
+    private Integer dispatchThreads = 2;
+}
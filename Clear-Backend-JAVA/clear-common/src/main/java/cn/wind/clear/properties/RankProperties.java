@@ -0,0 +1,13 @@
+package cn.wind.clear.properties;
+
+import lombok.Data;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.stereotype.Component;
+
+@Data
+@Component
+@ConfigurationProperties(prefix = "clear.rank")
+public class RankProperties {
+    // 新的排序键超过该长度时先重新分配所在列表
+    private Integer maxKeyLength = 32;
+}
@@ -0,0 +1,13 @@
+package cn.wind.clear.properties;
+
+import lombok.Data;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.stereotype.Component;
+
+@Data
+@Component
+@ConfigurationProperties(prefix = "clear.recurrence")
+public class RecurrenceProperties {
+    // 分页查询展开重复待办时允许的最大日期范围(天)
+    private Integer maxWindowDays = 366;
+}
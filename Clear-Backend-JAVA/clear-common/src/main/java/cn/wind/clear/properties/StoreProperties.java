@@ -0,0 +1,13 @@
+package cn.wind.clear.properties;
+
+import lombok.Data;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.stereotype.Component;
+
+@Data
+@Component
+@ConfigurationProperties(prefix = "clear.store")
+public class StoreProperties {
+    // 用户上下文和缓存的存储方式: redis(多实例) 或 local(单实例/嵌入模式)
+    private String type = "redis";
+}
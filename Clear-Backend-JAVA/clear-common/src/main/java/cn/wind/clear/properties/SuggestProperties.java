@@ -0,0 +1,18 @@
+package cn.wind.clear.properties;
+
+import lombok.Data;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.stereotype.Component;
+import org.springframework.util.unit.DataSize;
+
+@Data
+@Component
+@ConfigurationProperties(prefix = "clear.suggest")
+public class SuggestProperties {
+    // 所有用户前缀索引的内存上限，超出后淘汰最久未使用的用户
+    private DataSize memoryBudget = DataSize.ofMegabytes(64);
+    // 默认返回的建议条数
+    private Integer defaultLimit = 10;
+    // 最多返回的建议条数
+    private Integer maxLimit = 50;
+}
@@ -0,0 +1,18 @@
+package cn.wind.clear.properties;
+
+import lombok.Data;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.stereotype.Component;
+import org.springframework.util.unit.DataSize;
+
+@Data
+@Component
+@ConfigurationProperties(prefix = "clear.tag")
+public class TagProperties {
+    // 所有用户标签位图索引的内存上限，超出后淘汰最久未使用的用户
+    private DataSize indexMemoryBudget = DataSize.ofMegabytes(128);
+    // 每个待办最多的标签数
+    private Integer maxTagsPerTodo = 20;
+    // 有关键字或手动排序时，索引结果不超过该数量才作为 id IN 条件，否则改用 todo_tag 子查询
+    private Integer maxInIds = 1000;
+}
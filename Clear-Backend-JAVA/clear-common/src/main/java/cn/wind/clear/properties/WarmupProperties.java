@@ -0,0 +1,23 @@
+package cn.wind.clear.properties;
+
+import lombok.Data;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.stereotype.Component;
+
+import java.time.Duration;
+
+@Data
+@Component
+@ConfigurationProperties(prefix = "clear.warmup")
+public class WarmupProperties {
+    // 是否在就绪前预热
+    private Boolean enabled = true;
+    // 合成请求持续时间，为 0 时只做连接池和元数据预热
+    private Duration duration = Duration.ofSeconds(20);
+    // 并发发送合成请求的线程数
+    private Integer concurrency = 4;
+    // 预热租户的用户ID，只发送查询请求，不产生写入
+    private String userId = "0";
+    // 预热时建立的数据库连接数
+    private Integer poolInitialSize = 5;
+}
@@ -2,6 +2,7 @@ package cn.wind.clear.utils;
 
 import io.jsonwebtoken.Claims;
 import io.jsonwebtoken.JwtBuilder;
+import io.jsonwebtoken.JwtParser;
 import io.jsonwebtoken.Jwts;
 import io.jsonwebtoken.security.Keys;
 
@@ -9,9 +10,13 @@ import javax.crypto.SecretKey;
 import java.nio.charset.StandardCharsets;
 import java.util.Date;
 import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
 
 public class JwtUtil {
 
+    // 解析器线程安全，按密钥缓存，避免每次校验都重新生成密钥和构建解析器
+    private static final Map<String, JwtParser> PARSERS = new ConcurrentHashMap<>();
+
     /**
      * 生成JWT
      *
@@ -44,13 +49,17 @@ public class JwtUtil {
      * @return
      */
     public static Claims parseJWT(String secretKey, String token) {
+        return PARSERS.computeIfAbsent(secretKey, JwtUtil::buildParser)
+                .parseSignedClaims(token)
+                .getPayload();
+    }
+
+    private static JwtParser buildParser(String secretKey) {
         SecretKey key = Keys.hmacShaKeyFor(secretKey.getBytes(StandardCharsets.UTF_8));
 
         return Jwts.parser()
                 .verifyWith(key)
-                .build()
-                .parseSignedClaims(token)
-                .getPayload();
+                .build();
     }
 
 }
@@ -0,0 +1,56 @@
+package cn.wind.clear.utils;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * 键值存储，RedisUtils 通过它读写用户上下文和缓存
+ * <p>
+ * 计数器以字符串(Redis 整数)保存，用户上下文和缓存以二进制保存(cn.wind.clear.codec)
+ */
+public interface KeyValueStore {
+
+    /**
+     * 读取字符串值
+     * @param key 键
+     * @return 值，不存在或已过期时返回null
+     */
+    String get(String key);
+
+    /**
+     * 写入带过期时间的字符串值
+     * @param key 键
+     * @param value 值
+     * @param timeout 过期时间
+     * @param unit 时间单位
+     */
+    void set(String key, String value, long timeout, TimeUnit unit);
+
+    /**
+     * 读取二进制值
+     * @param key 键
+     * @return 值，不存在或已过期时返回null
+     */
+    byte[] getBytes(String key);
+
+    /**
+     * 写入带过期时间的二进制值
+     * @param key 键
+     * @param value 值
+     * @param timeout 过期时间
+     * @param unit 时间单位
+     */
+    void setBytes(String key, byte[] value, long timeout, TimeUnit unit);
+
+    /**
+     * 计数器自增，键不存在时从0开始
+     * @param key 键
+     * @return 自增后的值
+     */
+    Long increment(String key);
+
+    /**
+     * 删除键
+     * @param key 键
+     */
+    void delete(String key);
+}
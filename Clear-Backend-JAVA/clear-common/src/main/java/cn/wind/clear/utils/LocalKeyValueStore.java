@@ -0,0 +1,90 @@
+package cn.wind.clear.utils;
+
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * 进程内键值存储，单实例部署或嵌入模式下代替 Redis
+ * <p>
+ * 过期的键在读取时删除，每写入 {@value #SWEEP_EVERY} 次再整体清理一遍
+ */
+public class LocalKeyValueStore implements KeyValueStore {
+
+    private static final int SWEEP_EVERY = 1024;
+
+    // 不过期
+    private static final long NEVER = Long.MAX_VALUE;
+
+    // value 为 String 或 byte[]
+    private record Entry(Object value, long expiresAt) {
+        boolean expired(long now) {
+            return expiresAt != NEVER && now - expiresAt >= 0;
+        }
+    }
+
+    private final Map<String, Entry> entries = new ConcurrentHashMap<>();
+
+    private final AtomicInteger writes = new AtomicInteger();
+
+    @Override
+    public String get(String key) {
+        return lookup(key) instanceof String value ? value : null;
+    }
+
+    @Override
+    public void set(String key, String value, long timeout, TimeUnit unit) {
+        put(key, value, timeout, unit);
+    }
+
+    @Override
+    public byte[] getBytes(String key) {
+        return lookup(key) instanceof byte[] value ? value : null;
+    }
+
+    @Override
+    public void setBytes(String key, byte[] value, long timeout, TimeUnit unit) {
+        put(key, value, timeout, unit);
+    }
+
+    @Override
+    public Long increment(String key) {
+        long now = System.nanoTime();
+        // 与 Redis INCR 一致: 保留原有的过期时间，键不存在时创建不过期的计数器
+        Entry entry = entries.compute(key, (k, old) -> old == null || old.expired(now)
+                ? new Entry("1", NEVER)
+                : new Entry(String.valueOf(Long.parseLong((String) old.value()) + 1), old.expiresAt()));
+        afterWrite();
+        return Long.parseLong((String) entry.value());
+    }
+
+    @Override
+    public void delete(String key) {
+        entries.remove(key);
+    }
+
+    private Object lookup(String key) {
+        Entry entry = entries.get(key);
+        if (entry == null) {
+            return null;
+        }
+        if (entry.expired(System.nanoTime())) {
+            entries.remove(key, entry);
+            return null;
+        }
+        return entry.value();
+    }
+
+    private void put(String key, Object value, long timeout, TimeUnit unit) {
+        entries.put(key, new Entry(value, System.nanoTime() + unit.toNanos(timeout)));
+        afterWrite();
+    }
+
+    private void afterWrite() {
+        if (writes.incrementAndGet() % SWEEP_EVERY == 0) {
+            long now = System.nanoTime();
+            entries.values().removeIf(entry -> entry.expired(now));
+        }
+    }
+}
@@ -0,0 +1,139 @@
+package cn.wind.clear.utils;
+
+/**
+ * 手动排序键
+ * <p>
+ * 排序键是由 0-9a-z 组成的字符串，按字典序比较即为列表顺序，任意两个键之间总能生成新的键，
+ * 移动一项只需改写这一项的键。键由固定 6 位的整数部分和可选的小数部分组成:
+ * 追加到末尾或插到开头时整数部分加减一个间隔，键长不变；插入两项之间时取整数部分的中点，只有整数部分相邻时
+ * 才在小数部分取中点，键随之变长，超过长度上限时在这次写入中把整个列表改写为等间隔的短键。
+ * 字符集只含数字和小写字母，在大小写不敏感的排序规则下顺序也不变
+ */
+public final class RankKeys {
+
+    private static final String DIGITS = "0123456789abcdefghijklmnopqrstuvwxyz";
+    private static final int BASE = DIGITS.length();
+    // 整数部分的位数与取值范围
+    private static final int HEAD_LENGTH = 6;
+    private static final long HEAD_MAX = 2176782335L;
+    private static final long HEAD_MID = (HEAD_MAX + 1) / 2;
+    // 追加或重新分配后相邻两项整数部分的间隔，可以再连续插入约 10 次而不产生小数部分
+    private static final long SPACING = BASE * BASE;
+    // 与 rank_key 列的长度一致
+    public static final int MAX_LENGTH = 255;
+
+    private RankKeys() {
+    }
+
+    /**
+     * 生成位于两个键之间的键
+     *
+     * @param before 前一项的键，插到开头时为空
+     * @param after 后一项的键，追加到末尾时为空
+     * @return 新的键；两个键不合法、顺序不对或之间已没有空间时返回 null，需先重新分配整个列表
+     */
+    public static String between(String before, String after) {
+        if ((before != null && !isValid(before)) || (after != null && !isValid(after))) {
+            return null;
+        }
+        String key;
+        if (before == null && after == null) {
+            key = head(HEAD_MID);
+        } else if (before == null) {
+            long head = parseHead(after);
+            String fraction = after.substring(HEAD_LENGTH);
+            if (head > 0) {
+                key = head(head - Math.min(SPACING, head));
+            } else if (!fraction.isEmpty()) {
+                key = after.substring(0, HEAD_LENGTH) + midpoint("", fraction);
+            } else {
+                return null;
+            }
+        } else if (after == null) {
+            long head = parseHead(before);
+            key = head < HEAD_MAX
+                    ? head(head + Math.min(SPACING, HEAD_MAX - head))
+                    : before.substring(0, HEAD_LENGTH) + midpoint(before.substring(HEAD_LENGTH), null);
+        } else {
+            if (before.compareTo(after) >= 0) {
+                return null;
+            }
+            long headBefore = parseHead(before);
+            long headAfter = parseHead(after);
+            if (headAfter - headBefore > 1) {
+                key = head(headBefore + (headAfter - headBefore) / 2);
+            } else if (headAfter - headBefore == 1) {
+                key = before.substring(0, HEAD_LENGTH) + midpoint(before.substring(HEAD_LENGTH), null);
+            } else {
+                key = before.substring(0, HEAD_LENGTH)
+                        + midpoint(before.substring(HEAD_LENGTH), after.substring(HEAD_LENGTH));
+            }
+        }
+        return key.length() > MAX_LENGTH ? null : key;
+    }
+
+    /**
+     * 重新分配时第 index 项(共 size 项)的键，以中点为中心等间隔排列
+     */
+    public static String spaced(int index, int size) {
+        long spacing = Math.min(SPACING, HEAD_MAX / (size + 1L));
+        return head(HEAD_MID - size / 2L * spacing + index * spacing);
+    }
+
+    /**
+     * 生成位于两个键之间、不超过指定长度的键
+     *
+     * @param maxLength 键的长度上限
+     * @return 新的键；无法生成或超过长度上限时返回 null，需先重新分配整个列表
+     */
+    public static String between(String before, String after, int maxLength) {
+        String key = between(before, after);
+        return key == null || key.length() > maxLength ? null : key;
+    }
+
+    private static boolean isValid(String key) {
+        if (key.length() < HEAD_LENGTH || (key.length() > HEAD_LENGTH && key.charAt(key.length() - 1) == '0')) {
+            return false;
+        }
+        for (int i = 0; i < key.length(); i++) {
+            if (DIGITS.indexOf(key.charAt(i)) < 0) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    /**
+     * 小数部分的中点，a &lt; b，b 为空表示无穷大；两者都不以 0 结尾，结果也不以 0 结尾
+     */
+    private static String midpoint(String a, String b) {
+        if (b != null) {
+            // 公共前缀原样保留，a 较短时按补 0 比较
+            int n = 0;
+            while (n < b.length() && (n < a.length() ? a.charAt(n) : '0') == b.charAt(n)) {
+                n++;
+            }
+            if (n > 0) {
+                return b.substring(0, n) + midpoint(n < a.length() ? a.substring(n) : "", b.substring(n));
+            }
+        }
+        int digitA = a.isEmpty() ? 0 : DIGITS.indexOf(a.charAt(0));
+        int digitB = b == null ? BASE : DIGITS.indexOf(b.charAt(0));
+        if (digitB - digitA > 1) {
+            return String.valueOf(DIGITS.charAt((digitA + digitB + 1) / 2));
+        }
+        if (b != null && b.length() > 1) {
+            return b.substring(0, 1);
+        }
+        return DIGITS.charAt(digitA) + midpoint(a.isEmpty() ? "" : a.substring(1), null);
+    }
+
+    private static long parseHead(String key) {
+        return Long.parseLong(key.substring(0, HEAD_LENGTH), BASE);
+    }
+
+    private static String head(long value) {
+        String digits = Long.toString(value, BASE);
+        return "0".repeat(HEAD_LENGTH - digits.length()) + digits;
+    }
+}
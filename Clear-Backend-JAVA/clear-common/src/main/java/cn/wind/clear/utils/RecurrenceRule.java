@@ -0,0 +1,215 @@
+package cn.wind.clear.utils;
+
+import cn.wind.clear.constant.MessageConstant;
+import cn.wind.clear.exception.BaseException;
+
+import java.time.DayOfWeek;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.time.YearMonth;
+import java.time.format.DateTimeFormatter;
+import java.time.format.DateTimeParseException;
+import java.time.temporal.ChronoUnit;
+import java.time.temporal.TemporalAdjusters;
+import java.util.ArrayList;
+import java.util.EnumSet;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+/**
+ * 重复规则，RFC 5545 RRULE 的子集: FREQ=DAILY|WEEKLY|MONTHLY|YEARLY;INTERVAL=n;BYDAY=MO,WE(仅 WEEKLY);COUNT=n 或 UNTIL=yyyyMMdd
+ * <p>
+ * 系列的第一次是规则所在的to do本身(截止日期即开始时间)，之后的每一次与开始时间同一时刻。
+ * 按月、按年重复时，开始日期在较短的月份不存在则取该月最后一天。
+ * 每个周期内的次数固定，任意日期范围内的实例都能直接算出，计算量只与范围内的周期数有关，与系列已经重复了多少次无关
+ */
+public final class RecurrenceRule {
+
+    private static final String DAILY = "DAILY";
+    private static final String WEEKLY = "WEEKLY";
+    private static final String MONTHLY = "MONTHLY";
+    private static final String YEARLY = "YEARLY";
+    private static final int MAX_INTERVAL = 999;
+    private static final int MAX_COUNT = 9999;
+    // 与 recurrence 列的长度一致
+    private static final int MAX_LENGTH = 255;
+    private static final DateTimeFormatter UNTIL_FORMAT = DateTimeFormatter.BASIC_ISO_DATE;
+    private static final Map<String, DayOfWeek> DAYS = Map.of("MO", DayOfWeek.MONDAY, "TU", DayOfWeek.TUESDAY,
+            "WE", DayOfWeek.WEDNESDAY, "TH", DayOfWeek.THURSDAY, "FR", DayOfWeek.FRIDAY,
+            "SA", DayOfWeek.SATURDAY, "SU", DayOfWeek.SUNDAY);
+
+    private final String freq;
+    private final int interval;
+    // 按星期排序，只有 WEEKLY 有
+    private final List<DayOfWeek> byDay;
+    private final Integer count;
+    private final LocalDate until;
+
+    private RecurrenceRule(String freq, int interval, List<DayOfWeek> byDay, Integer count, LocalDate until) {
+        this.freq = freq;
+        this.interval = interval;
+        this.byDay = byDay;
+        this.count = count;
+        this.until = until;
+    }
+
+    /**
+     * 解析重复规则
+     *
+     * @throws BaseException 规则不合法
+     */
+    public static RecurrenceRule parse(String rule) {
+        if (rule == null || rule.isBlank() || rule.length() > MAX_LENGTH) {
+            throw new BaseException(MessageConstant.INVALID_RECURRENCE);
+        }
+        Map<String, String> parts = new LinkedHashMap<>();
+        for (String part : rule.trim().split(";")) {
+            int eq = part.indexOf('=');
+            if (eq <= 0 || parts.put(part.substring(0, eq).trim().toUpperCase(), part.substring(eq + 1).trim()) != null) {
+                throw new BaseException(MessageConstant.INVALID_RECURRENCE);
+            }
+        }
+        String freq = parts.remove("FREQ");
+        if (freq == null || !List.of(DAILY, WEEKLY, MONTHLY, YEARLY).contains(freq.toUpperCase())) {
+            throw new BaseException(MessageConstant.INVALID_RECURRENCE);
+        }
+        freq = freq.toUpperCase();
+        int interval = parts.containsKey("INTERVAL") ? parseInt(parts.remove("INTERVAL"), MAX_INTERVAL) : 1;
+        List<DayOfWeek> byDay = List.of();
+        if (parts.containsKey("BYDAY")) {
+            if (!WEEKLY.equals(freq)) {
+                throw new BaseException(MessageConstant.INVALID_RECURRENCE);
+            }
+            Set<DayOfWeek> days = EnumSet.noneOf(DayOfWeek.class);
+            for (String day : parts.remove("BYDAY").split(",")) {
+                DayOfWeek dayOfWeek = DAYS.get(day.trim().toUpperCase());
+                if (dayOfWeek == null || !days.add(dayOfWeek)) {
+                    throw new BaseException(MessageConstant.INVALID_RECURRENCE);
+                }
+            }
+            byDay = List.copyOf(days);
+        }
+        Integer count = parts.containsKey("COUNT") ? parseInt(parts.remove("COUNT"), MAX_COUNT) : null;
+        LocalDate until = null;
+        if (parts.containsKey("UNTIL")) {
+            try {
+                until = LocalDate.parse(parts.remove("UNTIL"), UNTIL_FORMAT);
+            } catch (DateTimeParseException e) {
+                throw new BaseException(MessageConstant.INVALID_RECURRENCE);
+            }
+        }
+        if (!parts.isEmpty() || (count != null && until != null)) {
+            throw new BaseException(MessageConstant.INVALID_RECURRENCE);
+        }
+        return new RecurrenceRule(freq, interval, byDay, count, until);
+    }
+
+    private static int parseInt(String value, int max) {
+        try {
+            int n = Integer.parseInt(value);
+            if (n >= 1 && n <= max) {
+                return n;
+            }
+        } catch (NumberFormatException ignored) {
+        }
+        throw new BaseException(MessageConstant.INVALID_RECURRENCE);
+    }
+
+    /**
+     * 规范化的规则文本，按固定顺序输出，省略默认值
+     */
+    public String format() {
+        StringBuilder sb = new StringBuilder("FREQ=").append(freq);
+        if (interval != 1) {
+            sb.append(";INTERVAL=").append(interval);
+        }
+        if (!byDay.isEmpty()) {
+            sb.append(";BYDAY=");
+            for (int i = 0; i < byDay.size(); i++) {
+                sb.append(i == 0 ? "" : ",").append(byDay.get(i).name(), 0, 2);
+            }
+        }
+        if (count != null) {
+            sb.append(";COUNT=").append(count);
+        }
+        if (until != null) {
+            sb.append(";UNTIL=").append(until.format(UNTIL_FORMAT));
+        }
+        return sb.toString();
+    }
+
+    /**
+     * 开始时间之后、落在 [from, to) 内的各次时间，按时间升序
+     *
+     * @param start 系列的开始时间，即第一次，不包含在结果中
+     */
+    public List<LocalDateTime> occurrences(LocalDateTime start, LocalDateTime from, LocalDateTime to) {
+        List<LocalDateTime> result = new ArrayList<>();
+        LocalDateTime lower = from.isAfter(start) ? from : start;
+        if (!to.isAfter(lower)) {
+            return result;
+        }
+        List<DayOfWeek> days = byDay.isEmpty() ? List.of(start.getDayOfWeek()) : byDay;
+        // 第一周在开始时间之后的次数(含开始时间本身)
+        long firstWeek = 1 + days.stream().filter(day -> day.compareTo(start.getDayOfWeek()) > 0).count();
+        for (long period = firstPeriod(start, lower); ; period += interval) {
+            // 本周期第一个实例是系列的第几次，开始时间为第 0 次
+            long index;
+            if (period == 0) {
+                index = 1;
+            } else if (WEEKLY.equals(freq)) {
+                index = firstWeek + (period / interval - 1) * days.size();
+            } else {
+                index = period / interval;
+            }
+            for (LocalDateTime occurrence : candidates(start, period, days)) {
+                if (!occurrence.isAfter(start)) {
+                    continue;
+                }
+                if ((count != null && index >= count)
+                        || (until != null && occurrence.toLocalDate().isAfter(until))
+                        || !occurrence.isBefore(to)) {
+                    return result;
+                }
+                if (!occurrence.isBefore(from)) {
+                    result.add(occurrence);
+                }
+                index++;
+            }
+        }
+    }
+
+    /**
+     * 包含该时间的周期，向下取整到 INTERVAL 的倍数
+     */
+    private long firstPeriod(LocalDateTime start, LocalDateTime lower) {
+        LocalDate startDate = start.toLocalDate();
+        LocalDate lowerDate = lower.toLocalDate();
+        long periods = switch (freq) {
+            case DAILY -> ChronoUnit.DAYS.between(startDate, lowerDate);
+            case WEEKLY -> ChronoUnit.WEEKS.between(monday(startDate), monday(lowerDate));
+            case MONTHLY -> ChronoUnit.MONTHS.between(YearMonth.from(startDate), YearMonth.from(lowerDate));
+            default -> lowerDate.getYear() - startDate.getYear();
+        };
+        return Math.max(0, periods) / interval * interval;
+    }
+
+    private List<LocalDateTime> candidates(LocalDateTime start, long period, List<DayOfWeek> days) {
+        return switch (freq) {
+            case DAILY -> List.of(start.plusDays(period));
+            case WEEKLY -> {
+                LocalDate week = monday(start.toLocalDate()).plusWeeks(period);
+                yield days.stream().map(day -> week.with(TemporalAdjusters.nextOrSame(day)).atTime(start.toLocalTime())).toList();
+            }
+            // plusMonths 与 plusYears 在日期不存在时取该月最后一天
+            case MONTHLY -> List.of(start.plusMonths(period));
+            default -> List.of(start.plusYears(period));
+        };
+    }
+
+    private static LocalDate monday(LocalDate date) {
+        return date.with(TemporalAdjusters.previousOrSame(DayOfWeek.MONDAY));
+    }
+}
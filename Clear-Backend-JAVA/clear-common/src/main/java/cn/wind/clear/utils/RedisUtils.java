@@ -1,8 +1,12 @@
 package cn.wind.clear.utils;
 
+import cn.wind.clear.codec.BinaryCodec;
+import cn.wind.clear.codec.BinaryCodecs;
+import cn.wind.clear.codec.UserIdCodec;
+import cn.wind.clear.context.RequestIdContext;
+import cn.wind.clear.jfr.RedisCommandEvent;
 import cn.wind.clear.properties.JwtProperties;
 import jakarta.servlet.http.HttpServletRequest;
-import org.springframework.data.redis.core.StringRedisTemplate;
 import org.springframework.stereotype.Component;
 import org.springframework.web.context.request.RequestContextHolder;
 import org.springframework.web.context.request.ServletRequestAttributes;
@@ -11,20 +15,27 @@ import java.util.concurrent.TimeUnit;
 
 /**
  * Redis 工具类
+ * <p>
+ * 读写通过 KeyValueStore 完成，嵌入模式下由进程内存储代替 Redis。
+ * 用户上下文与缓存值以二进制编码(cn.wind.clear.codec)保存，计数器保持 Redis 整数。
+ * 每条命令记录一个 JFR 事件(RedisCommandEvent)，没有进行中的录制时开销可以忽略
  */
 @Component
 public class RedisUtils {
 
-    private static StringRedisTemplate stringRedisTemplate;
+    private static KeyValueStore keyValueStore;
 
     // 用户上下文 ID 在 Redis 中的前缀
     private static final String CONTEXT_KEY_PREFIX = "clear:context:user:";
 
+    // 用户上下文的键包含令牌，JFR 事件中只记录前缀
+    private static final String CONTEXT_KEY_PATTERN = CONTEXT_KEY_PREFIX + "*";
+
     private static JwtProperties jwtProperties;
 
 
-    public RedisUtils(StringRedisTemplate stringRedisTemplate, JwtProperties jwtProperties) {
-        RedisUtils.stringRedisTemplate = stringRedisTemplate;
+    public RedisUtils(KeyValueStore keyValueStore, JwtProperties jwtProperties) {
+        RedisUtils.keyValueStore = keyValueStore;
         RedisUtils.jwtProperties = jwtProperties;
     }
 
@@ -49,7 +60,12 @@ public class RedisUtils {
     public static void setCurrentId(String userId, String token) {
         if (userId != null && token != null) {
             String key = CONTEXT_KEY_PREFIX + token;
-            stringRedisTemplate.opsForValue().set(key, userId, jwtProperties.getTtl(), TimeUnit.MINUTES);
+            RedisCommandEvent event = beginCommand();
+            try {
+                keyValueStore.setBytes(key, BinaryCodecs.encode(UserIdCodec.INSTANCE, userId), jwtProperties.getTtl(), TimeUnit.MINUTES);
+            } finally {
+                endCommand(event, "SET", CONTEXT_KEY_PATTERN);
+            }
         }
     }
 
@@ -61,7 +77,12 @@ public class RedisUtils {
         String token = getCurrentToken();
         if (userId != null && token != null) {
             String key = CONTEXT_KEY_PREFIX + token;
-            stringRedisTemplate.opsForValue().set(key, userId,  jwtProperties.getTtl(), TimeUnit.MINUTES);
+            RedisCommandEvent event = beginCommand();
+            try {
+                keyValueStore.setBytes(key, BinaryCodecs.encode(UserIdCodec.INSTANCE, userId), jwtProperties.getTtl(), TimeUnit.MINUTES);
+            } finally {
+                endCommand(event, "SET", CONTEXT_KEY_PATTERN);
+            }
         }
     }
 
@@ -73,7 +94,12 @@ public class RedisUtils {
     public static String getCurrentId(String token) {
         if (token != null) {
             String key = CONTEXT_KEY_PREFIX + token;
-            return stringRedisTemplate.opsForValue().get(key);
+            RedisCommandEvent event = beginCommand();
+            try {
+                return BinaryCodecs.decode(UserIdCodec.INSTANCE, keyValueStore.getBytes(key));
+            } finally {
+                endCommand(event, "GET", CONTEXT_KEY_PATTERN);
+            }
         }
         return null;
     }
@@ -94,7 +120,12 @@ public class RedisUtils {
     public static void clearCurrentId(String token) {
         if (token != null) {
             String key = CONTEXT_KEY_PREFIX + token;
-            stringRedisTemplate.delete(key);
+            RedisCommandEvent event = beginCommand();
+            try {
+                keyValueStore.delete(key);
+            } finally {
+                endCommand(event, "DEL", CONTEXT_KEY_PATTERN);
+            }
         }
     }
 
@@ -105,7 +136,108 @@ public class RedisUtils {
         String token = getCurrentToken();
         if (token != null) {
             String key = CONTEXT_KEY_PREFIX + token;
-            stringRedisTemplate.delete(key);
+            RedisCommandEvent event = beginCommand();
+            try {
+                keyValueStore.delete(key);
+            } finally {
+                endCommand(event, "DEL", CONTEXT_KEY_PATTERN);
+            }
+        }
+    }
+
+    /**
+     * 读取字符串值
+     * @param key 键
+     * @return 值，不存在时返回null
+     */
+    public static String get(String key) {
+        RedisCommandEvent event = beginCommand();
+        try {
+            return keyValueStore.get(key);
+        } finally {
+            endCommand(event, "GET", key);
+        }
+    }
+
+    /**
+     * 写入带过期时间的字符串值
+     * @param key 键
+     * @param value 值
+     * @param timeout 过期时间
+     * @param unit 时间单位
+     */
+    public static void set(String key, String value, long timeout, TimeUnit unit) {
+        RedisCommandEvent event = beginCommand();
+        try {
+            keyValueStore.set(key, value, timeout, unit);
+        } finally {
+            endCommand(event, "SET", key);
+        }
+    }
+
+    /**
+     * 读取二进制编码的值
+     * @param key 键
+     * @param codec 编解码
+     * @return 值，不存在或不是该类型时返回null
+     */
+    public static <T> T get(String key, BinaryCodec<T> codec) {
+        RedisCommandEvent event = beginCommand();
+        try {
+            return BinaryCodecs.decode(codec, keyValueStore.getBytes(key));
+        } finally {
+            endCommand(event, "GET", key);
+        }
+    }
+
+    /**
+     * 以二进制编码写入带过期时间的值
+     * @param key 键
+     * @param value 值
+     * @param codec 编解码
+     * @param timeout 过期时间
+     * @param unit 时间单位
+     */
+    public static <T> void set(String key, T value, BinaryCodec<T> codec, long timeout, TimeUnit unit) {
+        byte[] bytes = BinaryCodecs.encode(codec, value);
+        RedisCommandEvent event = beginCommand();
+        try {
+            keyValueStore.setBytes(key, bytes, timeout, unit);
+        } finally {
+            endCommand(event, "SET", key);
+        }
+    }
+
+    /**
+     * 计数器自增
+     * @param key 键
+     * @return 自增后的值
+     */
+    public static Long increment(String key) {
+        RedisCommandEvent event = beginCommand();
+        try {
+            return keyValueStore.increment(key);
+        } finally {
+            endCommand(event, "INCR", key);
+        }
+    }
+
+    private static RedisCommandEvent beginCommand() {
+        RedisCommandEvent event = new RedisCommandEvent();
+        event.begin();
+        return event;
+    }
+
+    /**
+     * 结束计时，事件超过阈值且录制进行中时才填充字段并提交
+     */
+    private static void endCommand(RedisCommandEvent event, String command, String key) {
+        event.end();
+        if (event.shouldCommit()) {
+            event.requestId = RequestIdContext.getRequestId();
+            event.command = command;
+            event.key = key;
+            event.commit();
         }
     }
 }
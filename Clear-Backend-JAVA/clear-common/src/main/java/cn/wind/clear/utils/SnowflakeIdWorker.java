@@ -0,0 +1,119 @@
+package cn.wind.clear.utils;
+
+import lombok.extern.slf4j.Slf4j;
+
+/**
+ * 雪花算法ID生成器
+ * <p>
+ * 64位ID = 1位符号 + 41位毫秒时间戳 + 10位工作节点id + 12位序列号，整体随时间递增，
+ * 插入 InnoDB 聚簇索引时总是追加在末尾，避免页分裂
+ */
+@Slf4j
+public class SnowflakeIdWorker {
+
+    // 起始时间 2024-01-01 00:00:00 UTC
+    public static final long EPOCH = 1704067200000L;
+
+    private static final long WORKER_ID_BITS = 10L;
+    private static final long SEQUENCE_BITS = 12L;
+    public static final long MAX_WORKER_ID = ~(-1L << WORKER_ID_BITS);
+    // 客户端生成ID使用的工作节点id(1008-1023)，服务端实例不能使用，两者生成的ID不会重复
+    public static final long MIN_CLIENT_WORKER_ID = 1008L;
+    private static final long WORKER_ID_MASK = MAX_WORKER_ID;
+    private static final long SEQUENCE_MASK = ~(-1L << SEQUENCE_BITS);
+    private static final long WORKER_ID_SHIFT = SEQUENCE_BITS;
+    private static final long TIMESTAMP_SHIFT = SEQUENCE_BITS + WORKER_ID_BITS;
+
+    private final long workerId;
+    private long lastTimestamp = -1L;
+    private long sequence = 0L;
+
+    public SnowflakeIdWorker(long workerId) {
+        if (workerId < 0 || workerId > MAX_WORKER_ID) {
+            throw new IllegalArgumentException("workerId 必须在 0 到 " + MAX_WORKER_ID + " 之间");
+        }
+        this.workerId = workerId;
+    }
+
+    /**
+     * 生成下一个ID
+     * <p>
+     * 时钟回拨时不等待也不报错，继续沿用上一次的时间戳并消耗序列号，序列号用尽后借用下一毫秒，
+     * 保证同一节点生成的ID严格递增
+     *
+     * @return ID
+     */
+    public synchronized long nextId() {
+        long timestamp = System.currentTimeMillis();
+        if (timestamp < lastTimestamp) {
+            if (lastTimestamp - timestamp > 1000) {
+                log.warn("检测到时钟回拨 {} 毫秒", lastTimestamp - timestamp);
+            }
+            timestamp = lastTimestamp;
+        }
+        if (timestamp == lastTimestamp) {
+            sequence = (sequence + 1) & SEQUENCE_MASK;
+            if (sequence == 0) {
+                // 当前毫秒序列号用尽，借用下一毫秒
+                timestamp = lastTimestamp + 1;
+            }
+        } else {
+            sequence = 0L;
+        }
+        lastTimestamp = timestamp;
+        return ((timestamp - EPOCH) << TIMESTAMP_SHIFT) | (workerId << WORKER_ID_SHIFT) | sequence;
+    }
+
+    /**
+     * 解析ID中的时间戳
+     * @param id ID
+     * @return 毫秒时间戳
+     */
+    public static long timestampOf(long id) {
+        return (id >>> TIMESTAMP_SHIFT) + EPOCH;
+    }
+
+    /**
+     * 解析ID中的工作节点id
+     * @param id ID
+     * @return 工作节点id
+     */
+    public static long workerIdOf(long id) {
+        return (id >>> WORKER_ID_SHIFT) & WORKER_ID_MASK;
+    }
+
+    /**
+     * 服务端实例的工作节点id必须小于客户端保留范围
+     * @param workerId 工作节点id
+     * @return 生成器
+     */
+    public static SnowflakeIdWorker forServer(long workerId) {
+        if (workerId >= MIN_CLIENT_WORKER_ID) {
+            throw new IllegalArgumentException("服务端 workerId 必须在 0 到 " + (MIN_CLIENT_WORKER_ID - 1) + " 之间，"
+                    + MIN_CLIENT_WORKER_ID + " 到 " + MAX_WORKER_ID + " 保留给客户端");
+        }
+        return new SnowflakeIdWorker(workerId);
+    }
+
+    /**
+     * 校验ID是否为合法的客户端生成的雪花ID: 工作节点id在客户端保留范围内，时间戳不超过当前时间加允许的超前量
+     * @param id ID字符串
+     * @param maxFutureMillis 允许的时间戳超前量
+     * @return 是否合法
+     */
+    public static boolean isValidClientId(String id, long maxFutureMillis) {
+        if (id == null || id.isEmpty() || id.length() > 19) {
+            return false;
+        }
+        long value;
+        try {
+            value = Long.parseLong(id);
+        } catch (NumberFormatException e) {
+            return false;
+        }
+        if (value <= 0 || workerIdOf(value) < MIN_CLIENT_WORKER_ID) {
+            return false;
+        }
+        return timestampOf(value) <= System.currentTimeMillis() + maxFutureMillis;
+    }
+}
@@ -0,0 +1,139 @@
+package cn.wind.clear.loadtest;
+
+import cn.wind.clear.codec.BinaryCodec;
+import cn.wind.clear.codec.BinaryCodecs;
+import cn.wind.clear.codec.TodoCalendarCodec;
+import cn.wind.clear.codec.UserIdCodec;
+import cn.wind.clear.json.JacksonObjectMapper;
+import cn.wind.clear.utils.SnowflakeIdWorker;
+import cn.wind.clear.vo.TodoCalendarVO;
+import com.fasterxml.jackson.core.type.TypeReference;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import lombok.extern.slf4j.Slf4j;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.ObjectInputStream;
+import java.io.ObjectOutputStream;
+import java.io.UncheckedIOException;
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+
+/**
+ * 缓存值编解码对比
+ * <p>
+ * 对 Redis 中实际保存的两类值(登录上下文的用户ID、月历统计)分别用 JDK 序列化、JSON(与服务端相同的 ObjectMapper)
+ * 和 cn.wind.clear.codec 二进制编码，输出每条的字节数与编码、解码的平均耗时。
+ * 单线程循环计时，先预热同样次数，结果只用于同一台机器上几种格式之间的比较
+ */
+@Slf4j
+public class CodecBenchmark {
+
+    private static final TypeReference<List<TodoCalendarVO>> CALENDAR_TYPE = new TypeReference<>() {
+    };
+
+    private final int iterations;
+    private final int days;
+    private final Random random;
+    private final ObjectMapper objectMapper = new JacksonObjectMapper();
+
+    // 防止编解码结果被优化掉
+    private long sink;
+
+    public CodecBenchmark(Arguments arguments) {
+        this.iterations = arguments.getInt("iterations", 200_000);
+        this.days = arguments.getInt("days", 30);
+        this.random = new Random(arguments.getLong("seed", 42));
+    }
+
+    public void run() {
+        String userId = String.valueOf(new SnowflakeIdWorker(1).nextId());
+        List<TodoCalendarVO> calendar = new ArrayList<>();
+        LocalDate start = LocalDate.now().withDayOfMonth(1);
+        for (int i = 0; i < days; i++) {
+            calendar.add(new TodoCalendarVO(start.plusDays(i), (long) random.nextInt(8), (long) random.nextInt(5)));
+        }
+
+        System.out.printf("%-10s %-8s %8s %12s %12s%n", "value", "format", "bytes", "encode ns", "decode ns");
+        compare("session", userId, String.class, null, UserIdCodec.INSTANCE);
+        compare("calendar", calendar, null, CALENDAR_TYPE, TodoCalendarCodec.INSTANCE);
+        log.debug("sink: {}", sink);
+    }
+
+    private <T> void compare(String name, T value, Class<T> type, TypeReference<T> typeReference, BinaryCodec<T> codec) {
+        measure(name, "jdk", value, this::jdkEncode, this::jdkDecode);
+        measure(name, "json", value, v -> jsonEncode(v), bytes -> jsonDecode(bytes, type, typeReference));
+        measure(name, "binary", value, v -> BinaryCodecs.encode(codec, v), bytes -> BinaryCodecs.decode(codec, bytes));
+    }
+
+    private <T> void measure(String name, String format, T value, Encoder<T> encoder, Decoder<T> decoder) {
+        byte[] bytes = encoder.encode(value);
+        if (!value.equals(decoder.decode(bytes))) {
+            throw new IllegalStateException(format + " 编解码结果不一致: " + name);
+        }
+        double encodeNs = 0;
+        double decodeNs = 0;
+        // 第一轮预热，第二轮计时
+        for (int round = 0; round < 2; round++) {
+            long begin = System.nanoTime();
+            for (int i = 0; i < iterations; i++) {
+                sink += encoder.encode(value).length;
+            }
+            encodeNs = (double) (System.nanoTime() - begin) / iterations;
+            begin = System.nanoTime();
+            for (int i = 0; i < iterations; i++) {
+                sink += decoder.decode(bytes).hashCode();
+            }
+            decodeNs = (double) (System.nanoTime() - begin) / iterations;
+        }
+        System.out.printf("%-10s %-8s %8d %12.0f %12.0f%n", name, format, bytes.length, encodeNs, decodeNs);
+    }
+
+    private byte[] jdkEncode(Object value) {
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+        try (ObjectOutputStream stream = new ObjectOutputStream(out)) {
+            stream.writeObject(value);
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+        return out.toByteArray();
+    }
+
+    @SuppressWarnings("unchecked")
+    private <T> T jdkDecode(byte[] bytes) {
+        try (ObjectInputStream stream = new ObjectInputStream(new ByteArrayInputStream(bytes))) {
+            return (T) stream.readObject();
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        } catch (ClassNotFoundException e) {
+            throw new IllegalStateException(e);
+        }
+    }
+
+    private byte[] jsonEncode(Object value) {
+        try {
+            return objectMapper.writeValueAsBytes(value);
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+
+    private <T> T jsonDecode(byte[] bytes, Class<T> type, TypeReference<T> typeReference) {
+        try {
+            return type != null ? objectMapper.readValue(bytes, type) : objectMapper.readValue(bytes, typeReference);
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+
+    private interface Encoder<T> {
+        byte[] encode(T value);
+    }
+
+    private interface Decoder<T> {
+        T decode(byte[] bytes);
+    }
+}
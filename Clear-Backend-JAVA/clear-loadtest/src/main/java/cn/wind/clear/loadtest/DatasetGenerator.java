@@ -0,0 +1,174 @@
+package cn.wind.clear.loadtest;
+
+import cn.wind.clear.utils.SnowflakeIdWorker;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.util.DigestUtils;
+
+import java.sql.Connection;
+import java.sql.DriverManager;
+import java.sql.PreparedStatement;
+import java.sql.SQLException;
+import java.sql.Timestamp;
+import java.sql.Types;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+
+/**
+ * 测试数据生成器
+ * <p>
+ * 按用户生成分类、标签与待办，分布参照真实使用情况:
+ * 每个用户的待办数量与内容长度都服从对数正态分布(少数重度用户、少数长内容)，
+ * 截止日期分布在过去半年到未来两个月，过期的待办大多已完成，约一成待办没有截止日期。
+ * 表结构需已存在(MySQL 执行 init.sql，嵌入模式由服务端启动时创建)，用户名为 {prefix}{序号}，
+ * 密码统一为 --password，压测驱动按同样的规则登录。
+ * MySQL 连接串建议加 rewriteBatchedStatements=true，批量插入才会合并为多值 INSERT
+ */
+@Slf4j
+public class DatasetGenerator {
+
+    private static final int BATCH_SIZE = 1000;
+
+    private final String jdbcUrl;
+    private final String jdbcUser;
+    private final String jdbcPassword;
+    private final int users;
+    private final String prefix;
+    private final String password;
+    private final double todosMedian;
+    private final int maxTodos;
+    private final Random random;
+    private final SnowflakeIdWorker idWorker;
+
+    private PreparedStatement userInsert;
+    private PreparedStatement categoryInsert;
+    private PreparedStatement tagInsert;
+    private PreparedStatement todoInsert;
+    private PreparedStatement todoTagInsert;
+    private int pending;
+    private long todoCount;
+
+    public DatasetGenerator(Arguments arguments) {
+        this.jdbcUrl = arguments.get("jdbc-url", "jdbc:mysql://127.0.0.1:3306/Clear?rewriteBatchedStatements=true");
+        this.jdbcUser = arguments.get("jdbc-user", "root");
+        this.jdbcPassword = arguments.get("jdbc-password", "");
+        this.users = arguments.getInt("users", 100);
+        this.prefix = arguments.get("user-prefix", "load");
+        this.password = arguments.get("password", "load123456");
+        this.todosMedian = arguments.getInt("todos-median", 200);
+        this.maxTodos = arguments.getInt("max-todos", 5000);
+        this.random = new Random(arguments.getLong("seed", 42));
+        // 与服务端(默认 0 / 512)错开，避免同一毫秒生成相同ID
+        this.idWorker = new SnowflakeIdWorker(arguments.getInt("worker-id", 1022));
+    }
+
+    public void generate() throws SQLException {
+        long start = System.nanoTime();
+        try (Connection connection = DriverManager.getConnection(jdbcUrl, jdbcUser, jdbcPassword)) {
+            connection.setAutoCommit(false);
+            userInsert = connection.prepareStatement("INSERT INTO user (id, username, password, theme) VALUES (?, ?, ?, ?)");
+            categoryInsert = connection.prepareStatement("INSERT INTO category (id, user_id, name) VALUES (?, ?, ?)");
+            tagInsert = connection.prepareStatement("INSERT INTO tag (id, user_id, name) VALUES (?, ?, ?)");
+            todoInsert = connection.prepareStatement("INSERT INTO todo (id, user_id, title, content, status, category_id, due_date, created_at, updated_at) "
+                    + "VALUES (?, ?, ?, ?, ?, ?, ?, ?, ?)");
+            todoTagInsert = connection.prepareStatement("INSERT INTO todo_tag (todo_id, tag_id, user_id) VALUES (?, ?, ?)");
+            String hashed = DigestUtils.md5DigestAsHex(password.getBytes());
+            for (int i = 0; i < users; i++) {
+                generateUser(connection, prefix + i, hashed);
+            }
+            flush(connection);
+        }
+        log.info("生成 {} 个用户、{} 条待办，耗时 {} ms", users, todoCount, (System.nanoTime() - start) / 1_000_000);
+    }
+
+    private void generateUser(Connection connection, String username, String hashed) throws SQLException {
+        long userId = idWorker.nextId();
+        userInsert.setLong(1, userId);
+        userInsert.setString(2, username);
+        userInsert.setString(3, hashed);
+        userInsert.setInt(4, random.nextInt(3));
+        userInsert.addBatch();
+        // 用户必须先于其分类与待办写入(外键)
+        userInsert.executeBatch();
+
+        // 默认分类 + 几何分布的自定义分类
+        List<Long> categories = new ArrayList<>();
+        categories.add(addCategory(userId, "默认"));
+        for (int i = 0; i < 6 && random.nextDouble() < 0.6; i++) {
+            categories.add(addCategory(userId, Vocabulary.word(random) + i));
+        }
+        categoryInsert.executeBatch();
+        List<Long> tags = new ArrayList<>();
+        for (int i = 0, n = random.nextInt(8); i < n; i++) {
+            long tagId = idWorker.nextId();
+            tagInsert.setLong(1, tagId);
+            tagInsert.setLong(2, userId);
+            tagInsert.setString(3, "tag" + i);
+            tagInsert.addBatch();
+            tags.add(tagId);
+        }
+        tagInsert.executeBatch();
+
+        LocalDateTime now = LocalDateTime.now();
+        int todos = Vocabulary.logNormal(random, todosMedian, 1.0, 1, maxTodos);
+        for (int i = 0; i < todos; i++) {
+            long todoId = idWorker.nextId();
+            LocalDateTime dueDate = random.nextDouble() < 0.1 ? null
+                    : now.plusMinutes(random.nextInt(240 * 24 * 60) - 180L * 24 * 60).withSecond(0).withNano(0);
+            boolean overdue = dueDate != null && dueDate.isBefore(now);
+            boolean done = random.nextDouble() < (overdue ? 0.8 : 0.15);
+            LocalDateTime createdAt = (dueDate == null || overdue ? now : dueDate).minusDays(1 + random.nextInt(30));
+            todoInsert.setLong(1, todoId);
+            todoInsert.setLong(2, userId);
+            todoInsert.setString(3, Vocabulary.text(random, Vocabulary.logNormal(random, 20, 0.5, 3, 120)));
+            todoInsert.setString(4, Vocabulary.text(random, Vocabulary.logNormal(random, 80, 1.2, 1, 4000)));
+            todoInsert.setInt(5, done ? 1 : 0);
+            // 约四分之一的待办在默认分类之外
+            todoInsert.setLong(6, random.nextDouble() < 0.75 ? categories.get(0) : categories.get(random.nextInt(categories.size())));
+            if (dueDate == null) {
+                todoInsert.setNull(7, Types.TIMESTAMP);
+            } else {
+                todoInsert.setTimestamp(7, Timestamp.valueOf(dueDate));
+            }
+            todoInsert.setTimestamp(8, Timestamp.valueOf(createdAt));
+            todoInsert.setTimestamp(9, Timestamp.valueOf(done && overdue ? dueDate : createdAt));
+            todoInsert.addBatch();
+            if (!tags.isEmpty() && random.nextDouble() < 0.3) {
+                int first = random.nextInt(tags.size());
+                addTodoTag(todoId, tags.get(first), userId);
+                int second = random.nextInt(tags.size());
+                if (second != first && random.nextBoolean()) {
+                    addTodoTag(todoId, tags.get(second), userId);
+                }
+            }
+            todoCount++;
+            if (++pending >= BATCH_SIZE) {
+                flush(connection);
+            }
+        }
+    }
+
+    private long addCategory(long userId, String name) throws SQLException {
+        long categoryId = idWorker.nextId();
+        categoryInsert.setLong(1, categoryId);
+        categoryInsert.setLong(2, userId);
+        categoryInsert.setString(3, name);
+        categoryInsert.addBatch();
+        return categoryId;
+    }
+
+    private void addTodoTag(long todoId, long tagId, long userId) throws SQLException {
+        todoTagInsert.setLong(1, todoId);
+        todoTagInsert.setLong(2, tagId);
+        todoTagInsert.setLong(3, userId);
+        todoTagInsert.addBatch();
+    }
+
+    private void flush(Connection connection) throws SQLException {
+        todoInsert.executeBatch();
+        todoTagInsert.executeBatch();
+        connection.commit();
+        pending = 0;
+    }
+}
@@ -0,0 +1,166 @@
+package cn.wind.clear.loadtest;
+
+import cn.wind.clear.json.JacksonObjectMapper;
+import cn.wind.clear.result.PageResult;
+import cn.wind.clear.result.Result;
+import cn.wind.clear.vo.TodoVO;
+import com.fasterxml.jackson.core.JsonFactory;
+import com.fasterxml.jackson.core.type.TypeReference;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.module.SimpleModule;
+import com.fasterxml.jackson.databind.ser.impl.SimpleFilterProvider;
+import com.fasterxml.jackson.datatype.jsr310.deser.LocalDateDeserializer;
+import com.fasterxml.jackson.datatype.jsr310.deser.LocalDateTimeDeserializer;
+import com.fasterxml.jackson.datatype.jsr310.ser.LocalDateSerializer;
+import com.fasterxml.jackson.datatype.jsr310.ser.LocalDateTimeSerializer;
+import com.fasterxml.jackson.dataformat.cbor.CBORFactory;
+import com.fasterxml.jackson.dataformat.smile.SmileFactory;
+import lombok.extern.slf4j.Slf4j;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.time.format.DateTimeFormatter;
+import java.time.temporal.ChronoUnit;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Random;
+
+import static com.fasterxml.jackson.databind.DeserializationFeature.FAIL_ON_UNKNOWN_PROPERTIES;
+
+/**
+ * 接口响应 JSON 序列化对比
+ * <p>
+ * 以分页查询的响应 Result&lt;PageResult&lt;TodoVO&gt;&gt; 为样本，对比服务端的 JacksonObjectMapper 与只保留同样日期格式的
+ * 基准 ObjectMapper(反射访问属性、DateTimeFormatter 格式化日期、不预热序列化器)，JSON、Smile 与 CBOR 各一组，
+ * 输出每个响应的字节数与编码、解码的平均耗时，并校验两者输出的字节完全一致。
+ * 单线程循环计时，先预热同样次数，结果只用于同一台机器上几种配置之间的比较
+ */
+@Slf4j
+public class JsonBenchmark {
+
+    private static final TypeReference<Result<PageResult<TodoVO>>> PAGE_TYPE = new TypeReference<>() {
+    };
+
+    private final int iterations;
+    private final int rows;
+    private final Random random;
+
+    // 防止编解码结果被优化掉
+    private long sink;
+
+    public JsonBenchmark(Arguments arguments) {
+        this.iterations = arguments.getInt("iterations", 20_000);
+        this.rows = arguments.getInt("rows", 100);
+        this.random = new Random(arguments.getLong("seed", 42));
+    }
+
+    public void run() {
+        Result<PageResult<TodoVO>> page = Result.success(new PageResult<>((long) rows * 3, (long) rows, 1L, todos()));
+
+        System.out.printf("%-8s %-6s %8s %12s %12s%n", "format", "mapper", "bytes", "encode ns", "decode ns");
+        compare("json", page, baselineMapper(null), tunedMapper(null));
+        compare("smile", page, baselineMapper(new SmileFactory()), tunedMapper(new SmileFactory()));
+        compare("cbor", page, baselineMapper(new CBORFactory()), tunedMapper(new CBORFactory()));
+        log.debug("sink: {}", sink);
+    }
+
+    private List<TodoVO> todos() {
+        LocalDateTime now = LocalDateTime.now().truncatedTo(ChronoUnit.MINUTES);
+        List<TodoVO> todos = new ArrayList<>(rows);
+        for (int i = 0; i < rows; i++) {
+            LocalDateTime createdAt = now.minusMinutes(random.nextInt(60 * 24 * 90));
+            boolean recurring = random.nextInt(10) == 0;
+            todos.add(TodoVO.builder()
+                    .id(String.valueOf(1_800_000_000_000_000_000L + random.nextInt(Integer.MAX_VALUE)))
+                    .title("待办事项 " + i)
+                    .content(random.nextBoolean() ? "content of todo " + i + " with some longer text" : null)
+                    .status(random.nextInt(2))
+                    .categoryId(String.valueOf(1_800_000_000_000_000_000L + random.nextInt(1000)))
+                    .categoryName("分类 " + random.nextInt(10))
+                    .dueDate(random.nextBoolean() ? createdAt.plusDays(random.nextInt(30)) : null)
+                    .createdAt(createdAt)
+                    .updatedAt(createdAt.plusMinutes(random.nextInt(600)))
+                    .version(random.nextInt(5))
+                    .tagIds(Arrays.asList(String.valueOf(random.nextInt(1000)), String.valueOf(random.nextInt(1000))))
+                    .recurrence(recurring ? "FREQ=WEEKLY;BYDAY=MO" : null)
+                    .seriesId(recurring ? String.valueOf(random.nextInt(Integer.MAX_VALUE)) : null)
+                    .occurrenceDate(recurring ? createdAt.toLocalDate() : null)
+                    .build());
+        }
+        return todos;
+    }
+
+    /**
+     * 只保留与服务端相同的日期格式、未知属性和过滤器配置
+     */
+    private ObjectMapper baselineMapper(JsonFactory jsonFactory) {
+        ObjectMapper objectMapper = new ObjectMapper(jsonFactory);
+        objectMapper.configure(FAIL_ON_UNKNOWN_PROPERTIES, false);
+        DateTimeFormatter dateTime = DateTimeFormatter.ofPattern(JacksonObjectMapper.DEFAULT_DATE_TIME_FORMAT);
+        DateTimeFormatter date = DateTimeFormatter.ofPattern(JacksonObjectMapper.DEFAULT_DATE_FORMAT);
+        objectMapper.registerModule(new SimpleModule()
+                .addDeserializer(LocalDateTime.class, new LocalDateTimeDeserializer(dateTime))
+                .addDeserializer(LocalDate.class, new LocalDateDeserializer(date))
+                .addSerializer(LocalDateTime.class, new LocalDateTimeSerializer(dateTime))
+                .addSerializer(LocalDate.class, new LocalDateSerializer(date)));
+        objectMapper.setFilterProvider(new SimpleFilterProvider().setFailOnUnknownId(false));
+        return objectMapper;
+    }
+
+    private ObjectMapper tunedMapper(JsonFactory jsonFactory) {
+        JacksonObjectMapper objectMapper = new JacksonObjectMapper(jsonFactory);
+        objectMapper.prefetchSerializers(Result.class, PageResult.class, TodoVO.class);
+        return objectMapper;
+    }
+
+    private void compare(String format, Result<PageResult<TodoVO>> value, ObjectMapper baseline, ObjectMapper tuned) {
+        byte[] expected = encode(baseline, value);
+        if (!Arrays.equals(expected, encode(tuned, value))) {
+            throw new IllegalStateException(format + " 两种配置的输出不一致");
+        }
+        measure(format, "base", value, baseline);
+        measure(format, "tuned", value, tuned);
+    }
+
+    private void measure(String format, String mapper, Result<PageResult<TodoVO>> value, ObjectMapper objectMapper) {
+        byte[] bytes = encode(objectMapper, value);
+        if (!value.equals(decode(objectMapper, bytes))) {
+            throw new IllegalStateException(format + " 编解码结果不一致: " + mapper);
+        }
+        double encodeNs = 0;
+        double decodeNs = 0;
+        // 第一轮预热，第二轮计时
+        for (int round = 0; round < 2; round++) {
+            long begin = System.nanoTime();
+            for (int i = 0; i < iterations; i++) {
+                sink += encode(objectMapper, value).length;
+            }
+            encodeNs = (double) (System.nanoTime() - begin) / iterations;
+            begin = System.nanoTime();
+            for (int i = 0; i < iterations; i++) {
+                sink += decode(objectMapper, bytes).hashCode();
+            }
+            decodeNs = (double) (System.nanoTime() - begin) / iterations;
+        }
+        System.out.printf("%-8s %-6s %8d %12.0f %12.0f%n", format, mapper, bytes.length, encodeNs, decodeNs);
+    }
+
+    private byte[] encode(ObjectMapper objectMapper, Object value) {
+        try {
+            return objectMapper.writeValueAsBytes(value);
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+
+    private Result<PageResult<TodoVO>> decode(ObjectMapper objectMapper, byte[] bytes) {
+        try {
+            return objectMapper.readValue(bytes, PAGE_TYPE);
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+}
@@ -0,0 +1,54 @@
+package cn.wind.clear.loadtest;
+
+import java.util.Arrays;
+
+/**
+ * 单个请求类型的延迟与结果统计，延迟从计划发送时间算起(开环压测，排队时间计入延迟)
+ */
+public class LatencyRecorder {
+
+    private long[] latencies = new long[1024];
+    private int count;
+    private long errors;
+
+    public synchronized void success(long latencyNanos) {
+        if (count == latencies.length) {
+            latencies = Arrays.copyOf(latencies, count * 2);
+        }
+        latencies[count++] = latencyNanos;
+    }
+
+    public synchronized void error() {
+        errors++;
+    }
+
+    public synchronized long requests() {
+        return count + errors;
+    }
+
+    public synchronized long errors() {
+        return errors;
+    }
+
+    /**
+     * 成功请求延迟的分位数，单位毫秒
+     */
+    public synchronized double percentile(double quantile) {
+        if (count == 0) {
+            return 0;
+        }
+        long[] sorted = Arrays.copyOf(latencies, count);
+        Arrays.sort(sorted);
+        int index = (int) Math.min(count - 1, Math.ceil(quantile * count) - 1);
+        return sorted[Math.max(0, index)] / 1e6;
+    }
+
+    public synchronized void merge(LatencyRecorder other) {
+        synchronized (other) {
+            for (int i = 0; i < other.count; i++) {
+                success(other.latencies[i]);
+            }
+            errors += other.errors;
+        }
+    }
+}
@@ -0,0 +1,353 @@
+package cn.wind.clear.loadtest;
+
+import cn.wind.clear.utils.SnowflakeIdWorker;
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.SerializationFeature;
+import lombok.extern.slf4j.Slf4j;
+
+import java.io.IOException;
+import java.net.URI;
+import java.net.URLEncoder;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.Duration;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.time.format.DateTimeFormatter;
+import java.util.ArrayList;
+import java.util.EnumMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentLinkedDeque;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.locks.LockSupport;
+
+/**
+ * 压测驱动
+ * <p>
+ * 开环模型: 按 --rps 固定间隔计划发送时间，不等待上一个请求返回，延迟从计划发送时间算起，
+ * 服务端变慢时排队时间计入延迟，避免闭环压测的协同遗漏(coordinated omission)。
+ * 同时在途请求超过 --max-in-flight 时直接记为错误，不再继续堆积。
+ * 成功的判定: HTTP 200 且 Result.code == 1。预热阶段(--warmup)的请求不计入统计
+ */
+@Slf4j
+public class LoadDriver {
+
+    private static final DateTimeFormatter DATE_TIME = DateTimeFormatter.ofPattern("yyyy-MM-dd HH:mm:ss");
+    private static final String[] PAGE_FIELDS = {"title,status,dueDate", "title,categoryName", ""};
+
+    private final URI baseUri;
+    private final String tokenName;
+    private final int users;
+    private final String prefix;
+    private final String password;
+    private final int rps;
+    private final Duration duration;
+    private final Duration warmup;
+    private final Map<Operation, Integer> mix;
+    private final int maxInFlight;
+    private final String output;
+
+    private final ObjectMapper objectMapper = new ObjectMapper();
+    private final SnowflakeIdWorker idWorker;
+    private final HttpClient client;
+    private final Map<Operation, LatencyRecorder> recorders = new EnumMap<>(Operation.class);
+    private final List<Session> sessions = new ArrayList<>();
+    private final Operation[] wheel;
+
+    public LoadDriver(Arguments arguments) {
+        this.baseUri = URI.create(arguments.get("base-url", "http://127.0.0.1:8888/api") + "/");
+        this.tokenName = arguments.get("token-name", System.getenv().getOrDefault("TOKEN_NAME", "token"));
+        this.users = arguments.getInt("users", 100);
+        this.prefix = arguments.get("user-prefix", "load");
+        this.password = arguments.get("password", "load123456");
+        this.rps = arguments.getInt("rps", 100);
+        this.duration = arguments.getDuration("duration", Duration.ofSeconds(60));
+        this.warmup = arguments.getDuration("warmup", Duration.ofSeconds(10));
+        this.mix = Operation.parseMix(arguments.get("mix", null));
+        this.maxInFlight = arguments.getInt("max-in-flight", 1000);
+        this.output = arguments.get("output", null);
+        this.idWorker = new SnowflakeIdWorker(arguments.getInt("worker-id", 1023));
+        this.client = HttpClient.newBuilder()
+                .executor(Executors.newFixedThreadPool(arguments.getInt("client-threads", 4)))
+                .connectTimeout(Duration.ofSeconds(5))
+                .build();
+        for (Operation operation : Operation.values()) {
+            recorders.put(operation, new LatencyRecorder());
+        }
+        // 按权重展开，按均匀随机下标抽取请求类型
+        List<Operation> expanded = new ArrayList<>();
+        mix.forEach((operation, weight) -> {
+            for (int i = 0; i < weight; i++) {
+                expanded.add(operation);
+            }
+        });
+        if (expanded.isEmpty()) {
+            throw new IllegalArgumentException("--mix 的权重之和必须大于 0");
+        }
+        this.wheel = expanded.toArray(Operation[]::new);
+    }
+
+    public void run() throws Exception {
+        prepareSessions();
+        log.info("{} 个会话就绪，预热 {}s，压测 {}s，目标 {} req/s", sessions.size(), warmup.toSeconds(), duration.toSeconds(), rps);
+
+        Semaphore inFlight = new Semaphore(maxInFlight);
+        long intervalNanos = TimeUnit.SECONDS.toNanos(1) / rps;
+        long start = System.nanoTime();
+        long measureStart = start + warmup.toNanos();
+        long end = measureStart + duration.toNanos();
+        for (long i = 0; ; i++) {
+            long intended = start + i * intervalNanos;
+            if (intended >= end) {
+                break;
+            }
+            long wait = intended - System.nanoTime();
+            if (wait > 0) {
+                LockSupport.parkNanos(wait);
+            }
+            ThreadLocalRandom random = ThreadLocalRandom.current();
+            Operation operation = wheel[random.nextInt(wheel.length)];
+            Session session = sessions.get(random.nextInt(sessions.size()));
+            LatencyRecorder recorder = intended >= measureStart ? recorders.get(operation) : null;
+            if (!inFlight.tryAcquire()) {
+                if (recorder != null) {
+                    recorder.error();
+                }
+                continue;
+            }
+            send(operation, session).whenComplete((ok, e) -> {
+                inFlight.release();
+                if (recorder == null) {
+                    return;
+                }
+                if (e == null && ok) {
+                    recorder.success(System.nanoTime() - intended);
+                } else {
+                    recorder.error();
+                }
+            });
+        }
+        // 等待在途请求结束，超时未返回的不计入
+        inFlight.tryAcquire(maxInFlight, 30, TimeUnit.SECONDS);
+        report(Duration.ofNanos(end - measureStart));
+        System.exit(0);
+    }
+
+    /**
+     * 登录全部测试用户，并记录各自的分类与部分待办ID，供筛选、更新与删除使用
+     */
+    private void prepareSessions() throws Exception {
+        for (int i = 0; i < users; i++) {
+            Session session = new Session(prefix + i);
+            JsonNode login = call(loginRequest(session)).join();
+            if (login == null || login.path("code").asInt() != 1) {
+                log.warn("用户 {} 登录失败，跳过", session.username);
+                continue;
+            }
+            session.token = login.path("data").path("tk").asText();
+            JsonNode categories = call(authorized(session, "category/categories").GET().build()).join();
+            if (categories != null) {
+                categories.path("data").forEach(category -> session.categoryIds.add(category.path("categoryId").asText()));
+            }
+            JsonNode page = call(authorized(session, "todo/page?page=1&pageSize=50&fields=title").GET().build()).join();
+            if (page != null) {
+                page.path("data").path("records").forEach(todo -> session.todoIds.add(todo.path("id").asText()));
+            }
+            sessions.add(session);
+        }
+        if (sessions.isEmpty()) {
+            throw new IllegalStateException("没有可用的测试用户，请先执行 generate");
+        }
+    }
+
+    private CompletableFuture<Boolean> send(Operation operation, Session session) {
+        ThreadLocalRandom random = ThreadLocalRandom.current();
+        return switch (operation) {
+            case LOGIN -> succeeded(call(loginRequest(session)));
+            case PAGE -> succeeded(call(authorized(session, "todo/page?" + pageQuery(session, random)).GET().build()));
+            case SEARCH -> succeeded(call(authorized(session, "todo/page?page=1&pageSize=20&keyword="
+                    + URLEncoder.encode(Vocabulary.word(random), StandardCharsets.UTF_8)).GET().build()));
+            case ADD -> {
+                String id = String.valueOf(idWorker.nextId());
+                Map<String, Object> body = new LinkedHashMap<>();
+                body.put("id", id);
+                body.put("title", Vocabulary.text(random, Vocabulary.logNormal(random, 20, 0.5, 3, 120)));
+                body.put("content", Vocabulary.text(random, Vocabulary.logNormal(random, 80, 1.2, 1, 4000)));
+                body.put("dueDate", LocalDateTime.now().plusDays(1 + random.nextInt(60)).format(DATE_TIME));
+                body.put("categoryId", session.randomCategory(random));
+                yield succeeded(call(authorized(session, "todo/addTodo").POST(json(body)).build()))
+                        .thenApply(ok -> {
+                            if (ok) {
+                                session.todoIds.add(id);
+                            }
+                            return ok;
+                        });
+            }
+            case UPDATE -> {
+                String id = session.todoIds.peekLast();
+                if (id == null) {
+                    yield send(Operation.PAGE, session);
+                }
+                Map<String, Object> body = new LinkedHashMap<>();
+                body.put("id", id);
+                body.put("status", random.nextInt(2));
+                body.put("content", Vocabulary.text(random, Vocabulary.logNormal(random, 80, 1.2, 1, 4000)));
+                yield succeeded(call(authorized(session, "todo/updateTodo").PUT(json(body)).build()));
+            }
+            case DELETE -> {
+                String id = session.todoIds.pollFirst();
+                if (id == null) {
+                    yield send(Operation.PAGE, session);
+                }
+                yield succeeded(call(authorized(session, "todo/deleteTodo/" + id).DELETE().build()));
+            }
+            case STATUS -> succeeded(call(authorized(session, "user/status").GET().build()));
+        };
+    }
+
+    private String pageQuery(Session session, ThreadLocalRandom random) {
+        StringBuilder query = new StringBuilder("page=").append(1 + random.nextInt(3))
+                .append("&pageSize=").append(random.nextBoolean() ? 10 : 20);
+        if (random.nextInt(3) == 0) {
+            query.append("&status=").append(random.nextInt(2));
+        }
+        if (random.nextInt(4) == 0) {
+            query.append("&categoryId=").append(session.randomCategory(random));
+        }
+        if (random.nextInt(4) == 0) {
+            LocalDate from = LocalDate.now().plusDays(random.nextInt(90) - 60);
+            query.append("&startDate=").append(from).append("&endDate=").append(from.plusDays(7 + random.nextInt(30)));
+        }
+        String fields = PAGE_FIELDS[random.nextInt(PAGE_FIELDS.length)];
+        if (!fields.isEmpty()) {
+            query.append("&fields=").append(fields);
+        }
+        return query.toString();
+    }
+
+    private HttpRequest loginRequest(Session session) {
+        return HttpRequest.newBuilder(baseUri.resolve("user/login"))
+                .header("Content-Type", "application/json")
+                .POST(json(Map.of("username", session.username, "password", password)))
+                .build();
+    }
+
+    private HttpRequest.Builder authorized(Session session, String path) {
+        return HttpRequest.newBuilder(baseUri.resolve(path))
+                .header(tokenName, "Bearer " + session.token)
+                .header("Content-Type", "application/json")
+                .timeout(Duration.ofSeconds(30));
+    }
+
+    private HttpRequest.BodyPublisher json(Object body) {
+        try {
+            return HttpRequest.BodyPublishers.ofByteArray(objectMapper.writeValueAsBytes(body));
+        } catch (IOException e) {
+            throw new IllegalArgumentException(e);
+        }
+    }
+
+    /**
+     * 发送请求，HTTP 状态码不是 200 或响应无法解析时返回 null
+     */
+    private CompletableFuture<JsonNode> call(HttpRequest request) {
+        return client.sendAsync(request, HttpResponse.BodyHandlers.ofByteArray())
+                .thenApply(response -> {
+                    if (response.statusCode() != 200) {
+                        return null;
+                    }
+                    try {
+                        return objectMapper.readTree(response.body());
+                    } catch (IOException e) {
+                        return null;
+                    }
+                })
+                .exceptionally(e -> null);
+    }
+
+    private static CompletableFuture<Boolean> succeeded(CompletableFuture<JsonNode> response) {
+        return response.thenApply(body -> body != null && body.path("code").asInt() == 1);
+    }
+
+    private void report(Duration measured) throws IOException {
+        double seconds = measured.toNanos() / 1e9;
+        LatencyRecorder total = new LatencyRecorder();
+        Map<String, Object> operations = new LinkedHashMap<>();
+        for (Operation operation : Operation.values()) {
+            LatencyRecorder recorder = recorders.get(operation);
+            if (recorder.requests() == 0) {
+                continue;
+            }
+            total.merge(recorder);
+            operations.put(operation.key(), summary(recorder, seconds));
+        }
+        Map<String, Object> config = new LinkedHashMap<>();
+        config.put("baseUrl", baseUri.toString());
+        config.put("users", sessions.size());
+        config.put("targetRps", rps);
+        config.put("durationSeconds", duration.toSeconds());
+        config.put("warmupSeconds", warmup.toSeconds());
+        config.put("maxInFlight", maxInFlight);
+        Map<String, Integer> weights = new LinkedHashMap<>();
+        mix.forEach((operation, weight) -> weights.put(operation.key(), weight));
+        config.put("mix", weights);
+
+        Map<String, Object> result = new LinkedHashMap<>();
+        result.put("config", config);
+        result.put("total", summary(total, seconds));
+        result.put("operations", operations);
+        String json = objectMapper.writer().with(SerializationFeature.INDENT_OUTPUT).writeValueAsString(result);
+        if (output != null) {
+            Files.writeString(Path.of(output), json);
+        }
+        System.out.println(json);
+    }
+
+    private static Map<String, Object> summary(LatencyRecorder recorder, double seconds) {
+        Map<String, Object> summary = new LinkedHashMap<>();
+        long requests = recorder.requests();
+        summary.put("requests", requests);
+        summary.put("throughput", round((requests - recorder.errors()) / seconds));
+        summary.put("errors", recorder.errors());
+        summary.put("errorRate", requests == 0 ? 0 : round((double) recorder.errors() / requests));
+        summary.put("p50Ms", round(recorder.percentile(0.5)));
+        summary.put("p99Ms", round(recorder.percentile(0.99)));
+        summary.put("p999Ms", round(recorder.percentile(0.999)));
+        return summary;
+    }
+
+    private static double round(double value) {
+        return Math.round(value * 1000) / 1000.0;
+    }
+
+    /**
+     * 一个已登录的测试用户
+     */
+    private static class Session {
+
+        private final String username;
+        private final List<String> categoryIds = new ArrayList<>();
+        // 新增的待办追加在末尾，删除从头部取，更新取最近新增的
+        private final ConcurrentLinkedDeque<String> todoIds = new ConcurrentLinkedDeque<>();
+        private volatile String token;
+
+        private Session(String username) {
+            this.username = username;
+        }
+
+        private String randomCategory(ThreadLocalRandom random) {
+            return categoryIds.isEmpty() ? null : categoryIds.get(random.nextInt(categoryIds.size()));
+        }
+    }
+}
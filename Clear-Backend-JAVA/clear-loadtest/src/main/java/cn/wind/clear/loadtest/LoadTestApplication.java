@@ -0,0 +1,46 @@
+package cn.wind.clear.loadtest;
+
+import lombok.extern.slf4j.Slf4j;
+
+/**
+ * 压测工具入口
+ * <p>
+ * generate: 向数据库批量写入测试用户和数据，服务端需处于停止状态(嵌入模式的 H2 文件独占)或使用 MySQL<br>
+ * run: 以固定到达速率向运行中的服务端发送混合请求，结果以 JSON 输出<br>
+ * codec: 对比 Redis 缓存值在 JDK 序列化、JSON 与二进制编码下的大小和编解码耗时<br>
+ * json: 对比分页响应在服务端 ObjectMapper 与基准配置下的 JSON/Smile 大小和编解码耗时
+ * <pre>
+ * java -jar clear-loadtest-1.0.0.jar generate --jdbc-url=... --users=200
+ * java -jar clear-loadtest-1.0.0.jar run --base-url=http://127.0.0.1:8888/api --rps=200 --duration=60 --output=result.json
+ * java -jar clear-loadtest-1.0.0.jar codec --iterations=200000
+ * java -jar clear-loadtest-1.0.0.jar json --iterations=20000 --rows=100
+ * </pre>
+ */
+@Slf4j
+public class LoadTestApplication {
+
+    public static void main(String[] args) throws Exception {
+        if (args.length == 0) {
+            usage();
+            return;
+        }
+        Arguments arguments = Arguments.parse(args);
+        switch (args[0]) {
+            case "generate" -> new DatasetGenerator(arguments).generate();
+            case "run" -> new LoadDriver(arguments).run();
+            case "codec" -> new CodecBenchmark(arguments).run();
+            case "json" -> new JsonBenchmark(arguments).run();
+            default -> usage();
+        }
+    }
+
+    private static void usage() {
+        System.err.println("""
+                usage: clear-loadtest generate|run|codec|json [--option=value ...]
+                  generate  --jdbc-url --jdbc-user --jdbc-password --users --todos-median --seed
+                  run       --base-url --token-name --users --rps --duration --warmup --mix --max-in-flight --output
+                  codec     --iterations --days --seed
+                  json      --iterations --rows --seed""");
+        System.exit(2);
+    }
+}
@@ -0,0 +1,46 @@
+package cn.wind.clear.loadtest;
+
+import java.util.EnumMap;
+import java.util.Map;
+
+/**
+ * 压测回放的请求类型与默认权重
+ */
+public enum Operation {
+
+    LOGIN(5),
+    PAGE(45),
+    SEARCH(10),
+    ADD(15),
+    UPDATE(10),
+    DELETE(5),
+    STATUS(10);
+
+    private final int defaultWeight;
+
+    Operation(int defaultWeight) {
+        this.defaultWeight = defaultWeight;
+    }
+
+    /**
+     * 解析请求比例，格式 page=50,add=20，未列出的类型权重为 0；为空时使用默认权重
+     */
+    public static Map<Operation, Integer> parseMix(String mix) {
+        Map<Operation, Integer> weights = new EnumMap<>(Operation.class);
+        if (mix == null || mix.isBlank()) {
+            for (Operation operation : values()) {
+                weights.put(operation, operation.defaultWeight);
+            }
+            return weights;
+        }
+        for (String entry : mix.split(",")) {
+            String[] pair = entry.split("=");
+            weights.put(valueOf(pair[0].trim().toUpperCase()), Integer.parseInt(pair[1].trim()));
+        }
+        return weights;
+    }
+
+    public String key() {
+        return name().toLowerCase();
+    }
+}
@@ -0,0 +1,45 @@
+package cn.wind.clear.loadtest;
+
+import java.util.Random;
+
+/**
+ * 生成标题与内容的词表，压测驱动的关键字搜索从同一词表取词，保证搜索能命中生成的数据
+ */
+public final class Vocabulary {
+
+    private static final String[] WORDS = {
+            "report", "meeting", "review", "invoice", "design", "deploy", "budget", "release", "draft", "email",
+            "call", "plan", "fix", "refactor", "test", "doc", "order", "travel", "ticket", "backup",
+            "买菜", "健身", "复习", "周报", "会议", "报销", "读书", "打扫", "体检", "缴费",
+            "project", "client", "server", "database", "contract", "proposal", "survey", "garden", "dentist", "birthday"
+    };
+
+    private Vocabulary() {
+    }
+
+    public static String word(Random random) {
+        return WORDS[random.nextInt(WORDS.length)];
+    }
+
+    /**
+     * 由词表拼接的文本，长度不超过 maxLength
+     */
+    public static String text(Random random, int maxLength) {
+        StringBuilder text = new StringBuilder(maxLength);
+        while (text.length() < maxLength) {
+            if (!text.isEmpty()) {
+                text.append(' ');
+            }
+            text.append(word(random));
+        }
+        return text.substring(0, Math.max(1, maxLength));
+    }
+
+    /**
+     * 对数正态分布，median 为中位数，sigma 越大长尾越重，结果截断到 [min, max]
+     */
+    public static int logNormal(Random random, double median, double sigma, int min, int max) {
+        double value = median * Math.exp(sigma * random.nextGaussian());
+        return (int) Math.max(min, Math.min(max, Math.round(value)));
+    }
+}
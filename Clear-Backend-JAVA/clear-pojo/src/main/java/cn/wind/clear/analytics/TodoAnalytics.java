@@ -0,0 +1,114 @@
+package cn.wind.clear.analytics;
+
+import cn.wind.clear.constant.MessageConstant;
+import cn.wind.clear.dto.AnalyticsQueryDTO;
+import cn.wind.clear.entity.TodoDailyStat;
+import cn.wind.clear.exception.BaseException;
+import cn.wind.clear.vo.AnalyticsBucketVO;
+import cn.wind.clear.vo.AnalyticsVO;
+import cn.wind.clear.vo.CategoryAnalyticsVO;
+
+import java.time.DayOfWeek;
+import java.time.LocalDate;
+import java.time.temporal.ChronoUnit;
+import java.time.temporal.TemporalAdjusters;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * 由每日统计行汇总趋势与分类统计，计算量只与天数和分类数有关
+ * <p>
+ * 逾期数只计入已经过去的日期: 截止日期在今天或之后的待办还没有逾期
+ */
+public final class TodoAnalytics {
+
+    private static final String DAY = "day";
+    private static final String WEEK = "week";
+    private static final String MONTH = "month";
+
+    private TodoAnalytics() {
+    }
+
+    /**
+     * 查询范围
+     *
+     * @param start       开始日期(包含)
+     * @param end         结束日期(包含)
+     * @param granularity 汇总粒度
+     */
+    public record Range(LocalDate start, LocalDate end, String granularity) {
+    }
+
+    /**
+     * 补全默认值并校验查询参数
+     *
+     * @param maxDays 允许查询的最大天数
+     */
+    public static Range resolve(AnalyticsQueryDTO analyticsQueryDTO, int maxDays, LocalDate today) {
+        String granularity = analyticsQueryDTO.getGranularity() == null ? WEEK : analyticsQueryDTO.getGranularity();
+        if (!List.of(DAY, WEEK, MONTH).contains(granularity)) {
+            throw new BaseException(MessageConstant.ANALYTICS_RANGE_ERROR);
+        }
+        LocalDate end = analyticsQueryDTO.getEndDate() == null ? today : analyticsQueryDTO.getEndDate();
+        LocalDate start = analyticsQueryDTO.getStartDate() == null ? end.minusWeeks(12).plusDays(1) : analyticsQueryDTO.getStartDate();
+        if (start.isAfter(end) || ChronoUnit.DAYS.between(start, end) >= maxDays) {
+            throw new BaseException(MessageConstant.ANALYTICS_RANGE_ERROR);
+        }
+        return new Range(start, end, granularity);
+    }
+
+    /**
+     * @param rows          范围内的每日统计行
+     * @param categoryNames 分类id到名称，已删除的分类不在其中
+     */
+    public static AnalyticsVO aggregate(Range range, List<TodoDailyStat> rows, Map<String, String> categoryNames,
+                                        LocalDate today) {
+        Map<LocalDate, AnalyticsBucketVO> buckets = new LinkedHashMap<>();
+        for (LocalDate date = bucketStart(range, range.start()); !date.isAfter(range.end()); date = next(range, date)) {
+            buckets.put(date, new AnalyticsBucketVO(date, 0L, 0L, 0L));
+        }
+        Map<String, CategoryAnalyticsVO> categories = new LinkedHashMap<>();
+        for (TodoDailyStat row : rows) {
+            long overdue = row.getStatDate().isBefore(today) ? row.getOverdue() : 0;
+            AnalyticsBucketVO bucket = buckets.get(bucketStart(range, row.getStatDate()));
+            bucket.setCreated(bucket.getCreated() + row.getCreated());
+            bucket.setCompleted(bucket.getCompleted() + row.getCompleted());
+            bucket.setOverdue(bucket.getOverdue() + overdue);
+            CategoryAnalyticsVO category = categories.computeIfAbsent(row.getCategoryId(), id ->
+                    new CategoryAnalyticsVO(id, categoryNames.get(id), 0L, 0L, 0L));
+            category.setCreated(category.getCreated() + row.getCreated());
+            category.setCompleted(category.getCompleted() + row.getCompleted());
+            category.setOverdue(category.getOverdue() + overdue);
+        }
+        // 增减抵消后为 0 的行不返回
+        List<CategoryAnalyticsVO> nonEmpty = new ArrayList<>();
+        for (CategoryAnalyticsVO category : categories.values()) {
+            if (category.getCreated() != 0 || category.getCompleted() != 0 || category.getOverdue() != 0) {
+                nonEmpty.add(category);
+            }
+        }
+        return new AnalyticsVO(range.start(), range.end(), range.granularity(), new ArrayList<>(buckets.values()), nonEmpty);
+    }
+
+    /**
+     * 日期所在时间段的第一天，第一个时间段从开始日期算起
+     */
+    private static LocalDate bucketStart(Range range, LocalDate date) {
+        LocalDate start = switch (range.granularity()) {
+            case WEEK -> date.with(TemporalAdjusters.previousOrSame(DayOfWeek.MONDAY));
+            case MONTH -> date.withDayOfMonth(1);
+            default -> date;
+        };
+        return start.isBefore(range.start()) ? range.start() : start;
+    }
+
+    private static LocalDate next(Range range, LocalDate bucketStart) {
+        return switch (range.granularity()) {
+            case WEEK -> bucketStart.with(TemporalAdjusters.next(DayOfWeek.MONDAY));
+            case MONTH -> bucketStart.with(TemporalAdjusters.firstDayOfNextMonth());
+            default -> bucketStart.plusDays(1);
+        };
+    }
+}
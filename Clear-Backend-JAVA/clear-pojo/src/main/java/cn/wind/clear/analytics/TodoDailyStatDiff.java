@@ -0,0 +1,88 @@
+package cn.wind.clear.analytics;
+
+import cn.wind.clear.entity.Todo;
+import cn.wind.clear.entity.TodoDailyStat;
+
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+
+/**
+ * 待办变更对每日统计的增量
+ * <p>
+ * 每条待办对统计的贡献只由它当前的状态决定:
+ * 创建日 created +1；已完成时完成日 completed +1；有截止日期且未完成或完成晚于截止时间时截止日 overdue +1。
+ * 完成时间取 completed_at，早期数据没有该列时取 updated_at，与回填 SQL 的口径一致。
+ * 一次变更的增量 = 变更后的贡献 - 变更前的贡献，因此增量累加的结果与按现有数据重新统计相同
+ */
+public final class TodoDailyStatDiff {
+
+    // 没有分类(分类被删除)的待办统计在此分类下
+    public static final String NO_CATEGORY = "0";
+
+    private static final int CREATED = 0;
+    private static final int COMPLETED = 1;
+    private static final int OVERDUE = 2;
+
+    private TodoDailyStatDiff() {
+    }
+
+    /**
+     * @param before 变更前的待办，新增时为null
+     * @param after  变更后的待办，删除时为null
+     * @return 非零的增量行，按 (分类, 日期) 合并
+     */
+    public static List<TodoDailyStat> diff(Todo before, Todo after) {
+        Map<Key, int[]> deltas = new LinkedHashMap<>();
+        contribute(deltas, before, -1);
+        contribute(deltas, after, 1);
+        String userId = after != null ? after.getUserId() : before.getUserId();
+        List<TodoDailyStat> rows = new ArrayList<>();
+        deltas.forEach((key, delta) -> {
+            if (delta[CREATED] != 0 || delta[COMPLETED] != 0 || delta[OVERDUE] != 0) {
+                rows.add(new TodoDailyStat(userId, key.categoryId(), key.statDate(),
+                        delta[CREATED], delta[COMPLETED], delta[OVERDUE]));
+            }
+        });
+        return rows;
+    }
+
+    /**
+     * 完成时间，未完成时为null
+     */
+    public static LocalDateTime completedAt(Todo todo) {
+        if (!Objects.equals(todo.getStatus(), 1)) {
+            return null;
+        }
+        return todo.getCompletedAt() != null ? todo.getCompletedAt() : todo.getUpdatedAt();
+    }
+
+    private static void contribute(Map<Key, int[]> deltas, Todo todo, int sign) {
+        if (todo == null) {
+            return;
+        }
+        String categoryId = todo.getCategoryId() != null ? todo.getCategoryId() : NO_CATEGORY;
+        if (todo.getCreatedAt() != null) {
+            add(deltas, categoryId, todo.getCreatedAt().toLocalDate(), CREATED, sign);
+        }
+        LocalDateTime completedAt = completedAt(todo);
+        if (completedAt != null) {
+            add(deltas, categoryId, completedAt.toLocalDate(), COMPLETED, sign);
+        }
+        LocalDateTime dueDate = todo.getDueDate();
+        if (dueDate != null && (!Objects.equals(todo.getStatus(), 1) || (completedAt != null && completedAt.isAfter(dueDate)))) {
+            add(deltas, categoryId, dueDate.toLocalDate(), OVERDUE, sign);
+        }
+    }
+
+    private static void add(Map<Key, int[]> deltas, String categoryId, LocalDate statDate, int field, int sign) {
+        deltas.computeIfAbsent(new Key(categoryId, statDate), k -> new int[3])[field] += sign;
+    }
+
+    private record Key(String categoryId, LocalDate statDate) {
+    }
+}
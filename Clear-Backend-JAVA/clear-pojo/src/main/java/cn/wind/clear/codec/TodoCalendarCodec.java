@@ -0,0 +1,86 @@
+package cn.wind.clear.codec;
+
+import cn.wind.clear.vo.TodoCalendarVO;
+
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * 日历统计缓存(按天的完成/未完成数量)
+ * <p>
+ * 每天一个嵌套值: 日期写为 epoch day，数量写为 varint，一天通常 5 到 7 字节
+ */
+public final class TodoCalendarCodec implements BinaryCodec<List<TodoCalendarVO>> {
+
+    public static final TodoCalendarCodec INSTANCE = new TodoCalendarCodec();
+
+    private static final int DAY = 1;
+
+    private static final BinaryCodec<TodoCalendarVO> DAY_CODEC = new BinaryCodec<>() {
+
+        private static final int DATE = 1;
+        private static final int DONE = 2;
+        private static final int UNDONE = 3;
+
+        @Override
+        public int typeId() {
+            return BinaryCodecs.TYPE_TODO_CALENDAR;
+        }
+
+        @Override
+        public void write(BinaryWriter writer, TodoCalendarVO day) {
+            writer.writeSignedVarint(DATE, day.getDate().toEpochDay());
+            if (day.getDone() != null) {
+                writer.writeVarint(DONE, day.getDone());
+            }
+            if (day.getUndone() != null) {
+                writer.writeVarint(UNDONE, day.getUndone());
+            }
+        }
+
+        @Override
+        public TodoCalendarVO read(BinaryReader reader) {
+            TodoCalendarVO day = new TodoCalendarVO();
+            while (reader.hasRemaining()) {
+                int tag = reader.readTag();
+                switch (BinaryReader.field(tag)) {
+                    case DATE -> day.setDate(LocalDate.ofEpochDay(reader.readSignedVarint()));
+                    case DONE -> day.setDone(reader.readVarint());
+                    case UNDONE -> day.setUndone(reader.readVarint());
+                    default -> reader.skip(tag);
+                }
+            }
+            return day;
+        }
+    };
+
+    private TodoCalendarCodec() {
+    }
+
+    @Override
+    public int typeId() {
+        return BinaryCodecs.TYPE_TODO_CALENDAR;
+    }
+
+    @Override
+    public void write(BinaryWriter writer, List<TodoCalendarVO> days) {
+        for (TodoCalendarVO day : days) {
+            writer.writeMessage(DAY, DAY_CODEC, day);
+        }
+    }
+
+    @Override
+    public List<TodoCalendarVO> read(BinaryReader reader) {
+        List<TodoCalendarVO> days = new ArrayList<>();
+        while (reader.hasRemaining()) {
+            int tag = reader.readTag();
+            if (BinaryReader.field(tag) == DAY) {
+                days.add(reader.readMessage(DAY_CODEC));
+            } else {
+                reader.skip(tag);
+            }
+        }
+        return days;
+    }
+}
@@ -0,0 +1,29 @@
+package cn.wind.clear.dto;
+
+import lombok.Data;
+import org.springframework.format.annotation.DateTimeFormat;
+
+import java.io.Serializable;
+import java.time.LocalDate;
+
+@Data
+public class AnalyticsQueryDTO implements Serializable {
+    /**
+     * 开始日期(包含), 默认为结束日期前 12 周
+     * */
+    @DateTimeFormat(pattern = "yyyy-MM-dd")
+    private LocalDate startDate;
+    /**
+     * 结束日期(包含), 默认为今天
+     * */
+    @DateTimeFormat(pattern = "yyyy-MM-dd")
+    private LocalDate endDate;
+    /**
+     * 汇总粒度: day / week / month, 默认 week
+     * */
+    private String granularity;
+    /**
+     * 只统计该分类, 为空时统计全部分类
+     * */
+    private String categoryId;
+}
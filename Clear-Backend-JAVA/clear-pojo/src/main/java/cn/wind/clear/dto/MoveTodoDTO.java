@@ -0,0 +1,13 @@
+package cn.wind.clear.dto;
+
+import lombok.Data;
+
+import java.io.Serializable;
+
+@Data
+public class MoveTodoDTO implements Serializable {
+    /**
+     * 移动到该to do之后，为空时移动到列表开头；两者必须在同一分类
+     * */
+    private String afterId;
+}
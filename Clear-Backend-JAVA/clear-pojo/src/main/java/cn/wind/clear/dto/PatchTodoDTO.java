@@ -0,0 +1,27 @@
+package cn.wind.clear.dto;
+
+import com.fasterxml.jackson.annotation.JsonFormat;
+import lombok.Data;
+
+import java.io.Serializable;
+import java.time.LocalDateTime;
+import java.util.List;
+
+@Data
+public class PatchTodoDTO implements Serializable {
+    /**
+     * 需要更新的字段: title, content, categoryId, status, dueDate, recurrence
+     * */
+    private List<String> fields;
+    /**
+     * 客户端读取时的版本号
+     * */
+    private Integer version;
+    private String title;
+    private String content;
+    private String categoryId;
+    private Integer status;
+    @JsonFormat(pattern = "yyyy-MM-dd HH:mm:ss")
+    private LocalDateTime dueDate;
+    private String recurrence;
+}
@@ -0,0 +1,14 @@
+package cn.wind.clear.dto;
+
+import lombok.Data;
+
+import java.io.Serializable;
+
+@Data
+public class TagDTO implements Serializable {
+
+    private String name;
+
+    private String id;
+
+}
@@ -0,0 +1,24 @@
+package cn.wind.clear.dto;
+
+import lombok.Data;
+import org.springframework.format.annotation.DateTimeFormat;
+
+import java.io.Serializable;
+import java.time.LocalDate;
+
+@Data
+public class TodoCalendarQueryDTO implements Serializable {
+    /**
+     * 月视图, 格式 yyyy-MM
+     * */
+    private String month;
+    /**
+     * 周视图, 该日期所在的周(周一至周日)
+     * */
+    @DateTimeFormat(pattern = "yyyy-MM-dd")
+    private LocalDate week;
+    /**
+     * 年视图
+     * */
+    private Integer year;
+}
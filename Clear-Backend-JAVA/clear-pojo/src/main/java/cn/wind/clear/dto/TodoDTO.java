@@ -5,12 +5,25 @@ import lombok.Data;
 
 import java.io.Serializable;
 import java.time.LocalDateTime;
+import java.util.List;
 
 @Data
 public class TodoDTO implements Serializable {
+    /**
+     * 客户端生成的ID(可选)，离线创建时使用
+     * */
+    private String id;
     private String title;
     private String content;
     @JsonFormat(pattern = "yyyy-MM-dd HH:mm:ss")
     private LocalDateTime dueDate;
     private String categoryId;
+    /**
+     * 标签id(可选)
+     * */
+    private List<String> tagIds;
+    /**
+     * 重复规则(可选)，如 FREQ=WEEKLY;BYDAY=MO，需要同时设置截止日期
+     * */
+    private String recurrence;
 }
@@ -5,6 +5,7 @@ import org.springframework.format.annotation.DateTimeFormat;
 
 import java.io.Serializable;
 import java.time.LocalDate;
+import java.util.List;
 
 @Data
 public class TodoPageQueryDTO implements Serializable {
@@ -26,4 +27,20 @@ public class TodoPageQueryDTO implements Serializable {
      * 全文检索
      * */
     private String keyword;
+    /**
+     * 需要返回的字段，逗号分隔，为空时返回全部字段
+     * */
+    private String fields;
+    /**
+     * 标签筛选，逗号分隔
+     * */
+    private List<String> tagIds;
+    /**
+     * 多个标签的组合方式: any(任一，默认) / all(全部)
+     * */
+    private String tagMode;
+    /**
+     * 排序方式: due(截止日期倒序，默认) / manual(手动排序，通常与 categoryId 一起使用)
+     * */
+    private String orderBy;
 }
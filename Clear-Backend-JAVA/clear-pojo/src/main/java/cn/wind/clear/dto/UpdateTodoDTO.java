@@ -17,4 +17,8 @@ public class UpdateTodoDTO implements Serializable {
     @JsonFormat(pattern = "yyyy-MM-dd HH:mm:ss")
     private LocalDateTime dueDate;
     private String userId;
+    /**
+     * 重复规则，空字符串表示取消重复
+     * */
+    private String recurrence;
 }
@@ -1,11 +1,13 @@
 package cn.wind.clear.dto;
 
 import lombok.Data;
+import lombok.ToString;
 
 import java.io.Serializable;
 
 @Data
 public class UserDTO implements Serializable {
     private String username; // 用户名
+    @ToString.Exclude
     private String password; // 密码
 }
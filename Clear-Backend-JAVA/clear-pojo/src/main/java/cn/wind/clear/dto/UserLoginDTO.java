@@ -1,11 +1,13 @@
 package cn.wind.clear.dto;
 
 import lombok.Data;
+import lombok.ToString;
 
 import java.io.Serializable;
 
 @Data
 public class UserLoginDTO implements Serializable {
     private String username;
+    @ToString.Exclude
     private String password;
 }
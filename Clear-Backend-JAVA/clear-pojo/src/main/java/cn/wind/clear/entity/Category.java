@@ -1,5 +1,7 @@
 package cn.wind.clear.entity;
 
+import com.baomidou.mybatisplus.annotation.IdType;
+import com.baomidou.mybatisplus.annotation.TableId;
 import lombok.AllArgsConstructor;
 import lombok.Builder;
 import lombok.Data;
@@ -13,7 +15,8 @@ import java.time.LocalDateTime;
 @NoArgsConstructor
 @Builder
 public class Category implements Serializable {
-    private String id; // 主键自增
+    @TableId(type = IdType.ASSIGN_ID)
+    private String id; // 主键, 雪花ID
     private String name; // 分类名称
     private String userId; // 用户id 逻辑外键
     private LocalDateTime createdAt; // 创建时间
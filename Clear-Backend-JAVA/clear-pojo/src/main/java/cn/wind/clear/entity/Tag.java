@@ -0,0 +1,24 @@
+package cn.wind.clear.entity;
+
+import com.baomidou.mybatisplus.annotation.IdType;
+import com.baomidou.mybatisplus.annotation.TableId;
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.io.Serializable;
+import java.time.LocalDateTime;
+
+@Data
+@AllArgsConstructor
+@NoArgsConstructor
+@Builder
+public class Tag implements Serializable {
+    @TableId(type = IdType.ASSIGN_ID)
+    private String id; // 主键, 雪花ID
+    private String name; // 标签名称
+    private String userId; // 用户id 逻辑外键
+    private LocalDateTime createdAt; // 创建时间
+    private LocalDateTime updatedAt; // 更新时间
+}
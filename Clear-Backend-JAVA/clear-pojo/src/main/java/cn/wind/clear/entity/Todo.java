@@ -1,5 +1,7 @@
 package cn.wind.clear.entity;
 
+import com.baomidou.mybatisplus.annotation.IdType;
+import com.baomidou.mybatisplus.annotation.TableId;
 import lombok.AllArgsConstructor;
 import lombok.Builder;
 import lombok.Data;
@@ -14,7 +16,8 @@ import java.time.LocalDateTime;
 @NoArgsConstructor
 @Builder
 public class Todo implements Serializable {
-    private String id; // 主键自增
+    @TableId(type = IdType.ASSIGN_ID)
+    private String id; // 主键, 雪花ID
     private String title; // To Do 标题
     private String content; // To Do 详细内容
     private Integer status; // To Do 状态
@@ -23,4 +26,10 @@ public class Todo implements Serializable {
     private String categoryId; // 分类 id 逻辑外键
     private LocalDateTime createdAt; // 创建时间
     private LocalDateTime updatedAt; // 更新时间
+    private LocalDateTime completedAt; // 完成时间, 未完成时为空
+    private String rankKey; // 手动排序键, 同一分类内按字典序排列
+    private String recurrence; // 重复规则, 只在重复系列的第一项上
+    private String seriesId; // 所属重复系列(第一项的id), 只有单独保存的实例有
+    private LocalDate occurrenceDate; // 单独保存的实例在系列中的日期
+    private Integer version; // 版本号, 乐观锁
 }
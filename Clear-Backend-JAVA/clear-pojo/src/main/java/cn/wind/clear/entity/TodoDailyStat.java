@@ -0,0 +1,26 @@
+package cn.wind.clear.entity;
+
+import com.baomidou.mybatisplus.annotation.IdType;
+import com.baomidou.mybatisplus.annotation.TableId;
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.io.Serializable;
+import java.time.LocalDate;
+
+@Data
+@AllArgsConstructor
+@NoArgsConstructor
+@Builder
+public class TodoDailyStat implements Serializable {
+    // 主键为 (user_id, stat_date, category_id)，MyBatis-Plus 只支持单列主键，标注首列，按 id 的通用方法不适用
+    @TableId(type = IdType.INPUT)
+    private String userId; // 用户id
+    private String categoryId; // 分类id, 没有分类时为 0
+    private LocalDate statDate; // 日期
+    private Integer created; // 当天创建的数量
+    private Integer completed; // 当天完成的数量
+    private Integer overdue; // 截止日期在当天且未按时完成的数量
+}
@@ -0,0 +1,22 @@
+package cn.wind.clear.entity;
+
+import com.baomidou.mybatisplus.annotation.IdType;
+import com.baomidou.mybatisplus.annotation.TableId;
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.io.Serializable;
+
+@Data
+@AllArgsConstructor
+@NoArgsConstructor
+@Builder
+public class TodoTag implements Serializable {
+    // 主键为 (todo_id, tag_id)，MyBatis-Plus 只支持单列主键，标注首列，按 id 的通用方法不适用
+    @TableId(type = IdType.INPUT)
+    private String todoId; // To Do id
+    private String tagId; // 标签id
+    private String userId; // 用户id
+}
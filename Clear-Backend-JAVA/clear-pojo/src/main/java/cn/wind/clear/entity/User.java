@@ -1,9 +1,12 @@
 package cn.wind.clear.entity;
 
+import com.baomidou.mybatisplus.annotation.IdType;
+import com.baomidou.mybatisplus.annotation.TableId;
 import lombok.AllArgsConstructor;
 import lombok.Builder;
 import lombok.Data;
 import lombok.NoArgsConstructor;
+import lombok.ToString;
 
 import java.io.Serializable;
 import java.time.LocalDateTime;
@@ -13,8 +16,10 @@ import java.time.LocalDateTime;
 @NoArgsConstructor
 @Builder
 public class User implements Serializable {
-    private String id; // 主键自增
+    @TableId(type = IdType.ASSIGN_ID)
+    private String id; // 主键, 雪花ID
     private String username; // 用户名
+    @ToString.Exclude
     private String password; // 密码
     private String email; // 邮箱
     private Integer theme; // 主题
@@ -0,0 +1,28 @@
+package cn.wind.clear.push;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.io.Serializable;
+
+/**
+ * 数据变更事件，推送给同一用户的所有在线客户端
+ */
+@Data
+@AllArgsConstructor
+@NoArgsConstructor
+public class ChangeEvent implements Serializable {
+    public static final String TYPE_TODO = "todo";
+    public static final String TYPE_CATEGORY = "category";
+    public static final String TYPE_TAG = "tag";
+
+    public static final String ACTION_CREATE = "create";
+    public static final String ACTION_UPDATE = "update";
+    public static final String ACTION_DELETE = "delete";
+
+    private String type; // 数据类型
+    private String action; // 变更动作
+    private String id; // 变更数据的id
+    private String userId; // 数据所属用户id
+}
@@ -0,0 +1,173 @@
+package cn.wind.clear.recurrence;
+
+import cn.wind.clear.constant.MessageConstant;
+import cn.wind.clear.constant.StatusConstant;
+import cn.wind.clear.dto.TodoPageQueryDTO;
+import cn.wind.clear.entity.Todo;
+import cn.wind.clear.exception.BaseException;
+import cn.wind.clear.utils.RecurrenceRule;
+import cn.wind.clear.vo.TodoCalendarVO;
+
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.time.temporal.ChronoUnit;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.TreeMap;
+
+/**
+ * 重复待办的展开与合并
+ * <p>
+ * 重复规则只保存在系列的第一项上，其余各次不落库，查询时只展开落在日期范围内的实例。
+ * 单独修改或完成过的实例保存为普通的to do(带 seriesId 与 occurrenceDate)，删除的实例记为跳过，两者都不再展开。
+ * 展开的实例没有 id，状态总是未完成
+ */
+public final class TodoRecurrence {
+
+    private static final Comparator<Todo> BY_DUE_DATE_DESC = Comparator.comparing(Todo::getDueDate).reversed()
+            .thenComparing(Todo::getSeriesId);
+
+    private TodoRecurrence() {
+    }
+
+    /**
+     * 规范化重复规则，设置了重复规则的to do必须有截止日期(系列的开始时间)
+     *
+     * @return 规范化的规则文本，为空表示不重复
+     */
+    public static String normalize(String recurrence, LocalDateTime dueDate) {
+        if (recurrence == null || recurrence.isBlank()) {
+            return null;
+        }
+        if (dueDate == null) {
+            throw new BaseException(MessageConstant.RECURRENCE_DUE_DATE);
+        }
+        return RecurrenceRule.parse(recurrence).format();
+    }
+
+    /**
+     * 展开范围 [from, to)
+     */
+    public record Window(LocalDateTime from, LocalDateTime to) {
+    }
+
+    /**
+     * 分页查询需要展开的范围，不需要展开时返回 null
+     * <p>
+     * 只有同时指定开始和结束日期、按截止日期排序、且不是只查已完成时才展开；
+     * 没有日期范围时每个系列只以第一项出现
+     */
+    public static Window window(TodoPageQueryDTO todoPageQueryDTO, boolean manual) {
+        if (manual || todoPageQueryDTO.getStartDate() == null || todoPageQueryDTO.getEndDate() == null
+                || StatusConstant.ENABLED.equals(todoPageQueryDTO.getStatus())) {
+            return null;
+        }
+        return new Window(todoPageQueryDTO.getStartDate().atStartOfDay(),
+                todoPageQueryDTO.getEndDate().plusDays(1).atStartOfDay());
+    }
+
+    /**
+     * 日历查询的范围 [start, end) 总是展开
+     */
+    public static Window window(LocalDate start, LocalDate end) {
+        return new Window(start.atStartOfDay(), end.atStartOfDay());
+    }
+
+    /**
+     * 展开的实例数与范围的天数成正比，范围过大时拒绝查询
+     *
+     * @param maxDays 允许展开的最大天数
+     */
+    public static void checkWindow(Window window, int maxDays) {
+        if (ChronoUnit.DAYS.between(window.from(), window.to()) > maxDays) {
+            throw new BaseException(MessageConstant.RECURRENCE_RANGE_ERROR);
+        }
+    }
+
+    /**
+     * 已单独保存或已跳过的实例的键
+     */
+    public static String exceptionKey(String seriesId, LocalDate occurrenceDate) {
+        return seriesId + "@" + occurrenceDate;
+    }
+
+    /**
+     * 展开范围内的实例，按截止日期倒序
+     *
+     * @param series     系列的第一项
+     * @param exceptions 已单独保存或已跳过的实例，见 exceptionKey
+     */
+    public static List<Todo> expand(List<Todo> series, Set<String> exceptions, Window window) {
+        List<Todo> occurrences = new ArrayList<>();
+        for (Todo first : series) {
+            if (first.getRecurrence() == null || first.getDueDate() == null) {
+                continue;
+            }
+            RecurrenceRule rule = RecurrenceRule.parse(first.getRecurrence());
+            for (LocalDateTime dueDate : rule.occurrences(first.getDueDate(), window.from(), window.to())) {
+                if (!exceptions.contains(exceptionKey(first.getId(), dueDate.toLocalDate()))) {
+                    occurrences.add(occurrence(first, dueDate));
+                }
+            }
+        }
+        occurrences.sort(BY_DUE_DATE_DESC);
+        return occurrences;
+    }
+
+    /**
+     * 由系列的第一项生成某一次的实例，单独保存时以此为初始内容
+     */
+    public static Todo occurrence(Todo first, LocalDateTime dueDate) {
+        return Todo.builder()
+                .title(first.getTitle())
+                .content(first.getContent())
+                .status(StatusConstant.DISABLED)
+                .dueDate(dueDate)
+                .userId(first.getUserId())
+                .categoryId(first.getCategoryId())
+                .createdAt(first.getCreatedAt())
+                .updatedAt(first.getUpdatedAt())
+                .seriesId(first.getId())
+                .occurrenceDate(dueDate.toLocalDate())
+                .build();
+    }
+
+    /**
+     * 把展开的实例按截止日期倒序合并到查询结果中，取合并后第 offset 条起的 size 条；截止日期相同时查询结果在前
+     *
+     * @param rows 同一条件下从第一条起按截止日期倒序的查询结果，至少 offset + size 条，不足说明已到末尾
+     */
+    public static List<Todo> merge(List<Todo> rows, List<Todo> occurrences, long offset, long size) {
+        List<Todo> merged = new ArrayList<>();
+        int i = 0;
+        int j = 0;
+        while (merged.size() < offset + size && (i < rows.size() || j < occurrences.size())) {
+            boolean takeRow = j == occurrences.size() || (i < rows.size() && rows.get(i).getDueDate() != null
+                    && !rows.get(i).getDueDate().isBefore(occurrences.get(j).getDueDate()));
+            merged.add(takeRow ? rows.get(i++) : occurrences.get(j++));
+        }
+        return offset >= merged.size() ? List.of() : merged.subList((int) offset, merged.size());
+    }
+
+    /**
+     * 把展开的实例计入日历统计的未完成数量，结果按日期排序
+     */
+    public static List<TodoCalendarVO> addToCalendar(List<TodoCalendarVO> days, List<Todo> occurrences) {
+        if (occurrences.isEmpty()) {
+            return days;
+        }
+        Map<LocalDate, TodoCalendarVO> byDate = new TreeMap<>();
+        for (TodoCalendarVO day : days) {
+            byDate.put(day.getDate(), new TodoCalendarVO(day.getDate(), day.getDone(), day.getUndone()));
+        }
+        for (Todo occurrence : occurrences) {
+            TodoCalendarVO day = byDate.computeIfAbsent(occurrence.getDueDate().toLocalDate(),
+                    date -> new TodoCalendarVO(date, 0L, 0L));
+            day.setUndone(day.getUndone() + 1);
+        }
+        return new ArrayList<>(byDate.values());
+    }
+}
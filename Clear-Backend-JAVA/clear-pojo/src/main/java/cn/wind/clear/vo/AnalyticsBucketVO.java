@@ -0,0 +1,20 @@
+package cn.wind.clear.vo;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.io.Serializable;
+import java.time.LocalDate;
+
+@Data
+@AllArgsConstructor
+@NoArgsConstructor
+@Builder
+public class AnalyticsBucketVO implements Serializable {
+    private LocalDate date; // 时间段的第一天
+    private Long created; // 创建数量
+    private Long completed; // 完成数量
+    private Long overdue; // 逾期数量, 只统计已经过去的日期
+}
@@ -0,0 +1,28 @@
+package cn.wind.clear.vo;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.io.Serializable;
+import java.time.LocalDate;
+import java.util.List;
+
+@Data
+@AllArgsConstructor
+@NoArgsConstructor
+@Builder
+public class AnalyticsVO implements Serializable {
+    private LocalDate startDate; // 开始日期
+    private LocalDate endDate; // 结束日期
+    private String granularity; // 汇总粒度
+    /**
+     * 按粒度汇总的趋势, 包含没有数据的时间段
+     */
+    private List<AnalyticsBucketVO> buckets;
+    /**
+     * 整个范围内按分类汇总, 只包含有数据的分类
+     */
+    private List<CategoryAnalyticsVO> categories;
+}
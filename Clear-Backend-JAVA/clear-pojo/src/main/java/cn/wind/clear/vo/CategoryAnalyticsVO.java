@@ -0,0 +1,20 @@
+package cn.wind.clear.vo;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.io.Serializable;
+
+@Data
+@AllArgsConstructor
+@NoArgsConstructor
+@Builder
+public class CategoryAnalyticsVO implements Serializable {
+    private String categoryId; // 分类id, 没有分类时为 0
+    private String categoryName; // 分类名称, 没有分类时为空
+    private Long created; // 创建数量
+    private Long completed; // 完成数量
+    private Long overdue; // 逾期数量
+}
@@ -0,0 +1,17 @@
+package cn.wind.clear.vo;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.io.Serializable;
+
+@Data
+@AllArgsConstructor
+@NoArgsConstructor
+@Builder
+public class TagVO implements Serializable {
+    private String tagId;
+    private String tagName;
+}
@@ -0,0 +1,19 @@
+package cn.wind.clear.vo;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.io.Serializable;
+import java.time.LocalDate;
+
+@Data
+@AllArgsConstructor
+@NoArgsConstructor
+@Builder
+public class TodoCalendarVO implements Serializable {
+    private LocalDate date; // 日期
+    private Long done; // 已完成数量
+    private Long undone; // 未完成数量
+}
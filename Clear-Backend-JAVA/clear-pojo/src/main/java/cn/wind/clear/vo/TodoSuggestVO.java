@@ -0,0 +1,21 @@
+package cn.wind.clear.vo;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.io.Serializable;
+
+@Data
+@AllArgsConstructor
+@NoArgsConstructor
+@Builder
+public class TodoSuggestVO implements Serializable {
+    public static final String TYPE_TODO = "todo";
+    public static final String TYPE_CATEGORY = "category";
+
+    private String type; // 建议来源: todo / category
+    private String id; // 待办或分类的id
+    private String text; // 待办标题或分类名称
+}
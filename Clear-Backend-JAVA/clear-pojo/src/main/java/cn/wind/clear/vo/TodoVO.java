@@ -1,5 +1,6 @@
 package cn.wind.clear.vo;
 
+import com.fasterxml.jackson.annotation.JsonFilter;
 import lombok.AllArgsConstructor;
 import lombok.Builder;
 import lombok.Data;
@@ -8,12 +9,17 @@ import lombok.NoArgsConstructor;
 import java.io.Serializable;
 import java.time.LocalDate;
 import java.time.LocalDateTime;
+import java.util.List;
 
 @Data
 @AllArgsConstructor
 @NoArgsConstructor
 @Builder
+@JsonFilter(TodoVO.FIELDS_FILTER)
 public class TodoVO implements Serializable {
+    // 按请求字段裁剪输出的过滤器id，未配置过滤器时输出全部字段
+    public static final String FIELDS_FILTER = "todoFields";
+
     private String id; // To Do 主键
     private String title; // To Do 标题
     private String content; // To Do 内容
@@ -23,4 +29,9 @@ public class TodoVO implements Serializable {
     private LocalDateTime dueDate; // 截止日期
     private LocalDateTime createdAt; // 创建时间
     private LocalDateTime updatedAt; // 更新时间
+    private Integer version; // 版本号
+    private List<String> tagIds; // 标签id
+    private String recurrence; // 重复规则, 只在重复系列的第一项上
+    private String seriesId; // 所属重复系列id, 按规则展开、尚未单独保存的实例 id 为空
+    private LocalDate occurrenceDate; // 在重复系列中的日期
 }
@@ -4,6 +4,7 @@ import lombok.AllArgsConstructor;
 import lombok.Builder;
 import lombok.Data;
 import lombok.NoArgsConstructor;
+import lombok.ToString;
 
 import java.io.Serializable;
 
@@ -14,6 +15,7 @@ import java.io.Serializable;
 public class UserLoginVO implements Serializable {
     private String id; // 用户id, 主键值
     private String username; // 用户名
+    @ToString.Exclude
     private String tk; // JWT令牌
     private Integer theme;
 }
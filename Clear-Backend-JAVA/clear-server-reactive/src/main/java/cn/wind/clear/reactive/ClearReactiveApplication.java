@@ -0,0 +1,32 @@
+package cn.wind.clear.reactive;
+
+import cn.wind.clear.properties.AnalyticsProperties;
+import cn.wind.clear.properties.ArchiveProperties;
+import cn.wind.clear.properties.IdProperties;
+import cn.wind.clear.properties.JwtProperties;
+import cn.wind.clear.properties.PushProperties;
+import cn.wind.clear.properties.RankProperties;
+import cn.wind.clear.properties.RecurrenceProperties;
+import cn.wind.clear.properties.StoreProperties;
+import cn.wind.clear.properties.TagProperties;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.boot.SpringApplication;
+import org.springframework.boot.autoconfigure.SpringBootApplication;
+import org.springframework.boot.context.properties.EnableConfigurationProperties;
+
+/**
+ * 响应式服务端
+ * <p>
+ * 只扫描本模块，clear-common 中依赖 Servlet 请求上下文的组件(RedisUtils)不会加载
+ */
+@SpringBootApplication
+@Slf4j
+@EnableConfigurationProperties({JwtProperties.class, IdProperties.class, ArchiveProperties.class, StoreProperties.class,
+        TagProperties.class, AnalyticsProperties.class, RecurrenceProperties.class, PushProperties.class,
+        RankProperties.class})
+public class ClearReactiveApplication {
+    public static void main(String[] args) {
+        SpringApplication.run(ClearReactiveApplication.class, args);
+        log.info("Clear Reactive Server started!");
+    }
+}
@@ -0,0 +1,43 @@
+package cn.wind.clear.reactive.config;
+
+import io.r2dbc.spi.ConnectionFactory;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.context.annotation.Profile;
+import org.springframework.core.io.ByteArrayResource;
+import org.springframework.core.io.ClassPathResource;
+import org.springframework.r2dbc.connection.init.ConnectionFactoryInitializer;
+import org.springframework.r2dbc.connection.init.ResourceDatabasePopulator;
+
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.util.regex.Pattern;
+
+/**
+ * 嵌入模式(embedded)的数据库配置
+ * <p>
+ * 与 clear-server 相同: 文件存储的 H2(MySQL 兼容模式)，启动时执行打包进 jar 的 init.sql 建表
+ */
+@Configuration
+@Profile("embedded")
+public class EmbeddedDatabaseConfiguration {
+
+    // 建库和切换库的语句只对 MySQL 有意义
+    private static final Pattern DATABASE_STATEMENT =
+            Pattern.compile("^\\s*(CREATE DATABASE|USE)\\b[^;]*;", Pattern.CASE_INSENSITIVE | Pattern.MULTILINE);
+
+    private static final Pattern CREATE_TABLE =
+            Pattern.compile("^(\\s*)CREATE TABLE\\s+(?!IF NOT EXISTS)", Pattern.CASE_INSENSITIVE | Pattern.MULTILINE);
+
+    @Bean
+    public ConnectionFactoryInitializer embeddedSchemaInitializer(ConnectionFactory connectionFactory) throws IOException {
+        String script = new ClassPathResource("db/init.sql").getContentAsString(StandardCharsets.UTF_8);
+        script = DATABASE_STATEMENT.matcher(script).replaceAll("");
+        script = CREATE_TABLE.matcher(script).replaceAll("$1CREATE TABLE IF NOT EXISTS ");
+        ConnectionFactoryInitializer initializer = new ConnectionFactoryInitializer();
+        initializer.setConnectionFactory(connectionFactory);
+        initializer.setDatabasePopulator(new ResourceDatabasePopulator(
+                new ByteArrayResource(script.getBytes(StandardCharsets.UTF_8))));
+        return initializer;
+    }
+}
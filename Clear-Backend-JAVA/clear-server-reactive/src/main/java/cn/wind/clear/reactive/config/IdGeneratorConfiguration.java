@@ -0,0 +1,21 @@
+package cn.wind.clear.reactive.config;
+
+import cn.wind.clear.properties.IdProperties;
+import cn.wind.clear.utils.SnowflakeIdWorker;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+
+/**
+ * 主键生成配置，与 clear-server 共用雪花ID生成器，两个模块的工作节点ID需要不同
+ */
+@Configuration
+@Slf4j
+public class IdGeneratorConfiguration {
+
+    @Bean
+    public SnowflakeIdWorker snowflakeIdWorker(IdProperties idProperties) {
+        log.info("雪花ID工作节点: {}", idProperties.getWorkerId());
+        return SnowflakeIdWorker.forServer(idProperties.getWorkerId());
+    }
+}
@@ -0,0 +1,30 @@
+package cn.wind.clear.reactive.config;
+
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.data.redis.connection.ReactiveRedisConnectionFactory;
+import org.springframework.data.redis.core.ReactiveRedisTemplate;
+import org.springframework.data.redis.serializer.RedisSerializationContext;
+import org.springframework.data.redis.serializer.RedisSerializer;
+import org.springframework.data.redis.serializer.StringRedisSerializer;
+
+@Configuration
+@Slf4j
+@ConditionalOnProperty(prefix = "clear.store", name = "type", havingValue = "redis", matchIfMissing = true)
+public class RedisConfiguration {
+
+    /**
+     * 二进制值模板，与 clear-server 一样由 cn.wind.clear.codec 编码后原样写入
+     */
+    @Bean
+    public ReactiveRedisTemplate<String, byte[]> reactiveBinaryRedisTemplate(ReactiveRedisConnectionFactory connectionFactory) {
+        log.info("开始创建响应式redis二进制模板对象...");
+        RedisSerializationContext<String, byte[]> context = RedisSerializationContext
+                .<String, byte[]>newSerializationContext(StringRedisSerializer.UTF_8)
+                .value(RedisSerializer.byteArray())
+                .build();
+        return new ReactiveRedisTemplate<>(connectionFactory, context);
+    }
+}
@@ -0,0 +1,77 @@
+package cn.wind.clear.reactive.config;
+
+import cn.wind.clear.json.JacksonObjectMapper;
+import cn.wind.clear.result.PageResult;
+import cn.wind.clear.result.Result;
+import cn.wind.clear.vo.CategoryVO;
+import cn.wind.clear.vo.TodoCalendarVO;
+import cn.wind.clear.vo.TodoVO;
+import cn.wind.clear.vo.UserLoginVO;
+import cn.wind.clear.vo.UserStatusVO;
+import com.fasterxml.jackson.dataformat.cbor.CBORFactory;
+import com.fasterxml.jackson.dataformat.smile.SmileFactory;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.core.ResolvableType;
+import org.springframework.http.MediaType;
+import org.springframework.http.codec.ServerCodecConfigurer;
+import org.springframework.http.codec.cbor.Jackson2CborDecoder;
+import org.springframework.http.codec.cbor.Jackson2CborEncoder;
+import org.springframework.http.codec.json.Jackson2JsonDecoder;
+import org.springframework.http.codec.json.Jackson2JsonEncoder;
+import org.springframework.http.codec.json.Jackson2SmileDecoder;
+import org.springframework.http.codec.json.Jackson2SmileEncoder;
+import org.springframework.util.MimeType;
+import org.springframework.web.reactive.config.WebFluxConfigurer;
+
+/**
+ * 配置类，注册Web层相关组件
+ */
+@Configuration
+@Slf4j
+public class WebFluxConfiguration implements WebFluxConfigurer {
+
+    /**
+     * 编解码器使用与 Servlet 版本相同的对象转换器，日期格式和字段过滤保持一致
+     * @param configurer
+     */
+    @Override
+    public void configureHttpMessageCodecs(ServerCodecConfigurer configurer) {
+        log.info("扩展编解码器");
+        JacksonObjectMapper json = prefetch(new JacksonObjectMapper());
+        configurer.defaultCodecs().jackson2JsonEncoder(new Jackson2JsonEncoder(json));
+        configurer.defaultCodecs().jackson2JsonDecoder(new Jackson2JsonDecoder(json));
+
+        // 二进制格式，客户端通过 Accept: application/cbor 或 application/x-jackson-smile 选择
+        JacksonObjectMapper cbor = prefetch(new JacksonObjectMapper(new CBORFactory()));
+        // Jackson2Cbor 编解码器不校验请求/响应类型，且自定义编解码器排在 JSON 之前，限定只处理明确的 CBOR
+        configurer.customCodecs().register(new Jackson2CborEncoder(cbor) {
+            @Override
+            public boolean canEncode(ResolvableType elementType, MimeType mimeType) {
+                return isCbor(mimeType) && super.canEncode(elementType, mimeType);
+            }
+        });
+        configurer.customCodecs().register(new Jackson2CborDecoder(cbor) {
+            @Override
+            public boolean canDecode(ResolvableType elementType, MimeType mimeType) {
+                return isCbor(mimeType) && super.canDecode(elementType, mimeType);
+            }
+        });
+        JacksonObjectMapper smile = prefetch(new JacksonObjectMapper(new SmileFactory()));
+        configurer.defaultCodecs().jackson2SmileEncoder(new Jackson2SmileEncoder(smile));
+        configurer.defaultCodecs().jackson2SmileDecoder(new Jackson2SmileDecoder(smile));
+    }
+
+    private static boolean isCbor(MimeType mimeType) {
+        return mimeType != null && !mimeType.isWildcardType() && MediaType.APPLICATION_CBOR.isCompatibleWith(mimeType);
+    }
+
+    /**
+     * 预先解析高频响应类型的序列化器
+     */
+    private JacksonObjectMapper prefetch(JacksonObjectMapper objectMapper) {
+        objectMapper.prefetchSerializers(Result.class, PageResult.class, TodoVO.class, CategoryVO.class,
+                TodoCalendarVO.class, UserLoginVO.class, UserStatusVO.class);
+        return objectMapper;
+    }
+}
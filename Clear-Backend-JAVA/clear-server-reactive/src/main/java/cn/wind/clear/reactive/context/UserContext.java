@@ -0,0 +1,23 @@
+package cn.wind.clear.reactive.context;
+
+import reactor.core.publisher.Mono;
+import reactor.util.context.Context;
+
+/**
+ * 当前用户上下文
+ * <p>
+ * JwtAuthenticationFilter 校验令牌后把用户ID写入 Reactor Context，请求链路上的任何操作符都可以读取，
+ * 不需要像 Servlet 版本那样按令牌读写 Redis
+ */
+public class UserContext {
+
+    private static final String USER_ID = UserContext.class.getName() + ".USER_ID";
+
+    public static Context withCurrentId(String userId) {
+        return Context.of(USER_ID, userId);
+    }
+
+    public static Mono<String> getCurrentId() {
+        return Mono.deferContextual(ctx -> Mono.justOrEmpty(ctx.<String>getOrEmpty(USER_ID)));
+    }
+}
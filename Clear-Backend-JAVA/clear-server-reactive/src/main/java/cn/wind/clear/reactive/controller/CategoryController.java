@@ -0,0 +1,68 @@
+package cn.wind.clear.reactive.controller;
+
+import cn.wind.clear.dto.CategoryDTO;
+import cn.wind.clear.reactive.service.CategoryService;
+import cn.wind.clear.result.Result;
+import cn.wind.clear.vo.CategoryVO;
+import jakarta.annotation.Resource;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.web.bind.annotation.*;
+import reactor.core.publisher.Mono;
+
+import java.util.List;
+
+/**
+ * Category
+ */
+@RestController
+@RequestMapping("/category")
+@Slf4j
+public class CategoryController {
+
+    @Resource
+    private CategoryService categoryService;
+
+    /**
+     * 获取用户的分类数据
+     *
+     * @return 包含分类列表的结果对象，成功时返回CategoryVO列表
+     */
+    @GetMapping("/categories")
+    public Mono<Result<List<CategoryVO>>> getCategories() {
+        log.info("获取用户分类数据...");
+        return categoryService.getCategories().map(Result::success);
+    }
+
+    /**
+     * 添加新分类
+     *
+     * @param categoryDTO 包含分类信息的数据传输对象
+     * @return 包含操作结果的响应对象，成功时返回成功消息
+     */
+    @PostMapping("/add")
+    public Mono<Result<String>> addCategory(@RequestBody CategoryDTO categoryDTO) {
+        return categoryService.addCategory(categoryDTO).thenReturn(Result.success("添加成功"));
+    }
+
+    /**
+     * 更新现有分类
+     *
+     * @param categoryDTO 包含更新后分类信息的数据传输对象
+     * @return 包含操作结果的响应对象，成功时返回成功消息
+     */
+    @PutMapping("/update")
+    public Mono<Result<String>> updateCategory(@RequestBody CategoryDTO categoryDTO) {
+        return categoryService.updateCategory(categoryDTO).thenReturn(Result.success("修改成功"));
+    }
+
+    /**
+     * 删除指定分类
+     *
+     * @param id 要删除的分类ID
+     * @return 包含操作结果的响应对象，成功时返回成功消息
+     */
+    @DeleteMapping("/delete/{id}")
+    public Mono<Result<String>> deleteCategory(@PathVariable String id) {
+        return categoryService.deleteCategory(id).thenReturn(Result.success("删除成功"));
+    }
+}
@@ -0,0 +1,181 @@
+package cn.wind.clear.reactive.controller;
+
+import cn.wind.clear.dto.MoveTodoDTO;
+import cn.wind.clear.dto.PatchTodoDTO;
+import cn.wind.clear.dto.TodoCalendarQueryDTO;
+import cn.wind.clear.dto.TodoDTO;
+import cn.wind.clear.dto.TodoPageQueryDTO;
+import cn.wind.clear.dto.UpdateTodoDTO;
+import cn.wind.clear.reactive.service.TodoService;
+import cn.wind.clear.result.Result;
+import cn.wind.clear.vo.TodoCalendarVO;
+import cn.wind.clear.vo.TodoVO;
+import com.fasterxml.jackson.databind.ser.impl.SimpleBeanPropertyFilter;
+import com.fasterxml.jackson.databind.ser.impl.SimpleFilterProvider;
+import jakarta.annotation.Resource;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.http.converter.json.MappingJacksonValue;
+import org.springframework.web.bind.annotation.*;
+import reactor.core.publisher.Mono;
+
+import java.time.LocalDate;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Set;
+import java.util.stream.Collectors;
+
+/**
+ * Todo
+ */
+@RestController
+@RequestMapping("/todo")
+@Slf4j
+public class TodoController {
+
+    @Resource
+    private TodoService todoService;
+
+    /**
+     * 添加待办事项
+     *
+     * @param todoDTO 待办事项数据传输对象，包含待办事项的详细信息
+     * @return 操作结果，成功返回success状态
+     */
+    @PostMapping("/addTodo")
+    public Mono<Result<String>> addTodo(@RequestBody TodoDTO todoDTO) {
+        return todoService.addTodo(todoDTO).thenReturn(Result.success("添加成功"));
+    }
+
+    /**
+     * 待办事项分页查询
+     * <p>
+     * 指定 fields 时只返回这些字段
+     *
+     * @param todoPageQueryDTO 分页查询参数，包含页码、每页大小等查询条件
+     * @return 分页结果，包含TodoVO列表和分页信息
+     */
+    @GetMapping("/page")
+    public Mono<MappingJacksonValue> pageTodo(TodoPageQueryDTO todoPageQueryDTO) {
+        return todoService.pageQuery(todoPageQueryDTO).map(pageResult -> {
+            MappingJacksonValue value = new MappingJacksonValue(Result.success(pageResult));
+            if (todoPageQueryDTO.getFields() != null && !todoPageQueryDTO.getFields().isBlank()) {
+                Set<String> fields = Arrays.stream(todoPageQueryDTO.getFields().split(","))
+                        .map(String::trim)
+                        .collect(Collectors.toSet());
+                fields.add("id");
+                value.setFilters(new SimpleFilterProvider()
+                        .addFilter(TodoVO.FIELDS_FILTER, SimpleBeanPropertyFilter.filterOutAllExcept(fields)));
+            }
+            return value;
+        });
+    }
+
+    /**
+     * 待办事项详情
+     *
+     * @param id 待办事项ID
+     * @return 待办事项详情
+     */
+    @GetMapping("/{id}")
+    public Mono<Result<TodoVO>> getTodo(@PathVariable String id) {
+        return todoService.getTodo(id).map(Result::success);
+    }
+
+    /**
+     * 部分更新待办事项
+     * <p>
+     * 只更新 fields 中列出的字段；version 与服务端不一致说明数据已在其他设备上修改，返回 409
+     *
+     * @param id 待办事项ID
+     * @param patchTodoDTO 需要更新的字段、字段值和客户端读取时的版本号
+     * @return 更新后的版本号
+     */
+    @PatchMapping("/{id}")
+    public Mono<Result<Integer>> patchTodo(@PathVariable String id, @RequestBody PatchTodoDTO patchTodoDTO) {
+        return todoService.patchTodo(id, patchTodoDTO).map(Result::success);
+    }
+
+    /**
+     * 手动调整待办事项的顺序
+     * <p>
+     * 把待办事项移动到同一分类的 afterId 之后，afterId 为空时移到开头；无论列表多长只改写被移动的这一项，
+     * 按 orderBy=manual 分页查询即可得到调整后的顺序
+     *
+     * @param id 待办事项ID
+     * @param moveTodoDTO 目标位置的前一项
+     * @return 更新后的版本号
+     */
+    @PutMapping("/{id}/move")
+    public Mono<Result<Integer>> moveTodo(@PathVariable String id, @RequestBody MoveTodoDTO moveTodoDTO) {
+        return todoService.moveTodo(id, moveTodoDTO).map(Result::success);
+    }
+
+    /**
+     * 单独保存重复待办的某一次
+     *
+     * @param id 重复系列第一项的ID
+     * @param date 该次的日期
+     * @return 该次待办事项的ID
+     */
+    @PostMapping("/{id}/occurrences/{date}")
+    public Mono<Result<String>> saveOccurrence(@PathVariable String id, @PathVariable LocalDate date) {
+        return todoService.saveOccurrence(id, date).map(Result::success);
+    }
+
+    /**
+     * 跳过重复待办的某一次
+     *
+     * @param id 重复系列第一项的ID
+     * @param date 该次的日期
+     * @return 操作结果，成功返回success状态
+     */
+    @DeleteMapping("/{id}/occurrences/{date}")
+    public Mono<Result<String>> skipOccurrence(@PathVariable String id, @PathVariable LocalDate date) {
+        return todoService.skipOccurrence(id, date).thenReturn(Result.success("删除成功"));
+    }
+
+    /**
+     * 设置待办事项的标签
+     *
+     * @param id 待办事项ID
+     * @param tagIds 标签ID列表
+     * @return 操作结果，成功返回success状态
+     */
+    @PutMapping("/{id}/tags")
+    public Mono<Result<String>> setTags(@PathVariable String id, @RequestBody List<String> tagIds) {
+        return todoService.setTags(id, tagIds).thenReturn(Result.success("更新成功"));
+    }
+
+    /**
+     * 待办事项日历统计
+     *
+     * @param todoCalendarQueryDTO 日历查询参数
+     * @return 每天的待办数量统计
+     */
+    @GetMapping("/calendar")
+    public Mono<Result<List<TodoCalendarVO>>> calendar(TodoCalendarQueryDTO todoCalendarQueryDTO) {
+        return todoService.calendar(todoCalendarQueryDTO).map(Result::success);
+    }
+
+    /**
+     * 删除待办事项
+     *
+     * @param id 待删除的待办事项ID
+     * @return 操作结果，成功返回success状态
+     */
+    @DeleteMapping("/deleteTodo/{id}")
+    public Mono<Result<String>> deleteTodo(@PathVariable String id) {
+        return todoService.deleteTodo(id).thenReturn(Result.success("删除成功"));
+    }
+
+    /**
+     * 更新待办事项
+     *
+     * @param updateTodoDTO 待办事项更新数据传输对象，包含需要更新的字段
+     * @return 操作结果，成功返回success状态
+     */
+    @PutMapping("/updateTodo")
+    public Mono<Result<String>> updateTodo(@RequestBody UpdateTodoDTO updateTodoDTO) {
+        return todoService.updateTodo(updateTodoDTO).thenReturn(Result.success("更新成功"));
+    }
+}
@@ -0,0 +1,136 @@
+package cn.wind.clear.reactive.controller;
+
+import cn.wind.clear.constant.JwtClaimsConstant;
+import cn.wind.clear.dto.AnalyticsQueryDTO;
+import cn.wind.clear.dto.UserDTO;
+import cn.wind.clear.dto.UserLoginDTO;
+import cn.wind.clear.entity.User;
+import cn.wind.clear.properties.JwtProperties;
+import cn.wind.clear.reactive.service.AnalyticsService;
+import cn.wind.clear.reactive.service.UserService;
+import cn.wind.clear.result.Result;
+import cn.wind.clear.utils.JwtUtil;
+import cn.wind.clear.vo.AnalyticsVO;
+import cn.wind.clear.vo.UserLoginVO;
+import cn.wind.clear.vo.UserStatusVO;
+import jakarta.annotation.Resource;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.web.bind.annotation.*;
+import reactor.core.publisher.Mono;
+
+import java.util.HashMap;
+
+/**
+ * User
+ * */
+@RestController
+@RequestMapping("/user")
+@Slf4j
+public class UserController {
+
+    @Resource
+    private UserService userService;
+    @Resource
+    private JwtProperties jwtProperties;
+    @Resource
+    private AnalyticsService analyticsService;
+
+    /**
+     * 用户登录
+     *
+     * @param userLoginDTO 用户登录数据传输对象，包含用户名和密码
+     * @return 带有用户信息和认证令牌的登录结果
+     */
+    @PostMapping("/login")
+    public Mono<Result<UserLoginVO>> login(@RequestBody UserLoginDTO userLoginDTO) {
+        return userService.login(userLoginDTO).map(user -> Result.success(this.generateRes(user)));
+    }
+
+    /**
+     * 用户注册
+     *
+     * @param userDTO 用户数据传输对象，包含注册所需的用户信息
+     * @return 带有用户信息和认证令牌的注册结果
+     */
+    @PostMapping("/register")
+    public Mono<Result<UserLoginVO>> register(@RequestBody UserDTO userDTO) {
+        return userService.register(userDTO).map(user -> Result.success(this.generateRes(user)));
+    }
+
+    /**
+     * 更新用户主题设置
+     *
+     * @param theme 主题标识值，整数类型
+     * @return Result 操作结果，成功返回提示信息
+     */
+    @PutMapping("/theme/{theme}")
+    public Mono<Result<String>> updateTheme(@PathVariable Integer theme) {
+        return userService.updateTheme(theme).thenReturn(Result.success("主题更新成功"));
+    }
+
+    /**
+     * 发送简单文本邮件
+     *
+     * @param mail 收件人邮箱地址
+     * @return Result 发送结果，成功返回提示信息
+     */
+    @PostMapping("/send/{mail}")
+    public Mono<Result<String>> send(@PathVariable String mail) {
+        return Mono.just(Result.success("当前功能正在开发中,请耐心等待"));
+    }
+
+    /**
+     * 验证邮箱验证码
+     *
+     * @param mail 用户邮箱地址
+     * @param code 用户输入的验证码
+     * @return Result 验证结果，成功返回提示信息
+     */
+    @PostMapping("/check/{mail}/{code}")
+    public Mono<Result<String>> check(@PathVariable String mail, @PathVariable String code) {
+        return Mono.just(Result.success("当前功能正在开发中,请耐心等待"));
+    }
+
+    /**
+     * 获取用户状态信息
+     *
+     * @return Result 包含用户状态信息的结果对象
+     */
+    @GetMapping("/status")
+    public Mono<Result<UserStatusVO>> getUserStatus() {
+        return userService.getUserStatus().map(Result::success);
+    }
+
+    /**
+     * 获取用户的待办统计
+     *
+     * @param analyticsQueryDTO 日期范围、汇总粒度和可选的分类
+     * @return Result 包含趋势与分类统计的结果对象
+     */
+    @GetMapping("/analytics")
+    public Mono<Result<AnalyticsVO>> getAnalytics(AnalyticsQueryDTO analyticsQueryDTO) {
+        return analyticsService.query(analyticsQueryDTO).map(Result::success);
+    }
+
+    /**
+     * 生成响应结果
+     * */
+    private UserLoginVO generateRes(User user) {
+        // 登陆成功，生成JWT令牌
+        HashMap<String, Object> claims = new HashMap<>();
+        claims.put(JwtClaimsConstant.USER_ID, user.getId());
+        claims.put(JwtClaimsConstant.USER_NAME, user.getUsername());
+        String token = JwtUtil.createJWT(
+                jwtProperties.getSecretKey(),
+                jwtProperties.getTtl(),
+                claims
+        );
+
+        return UserLoginVO.builder()
+                .id(user.getId())
+                .username(user.getUsername())
+                .tk(token)
+                .theme(user.getTheme())
+                .build();
+    }
+}
@@ -0,0 +1,87 @@
+package cn.wind.clear.reactive.filter;
+
+import cn.wind.clear.constant.JwtClaimsConstant;
+import cn.wind.clear.properties.JwtProperties;
+import cn.wind.clear.reactive.context.UserContext;
+import cn.wind.clear.utils.JwtUtil;
+import io.jsonwebtoken.Claims;
+import jakarta.annotation.Resource;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.core.Ordered;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.server.PathContainer;
+import org.springframework.stereotype.Component;
+import org.springframework.web.server.ServerWebExchange;
+import org.springframework.web.server.WebFilter;
+import org.springframework.web.server.WebFilterChain;
+import org.springframework.web.util.pattern.PathPattern;
+import org.springframework.web.util.pattern.PathPatternParser;
+import reactor.core.publisher.Mono;
+
+import java.util.Arrays;
+import java.util.List;
+
+/**
+ * 校验JWT，与 Servlet 版本的 JwtTokenInterceptor 拦截相同的路径
+ */
+@Component
+@Slf4j
+public class JwtAuthenticationFilter implements WebFilter, Ordered {
+
+    private static final List<PathPattern> INCLUDE = parse("/user/**", "/todo/**", "/category/**");
+
+    private static final List<PathPattern> EXCLUDE = parse("/user/login", "/user/register");
+
+    @Resource
+    private JwtProperties jwtProperties;
+
+    @Override
+    public Mono<Void> filter(ServerWebExchange exchange, WebFilterChain chain) {
+        PathContainer path = exchange.getRequest().getPath().pathWithinApplication();
+        if (!matches(INCLUDE, path) || matches(EXCLUDE, path)) {
+            return chain.filter(exchange);
+        }
+
+        // 1. 从请求头中获取令牌，格式为 Bearer <token>
+        String token = exchange.getRequest().getHeaders().getFirst(jwtProperties.getTokenName());
+        String[] res = token == null ? new String[0] : token.split(" ");
+        if (res.length != 2 || !"Bearer".equals(res[0])) {
+            return unauthorized(exchange);
+        }
+
+        // 2. 校验令牌
+        String userId;
+        try {
+            Claims claims = JwtUtil.parseJWT(jwtProperties.getSecretKey(), res[1]);
+            userId = claims.get(JwtClaimsConstant.USER_ID).toString();
+        } catch (Exception e) {
+            return unauthorized(exchange);
+        }
+        log.debug("当前用户id: {}", userId);
+        // 3. 通过，用户ID随 Reactor Context 传递
+        return chain.filter(exchange).contextWrite(UserContext.withCurrentId(userId));
+    }
+
+    @Override
+    public int getOrder() {
+        return Ordered.HIGHEST_PRECEDENCE + 100;
+    }
+
+    private static Mono<Void> unauthorized(ServerWebExchange exchange) {
+        exchange.getResponse().setStatusCode(HttpStatus.UNAUTHORIZED);
+        return exchange.getResponse().setComplete();
+    }
+
+    private static boolean matches(List<PathPattern> patterns, PathContainer path) {
+        for (PathPattern pattern : patterns) {
+            if (pattern.matches(path)) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    private static List<PathPattern> parse(String... patterns) {
+        return Arrays.stream(patterns).map(PathPatternParser.defaultInstance::parse).toList();
+    }
+}
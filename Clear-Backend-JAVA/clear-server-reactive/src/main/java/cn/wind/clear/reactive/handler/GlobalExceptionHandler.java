@@ -0,0 +1,38 @@
+package cn.wind.clear.reactive.handler;
+
+import cn.wind.clear.exception.BaseException;
+import cn.wind.clear.exception.ConflictException;
+import cn.wind.clear.result.Result;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.http.HttpStatus;
+import org.springframework.web.bind.annotation.ExceptionHandler;
+import org.springframework.web.bind.annotation.ResponseStatus;
+import org.springframework.web.bind.annotation.RestControllerAdvice;
+
+@RestControllerAdvice
+@Slf4j
+public class GlobalExceptionHandler {
+
+    /**
+     * 捕获业务异常
+     * @param ex
+     * @return
+     */
+    @ExceptionHandler
+    public Result exceptionHandler(BaseException ex) {
+        log.error("异常信息: {}", ex.getMessage());
+        return Result.error(ex.getMessage());
+    }
+
+    /**
+     * 捕获并发修改冲突
+     * @param ex
+     * @return
+     */
+    @ExceptionHandler
+    @ResponseStatus(HttpStatus.CONFLICT)
+    public Result conflictHandler(ConflictException ex) {
+        log.warn("修改冲突: {}", ex.getMessage());
+        return Result.error(ex.getMessage());
+    }
+}
@@ -0,0 +1,79 @@
+package cn.wind.clear.reactive.push;
+
+import cn.wind.clear.json.JacksonObjectMapper;
+import cn.wind.clear.properties.PushProperties;
+import cn.wind.clear.push.ChangeEvent;
+import cn.wind.clear.reactive.store.ReactiveKeyValueStore;
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.NoTransactionException;
+import org.springframework.transaction.reactive.TransactionSynchronization;
+import org.springframework.transaction.reactive.TransactionSynchronizationManager;
+import reactor.core.publisher.Mono;
+
+/**
+ * 发布数据变更事件
+ * <p>
+ * 与 clear-server 的变更广播(RedisChangeEventBroker)使用同一频道和格式，两个服务共用 Redis 与数据库时，
+ * 这里的写入同样会让 clear-server 丢弃用户的内存索引并推送给在线客户端
+ */
+@Component
+@Slf4j
+public class ChangeEventPublisher {
+
+    private static final ObjectMapper MAPPER = new JacksonObjectMapper();
+
+    private final ReactiveKeyValueStore reactiveKeyValueStore;
+    private final String channel;
+
+    public ChangeEventPublisher(ReactiveKeyValueStore reactiveKeyValueStore, PushProperties pushProperties) {
+        this.reactiveKeyValueStore = reactiveKeyValueStore;
+        this.channel = pushProperties.getChannel();
+    }
+
+    /**
+     * 发布变更事件，在事务中调用时于提交后发布
+     *
+     * @param userId 数据所属用户id
+     * @param type   数据类型
+     * @param action 变更动作
+     * @param id     变更数据的id
+     */
+    public Mono<Void> publish(String userId, String type, String action, String id) {
+        return afterCommit(Mono.defer(() -> {
+            String message;
+            try {
+                message = MAPPER.writeValueAsString(new ChangeEvent(type, action, id, userId));
+            } catch (JsonProcessingException e) {
+                return Mono.error(e);
+            }
+            return reactiveKeyValueStore.publish(channel, message).then();
+        }).onErrorResume(e -> {
+            // 推送失败不影响业务写入，客户端重连后会重新拉取
+            log.warn("变更事件发布失败: {}", e.getMessage());
+            return Mono.empty();
+        }));
+    }
+
+    /**
+     * 在当前事务提交后执行，没有事务时立即执行
+     */
+    public static Mono<Void> afterCommit(Mono<Void> action) {
+        return TransactionSynchronizationManager.forCurrentTransaction()
+                .flatMap(manager -> {
+                    if (!manager.isSynchronizationActive()) {
+                        return action;
+                    }
+                    manager.registerSynchronization(new TransactionSynchronization() {
+                        @Override
+                        public Mono<Void> afterCommit() {
+                            return action;
+                        }
+                    });
+                    return Mono.<Void>empty();
+                })
+                .onErrorResume(NoTransactionException.class, e -> action);
+    }
+}
@@ -0,0 +1,78 @@
+package cn.wind.clear.reactive.repository;
+
+import cn.wind.clear.entity.Category;
+import io.r2dbc.spi.Readable;
+import jakarta.annotation.Resource;
+import org.springframework.r2dbc.core.DatabaseClient;
+import org.springframework.stereotype.Repository;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+
+import java.time.LocalDateTime;
+
+@Repository
+public class CategoryRepository {
+
+    private static final String COLUMNS = "id, user_id, name, created_at, updated_at";
+
+    @Resource
+    private DatabaseClient databaseClient;
+
+    public Flux<Category> findByUserId(String userId) {
+        return databaseClient.sql("SELECT " + COLUMNS + " FROM category WHERE user_id = :userId")
+                .bind("userId", Rows.id(userId))
+                .map(CategoryRepository::map)
+                .all();
+    }
+
+    public Mono<Category> findById(String id) {
+        return databaseClient.sql("SELECT " + COLUMNS + " FROM category WHERE id = :id")
+                .bind("id", Rows.id(id))
+                .map(CategoryRepository::map)
+                .one();
+    }
+
+    public Mono<String> findIdByName(String userId, String name) {
+        return databaseClient.sql("SELECT id FROM category WHERE user_id = :userId AND name = :name")
+                .bind("userId", Rows.id(userId))
+                .bind("name", name)
+                .map(row -> Rows.string(row, "id"))
+                .one();
+    }
+
+    public Mono<Long> insert(Category category) {
+        return databaseClient.sql("INSERT INTO category (id, user_id, name) VALUES (:id, :userId, :name)")
+                .bind("id", Rows.id(category.getId()))
+                .bind("userId", Rows.id(category.getUserId()))
+                .bind("name", category.getName())
+                .fetch()
+                .rowsUpdated();
+    }
+
+    public Mono<Long> updateName(String id, String userId, String name) {
+        return databaseClient.sql("UPDATE category SET name = :name WHERE id = :id AND user_id = :userId")
+                .bind("name", name)
+                .bind("id", Rows.id(id))
+                .bind("userId", Rows.id(userId))
+                .fetch()
+                .rowsUpdated();
+    }
+
+    public Mono<Long> delete(String id, String userId) {
+        return databaseClient.sql("DELETE FROM category WHERE id = :id AND user_id = :userId")
+                .bind("id", Rows.id(id))
+                .bind("userId", Rows.id(userId))
+                .fetch()
+                .rowsUpdated();
+    }
+
+    private static Category map(Readable row) {
+        return Category.builder()
+                .id(Rows.string(row, "id"))
+                .userId(Rows.string(row, "user_id"))
+                .name(row.get("name", String.class))
+                .createdAt(row.get("created_at", LocalDateTime.class))
+                .updatedAt(row.get("updated_at", LocalDateTime.class))
+                .build();
+    }
+}
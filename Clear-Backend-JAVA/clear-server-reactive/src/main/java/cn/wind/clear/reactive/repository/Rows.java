@@ -0,0 +1,46 @@
+package cn.wind.clear.reactive.repository;
+
+import io.r2dbc.spi.Readable;
+
+import java.util.Collection;
+import java.util.List;
+
+/**
+ * 结果行读取工具
+ */
+final class Rows {
+
+    private Rows() {
+    }
+
+    /**
+     * 读取 BIGINT 主键或外键，实体中统一使用字符串
+     */
+    static String string(Readable row, String column) {
+        Object value = row.get(column);
+        return value == null ? null : value.toString();
+    }
+
+    /**
+     * 读取 TINYINT 等整数列，不同驱动返回的数字类型不同
+     */
+    static Integer integer(Readable row, String column) {
+        Number value = row.get(column, Number.class);
+        return value == null ? null : value.intValue();
+    }
+
+    /**
+     * 写入 BIGINT 列的参数，驱动不会把字符串隐式转换为数字；无法解析的ID按不存在的 0 处理
+     */
+    static long id(String id) {
+        try {
+            return Long.parseLong(id);
+        } catch (NumberFormatException e) {
+            return 0L;
+        }
+    }
+
+    static List<Long> ids(Collection<String> ids) {
+        return ids.stream().map(Rows::id).toList();
+    }
+}
@@ -0,0 +1,98 @@
+package cn.wind.clear.reactive.repository;
+
+import cn.wind.clear.entity.TodoDailyStat;
+import jakarta.annotation.Resource;
+import org.springframework.r2dbc.core.DatabaseClient;
+import org.springframework.stereotype.Repository;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * 待办每日统计的 SQL，语句与 clear-server 的 TodoDailyStatMapper.xml 一致；回填只在 clear-server 中运行
+ */
+@Repository
+public class TodoDailyStatRepository {
+
+    private static final String ACCUMULATE = " ON DUPLICATE KEY UPDATE created = created + VALUES(created),"
+            + " completed = completed + VALUES(completed), overdue = overdue + VALUES(overdue)";
+
+    @Resource
+    private DatabaseClient databaseClient;
+
+    /**
+     * 把增量累加到统计行，行不存在时插入
+     */
+    public Mono<Long> upsert(List<TodoDailyStat> rows) {
+        List<String> values = new ArrayList<>();
+        for (int i = 0; i < rows.size(); i++) {
+            values.add("(:userId" + i + ", :statDate" + i + ", :categoryId" + i
+                    + ", :created" + i + ", :completed" + i + ", :overdue" + i + ")");
+        }
+        DatabaseClient.GenericExecuteSpec spec = databaseClient.sql(
+                "INSERT INTO todo_daily_stat (user_id, stat_date, category_id, created, completed, overdue) VALUES "
+                        + String.join(", ", values) + ACCUMULATE);
+        for (int i = 0; i < rows.size(); i++) {
+            TodoDailyStat row = rows.get(i);
+            spec = spec.bind("userId" + i, Rows.id(row.getUserId()))
+                    .bind("statDate" + i, row.getStatDate())
+                    .bind("categoryId" + i, Rows.id(row.getCategoryId()))
+                    .bind("created" + i, row.getCreated())
+                    .bind("completed" + i, row.getCompleted())
+                    .bind("overdue" + i, row.getOverdue());
+        }
+        return spec.fetch().rowsUpdated();
+    }
+
+    /**
+     * 查询日期范围内的统计行，走主键 (user_id, stat_date, category_id) 的范围扫描
+     *
+     * @param categoryId 分类id，为空时查询全部分类
+     */
+    public Flux<TodoDailyStat> findRange(String userId, LocalDate start, LocalDate end, String categoryId) {
+        DatabaseClient.GenericExecuteSpec spec = databaseClient.sql(
+                        "SELECT user_id, stat_date, category_id, created, completed, overdue FROM todo_daily_stat"
+                                + " WHERE user_id = :userId AND stat_date >= :start AND stat_date <= :end"
+                                + (categoryId != null ? " AND category_id = :categoryId" : "")
+                                + " ORDER BY stat_date")
+                .bind("userId", Rows.id(userId))
+                .bind("start", start)
+                .bind("end", end);
+        if (categoryId != null) {
+            spec = spec.bind("categoryId", Rows.id(categoryId));
+        }
+        return spec.map(row -> TodoDailyStat.builder()
+                        .userId(Rows.string(row, "user_id"))
+                        .statDate(row.get("stat_date", LocalDate.class))
+                        .categoryId(Rows.string(row, "category_id"))
+                        .created(Rows.integer(row, "created"))
+                        .completed(Rows.integer(row, "completed"))
+                        .overdue(Rows.integer(row, "overdue"))
+                        .build())
+                .all();
+    }
+
+    /**
+     * 把分类的统计并入未分类(0)
+     */
+    public Mono<Long> mergeIntoNoCategory(String userId, String categoryId) {
+        return databaseClient.sql("INSERT INTO todo_daily_stat (user_id, stat_date, category_id, created, completed, overdue)"
+                        + " SELECT user_id, stat_date, 0, created, completed, overdue FROM todo_daily_stat"
+                        + " WHERE user_id = :userId AND category_id = :categoryId" + ACCUMULATE)
+                .bind("userId", Rows.id(userId))
+                .bind("categoryId", Rows.id(categoryId))
+                .fetch()
+                .rowsUpdated();
+    }
+
+    public Mono<Long> deleteCategory(String userId, String categoryId) {
+        return databaseClient.sql("DELETE FROM todo_daily_stat WHERE user_id = :userId AND category_id = :categoryId")
+                .bind("userId", Rows.id(userId))
+                .bind("categoryId", Rows.id(categoryId))
+                .fetch()
+                .rowsUpdated();
+    }
+}
@@ -0,0 +1,471 @@
+package cn.wind.clear.reactive.repository;
+
+import cn.wind.clear.entity.Todo;
+import cn.wind.clear.entity.TodoTag;
+import cn.wind.clear.vo.TodoCalendarVO;
+import io.r2dbc.spi.Readable;
+import jakarta.annotation.Resource;
+import org.springframework.r2dbc.core.DatabaseClient;
+import org.springframework.stereotype.Repository;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * to do 的 SQL，语句与 clear-server 的 TodoMapper.xml 一致
+ */
+@Repository
+public class TodoRepository {
+
+    private static final String COLUMNS =
+            "id, title, content, status, due_date, user_id, category_id, created_at, updated_at, version, completed_at, rank_key,"
+                    + " recurrence, series_id, occurrence_date";
+
+    @Resource
+    private DatabaseClient databaseClient;
+
+    /**
+     * 分页查询条件，只拼接非空条件
+     */
+    public static class Condition {
+        private final List<String> clauses = new ArrayList<>();
+        private final Map<String, Object> params = new LinkedHashMap<>();
+
+        public Condition eq(String column, String name, Object value) {
+            if (value != null) {
+                clauses.add(column + " = :" + name);
+                params.put(name, value);
+            }
+            return this;
+        }
+
+        public Condition eqId(String column, String name, String id) {
+            return eq(column, name, id == null ? null : Rows.id(id));
+        }
+
+        public Condition like(String column, String name, String value) {
+            if (value != null) {
+                clauses.add(column + " LIKE CONCAT('%', :" + name + ", '%')");
+                params.put(name, value);
+            }
+            return this;
+        }
+
+        public Condition range(String column, LocalDate from, LocalDate to) {
+            clauses.add(column + " >= :rangeFrom AND " + column + " < :rangeTo");
+            params.put("rangeFrom", from.atStartOfDay());
+            params.put("rangeTo", to.atStartOfDay());
+            return this;
+        }
+
+        /**
+         * 标签筛选: any 为带有任一标签，all 为带有全部标签
+         */
+        public Condition tags(String userId, List<String> tagIds, boolean matchAll) {
+            clauses.add("id IN (SELECT todo_id FROM todo_tag WHERE user_id = :tagUserId AND tag_id IN (:tagIds)"
+                    + (matchAll ? " GROUP BY todo_id HAVING COUNT(*) = :tagCount)" : ")"));
+            params.put("tagUserId", Rows.id(userId));
+            params.put("tagIds", Rows.ids(tagIds));
+            if (matchAll) {
+                params.put("tagCount", tagIds.size());
+            }
+            return this;
+        }
+
+        /**
+         * 重复系列的第一项: 有重复规则且开始时间早于展开范围的结束时间
+         */
+        public Condition recurring(LocalDateTime to) {
+            clauses.add("recurrence IS NOT NULL AND due_date < :seriesTo");
+            params.put("seriesTo", to);
+            return this;
+        }
+
+        private String where() {
+            return clauses.isEmpty() ? "" : " WHERE " + String.join(" AND ", clauses);
+        }
+    }
+
+    public Mono<Long> count(Condition condition, boolean withArchive) {
+        String sql = withArchive
+                ? "SELECT COUNT(*) AS total FROM (SELECT id FROM todo" + condition.where()
+                + " UNION ALL SELECT id FROM todo_archive" + condition.where() + ") t"
+                : "SELECT COUNT(*) AS total FROM todo" + condition.where();
+        return bind(databaseClient.sql(sql), condition.params)
+                .map(row -> row.get("total", Long.class))
+                .one();
+    }
+
+    /**
+     * @param manual 按手动排序键排序，否则按截止日期倒序
+     */
+    public Flux<Todo> page(Condition condition, boolean withArchive, boolean manual, long offset, long size) {
+        String sql = withArchive
+                ? "SELECT * FROM (SELECT " + COLUMNS + " FROM todo" + condition.where()
+                + " UNION ALL SELECT " + COLUMNS + " FROM todo_archive" + condition.where() + ") t"
+                : "SELECT " + COLUMNS + " FROM todo" + condition.where();
+        String orderBy = manual ? " ORDER BY rank_key, id" : " ORDER BY due_date DESC";
+        return bind(databaseClient.sql(sql + orderBy + " LIMIT :limit OFFSET :offset"), condition.params)
+                .bind("limit", size)
+                .bind("offset", offset)
+                .map(TodoRepository::map)
+                .all();
+    }
+
+    public Flux<Todo> findAll(Condition condition) {
+        return bind(databaseClient.sql("SELECT " + COLUMNS + " FROM todo" + condition.where()), condition.params)
+                .map(TodoRepository::map)
+                .all();
+    }
+
+    public Mono<Todo> findById(String id, String userId) {
+        return databaseClient.sql("SELECT " + COLUMNS + " FROM todo WHERE id = :id AND user_id = :userId")
+                .bind("id", Rows.id(id))
+                .bind("userId", Rows.id(userId))
+                .map(TodoRepository::map)
+                .one();
+    }
+
+    /**
+     * 读取并锁定to do，同一to do的并发修改在此排队
+     */
+    public Mono<Todo> findForUpdate(String id, String userId) {
+        return databaseClient.sql("SELECT " + COLUMNS + " FROM todo WHERE id = :id AND user_id = :userId FOR UPDATE")
+                .bind("id", Rows.id(id))
+                .bind("userId", Rows.id(userId))
+                .map(TodoRepository::map)
+                .one();
+    }
+
+    public Mono<Todo> findArchived(String id, String userId) {
+        return databaseClient.sql("SELECT " + COLUMNS + " FROM todo_archive WHERE id = :id AND user_id = :userId")
+                .bind("id", Rows.id(id))
+                .bind("userId", Rows.id(userId))
+                .map(TodoRepository::map)
+                .one();
+    }
+
+    /**
+     * 归档表中是否已有该id，不区分用户
+     */
+    public Mono<Boolean> existsArchived(String id) {
+        return databaseClient.sql("SELECT id FROM todo_archive WHERE id = :id")
+                .bind("id", Rows.id(id))
+                .map(row -> true)
+                .first()
+                .defaultIfEmpty(false);
+    }
+
+    public Mono<Long> insert(Todo todo) {
+        DatabaseClient.GenericExecuteSpec spec = databaseClient.sql(
+                        "INSERT INTO todo (id, title, content, status, due_date, user_id, category_id, created_at, rank_key,"
+                                + " recurrence, series_id, occurrence_date)"
+                                + " VALUES (:id, :title, :content, :status, :dueDate, :userId, :categoryId, :createdAt, :rankKey,"
+                                + " :recurrence, :seriesId, :occurrenceDate)")
+                .bind("id", Rows.id(todo.getId()))
+                .bind("title", todo.getTitle())
+                .bind("status", todo.getStatus())
+                .bind("userId", Rows.id(todo.getUserId()))
+                .bind("createdAt", todo.getCreatedAt());
+        spec = bindNullable(spec, "content", todo.getContent(), String.class);
+        spec = bindNullable(spec, "dueDate", todo.getDueDate(), LocalDateTime.class);
+        spec = bindNullable(spec, "categoryId", todo.getCategoryId() == null ? null : Rows.id(todo.getCategoryId()), Long.class);
+        spec = bindNullable(spec, "rankKey", todo.getRankKey(), String.class);
+        spec = bindNullable(spec, "recurrence", todo.getRecurrence(), String.class);
+        spec = bindNullable(spec, "seriesId", todo.getSeriesId() == null ? null : Rows.id(todo.getSeriesId()), Long.class);
+        spec = bindNullable(spec, "occurrenceDate", todo.getOccurrenceDate(), LocalDate.class);
+        return spec.fetch().rowsUpdated();
+    }
+
+    /**
+     * 更新指定列并递增版本号
+     *
+     * @param values 列名到新值，值为 null 时写入 NULL
+     * @param version 期望的版本号，为 null 时不校验
+     */
+    public Mono<Long> update(String id, String userId, Map<String, Object> values, Integer version) {
+        List<String> sets = new ArrayList<>();
+        values.keySet().forEach(column -> sets.add(column + " = :" + column));
+        sets.add("version = version + 1");
+        String sql = "UPDATE todo SET " + String.join(", ", sets) + " WHERE id = :id AND user_id = :userId"
+                + (version != null ? " AND version = :version" : "");
+        DatabaseClient.GenericExecuteSpec spec = databaseClient.sql(sql)
+                .bind("id", Rows.id(id))
+                .bind("userId", Rows.id(userId));
+        for (Map.Entry<String, Object> entry : values.entrySet()) {
+            Object value = entry.getValue() != null && "category_id".equals(entry.getKey())
+                    ? Rows.id((String) entry.getValue()) : entry.getValue();
+            spec = bindNullable(spec, entry.getKey(), value, columnType(entry.getKey()));
+        }
+        if (version != null) {
+            spec = spec.bind("version", version);
+        }
+        return spec.fetch().rowsUpdated();
+    }
+
+    public Mono<Long> delete(String id, String userId) {
+        return databaseClient.sql("DELETE FROM todo WHERE id = :id AND user_id = :userId")
+                .bind("id", Rows.id(id))
+                .bind("userId", Rows.id(userId))
+                .fetch()
+                .rowsUpdated();
+    }
+
+    public Mono<Long> restoreArchive(String id, String userId) {
+        return databaseClient.sql("INSERT INTO todo (" + COLUMNS + ") SELECT " + COLUMNS
+                        + " FROM todo_archive WHERE id = :id AND user_id = :userId")
+                .bind("id", Rows.id(id))
+                .bind("userId", Rows.id(userId))
+                .fetch()
+                .rowsUpdated();
+    }
+
+    public Mono<Long> deleteArchive(String id, String userId) {
+        return databaseClient.sql("DELETE FROM todo_archive WHERE id = :id AND user_id = :userId")
+                .bind("id", Rows.id(id))
+                .bind("userId", Rows.id(userId))
+                .fetch()
+                .rowsUpdated();
+    }
+
+    /**
+     * 读取并锁定移动目标的前一项
+     */
+    public Mono<Todo> findRankForUpdate(String id, String userId) {
+        return databaseClient.sql("SELECT id, category_id, rank_key FROM todo WHERE id = :id AND user_id = :userId FOR UPDATE")
+                .bind("id", Rows.id(id))
+                .bind("userId", Rows.id(userId))
+                .map(row -> Todo.builder()
+                        .id(Rows.string(row, "id"))
+                        .categoryId(Rows.string(row, "category_id"))
+                        .rankKey(row.get("rank_key", String.class))
+                        .build())
+                .one();
+    }
+
+    /**
+     * 手动排序列表的第一项或最后一项并加锁，列表是用户的一个分类，categoryId 为空表示未分类
+     */
+    public Mono<Todo> findRankEdge(String userId, String categoryId, boolean last) {
+        return bindRankList(databaseClient.sql("SELECT id, rank_key FROM todo" + rankList(categoryId)
+                        + " ORDER BY rank_key" + (last ? " DESC" : "") + " LIMIT 1 FOR UPDATE"), userId, categoryId)
+                .map(TodoRepository::mapRank)
+                .first();
+    }
+
+    public Mono<Todo> findRankSuccessor(String userId, String categoryId, String rankKey) {
+        return bindRankList(databaseClient.sql("SELECT id, rank_key FROM todo" + rankList(categoryId)
+                        + " AND rank_key > :rankKey ORDER BY rank_key LIMIT 1"), userId, categoryId)
+                .bind("rankKey", rankKey)
+                .map(TodoRepository::mapRank)
+                .first();
+    }
+
+    /**
+     * 与手动排序的分页查询顺序一致: 缺失排序键的历史数据排在最前，按 id 排列
+     */
+    public Flux<Todo> findRankList(String userId, String categoryId) {
+        return bindRankList(databaseClient.sql("SELECT id, rank_key FROM todo" + rankList(categoryId)
+                        + " ORDER BY rank_key, id FOR UPDATE"), userId, categoryId)
+                .map(TodoRepository::mapRank)
+                .all();
+    }
+
+    /**
+     * 显式写回 updated_at，避免 ON UPDATE 改变更新时间(归档与历史数据的完成日期依赖它)
+     */
+    public Mono<Long> updateRank(String id, String rankKey) {
+        return databaseClient.sql("UPDATE todo SET rank_key = :rankKey, updated_at = updated_at WHERE id = :id")
+                .bind("rankKey", rankKey)
+                .bind("id", Rows.id(id))
+                .fetch()
+                .rowsUpdated();
+    }
+
+    private static String rankList(String categoryId) {
+        return " WHERE user_id = :userId AND " + (categoryId != null ? "category_id = :categoryId" : "category_id IS NULL");
+    }
+
+    private static DatabaseClient.GenericExecuteSpec bindRankList(DatabaseClient.GenericExecuteSpec spec,
+                                                                  String userId, String categoryId) {
+        spec = spec.bind("userId", Rows.id(userId));
+        return categoryId != null ? spec.bind("categoryId", Rows.id(categoryId)) : spec;
+    }
+
+    private static Todo mapRank(Readable row) {
+        return Todo.builder()
+                .id(Rows.string(row, "id"))
+                .rankKey(row.get("rank_key", String.class))
+                .build();
+    }
+
+    /**
+     * 范围内已单独保存或已跳过的重复实例，单独保存的实例走 (series_id, occurrence_date) 唯一索引，跳过记录走主键
+     */
+    public Flux<Todo> findOccurrenceExceptions(Collection<String> seriesIds, LocalDate from, LocalDate to) {
+        String range = " WHERE series_id IN (:seriesIds) AND occurrence_date >= :from AND occurrence_date < :to";
+        return databaseClient.sql("SELECT series_id, occurrence_date FROM todo" + range
+                        + " UNION ALL SELECT series_id, occurrence_date FROM todo_archive" + range
+                        + " UNION ALL SELECT series_id, occurrence_date FROM todo_occurrence_skip" + range)
+                .bind("seriesIds", Rows.ids(seriesIds))
+                .bind("from", from)
+                .bind("to", to)
+                .map(row -> Todo.builder()
+                        .seriesId(Rows.string(row, "series_id"))
+                        .occurrenceDate(row.get("occurrence_date", LocalDate.class))
+                        .build())
+                .all();
+    }
+
+    public Mono<String> findOccurrenceId(String seriesId, LocalDate occurrenceDate) {
+        return databaseClient.sql("""
+                        SELECT id FROM (
+                            SELECT id FROM todo WHERE series_id = :seriesId AND occurrence_date = :occurrenceDate
+                            UNION ALL
+                            SELECT id FROM todo_archive WHERE series_id = :seriesId AND occurrence_date = :occurrenceDate
+                        ) t
+                        LIMIT 1""")
+                .bind("seriesId", Rows.id(seriesId))
+                .bind("occurrenceDate", occurrenceDate)
+                .map(row -> Rows.string(row, "id"))
+                .first();
+    }
+
+    public Mono<Long> insertOccurrenceSkip(String seriesId, LocalDate occurrenceDate, String userId) {
+        return databaseClient.sql("INSERT INTO todo_occurrence_skip (series_id, occurrence_date, user_id)"
+                        + " VALUES (:seriesId, :occurrenceDate, :userId) ON DUPLICATE KEY UPDATE user_id = VALUES(user_id)")
+                .bind("seriesId", Rows.id(seriesId))
+                .bind("occurrenceDate", occurrenceDate)
+                .bind("userId", Rows.id(userId))
+                .fetch()
+                .rowsUpdated();
+    }
+
+    public Mono<Long> deleteOccurrenceSkips(String seriesId) {
+        return databaseClient.sql("DELETE FROM todo_occurrence_skip WHERE series_id = :seriesId")
+                .bind("seriesId", Rows.id(seriesId))
+                .fetch()
+                .rowsUpdated();
+    }
+
+    public Mono<Long> countByStatus(String userId, Integer status) {
+        return databaseClient.sql("SELECT COUNT(*) AS total FROM todo WHERE user_id = :userId AND status = :status")
+                .bind("userId", Rows.id(userId))
+                .bind("status", status)
+                .map(row -> row.get("total", Long.class))
+                .one();
+    }
+
+    public Mono<Long> countArchived(String userId) {
+        return databaseClient.sql("SELECT COUNT(*) AS total FROM todo_archive WHERE user_id = :userId")
+                .bind("userId", Rows.id(userId))
+                .map(row -> row.get("total", Long.class))
+                .one();
+    }
+
+    /**
+     * 按天统计, todo 与 todo_archive 都走 (user_id, due_date) 索引的范围扫描
+     */
+    public Flux<TodoCalendarVO> countByDay(String userId, LocalDateTime start, LocalDateTime end) {
+        return databaseClient.sql("""
+                        SELECT DATE(due_date) AS date,
+                               SUM(CASE WHEN status = 1 THEN 1 ELSE 0 END) AS done,
+                               SUM(CASE WHEN status = 0 THEN 1 ELSE 0 END) AS undone
+                        FROM (
+                            SELECT due_date, status FROM todo
+                            WHERE user_id = :userId AND due_date >= :start AND due_date < :end
+                            UNION ALL
+                            SELECT due_date, status FROM todo_archive
+                            WHERE user_id = :userId AND due_date >= :start AND due_date < :end
+                        ) t
+                        GROUP BY DATE(due_date)
+                        ORDER BY date""")
+                .bind("userId", Rows.id(userId))
+                .bind("start", start)
+                .bind("end", end)
+                .map(row -> new TodoCalendarVO(row.get("date", LocalDate.class),
+                        row.get("done", Long.class), row.get("undone", Long.class)))
+                .all();
+    }
+
+    public Flux<TodoTag> findTags(Collection<String> todoIds) {
+        return databaseClient.sql("SELECT todo_id, tag_id, user_id FROM todo_tag WHERE todo_id IN (:todoIds)")
+                .bind("todoIds", Rows.ids(todoIds))
+                .map(row -> new TodoTag(Rows.string(row, "todo_id"), Rows.string(row, "tag_id"),
+                        Rows.string(row, "user_id")))
+                .all();
+    }
+
+    public Mono<Long> insertTag(TodoTag todoTag) {
+        return databaseClient.sql("INSERT INTO todo_tag (todo_id, tag_id, user_id) VALUES (:todoId, :tagId, :userId)")
+                .bind("todoId", Rows.id(todoTag.getTodoId()))
+                .bind("tagId", Rows.id(todoTag.getTagId()))
+                .bind("userId", Rows.id(todoTag.getUserId()))
+                .fetch()
+                .rowsUpdated();
+    }
+
+    public Mono<Long> deleteTags(String todoId, String userId) {
+        return databaseClient.sql("DELETE FROM todo_tag WHERE todo_id = :todoId AND user_id = :userId")
+                .bind("todoId", Rows.id(todoId))
+                .bind("userId", Rows.id(userId))
+                .fetch()
+                .rowsUpdated();
+    }
+
+    public Mono<Long> countTags(String userId, Collection<String> tagIds) {
+        return databaseClient.sql("SELECT COUNT(*) AS total FROM tag WHERE user_id = :userId AND id IN (:tagIds)")
+                .bind("userId", Rows.id(userId))
+                .bind("tagIds", Rows.ids(tagIds))
+                .map(row -> row.get("total", Long.class))
+                .one();
+    }
+
+    private static DatabaseClient.GenericExecuteSpec bind(DatabaseClient.GenericExecuteSpec spec, Map<String, Object> params) {
+        for (Map.Entry<String, Object> entry : params.entrySet()) {
+            spec = spec.bind(entry.getKey(), entry.getValue());
+        }
+        return spec;
+    }
+
+    private static DatabaseClient.GenericExecuteSpec bindNullable(DatabaseClient.GenericExecuteSpec spec,
+                                                                  String name, Object value, Class<?> type) {
+        return value == null ? spec.bindNull(name, type) : spec.bind(name, value);
+    }
+
+    private static Class<?> columnType(String column) {
+        return switch (column) {
+            case "status" -> Integer.class;
+            case "category_id" -> Long.class;
+            case "due_date", "completed_at" -> LocalDateTime.class;
+            default -> String.class;
+        };
+    }
+
+    private static Todo map(Readable row) {
+        return Todo.builder()
+                .id(Rows.string(row, "id"))
+                .title(row.get("title", String.class))
+                .content(row.get("content", String.class))
+                .status(Rows.integer(row, "status"))
+                .dueDate(row.get("due_date", LocalDateTime.class))
+                .userId(Rows.string(row, "user_id"))
+                .categoryId(Rows.string(row, "category_id"))
+                .createdAt(row.get("created_at", LocalDateTime.class))
+                .updatedAt(row.get("updated_at", LocalDateTime.class))
+                .version(row.get("version", Integer.class))
+                .completedAt(row.get("completed_at", LocalDateTime.class))
+                .rankKey(row.get("rank_key", String.class))
+                .recurrence(row.get("recurrence", String.class))
+                .seriesId(Rows.string(row, "series_id"))
+                .occurrenceDate(row.get("occurrence_date", LocalDate.class))
+                .build();
+    }
+}
@@ -0,0 +1,49 @@
+package cn.wind.clear.reactive.repository;
+
+import cn.wind.clear.entity.User;
+import io.r2dbc.spi.Readable;
+import jakarta.annotation.Resource;
+import org.springframework.r2dbc.core.DatabaseClient;
+import org.springframework.stereotype.Repository;
+import reactor.core.publisher.Mono;
+
+@Repository
+public class UserRepository {
+
+    @Resource
+    private DatabaseClient databaseClient;
+
+    public Mono<User> findByUsername(String username) {
+        return databaseClient.sql("SELECT id, username, password, email, theme FROM user WHERE username = :username")
+                .bind("username", username)
+                .map(UserRepository::map)
+                .one();
+    }
+
+    public Mono<Long> insert(User user) {
+        return databaseClient.sql("INSERT INTO user (id, username, password) VALUES (:id, :username, :password)")
+                .bind("id", Rows.id(user.getId()))
+                .bind("username", user.getUsername())
+                .bind("password", user.getPassword())
+                .fetch()
+                .rowsUpdated();
+    }
+
+    public Mono<Long> updateTheme(String userId, Integer theme) {
+        return databaseClient.sql("UPDATE user SET theme = :theme WHERE id = :id")
+                .bind("theme", theme)
+                .bind("id", Rows.id(userId))
+                .fetch()
+                .rowsUpdated();
+    }
+
+    private static User map(Readable row) {
+        return User.builder()
+                .id(Rows.string(row, "id"))
+                .username(row.get("username", String.class))
+                .password(row.get("password", String.class))
+                .email(row.get("email", String.class))
+                .theme(Rows.integer(row, "theme"))
+                .build();
+    }
+}
@@ -0,0 +1,27 @@
+package cn.wind.clear.reactive.service;
+
+import cn.wind.clear.dto.AnalyticsQueryDTO;
+import cn.wind.clear.entity.Todo;
+import cn.wind.clear.vo.AnalyticsVO;
+import reactor.core.publisher.Mono;
+
+public interface AnalyticsService {
+
+    /**
+     * 按待办修改前后的状态增量更新每日统计，需在待办写操作的事务内调用
+     *
+     * @param before 修改前的待办，新增时为空
+     * @param after 修改后的待办，删除时为空
+     */
+    Mono<Void> recordChange(Todo before, Todo after);
+
+    /**
+     * 分类删除后把其统计并入未分类
+     */
+    Mono<Void> mergeCategory(String userId, String categoryId);
+
+    /**
+     * 查询当前用户的趋势与分类统计
+     */
+    Mono<AnalyticsVO> query(AnalyticsQueryDTO analyticsQueryDTO);
+}
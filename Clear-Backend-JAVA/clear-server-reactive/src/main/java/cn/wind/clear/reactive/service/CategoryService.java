@@ -0,0 +1,26 @@
+package cn.wind.clear.reactive.service;
+
+import cn.wind.clear.dto.CategoryDTO;
+import cn.wind.clear.vo.CategoryVO;
+import reactor.core.publisher.Mono;
+
+import java.util.List;
+
+public interface CategoryService {
+    Mono<String> getDefaultCategoryId(String currentId, String defaultCategory);
+
+    Mono<List<CategoryVO>> getCategories();
+
+    Mono<Void> addCategory(CategoryDTO categoryDTO);
+
+    Mono<Void> updateCategory(CategoryDTO categoryDTO);
+
+    Mono<Void> deleteCategory(String id);
+
+    Mono<String> getCategoryNameById(String categoryId);
+
+    /**
+     * 校验分类属于指定用户，null 表示未分类
+     */
+    Mono<Void> checkCategory(String userId, String categoryId);
+}
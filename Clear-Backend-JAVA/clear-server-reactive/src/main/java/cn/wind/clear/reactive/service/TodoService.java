@@ -0,0 +1,102 @@
+package cn.wind.clear.reactive.service;
+
+import cn.wind.clear.dto.MoveTodoDTO;
+import cn.wind.clear.dto.PatchTodoDTO;
+import cn.wind.clear.dto.TodoCalendarQueryDTO;
+import cn.wind.clear.dto.TodoDTO;
+import cn.wind.clear.dto.TodoPageQueryDTO;
+import cn.wind.clear.dto.UpdateTodoDTO;
+import cn.wind.clear.result.PageResult;
+import cn.wind.clear.vo.TodoCalendarVO;
+import cn.wind.clear.vo.TodoVO;
+import cn.wind.clear.vo.UserStatusVO;
+import reactor.core.publisher.Mono;
+
+import java.time.LocalDate;
+import java.util.List;
+
+public interface TodoService {
+    /**
+     * 添加to do
+     * @param todoDTO
+     */
+    Mono<Void> addTodo(TodoDTO todoDTO);
+
+    /**
+     * to do 分页查询
+     * @param todoPageQueryDTO
+     * @return
+     */
+    Mono<PageResult<TodoVO>> pageQuery(TodoPageQueryDTO todoPageQueryDTO);
+
+    /**
+     * 查询to do详情
+     * @param id
+     * @return
+     */
+    Mono<TodoVO> getTodo(String id);
+
+    /**
+     * to do 删除
+     * @param id
+     */
+    Mono<Void> deleteTodo(String id);
+
+    /**
+     * to do 更新
+     * @param updateTodoDTO
+     */
+    Mono<Void> updateTodo(UpdateTodoDTO updateTodoDTO);
+
+    /**
+     * 按字段部分更新to do
+     * @param id
+     * @param patchTodoDTO
+     * @return 更新后的版本号
+     */
+    Mono<Integer> patchTodo(String id, PatchTodoDTO patchTodoDTO);
+
+    /**
+     * 手动排序: 把to do移动到同一分类的另一项之后，只改写这一项的排序键
+     * @param id
+     * @param moveTodoDTO
+     * @return 更新后的版本号
+     */
+    Mono<Integer> moveTodo(String id, MoveTodoDTO moveTodoDTO);
+
+    /**
+     * 单独保存重复待办的某一次，已保存时返回已有的id
+     * @param id 系列第一项的id
+     * @param date 该次的日期
+     * @return 该次的to do id
+     */
+    Mono<String> saveOccurrence(String id, LocalDate date);
+
+    /**
+     * 跳过重复待办的某一次
+     * @param id 系列第一项的id
+     * @param date 该次的日期
+     */
+    Mono<Void> skipOccurrence(String id, LocalDate date);
+
+    /**
+     * 设置to do的标签
+     * @param id
+     * @param tagIds
+     */
+    Mono<Void> setTags(String id, List<String> tagIds);
+
+    /**
+     * to do 日历统计
+     * @param todoCalendarQueryDTO
+     * @return
+     */
+    Mono<List<TodoCalendarVO>> calendar(TodoCalendarQueryDTO todoCalendarQueryDTO);
+
+    /**
+     * 用户已完成和未完成的to do数量
+     * @param currentId
+     * @return
+     */
+    Mono<UserStatusVO> getTodoStatus(String currentId);
+}
@@ -0,0 +1,64 @@
+package cn.wind.clear.reactive.service.impl;
+
+import cn.wind.clear.analytics.TodoAnalytics;
+import cn.wind.clear.analytics.TodoDailyStatDiff;
+import cn.wind.clear.dto.AnalyticsQueryDTO;
+import cn.wind.clear.entity.Category;
+import cn.wind.clear.entity.Todo;
+import cn.wind.clear.entity.TodoDailyStat;
+import cn.wind.clear.exception.BaseException;
+import cn.wind.clear.properties.AnalyticsProperties;
+import cn.wind.clear.reactive.context.UserContext;
+import cn.wind.clear.reactive.repository.CategoryRepository;
+import cn.wind.clear.reactive.repository.TodoDailyStatRepository;
+import cn.wind.clear.reactive.service.AnalyticsService;
+import cn.wind.clear.vo.AnalyticsVO;
+import jakarta.annotation.Resource;
+import org.springframework.stereotype.Service;
+import reactor.core.publisher.Mono;
+
+import java.time.LocalDate;
+import java.util.List;
+
+/**
+ * 待办统计，与 clear-server 共用 todo_daily_stat 与统计口径
+ */
+@Service
+public class AnalyticsServiceImpl implements AnalyticsService {
+
+    @Resource
+    private TodoDailyStatRepository todoDailyStatRepository;
+    @Resource
+    private CategoryRepository categoryRepository;
+    @Resource
+    private AnalyticsProperties analyticsProperties;
+
+    @Override
+    public Mono<Void> recordChange(Todo before, Todo after) {
+        List<TodoDailyStat> rows = TodoDailyStatDiff.diff(before, after);
+        return rows.isEmpty() ? Mono.empty() : todoDailyStatRepository.upsert(rows).then();
+    }
+
+    @Override
+    public Mono<Void> mergeCategory(String userId, String categoryId) {
+        return todoDailyStatRepository.mergeIntoNoCategory(userId, categoryId)
+                .then(todoDailyStatRepository.deleteCategory(userId, categoryId))
+                .then();
+    }
+
+    @Override
+    public Mono<AnalyticsVO> query(AnalyticsQueryDTO analyticsQueryDTO) {
+        LocalDate today = LocalDate.now();
+        TodoAnalytics.Range range;
+        try {
+            range = TodoAnalytics.resolve(analyticsQueryDTO, analyticsProperties.getMaxRangeDays(), today);
+        } catch (BaseException e) {
+            return Mono.error(e);
+        }
+        return UserContext.getCurrentId().flatMap(userId -> Mono.zip(
+                        todoDailyStatRepository.findRange(userId, range.start(), range.end(),
+                                analyticsQueryDTO.getCategoryId()).collectList(),
+                        categoryRepository.findByUserId(userId).collectMap(Category::getId, Category::getName))
+                .map(tuple -> TodoAnalytics.aggregate(range, tuple.getT1(), tuple.getT2(), today)));
+    }
+}
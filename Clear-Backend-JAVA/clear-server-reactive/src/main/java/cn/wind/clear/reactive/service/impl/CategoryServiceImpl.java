@@ -0,0 +1,130 @@
+package cn.wind.clear.reactive.service.impl;
+
+import cn.wind.clear.dto.CategoryDTO;
+import cn.wind.clear.entity.Category;
+import cn.wind.clear.exception.BaseException;
+import cn.wind.clear.properties.IdProperties;
+import cn.wind.clear.push.ChangeEvent;
+import cn.wind.clear.reactive.context.UserContext;
+import cn.wind.clear.reactive.push.ChangeEventPublisher;
+import cn.wind.clear.reactive.repository.CategoryRepository;
+import cn.wind.clear.reactive.service.AnalyticsService;
+import cn.wind.clear.reactive.service.CategoryService;
+import cn.wind.clear.utils.SnowflakeIdWorker;
+import cn.wind.clear.vo.CategoryVO;
+import jakarta.annotation.Resource;
+import org.springframework.dao.DuplicateKeyException;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+import reactor.core.publisher.Mono;
+
+import java.util.List;
+
+import static cn.wind.clear.constant.MessageConstant.CATEGORY_NOT_EXIST;
+import static cn.wind.clear.constant.MessageConstant.INVALID_ID;
+import static cn.wind.clear.constant.MessageConstant.SYSTEM_ERROR;
+
+@Service
+public class CategoryServiceImpl implements CategoryService {
+    @Resource
+    private CategoryRepository categoryRepository;
+    @Resource
+    private IdProperties idProperties;
+    @Resource
+    private SnowflakeIdWorker snowflakeIdWorker;
+    @Resource
+    private AnalyticsService analyticsService;
+    @Resource
+    private ChangeEventPublisher changeEventPublisher;
+
+    @Override
+    public Mono<String> getDefaultCategoryId(String currentId, String defaultCategory) {
+        return categoryRepository.findIdByName(currentId, defaultCategory);
+    }
+
+    /**
+     * 获取用户的分类数据
+     *
+     * @return
+     */
+    @Override
+    public Mono<List<CategoryVO>> getCategories() {
+        return UserContext.getCurrentId()
+                .flatMapMany(categoryRepository::findByUserId)
+                .map(category -> new CategoryVO(category.getId(), category.getName()))
+                .collectList();
+    }
+
+    @Override
+    public Mono<Void> addCategory(CategoryDTO categoryDTO) {
+        return UserContext.getCurrentId().flatMap(userId -> categoryRepository.findByUserId(userId)
+                .filter(category -> category.getName().equals(categoryDTO.getName()))
+                .hasElements()
+                .flatMap(conflict -> {
+                    if (conflict) {
+                        return Mono.<String>error(new BaseException("分类已存在"));
+                    }
+                    // 客户端生成的ID必须是客户端范围内的雪花ID，重复由主键约束发现
+                    if (categoryDTO.getId() == null) {
+                        return Mono.just(String.valueOf(snowflakeIdWorker.nextId()));
+                    }
+                    if (!SnowflakeIdWorker.isValidClientId(categoryDTO.getId(), idProperties.getMaxClientSkewMillis())) {
+                        return Mono.error(new BaseException(INVALID_ID));
+                    }
+                    return Mono.just(categoryDTO.getId());
+                })
+                .flatMap(id -> categoryRepository.insert(Category.builder()
+                                .id(id)
+                                .userId(userId)
+                                .name(categoryDTO.getName())
+                                .build())
+                        .filter(rows -> rows > 0)
+                        .switchIfEmpty(Mono.error(new BaseException(SYSTEM_ERROR)))
+                        .then(changeEventPublisher.publish(userId, ChangeEvent.TYPE_CATEGORY, ChangeEvent.ACTION_CREATE, id)))
+                .onErrorMap(DuplicateKeyException.class, e -> new BaseException(INVALID_ID)));
+    }
+
+    @Override
+    public Mono<Void> updateCategory(CategoryDTO categoryDTO) {
+        return UserContext.getCurrentId().flatMap(userId -> categoryRepository.findById(categoryDTO.getId())
+                .switchIfEmpty(Mono.error(new BaseException("分类不存在")))
+                .thenMany(categoryRepository.findByUserId(userId))
+                .filter(c -> c.getName().equals(categoryDTO.getName()) && !c.getId().equals(categoryDTO.getId()))
+                .hasElements()
+                .flatMap(conflict -> conflict
+                        ? Mono.<Long>error(new BaseException("分类已存在"))
+                        : categoryRepository.updateName(categoryDTO.getId(), userId, categoryDTO.getName()))
+                .filter(rows -> rows > 0)
+                .switchIfEmpty(Mono.error(new BaseException(SYSTEM_ERROR)))
+                .then(changeEventPublisher.publish(userId, ChangeEvent.TYPE_CATEGORY, ChangeEvent.ACTION_UPDATE,
+                        categoryDTO.getId())));
+    }
+
+    @Override
+    @Transactional(rollbackFor = Exception.class)
+    public Mono<Void> deleteCategory(String id) {
+        return UserContext.getCurrentId()
+                .flatMap(userId -> categoryRepository.delete(id, userId)
+                        .filter(rows -> rows > 0)
+                        .switchIfEmpty(Mono.error(new BaseException(SYSTEM_ERROR)))
+                        // 分类下的待办变为未分类，统计随之并入未分类
+                        .then(analyticsService.mergeCategory(userId, id))
+                        .then(changeEventPublisher.publish(userId, ChangeEvent.TYPE_CATEGORY, ChangeEvent.ACTION_DELETE, id)));
+    }
+
+    @Override
+    public Mono<String> getCategoryNameById(String categoryId) {
+        return categoryRepository.findById(categoryId).map(Category::getName);
+    }
+
+    @Override
+    public Mono<Void> checkCategory(String userId, String categoryId) {
+        if (categoryId == null) {
+            return Mono.empty();
+        }
+        return categoryRepository.findById(categoryId)
+                .filter(category -> userId.equals(category.getUserId()))
+                .switchIfEmpty(Mono.error(new BaseException(CATEGORY_NOT_EXIST)))
+                .then();
+    }
+}
@@ -0,0 +1,850 @@
+package cn.wind.clear.reactive.service.impl;
+
+import cn.wind.clear.codec.BinaryCodecs;
+import cn.wind.clear.codec.TodoCalendarCodec;
+import cn.wind.clear.constant.CategoryConstant;
+import cn.wind.clear.constant.MessageConstant;
+import cn.wind.clear.constant.StatusConstant;
+import cn.wind.clear.dto.MoveTodoDTO;
+import cn.wind.clear.dto.PatchTodoDTO;
+import cn.wind.clear.dto.TodoCalendarQueryDTO;
+import cn.wind.clear.dto.TodoDTO;
+import cn.wind.clear.dto.TodoPageQueryDTO;
+import cn.wind.clear.dto.UpdateTodoDTO;
+import cn.wind.clear.entity.Category;
+import cn.wind.clear.entity.Todo;
+import cn.wind.clear.entity.TodoTag;
+import cn.wind.clear.exception.BaseException;
+import cn.wind.clear.exception.ConflictException;
+import cn.wind.clear.properties.ArchiveProperties;
+import cn.wind.clear.properties.IdProperties;
+import cn.wind.clear.properties.RankProperties;
+import cn.wind.clear.properties.RecurrenceProperties;
+import cn.wind.clear.properties.TagProperties;
+import cn.wind.clear.push.ChangeEvent;
+import cn.wind.clear.reactive.context.UserContext;
+import cn.wind.clear.reactive.push.ChangeEventPublisher;
+import cn.wind.clear.reactive.repository.CategoryRepository;
+import cn.wind.clear.reactive.repository.TodoRepository;
+import cn.wind.clear.reactive.service.AnalyticsService;
+import cn.wind.clear.reactive.service.CategoryService;
+import cn.wind.clear.reactive.service.TodoService;
+import cn.wind.clear.reactive.store.ReactiveKeyValueStore;
+import cn.wind.clear.recurrence.TodoRecurrence;
+import cn.wind.clear.result.PageResult;
+import cn.wind.clear.utils.RankKeys;
+import cn.wind.clear.utils.RecurrenceRule;
+import cn.wind.clear.utils.SnowflakeIdWorker;
+import cn.wind.clear.vo.TodoCalendarVO;
+import cn.wind.clear.vo.TodoVO;
+import cn.wind.clear.vo.UserStatusVO;
+import jakarta.annotation.Resource;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.BeanUtils;
+import org.springframework.dao.DuplicateKeyException;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+
+import java.time.DayOfWeek;
+import java.time.Duration;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.time.YearMonth;
+import java.time.format.DateTimeParseException;
+import java.time.temporal.TemporalAdjusters;
+import java.util.LinkedHashMap;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.Optional;
+import java.util.Set;
+import java.util.stream.Collectors;
+
+@Service
+@Slf4j
+public class TodoServiceImpl implements TodoService {
+    // 用户 to do 数据版本号，写操作递增，用于使缓存失效
+    private static final String VERSION_KEY_PREFIX = "clear:todo:version:user:";
+    // 日历统计缓存
+    private static final String CALENDAR_KEY_PREFIX = "clear:todo:calendar:user:";
+    private static final Duration CALENDAR_CACHE_TTL = Duration.ofHours(24);
+    // 分页排序方式
+    private static final String ORDER_BY_DUE = "due";
+    private static final String ORDER_BY_MANUAL = "manual";
+    // DATETIME 的取值范围是 1000-9999 年，按年查询的结束日期是下一年的 1 月 1 日
+    private static final int MIN_CALENDAR_YEAR = 1000;
+    private static final int MAX_CALENDAR_YEAR = 9998;
+    // 分页查询可选字段
+    private static final Set<String> FIELDS = Set.of("id", "title", "content", "status", "categoryId",
+            "categoryName", "dueDate", "createdAt", "updatedAt", "version", "tagIds",
+            "recurrence", "seriesId", "occurrenceDate");
+
+    @Resource
+    private TodoRepository todoRepository;
+    @Resource
+    private CategoryRepository categoryRepository;
+    @Resource
+    private CategoryService categoryService;
+    @Resource
+    private ReactiveKeyValueStore reactiveKeyValueStore;
+    @Resource
+    private ChangeEventPublisher changeEventPublisher;
+    @Resource
+    private SnowflakeIdWorker snowflakeIdWorker;
+    @Resource
+    private ArchiveProperties archiveProperties;
+    @Resource
+    private IdProperties idProperties;
+    @Resource
+    private TagProperties tagProperties;
+    @Resource
+    private AnalyticsService analyticsService;
+    @Resource
+    private RecurrenceProperties recurrenceProperties;
+    @Resource
+    private RankProperties rankProperties;
+
+    /**
+     * 添加to do
+     *
+     * @param todoDTO
+     */
+    @Override
+    @Transactional(rollbackFor = Exception.class)
+    public Mono<Void> addTodo(TodoDTO todoDTO) {
+        if (todoDTO.getTitle() == null || todoDTO.getTitle().isEmpty()) {
+            return Mono.error(new BaseException(MessageConstant.EMPTY_TITLE));
+        }
+        if (todoDTO.getDueDate() != null && todoDTO.getDueDate().isBefore(LocalDateTime.now())) {
+            return Mono.error(new BaseException(MessageConstant.DATE_EXPIRE));
+        }
+        if (todoDTO.getId() != null
+                && !SnowflakeIdWorker.isValidClientId(todoDTO.getId(), idProperties.getMaxClientSkewMillis())) {
+            return Mono.error(new BaseException(MessageConstant.INVALID_ID));
+        }
+
+        return UserContext.getCurrentId().flatMap(userId -> {
+            Todo todo = new Todo();
+            BeanUtils.copyProperties(todoDTO, todo);
+            todo.setId(todoDTO.getId() != null ? todoDTO.getId() : String.valueOf(snowflakeIdWorker.nextId()));
+            todo.setRecurrence(TodoRecurrence.normalize(todoDTO.getRecurrence(), todo.getDueDate()));
+            todo.setStatus(StatusConstant.DISABLED);
+            todo.setUserId(userId);
+            todo.setCreatedAt(LocalDateTime.now());
+            // todo 表中的重复由主键约束发现，归档表没有约束需要先查询
+            Mono<Boolean> checkId = todoDTO.getId() == null ? Mono.just(false) : todoRepository.existsArchived(todo.getId());
+            Mono<String> categoryId = todoDTO.getCategoryId() != null
+                    ? Mono.just(todoDTO.getCategoryId())
+                    : categoryService.getDefaultCategoryId(userId, CategoryConstant.DEFAULT_CATEGORY);
+            return categoryService.checkCategory(userId, todoDTO.getCategoryId())
+                    .then(checkId)
+                    .flatMap(exists -> exists ? Mono.<String>error(new BaseException(MessageConstant.INVALID_ID)) : categoryId)
+                    .doOnNext(todo::setCategoryId)
+                    // 新的to do排在所在分类的末尾
+                    .then(Mono.<String>defer(() -> appendRank(userId, todo.getCategoryId())))
+                    .doOnNext(todo::setRankKey)
+                    .then(Mono.defer(() -> todoRepository.insert(todo)))
+                    .onErrorMap(DuplicateKeyException.class, e -> new BaseException(MessageConstant.INVALID_ID))
+                    .filter(rows -> rows > 0)
+                    .switchIfEmpty(Mono.error(new BaseException(MessageConstant.SYSTEM_ERROR)))
+                    .then(saveTags(todo.getId(), userId, todoDTO.getTagIds()))
+                    .then(Mono.defer(() -> analyticsService.recordChange(null, todo)))
+                    .then(changed(userId, ChangeEvent.ACTION_CREATE, todo.getId()));
+        });
+    }
+
+    /**
+     * 设置to do的标签，覆盖原有标签
+     *
+     * @param id
+     * @param tagIds
+     */
+    @Override
+    @Transactional(rollbackFor = Exception.class)
+    public Mono<Void> setTags(String id, List<String> tagIds) {
+        return UserContext.getCurrentId().flatMap(userId -> todoRepository.findById(id, userId)
+                .switchIfEmpty(todoRepository.findArchived(id, userId))
+                .switchIfEmpty(Mono.error(new BaseException(MessageConstant.TODO_NOT_EXIST)))
+                .then(todoRepository.deleteTags(id, userId))
+                .then(saveTags(id, userId, tagIds))
+                .then(changed(userId, ChangeEvent.ACTION_UPDATE, id)));
+    }
+
+    private Mono<Void> saveTags(String todoId, String userId, List<String> tagIds) {
+        if (tagIds == null || tagIds.isEmpty()) {
+            return Mono.empty();
+        }
+        Set<String> distinct = new LinkedHashSet<>(tagIds);
+        if (distinct.size() > tagProperties.getMaxTagsPerTodo()) {
+            return Mono.error(new BaseException(MessageConstant.TOO_MANY_TAGS));
+        }
+        return todoRepository.countTags(userId, distinct)
+                .filter(owned -> owned == distinct.size())
+                .switchIfEmpty(Mono.error(new BaseException(MessageConstant.TAG_NOT_EXIST)))
+                .thenMany(Flux.fromIterable(distinct))
+                .concatMap(tagId -> todoRepository.insertTag(new TodoTag(todoId, tagId, userId)))
+                .then();
+    }
+
+    /**
+     * to do 分页查询
+     * <p>
+     * 标签条件直接作为 todo_tag 子查询交给数据库；fields 只决定返回哪些字段，行总是整行读取
+     */
+    @Override
+    public Mono<PageResult<TodoVO>> pageQuery(TodoPageQueryDTO todoPageQueryDTO) {
+        log.info("Todo分页查询: {}", todoPageQueryDTO);
+        boolean withCategoryName = true;
+        boolean withTagIds = true;
+        String fields = todoPageQueryDTO.getFields();
+        if (fields != null && !fields.isBlank()) {
+            withCategoryName = false;
+            withTagIds = false;
+            for (String field : fields.split(",")) {
+                String name = field.trim();
+                if (!FIELDS.contains(name)) {
+                    return Mono.error(new BaseException(MessageConstant.UNKNOWN_FIELD + name));
+                }
+                withCategoryName |= "categoryName".equals(name);
+                withTagIds |= "tagIds".equals(name);
+            }
+        }
+        String orderBy = todoPageQueryDTO.getOrderBy();
+        if (orderBy != null && !ORDER_BY_DUE.equals(orderBy) && !ORDER_BY_MANUAL.equals(orderBy)) {
+            return Mono.error(new BaseException(MessageConstant.UNKNOWN_ORDER + orderBy));
+        }
+        boolean manual = ORDER_BY_MANUAL.equals(orderBy);
+        // 排序键只在同一分类内有意义
+        if (manual && todoPageQueryDTO.getCategoryId() == null) {
+            return Mono.error(new BaseException(MessageConstant.MANUAL_ORDER_CATEGORY));
+        }
+        boolean fillCategoryName = withCategoryName;
+        boolean fillTagIds = withTagIds;
+        long current = todoPageQueryDTO.getPage() == null ? 1 : todoPageQueryDTO.getPage();
+        long size = todoPageQueryDTO.getPageSize() == null ? 10 : todoPageQueryDTO.getPageSize();
+        boolean withArchive = includeArchive(todoPageQueryDTO);
+        TodoRecurrence.Window window = TodoRecurrence.window(todoPageQueryDTO, manual);
+
+        return UserContext.getCurrentId().flatMap(userId -> {
+            TodoRepository.Condition condition = new TodoRepository.Condition()
+                    .eqId("user_id", "userId", userId)
+                    .eqId("category_id", "categoryId", todoPageQueryDTO.getCategoryId())
+                    .eq("status", "status", todoPageQueryDTO.getStatus())
+                    .like("content", "keyword", todoPageQueryDTO.getKeyword());
+            LocalDate[] dueRange = dueRange(todoPageQueryDTO);
+            if (dueRange != null) {
+                condition.range("due_date", dueRange[0], dueRange[1]);
+            }
+            if (todoPageQueryDTO.getTagIds() != null && !todoPageQueryDTO.getTagIds().isEmpty()) {
+                condition.tags(userId, List.copyOf(new LinkedHashSet<>(todoPageQueryDTO.getTagIds())),
+                        "all".equalsIgnoreCase(todoPageQueryDTO.getTagMode()));
+            }
+            Mono<Map<String, String>> categoryNames = fillCategoryName
+                    ? categoryRepository.findByUserId(userId).collectMap(Category::getId, Category::getName)
+                    : Mono.just(Map.of());
+            // 日期范围内的重复实例不在表中，按规则展开后与查询结果合并，合并时从第一条读到当前页
+            Mono<List<Todo>> expanded = window == null ? Mono.just(List.of()) : expandOccurrences(userId, todoPageQueryDTO, window);
+            return expanded.flatMap(occurrences -> Mono.zip(todoRepository.count(condition, withArchive),
+                            occurrences.isEmpty()
+                                    ? todoRepository.page(condition, withArchive, manual, (current - 1) * size, size).collectList()
+                                    : todoRepository.page(condition, withArchive, false, 0, current * size).collectList()
+                                    .map(rows -> TodoRecurrence.merge(rows, occurrences, (current - 1) * size, size)),
+                            categoryNames)
+                    .flatMap(tuple -> {
+                        List<Todo> todos = tuple.getT2();
+                        long total = tuple.getT1() + occurrences.size();
+                        Mono<Map<String, List<String>>> tagIds = fillTagIds ? getTagIds(todos) : Mono.just(Map.of());
+                        return tagIds.map(tags -> {
+                            List<TodoVO> records = todos.stream()
+                                    .map(todo -> {
+                                        TodoVO todoVO = new TodoVO();
+                                        BeanUtils.copyProperties(todo, todoVO);
+                                        if (fillCategoryName) {
+                                            todoVO.setCategoryName(tuple.getT3().get(todo.getCategoryId()));
+                                        }
+                                        if (fillTagIds) {
+                                            todoVO.setTagIds(tags.getOrDefault(tagOwner(todo), List.of()));
+                                        }
+                                        return todoVO;
+                                    })
+                                    .toList();
+                            return new PageResult<>(total, size, current, records);
+                        });
+                    }));
+        });
+    }
+
+    /**
+     * 展开范围内符合查询条件的重复实例，按截止日期倒序
+     * <p>
+     * 系列的第一项走 (user_id, recurrence) 索引读取，读取量只与用户的重复系列数有关，展开量只与范围有关
+     *
+     * @param todoPageQueryDTO 分页查询条件；日历查询时为 null，不筛选也不限制范围
+     */
+    private Mono<List<Todo>> expandOccurrences(String userId, TodoPageQueryDTO todoPageQueryDTO, TodoRecurrence.Window window) {
+        TodoRepository.Condition condition = new TodoRepository.Condition()
+                .eqId("user_id", "userId", userId)
+                .recurring(window.to());
+        boolean filtered = todoPageQueryDTO != null;
+        if (filtered) {
+            condition.eqId("category_id", "categoryId", todoPageQueryDTO.getCategoryId())
+                    .like("content", "keyword", todoPageQueryDTO.getKeyword());
+            if (todoPageQueryDTO.getTagIds() != null && !todoPageQueryDTO.getTagIds().isEmpty()) {
+                condition.tags(userId, List.copyOf(new LinkedHashSet<>(todoPageQueryDTO.getTagIds())),
+                        "all".equalsIgnoreCase(todoPageQueryDTO.getTagMode()));
+            }
+        }
+        return todoRepository.findAll(condition)
+                .collectList()
+                .flatMap(series -> {
+                    if (series.isEmpty()) {
+                        return Mono.just(List.<Todo>of());
+                    }
+                    if (filtered) {
+                        TodoRecurrence.checkWindow(window, recurrenceProperties.getMaxWindowDays());
+                    }
+                    return todoRepository.findOccurrenceExceptions(series.stream().map(Todo::getId).toList(),
+                                    window.from().toLocalDate(), window.to().toLocalDate())
+                            .map(todo -> TodoRecurrence.exceptionKey(todo.getSeriesId(), todo.getOccurrenceDate()))
+                            .collect(Collectors.toSet())
+                            .map(exceptions -> TodoRecurrence.expand(series, exceptions, window));
+                });
+    }
+
+    /**
+     * 批量查询to do的标签，展开的重复实例使用系列第一项的标签
+     */
+    private Mono<Map<String, List<String>>> getTagIds(List<Todo> todos) {
+        if (todos.isEmpty()) {
+            return Mono.just(Map.of());
+        }
+        return todoRepository.findTags(todos.stream().map(TodoServiceImpl::tagOwner).distinct().toList())
+                .collectMultimap(TodoTag::getTodoId, TodoTag::getTagId)
+                .map(tags -> tags.entrySet().stream()
+                        .collect(Collectors.toMap(Map.Entry::getKey, entry -> List.copyOf(entry.getValue()))));
+    }
+
+    private static String tagOwner(Todo todo) {
+        return todo.getId() != null ? todo.getId() : todo.getSeriesId();
+    }
+
+    /**
+     * 截止日期范围 [开始, 结束)，未指定日期时返回 null
+     */
+    private LocalDate[] dueRange(TodoPageQueryDTO todoPageQueryDTO) {
+        LocalDate startDate = todoPageQueryDTO.getStartDate();
+        LocalDate endDate = todoPageQueryDTO.getEndDate();
+        if (startDate == null && endDate == null) {
+            return null;
+        }
+        return new LocalDate[]{
+                // 只有结束日期时使用一个较早的日期作为起点
+                startDate != null ? startDate : LocalDate.of(1970, 1, 1),
+                // 结束日期加1天，以包含整个结束日期；只有开始日期时使用固定的未来日期作为终点
+                endDate != null ? endDate.plusDays(1) : LocalDate.of(2099, 12, 31)
+        };
+    }
+
+    /**
+     * 查询to do详情
+     *
+     * @param id
+     * @return
+     */
+    @Override
+    public Mono<TodoVO> getTodo(String id) {
+        return UserContext.getCurrentId().flatMap(userId -> todoRepository.findById(id, userId)
+                .switchIfEmpty(todoRepository.findArchived(id, userId))
+                .switchIfEmpty(Mono.error(new BaseException(MessageConstant.TODO_NOT_EXIST)))
+                .flatMap(todo -> Mono.zip(
+                        categoryService.getCategoryNameById(todo.getCategoryId()).defaultIfEmpty(""),
+                        getTagIds(List.of(todo)),
+                        (categoryName, tagIds) -> {
+                            TodoVO todoVO = new TodoVO();
+                            BeanUtils.copyProperties(todo, todoVO);
+                            todoVO.setCategoryName(categoryName.isEmpty() ? null : categoryName);
+                            todoVO.setTagIds(tagIds.getOrDefault(todo.getId(), List.of()));
+                            return todoVO;
+                        })));
+    }
+
+    /**
+     * 删除to do
+     *
+     * @param id
+     */
+    @Override
+    @Transactional(rollbackFor = Exception.class)
+    public Mono<Void> deleteTodo(String id) {
+        return UserContext.getCurrentId().flatMap(userId -> lockTodo(id, userId)
+                .flatMap(before -> todoRepository.delete(id, userId)
+                        .flatMap(rows -> rows > 0 ? Mono.just(rows) : todoRepository.deleteArchive(id, userId))
+                        .filter(rows -> rows > 0)
+                        .switchIfEmpty(Mono.error(new BaseException(MessageConstant.SYSTEM_ERROR)))
+                        // 删除的待办不再计入统计，与回填的结果一致
+                        .then(Mono.defer(() -> before.map(todo -> analyticsService.recordChange(todo, null))
+                                .orElse(Mono.empty())))
+                        .then(Mono.defer(() -> before.map(this::deleteOccurrence).orElse(Mono.empty()))))
+                .then(todoRepository.deleteTags(id, userId))
+                .then(changed(userId, ChangeEvent.ACTION_DELETE, id)));
+    }
+
+    /**
+     * 删除单独保存的重复实例后，这一次不再展开；删除整个系列时清除跳过记录，已单独保存的实例保留为普通的to do
+     */
+    private Mono<Void> deleteOccurrence(Todo before) {
+        Mono<Long> skip = before.getSeriesId() == null ? Mono.empty()
+                : todoRepository.insertOccurrenceSkip(before.getSeriesId(), before.getOccurrenceDate(), before.getUserId());
+        Mono<Long> series = before.getRecurrence() == null ? Mono.empty()
+                : todoRepository.deleteOccurrenceSkips(before.getId());
+        return skip.then(series).then();
+    }
+
+    /**
+     * 更新to do，只写入非空字段
+     *
+     * @param updateTodoDTO
+     */
+    @Override
+    @Transactional(rollbackFor = Exception.class)
+    public Mono<Void> updateTodo(UpdateTodoDTO updateTodoDTO) {
+        if (updateTodoDTO.getDueDate() != null && updateTodoDTO.getDueDate().isBefore(LocalDateTime.now())) {
+            return Mono.error(new BaseException(MessageConstant.DATE_EXPIRE));
+        }
+        Map<String, Object> values = new LinkedHashMap<>();
+        putIfNotNull(values, "title", updateTodoDTO.getTitle());
+        putIfNotNull(values, "content", updateTodoDTO.getContent());
+        putIfNotNull(values, "category_id", updateTodoDTO.getCategoryId());
+        putIfNotNull(values, "status", updateTodoDTO.getStatus());
+        putIfNotNull(values, "due_date", updateTodoDTO.getDueDate());
+        // 空字符串表示取消重复
+        putIfNotNull(values, "recurrence", updateTodoDTO.getRecurrence());
+        String id = updateTodoDTO.getId();
+        return UserContext.getCurrentId().flatMap(userId -> categoryService.checkCategory(userId, updateTodoDTO.getCategoryId())
+                .then(Mono.defer(() -> updateAndRecord(id, userId, values, null)))
+                .filter(isOk -> isOk)
+                .switchIfEmpty(Mono.error(new BaseException(MessageConstant.SYSTEM_ERROR)))
+                .then(changed(userId, ChangeEvent.ACTION_UPDATE, id)));
+    }
+
+    private static void putIfNotNull(Map<String, Object> values, String column, Object value) {
+        if (value != null) {
+            values.put(column, value);
+        }
+    }
+
+    /**
+     * 按字段部分更新to do
+     * <p>
+     * 只写入字段掩码中的列，并以版本号做乐观并发控制，版本不一致时返回冲突异常
+     *
+     * @param id
+     * @param patchTodoDTO
+     * @return 更新后的版本号
+     */
+    @Override
+    @Transactional(rollbackFor = Exception.class)
+    public Mono<Integer> patchTodo(String id, PatchTodoDTO patchTodoDTO) {
+        List<String> fields = patchTodoDTO.getFields();
+        if (fields == null || fields.isEmpty() || patchTodoDTO.getVersion() == null) {
+            return Mono.error(new BaseException(MessageConstant.EMPTY_FIELDS));
+        }
+        Map<String, Object> values = new LinkedHashMap<>();
+        for (String field : fields) {
+            switch (field) {
+                case "title" -> {
+                    if (patchTodoDTO.getTitle() == null || patchTodoDTO.getTitle().isEmpty()) {
+                        return Mono.error(new BaseException(MessageConstant.EMPTY_TITLE));
+                    }
+                    values.put("title", patchTodoDTO.getTitle());
+                }
+                case "content" -> values.put("content", patchTodoDTO.getContent());
+                // null 表示移到未分类，归属在下面校验
+                case "categoryId" -> values.put("category_id", patchTodoDTO.getCategoryId());
+                case "status" -> {
+                    if (patchTodoDTO.getStatus() == null) {
+                        return Mono.error(new BaseException(MessageConstant.EMPTY_STATUS));
+                    }
+                    values.put("status", patchTodoDTO.getStatus());
+                }
+                case "dueDate" -> {
+                    // null 表示清空截止日期
+                    if (patchTodoDTO.getDueDate() != null && patchTodoDTO.getDueDate().isBefore(LocalDateTime.now())) {
+                        return Mono.error(new BaseException(MessageConstant.DATE_EXPIRE));
+                    }
+                    values.put("due_date", patchTodoDTO.getDueDate());
+                }
+                case "recurrence" -> values.put("recurrence", patchTodoDTO.getRecurrence());
+                default -> {
+                    return Mono.error(new BaseException(MessageConstant.UNKNOWN_FIELD + field));
+                }
+            }
+        }
+
+        return UserContext.getCurrentId().flatMap(userId -> categoryService.checkCategory(userId,
+                        fields.contains("categoryId") ? patchTodoDTO.getCategoryId() : null)
+                .then(Mono.defer(() -> updateAndRecord(id, userId, values, patchTodoDTO.getVersion())))
+                .flatMap(isOk -> isOk ? Mono.just(true) : todoRepository.findById(id, userId)
+                        .switchIfEmpty(Mono.error(new BaseException(MessageConstant.TODO_NOT_EXIST)))
+                        .then(Mono.<Boolean>error(new ConflictException(MessageConstant.VERSION_CONFLICT))))
+                .then(changed(userId, ChangeEvent.ACTION_UPDATE, id))
+                .thenReturn(patchTodoDTO.getVersion() + 1));
+    }
+
+    /**
+     * 手动排序
+     * <p>
+     * 在目标位置前后两项的排序键之间生成新键，只改写被移动的这一项；前一项(或列表第一项)加锁，
+     * 同时插入同一位置的移动依次执行，不会生成相同的键。遇到缺失排序键的历史数据、两项之间已没有空间或新键超过长度上限时，
+     * 先重新分配整个列表
+     *
+     * @param id
+     * @param moveTodoDTO
+     * @return 更新后的版本号
+     */
+    @Override
+    @Transactional(rollbackFor = Exception.class)
+    public Mono<Integer> moveTodo(String id, MoveTodoDTO moveTodoDTO) {
+        String afterId = moveTodoDTO.getAfterId();
+        return UserContext.getCurrentId().flatMap(userId -> lockTodo(id, userId)
+                .flatMap(Mono::justOrEmpty)
+                .switchIfEmpty(Mono.error(new BaseException(MessageConstant.TODO_NOT_EXIST)))
+                .flatMap(todo -> {
+                    if (id.equals(afterId)) {
+                        return Mono.just(todo.getVersion());
+                    }
+                    Mono<String> rankKey = Mono.defer(() -> rankAfter(userId, todo.getCategoryId(), afterId));
+                    return rankKey
+                            .switchIfEmpty(Mono.defer(() -> rebalanceRanks(userId, todo.getCategoryId()).then(rankKey)))
+                            .flatMap(key -> {
+                                Map<String, Object> values = new LinkedHashMap<>();
+                                values.put("rank_key", key);
+                                // 状态不变，只固定历史数据的完成时间，每日统计没有变化
+                                putCompletedAt(values, todo);
+                                return updateOrRestore(id, userId, values, null);
+                            })
+                            .filter(isOk -> isOk)
+                            .switchIfEmpty(Mono.error(new BaseException(MessageConstant.SYSTEM_ERROR)))
+                            .then(changed(userId, ChangeEvent.ACTION_UPDATE, id))
+                            .thenReturn(todo.getVersion() + 1);
+                }));
+    }
+
+    /**
+     * 单独保存重复待办的某一次
+     * <p>
+     * 按规则展开的实例没有 id，修改、完成或设置标签前先保存为普通的to do，内容与标签取自系列的第一项；
+     * 已经保存过时返回已有的 id，第一次即系列的第一项本身
+     *
+     * @param id 系列第一项的id
+     * @param date 该次的日期
+     * @return 该次的to do id
+     */
+    @Override
+    @Transactional(rollbackFor = Exception.class)
+    public Mono<String> saveOccurrence(String id, LocalDate date) {
+        return UserContext.getCurrentId().flatMap(userId -> lockSeries(id, userId).flatMap(first -> {
+            if (date.equals(first.getDueDate().toLocalDate())) {
+                return Mono.just(first.getId());
+            }
+            return todoRepository.findOccurrenceId(id, date)
+                    .switchIfEmpty(Mono.defer(() -> occurrenceDueDate(first, date).flatMap(dueDate -> {
+                        Todo todo = TodoRecurrence.occurrence(first, dueDate);
+                        todo.setId(String.valueOf(snowflakeIdWorker.nextId()));
+                        todo.setCreatedAt(LocalDateTime.now());
+                        todo.setUpdatedAt(null);
+                        return appendRank(userId, todo.getCategoryId())
+                                .doOnNext(todo::setRankKey)
+                                .then(Mono.defer(() -> todoRepository.insert(todo)))
+                                .filter(rows -> rows > 0)
+                                .switchIfEmpty(Mono.error(new BaseException(MessageConstant.SYSTEM_ERROR)))
+                                .then(getTagIds(List.of(first)))
+                                .flatMapMany(tags -> Flux.fromIterable(tags.getOrDefault(first.getId(), List.of())))
+                                .concatMap(tagId -> todoRepository.insertTag(new TodoTag(todo.getId(), tagId, userId)))
+                                .then(Mono.defer(() -> analyticsService.recordChange(null, todo)))
+                                .then(changed(userId, ChangeEvent.ACTION_CREATE, todo.getId()))
+                                .thenReturn(todo.getId());
+                    })));
+        }));
+    }
+
+    /**
+     * 跳过重复待办的某一次，已单独保存时删除该to do
+     *
+     * @param id 系列第一项的id
+     * @param date 该次的日期
+     */
+    @Override
+    @Transactional(rollbackFor = Exception.class)
+    public Mono<Void> skipOccurrence(String id, LocalDate date) {
+        return UserContext.getCurrentId().flatMap(userId -> lockSeries(id, userId).flatMap(first -> todoRepository
+                // 删除时记录跳过
+                .findOccurrenceId(id, date)
+                .flatMap(saved -> deleteTodo(saved).thenReturn(true))
+                .switchIfEmpty(Mono.defer(() -> {
+                    // 第一次是系列的第一项本身，删除它即删除整个系列
+                    if (date.equals(first.getDueDate().toLocalDate())) {
+                        return Mono.error(new BaseException(MessageConstant.OCCURRENCE_NOT_EXIST));
+                    }
+                    return occurrenceDueDate(first, date)
+                            .then(todoRepository.insertOccurrenceSkip(id, date, userId))
+                            .then(changed(userId, ChangeEvent.ACTION_UPDATE, id))
+                            .thenReturn(true);
+                }))
+                .then()));
+    }
+
+    /**
+     * 读取并锁定重复系列的第一项，同一系列的保存与跳过依次执行
+     */
+    private Mono<Todo> lockSeries(String id, String userId) {
+        return todoRepository.findForUpdate(id, userId)
+                .switchIfEmpty(Mono.error(new BaseException(MessageConstant.TODO_NOT_EXIST)))
+                .filter(first -> first.getRecurrence() != null)
+                .switchIfEmpty(Mono.error(new BaseException(MessageConstant.OCCURRENCE_NOT_EXIST)));
+    }
+
+    /**
+     * 该日期的实例的截止时间，日期不在规则内或已跳过时返回异常
+     */
+    private Mono<LocalDateTime> occurrenceDueDate(Todo first, LocalDate date) {
+        List<LocalDateTime> dueDates = RecurrenceRule.parse(first.getRecurrence())
+                .occurrences(first.getDueDate(), date.atStartOfDay(), date.plusDays(1).atStartOfDay());
+        if (dueDates.isEmpty()) {
+            return Mono.error(new BaseException(MessageConstant.OCCURRENCE_NOT_EXIST));
+        }
+        return todoRepository.findOccurrenceExceptions(List.of(first.getId()), date, date.plusDays(1))
+                .hasElements()
+                .flatMap(exists -> exists
+                        ? Mono.error(new BaseException(MessageConstant.OCCURRENCE_NOT_EXIST))
+                        : Mono.just(dueDates.get(0)));
+    }
+
+    /**
+     * 紧跟在 afterId 之后(为空时在列表开头)的排序键，需要重新分配时为空
+     */
+    private Mono<String> rankAfter(String userId, String categoryId, String afterId) {
+        if (afterId == null) {
+            return todoRepository.findRankEdge(userId, categoryId, false)
+                    .map(Optional::of)
+                    .defaultIfEmpty(Optional.empty())
+                    .mapNotNull(first -> first.isPresent() && first.get().getRankKey() == null
+                            ? null : RankKeys.between(null, first.map(Todo::getRankKey).orElse(null),
+                            rankProperties.getMaxKeyLength()));
+        }
+        return todoRepository.findRankForUpdate(afterId, userId)
+                .switchIfEmpty(Mono.error(new BaseException(MessageConstant.TODO_NOT_EXIST)))
+                .flatMap(after -> {
+                    if (!Objects.equals(after.getCategoryId(), categoryId)) {
+                        return Mono.error(new BaseException(MessageConstant.RANK_CATEGORY_MISMATCH));
+                    }
+                    if (after.getRankKey() == null) {
+                        return Mono.empty();
+                    }
+                    return todoRepository.findRankSuccessor(userId, categoryId, after.getRankKey())
+                            .map(next -> Optional.ofNullable(next.getRankKey()))
+                            .defaultIfEmpty(Optional.empty())
+                            .mapNotNull(next -> RankKeys.between(after.getRankKey(), next.orElse(null),
+                                    rankProperties.getMaxKeyLength()));
+                });
+    }
+
+    /**
+     * 列表末尾的排序键，加锁读取最后一项，同时添加的to do依次排列
+     */
+    private Mono<String> appendRank(String userId, String categoryId) {
+        Mono<String> append = Mono.defer(() -> todoRepository.findRankEdge(userId, categoryId, true)
+                .map(last -> Optional.ofNullable(last.getRankKey()))
+                .defaultIfEmpty(Optional.empty())
+                .mapNotNull(last -> RankKeys.between(last.orElse(null), null, rankProperties.getMaxKeyLength())));
+        return append.switchIfEmpty(Mono.defer(() -> rebalanceRanks(userId, categoryId).then(append)));
+    }
+
+    /**
+     * 重新分配排序键
+     * <p>
+     * 锁定整个列表后按当前顺序改写为等间隔的短键，顺序不变，不递增版本号
+     */
+    private Mono<Void> rebalanceRanks(String userId, String categoryId) {
+        return todoRepository.findRankList(userId, categoryId)
+                .collectList()
+                .flatMapMany(todos -> Flux.range(0, todos.size())
+                        .filter(i -> !RankKeys.spaced(i, todos.size()).equals(todos.get(i).getRankKey()))
+                        .concatMap(i -> todoRepository.updateRank(todos.get(i).getId(), RankKeys.spaced(i, todos.size()))))
+                .then();
+    }
+
+    /**
+     * 更新to do，并按修改前后的状态更新每日统计
+     */
+    private Mono<Boolean> updateAndRecord(String id, String userId, Map<String, Object> values, Integer version) {
+        return lockTodo(id, userId).flatMap(before -> {
+            before.ifPresent(todo -> putCompletedAt(values, todo));
+            before.ifPresent(todo -> putRecurrence(values, todo));
+            Mono<Void> rank = Mono.empty();
+            if (before.isPresent() && values.containsKey("category_id")
+                    && !Objects.equals(values.get("category_id"), before.get().getCategoryId())) {
+                // 换到其他分类时排在新分类的末尾
+                rank = appendRank(userId, (String) values.get("category_id"))
+                        .doOnNext(rankKey -> values.put("rank_key", rankKey))
+                        .then();
+            }
+            return rank.then(updateOrRestore(id, userId, values, version))
+                    .flatMap(isOk -> !isOk || before.isEmpty() ? Mono.just(isOk) : todoRepository.findById(id, userId)
+                            .flatMap(after -> analyticsService.recordChange(before.get(), after))
+                            .thenReturn(true));
+        });
+    }
+
+    /**
+     * 读取并锁定修改前的to do，用于计算每日统计的增量；不存在或不属于该用户时为空
+     */
+    private Mono<Optional<Todo>> lockTodo(String id, String userId) {
+        if (id == null) {
+            return Mono.just(Optional.empty());
+        }
+        return todoRepository.findForUpdate(id, userId)
+                .switchIfEmpty(todoRepository.findArchived(id, userId))
+                .map(Optional::of)
+                .defaultIfEmpty(Optional.empty());
+    }
+
+    /**
+     * 状态变化时维护完成时间，规则与 clear-server 一致: 变为已完成时记录当前时间，变为未完成时清空，
+     * 没有完成时间的历史数据保持已完成时以修改前的更新时间作为完成时间
+     */
+    private static void putCompletedAt(Map<String, Object> values, Todo before) {
+        boolean wasCompleted = StatusConstant.ENABLED.equals(before.getStatus());
+        boolean completed = values.containsKey("status")
+                ? StatusConstant.ENABLED.equals(values.get("status")) : wasCompleted;
+        if (completed && !wasCompleted) {
+            values.put("completed_at", LocalDateTime.now());
+        } else if (completed && before.getCompletedAt() == null) {
+            values.put("completed_at", before.getUpdatedAt());
+        } else if (!completed && before.getCompletedAt() != null) {
+            values.put("completed_at", null);
+        }
+    }
+
+    /**
+     * 规范化重复规则，规则与截止日期任一变化时按修改后的值校验: 有重复规则时截止日期不能清空
+     */
+    private static void putRecurrence(Map<String, Object> values, Todo before) {
+        if (!values.containsKey("recurrence") && !values.containsKey("due_date")) {
+            return;
+        }
+        String recurrence = TodoRecurrence.normalize(
+                values.containsKey("recurrence") ? (String) values.get("recurrence") : before.getRecurrence(),
+                values.containsKey("due_date") ? (LocalDateTime) values.get("due_date") : before.getDueDate());
+        if (values.containsKey("recurrence")) {
+            values.put("recurrence", recurrence);
+        }
+    }
+
+    /**
+     * 更新 todo 表，未命中时尝试把归档的to do移回 todo 表后再更新
+     */
+    private Mono<Boolean> updateOrRestore(String id, String userId, Map<String, Object> values, Integer version) {
+        Mono<Boolean> update = Mono.defer(() -> todoRepository.update(id, userId, values, version)).map(rows -> rows > 0);
+        return update.flatMap(isOk -> isOk || id == null ? Mono.just(isOk) : todoRepository.restoreArchive(id, userId)
+                .flatMap(restored -> restored == 0 ? Mono.just(false) : todoRepository.deleteArchive(id, userId)
+                        .then(update)));
+    }
+
+    /**
+     * to do 日历统计
+     * <p>
+     * 一次 GROUP BY 查询得到范围内每天的数量，结果按用户数据版本号缓存
+     *
+     * @param todoCalendarQueryDTO
+     * @return
+     */
+    @Override
+    public Mono<List<TodoCalendarVO>> calendar(TodoCalendarQueryDTO todoCalendarQueryDTO) {
+        LocalDate start;
+        LocalDate end;
+        if (todoCalendarQueryDTO.getMonth() != null) {
+            YearMonth month;
+            try {
+                month = YearMonth.parse(todoCalendarQueryDTO.getMonth());
+            } catch (DateTimeParseException e) {
+                return Mono.error(new BaseException(MessageConstant.CALENDAR_RANGE_ERROR));
+            }
+            start = month.atDay(1);
+            end = month.plusMonths(1).atDay(1);
+        } else if (todoCalendarQueryDTO.getWeek() != null) {
+            start = todoCalendarQueryDTO.getWeek().with(TemporalAdjusters.previousOrSame(DayOfWeek.MONDAY));
+            end = start.plusWeeks(1);
+        } else if (todoCalendarQueryDTO.getYear() != null) {
+            int year = todoCalendarQueryDTO.getYear();
+            if (year < MIN_CALENDAR_YEAR || year > MAX_CALENDAR_YEAR) {
+                return Mono.error(new BaseException(MessageConstant.CALENDAR_RANGE_ERROR));
+            }
+            start = LocalDate.of(year, 1, 1);
+            end = start.plusYears(1);
+        } else {
+            return Mono.error(new BaseException(MessageConstant.CALENDAR_RANGE_ERROR));
+        }
+
+        return UserContext.getCurrentId().flatMap(userId -> reactiveKeyValueStore.get(VERSION_KEY_PREFIX + userId)
+                .defaultIfEmpty("0")
+                .map(version -> CALENDAR_KEY_PREFIX + userId + ":" + version + ":" + start + ":" + end)
+                .flatMap(key -> reactiveKeyValueStore.getBytes(key)
+                        .mapNotNull(cached -> BinaryCodecs.decode(TodoCalendarCodec.INSTANCE, cached))
+                        .switchIfEmpty(todoRepository.countByDay(userId, start.atStartOfDay(), end.atStartOfDay())
+                                .collectList()
+                                // 重复实例按规则展开后计入未完成数量
+                                .zipWith(expandOccurrences(userId, null, TodoRecurrence.window(start, end)),
+                                        TodoRecurrence::addToCalendar)
+                                .flatMap(days -> cache(key, days).thenReturn(days)))));
+    }
+
+    private Mono<Boolean> cache(String key, List<TodoCalendarVO> days) {
+        return reactiveKeyValueStore.setBytes(key, BinaryCodecs.encode(TodoCalendarCodec.INSTANCE, days), CALENDAR_CACHE_TTL);
+    }
+
+    /**
+     * 查询条件是否需要包含归档数据
+     * <p>
+     * 归档表只有已完成的to do，只有查询已完成数据，或查询范围早于归档线时才需要合并
+     */
+    private boolean includeArchive(TodoPageQueryDTO todoPageQueryDTO) {
+        if (!archiveProperties.getEnabled()) {
+            return false;
+        }
+        Integer status = todoPageQueryDTO.getStatus();
+        if (StatusConstant.ENABLED.equals(status)) {
+            return true;
+        }
+        if (status != null) {
+            return false;
+        }
+        LocalDate archiveLine = LocalDate.now().minusDays(archiveProperties.getRetentionDays());
+        LocalDate startDate = todoPageQueryDTO.getStartDate();
+        if (startDate != null) {
+            return startDate.isBefore(archiveLine);
+        }
+        return todoPageQueryDTO.getEndDate() != null;
+    }
+
+    /**
+     * 递增用户 to do 数据版本号并发布变更事件，都在事务提交后执行
+     * <p>
+     * 提交前递增时，读到新版本号的查询会把未提交前的结果缓存在新版本下
+     */
+    private Mono<Void> changed(String userId, String action, String id) {
+        return ChangeEventPublisher.afterCommit(reactiveKeyValueStore.increment(VERSION_KEY_PREFIX + userId).then())
+                .then(changeEventPublisher.publish(userId, ChangeEvent.TYPE_TODO, action, id));
+    }
+
+    @Override
+    public Mono<UserStatusVO> getTodoStatus(String currentId) {
+        return Mono.zip(todoRepository.countByStatus(currentId, StatusConstant.ENABLED),
+                        todoRepository.countArchived(currentId),
+                        todoRepository.countByStatus(currentId, StatusConstant.DISABLED))
+                .map(counts -> new UserStatusVO(null, counts.getT1() + counts.getT2(), counts.getT3()));
+    }
+}
@@ -0,0 +1,100 @@
+package cn.wind.clear.reactive.service.impl;
+
+import cn.wind.clear.constant.CategoryConstant;
+import cn.wind.clear.constant.MessageConstant;
+import cn.wind.clear.dto.UserDTO;
+import cn.wind.clear.dto.UserLoginDTO;
+import cn.wind.clear.entity.Category;
+import cn.wind.clear.entity.User;
+import cn.wind.clear.exception.BaseException;
+import cn.wind.clear.reactive.context.UserContext;
+import cn.wind.clear.reactive.repository.CategoryRepository;
+import cn.wind.clear.reactive.repository.UserRepository;
+import cn.wind.clear.reactive.service.TodoService;
+import cn.wind.clear.reactive.service.UserService;
+import cn.wind.clear.utils.SnowflakeIdWorker;
+import cn.wind.clear.vo.UserStatusVO;
+import jakarta.annotation.Resource;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.util.DigestUtils;
+import reactor.core.publisher.Mono;
+
+@Slf4j
+@Service
+public class UserServiceImpl implements UserService {
+
+    @Resource
+    private UserRepository userRepository;
+    @Resource
+    private CategoryRepository categoryRepository;
+    @Resource
+    private TodoService todoService;
+    @Resource
+    private SnowflakeIdWorker snowflakeIdWorker;
+
+    /**
+     * 用户登陆
+     * @param userLoginDTO
+     * @return
+     */
+    @Override
+    public Mono<User> login(UserLoginDTO userLoginDTO) {
+        log.info("用户登陆: {}", userLoginDTO);
+
+        if (userLoginDTO.getUsername() == null || userLoginDTO.getUsername().isBlank()) {
+            return Mono.error(new BaseException(MessageConstant.EMPTY_NAME));
+        }
+
+        String password = DigestUtils.md5DigestAsHex(userLoginDTO.getPassword().getBytes());
+        return userRepository.findByUsername(userLoginDTO.getUsername())
+                // 用户不存在
+                .switchIfEmpty(Mono.error(new BaseException(MessageConstant.USER_NOT_EXIST)))
+                // 用户存在但是密码错误
+                .filter(user -> user.getPassword().equals(password))
+                .switchIfEmpty(Mono.error(new BaseException(MessageConstant.PASSWORD_ERROR)));
+    }
+
+    @Override
+    @Transactional(rollbackFor = Exception.class)
+    public Mono<User> register(UserDTO userDTO) {
+        log.info("新用户注册: {}", userDTO);
+        if (userDTO.getUsername() == null || userDTO.getUsername().isBlank()) {
+            return Mono.error(new BaseException(MessageConstant.EMPTY_NAME));
+        }
+
+        User newUser = User.builder()
+                .id(String.valueOf(snowflakeIdWorker.nextId()))
+                .username(userDTO.getUsername())
+                .password(DigestUtils.md5DigestAsHex(userDTO.getPassword().getBytes()))
+                .build();
+        // 为用户创建默认分类
+        Category category = Category.builder()
+                .id(String.valueOf(snowflakeIdWorker.nextId()))
+                .userId(newUser.getId())
+                .name(CategoryConstant.DEFAULT_CATEGORY)
+                .build();
+
+        // 已存在相同用户名的用户
+        return userRepository.findByUsername(newUser.getUsername())
+                .flatMap(exists -> Mono.<Long>error(new BaseException(MessageConstant.CONFLICT_USERNAME)))
+                .switchIfEmpty(Mono.defer(() -> userRepository.insert(newUser)))
+                .then(categoryRepository.insert(category))
+                .thenReturn(newUser);
+    }
+
+    @Override
+    public Mono<Void> updateTheme(Integer theme) {
+        return UserContext.getCurrentId()
+                .flatMap(userId -> userRepository.updateTheme(userId, theme))
+                .filter(rows -> rows > 0)
+                .switchIfEmpty(Mono.error(new BaseException(MessageConstant.SYSTEM_ERROR)))
+                .then();
+    }
+
+    @Override
+    public Mono<UserStatusVO> getUserStatus() {
+        return UserContext.getCurrentId().flatMap(todoService::getTodoStatus);
+    }
+}
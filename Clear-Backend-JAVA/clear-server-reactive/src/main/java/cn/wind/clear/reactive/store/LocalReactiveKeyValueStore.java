@@ -0,0 +1,58 @@
+package cn.wind.clear.reactive.store;
+
+import cn.wind.clear.utils.LocalKeyValueStore;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.stereotype.Component;
+import reactor.core.publisher.Mono;
+
+import java.time.Duration;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * 进程内键值存储，嵌入模式下代替 Redis；读写只访问内存，可以直接在事件循环线程上执行
+ */
+@Component
+@ConditionalOnProperty(prefix = "clear.store", name = "type", havingValue = "local")
+public class LocalReactiveKeyValueStore implements ReactiveKeyValueStore {
+
+    private final LocalKeyValueStore store = new LocalKeyValueStore();
+
+    @Override
+    public Mono<String> get(String key) {
+        return Mono.fromSupplier(() -> store.get(key));
+    }
+
+    @Override
+    public Mono<Boolean> set(String key, String value, Duration timeout) {
+        return Mono.fromSupplier(() -> {
+            store.set(key, value, timeout.toMillis(), TimeUnit.MILLISECONDS);
+            return true;
+        });
+    }
+
+    @Override
+    public Mono<byte[]> getBytes(String key) {
+        return Mono.fromSupplier(() -> store.getBytes(key));
+    }
+
+    @Override
+    public Mono<Boolean> setBytes(String key, byte[] value, Duration timeout) {
+        return Mono.fromSupplier(() -> {
+            store.setBytes(key, value, timeout.toMillis(), TimeUnit.MILLISECONDS);
+            return true;
+        });
+    }
+
+    @Override
+    public Mono<Long> increment(String key) {
+        return Mono.fromSupplier(() -> store.increment(key));
+    }
+
+    /**
+     * 嵌入模式只有本进程一个实例，没有其他订阅者
+     */
+    @Override
+    public Mono<Long> publish(String channel, String message) {
+        return Mono.just(0L);
+    }
+}
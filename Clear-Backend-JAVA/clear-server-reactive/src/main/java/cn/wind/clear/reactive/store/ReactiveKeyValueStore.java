@@ -0,0 +1,58 @@
+package cn.wind.clear.reactive.store;
+
+import reactor.core.publisher.Mono;
+
+import java.time.Duration;
+
+/**
+ * 响应式键值存储，键格式与 clear-server 一致，两个模块可以共用同一个 Redis
+ * <p>
+ * 计数器是字符串整数，缓存值是 cn.wind.clear.codec 编码的字节
+ */
+public interface ReactiveKeyValueStore {
+
+    /**
+     * 读取字符串值
+     * @param key 键
+     * @return 值，不存在时为空
+     */
+    Mono<String> get(String key);
+
+    /**
+     * 写入带过期时间的字符串值
+     * @param key 键
+     * @param value 值
+     * @param timeout 过期时间
+     */
+    Mono<Boolean> set(String key, String value, Duration timeout);
+
+    /**
+     * 读取二进制值
+     * @param key 键
+     * @return 值，不存在时为空
+     */
+    Mono<byte[]> getBytes(String key);
+
+    /**
+     * 写入带过期时间的二进制值
+     * @param key 键
+     * @param value 值
+     * @param timeout 过期时间
+     */
+    Mono<Boolean> setBytes(String key, byte[] value, Duration timeout);
+
+    /**
+     * 计数器自增
+     * @param key 键
+     * @return 自增后的值
+     */
+    Mono<Long> increment(String key);
+
+    /**
+     * 向频道发布消息
+     * @param channel 频道
+     * @param message 消息
+     * @return 收到消息的订阅者数量
+     */
+    Mono<Long> publish(String channel, String message);
+}
@@ -0,0 +1,57 @@
+package cn.wind.clear.reactive.store;
+
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.data.redis.core.ReactiveRedisTemplate;
+import org.springframework.data.redis.core.ReactiveStringRedisTemplate;
+import org.springframework.stereotype.Component;
+import reactor.core.publisher.Mono;
+
+import java.time.Duration;
+
+/**
+ * 基于响应式 Redis 客户端的键值存储
+ */
+@Component
+@ConditionalOnProperty(prefix = "clear.store", name = "type", havingValue = "redis", matchIfMissing = true)
+public class RedisReactiveKeyValueStore implements ReactiveKeyValueStore {
+
+    private final ReactiveStringRedisTemplate redisTemplate;
+
+    private final ReactiveRedisTemplate<String, byte[]> binaryRedisTemplate;
+
+    public RedisReactiveKeyValueStore(ReactiveStringRedisTemplate redisTemplate,
+                                      ReactiveRedisTemplate<String, byte[]> binaryRedisTemplate) {
+        this.redisTemplate = redisTemplate;
+        this.binaryRedisTemplate = binaryRedisTemplate;
+    }
+
+    @Override
+    public Mono<String> get(String key) {
+        return redisTemplate.opsForValue().get(key);
+    }
+
+    @Override
+    public Mono<Boolean> set(String key, String value, Duration timeout) {
+        return redisTemplate.opsForValue().set(key, value, timeout);
+    }
+
+    @Override
+    public Mono<byte[]> getBytes(String key) {
+        return binaryRedisTemplate.opsForValue().get(key);
+    }
+
+    @Override
+    public Mono<Boolean> setBytes(String key, byte[] value, Duration timeout) {
+        return binaryRedisTemplate.opsForValue().set(key, value, timeout);
+    }
+
+    @Override
+    public Mono<Long> increment(String key) {
+        return redisTemplate.opsForValue().increment(key);
+    }
+
+    @Override
+    public Mono<Long> publish(String channel, String message) {
+        return redisTemplate.convertAndSend(channel, message);
+    }
+}
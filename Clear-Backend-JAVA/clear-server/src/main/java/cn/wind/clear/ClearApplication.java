@@ -4,11 +4,13 @@ import lombok.extern.slf4j.Slf4j;
 import org.springframework.boot.SpringApplication;
 import org.springframework.boot.autoconfigure.SpringBootApplication;
 import org.springframework.cache.annotation.EnableCaching;
+import org.springframework.scheduling.annotation.EnableScheduling;
 
 
 @SpringBootApplication
 @Slf4j
 @EnableCaching
+@EnableScheduling
 public class ClearApplication {
     public static void main(String[] args) {
         SpringApplication.run(ClearApplication.class, args);
@@ -0,0 +1,249 @@
+package cn.wind.clear.affinity;
+
+import cn.wind.clear.constant.JwtClaimsConstant;
+import cn.wind.clear.context.RequestIdContext;
+import cn.wind.clear.jfr.RequestIdFilter;
+import cn.wind.clear.logging.LogRateLimiter;
+import cn.wind.clear.properties.AffinityProperties;
+import cn.wind.clear.properties.JwtProperties;
+import cn.wind.clear.utils.JwtUtil;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.servlet.FilterChain;
+import jakarta.servlet.ReadListener;
+import jakarta.servlet.ServletException;
+import jakarta.servlet.ServletInputStream;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletRequestWrapper;
+import jakarta.servlet.http.HttpServletResponse;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.http.HttpStatus;
+import org.springframework.web.filter.OncePerRequestFilter;
+
+import java.io.BufferedReader;
+import java.io.ByteArrayInputStream;
+import java.io.IOException;
+import java.io.InputStreamReader;
+import java.net.ConnectException;
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpConnectTimeoutException;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.nio.charset.Charset;
+import java.nio.charset.StandardCharsets;
+import java.time.Duration;
+import java.util.Collections;
+import java.util.List;
+import java.util.Locale;
+import java.util.Set;
+
+/**
+ * 把请求转发到负责该用户的实例
+ * <p>
+ * 从令牌中取出用户ID，负责实例不是本实例时原样转发请求并返回其响应，转发的请求带签名的 X-Clear-Forwarded-By
+ * (ForwardedMarker)，对方校验通过后不再转发，成员视图暂时不一致时也不会循环；客户端自带的该请求头校验不通过，
+ * 照常路由。令牌缺失或无效时不转发，由本实例的拦截器响应401。
+ * 负责实例无法连接时由本实例直接处理(不缓存该用户的状态)；已发出的写请求超时则返回502，避免重复执行。
+ * 过滤器排在准入控制之后，同步转发占用的工作线程受本实例的并发上限约束
+ */
+@Slf4j
+public class AffinityFilter extends OncePerRequestFilter {
+
+    // 不能转发的逐跳请求头，以及由 HttpClient 自行设置的请求头
+    private static final Set<String> SKIPPED_HEADERS = Set.of("connection", "keep-alive", "proxy-authenticate",
+            "proxy-authorization", "te", "trailer", "transfer-encoding", "upgrade", "host", "content-length", "expect");
+
+    private static final LogRateLimiter FALLBACK_LOG = new LogRateLimiter(1, Duration.ofSeconds(10));
+
+    private final AffinityRouter router;
+    private final JwtProperties jwtProperties;
+    private final ForwardedMarker forwardedMarker;
+    private final Duration forwardTimeout;
+    private final HttpClient client;
+    private final Counter local;
+    private final Counter forwarded;
+    private final Counter fallback;
+
+    public AffinityFilter(AffinityRouter router, AffinityProperties affinityProperties, JwtProperties jwtProperties,
+                          MeterRegistry meterRegistry) {
+        this.router = router;
+        this.jwtProperties = jwtProperties;
+        this.forwardedMarker = new ForwardedMarker(jwtProperties.getSecretKey());
+        this.forwardTimeout = affinityProperties.getForwardTimeout();
+        this.client = HttpClient.newBuilder()
+                .version(HttpClient.Version.HTTP_1_1)
+                .connectTimeout(affinityProperties.getConnectTimeout())
+                .followRedirects(HttpClient.Redirect.NEVER)
+                .build();
+        this.local = Counter.builder("clear.affinity.requests").tag("route", "local").register(meterRegistry);
+        this.forwarded = Counter.builder("clear.affinity.requests").tag("route", "forwarded").register(meterRegistry);
+        this.fallback = Counter.builder("clear.affinity.requests").tag("route", "fallback").register(meterRegistry);
+    }
+
+    @Override
+    protected boolean shouldNotFilter(HttpServletRequest request) {
+        return "OPTIONS".equals(request.getMethod())
+                || forwardedMarker.verify(request.getHeader(ForwardedMarker.HEADER), request.getMethod(), path(request));
+    }
+
+    @Override
+    protected void doFilterInternal(HttpServletRequest request, HttpServletResponse response, FilterChain filterChain)
+            throws ServletException, IOException {
+        String userId = userId(request);
+        String owner = userId == null ? null : router.owner(userId);
+        if (owner == null || owner.equals(router.getSelf())) {
+            local.increment();
+            filterChain.doFilter(request, response);
+            return;
+        }
+
+        byte[] body = request.getInputStream().readAllBytes();
+        HttpResponse<byte[]> forwardedResponse;
+        try {
+            forwardedResponse = client.send(forwardRequest(request, owner, body), HttpResponse.BodyHandlers.ofByteArray());
+        } catch (ConnectException | HttpConnectTimeoutException e) {
+            // 请求没有送达，由本实例处理
+            fallback(request, response, filterChain, body, owner, e);
+            return;
+        } catch (IOException e) {
+            if (isIdempotent(request)) {
+                fallback(request, response, filterChain, body, owner, e);
+            } else {
+                log.warn("转发写请求失败: {} {} -> {}: {}", request.getMethod(), request.getRequestURI(), owner, e.toString());
+                response.setStatus(HttpStatus.BAD_GATEWAY.value());
+            }
+            return;
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            response.setStatus(HttpStatus.SERVICE_UNAVAILABLE.value());
+            return;
+        }
+
+        forwarded.increment();
+        response.setStatus(forwardedResponse.statusCode());
+        // 本实例已设置的响应头(请求ID、跨域)不重复添加
+        forwardedResponse.headers().map().forEach((name, values) -> {
+            if (!SKIPPED_HEADERS.contains(name.toLowerCase(Locale.ROOT)) && !name.startsWith(":")
+                    && !response.containsHeader(name)) {
+                values.forEach(value -> response.addHeader(name, value));
+            }
+        });
+        response.setContentLength(forwardedResponse.body().length);
+        response.getOutputStream().write(forwardedResponse.body());
+    }
+
+    /**
+     * 令牌中的用户ID，令牌缺失或无效时返回null
+     */
+    private String userId(HttpServletRequest request) {
+        String token = request.getHeader(jwtProperties.getTokenName());
+        if (token == null || !token.startsWith("Bearer ")) {
+            return null;
+        }
+        try {
+            Object userId = JwtUtil.parseJWT(jwtProperties.getSecretKey(), token.substring(7))
+                    .get(JwtClaimsConstant.USER_ID);
+            return userId == null ? null : userId.toString();
+        } catch (Exception e) {
+            return null;
+        }
+    }
+
+    private HttpRequest forwardRequest(HttpServletRequest request, String owner, byte[] body) {
+        String path = path(request);
+        String query = request.getQueryString();
+        HttpRequest.Builder builder = HttpRequest.newBuilder(URI.create(owner + path + (query == null ? "" : "?" + query)))
+                .timeout(forwardTimeout)
+                .method(request.getMethod(), body.length == 0
+                        ? HttpRequest.BodyPublishers.noBody()
+                        : HttpRequest.BodyPublishers.ofByteArray(body));
+        for (String name : Collections.list(request.getHeaderNames())) {
+            if (!SKIPPED_HEADERS.contains(name.toLowerCase(Locale.ROOT))
+                    && !RequestIdFilter.REQUEST_ID_HEADER.equalsIgnoreCase(name)
+                    && !ForwardedMarker.HEADER.equalsIgnoreCase(name)) {
+                for (String value : Collections.list(request.getHeaders(name))) {
+                    builder.header(name, value);
+                }
+            }
+        }
+        // 两个实例的日志与 JFR 录制使用同一个请求ID
+        String requestId = RequestIdContext.getRequestId();
+        if (requestId != null) {
+            builder.header(RequestIdFilter.REQUEST_ID_HEADER, requestId);
+        } else if (request.getHeader(RequestIdFilter.REQUEST_ID_HEADER) != null) {
+            builder.header(RequestIdFilter.REQUEST_ID_HEADER, request.getHeader(RequestIdFilter.REQUEST_ID_HEADER));
+        }
+        builder.header(ForwardedMarker.HEADER, forwardedMarker.sign(router.getSelf(), request.getMethod(), path));
+        return builder.build();
+    }
+
+    private static String path(HttpServletRequest request) {
+        return request.getRequestURI().substring(request.getContextPath().length());
+    }
+
+    private void fallback(HttpServletRequest request, HttpServletResponse response, FilterChain filterChain,
+                          byte[] body, String owner, Exception e) throws ServletException, IOException {
+        fallback.increment();
+        if (FALLBACK_LOG.tryAcquire()) {
+            log.atWarn().setMessage("负责实例不可用，由本实例处理: {} ({})").addArgument(owner).addArgument(e.toString())
+                    .addKeyValue("suppressed", FALLBACK_LOG.drainSuppressed()).log();
+        }
+        filterChain.doFilter(new CachedBodyRequest(request, body), response);
+    }
+
+    private static boolean isIdempotent(HttpServletRequest request) {
+        return List.of("GET", "HEAD").contains(request.getMethod());
+    }
+
+    /**
+     * 请求体已被读取，本实例处理时从缓存的字节重新提供
+     */
+    private static class CachedBodyRequest extends HttpServletRequestWrapper {
+
+        private final byte[] body;
+
+        CachedBodyRequest(HttpServletRequest request, byte[] body) {
+            super(request);
+            this.body = body;
+        }
+
+        @Override
+        public ServletInputStream getInputStream() {
+            ByteArrayInputStream in = new ByteArrayInputStream(body);
+            return new ServletInputStream() {
+                @Override
+                public boolean isFinished() {
+                    return in.available() == 0;
+                }
+
+                @Override
+                public boolean isReady() {
+                    return true;
+                }
+
+                @Override
+                public void setReadListener(ReadListener readListener) {
+                    throw new UnsupportedOperationException();
+                }
+
+                @Override
+                public int read() {
+                    return in.read();
+                }
+
+                @Override
+                public int read(byte[] b, int off, int len) {
+                    return in.read(b, off, len);
+                }
+            };
+        }
+
+        @Override
+        public BufferedReader getReader() {
+            String encoding = getCharacterEncoding();
+            return new BufferedReader(new InputStreamReader(new ByteArrayInputStream(body),
+                    encoding == null ? StandardCharsets.UTF_8 : Charset.forName(encoding)));
+        }
+    }
+}
@@ -0,0 +1,91 @@
+package cn.wind.clear.affinity;
+
+import cn.wind.clear.index.UserIndexCache;
+import cn.wind.clear.properties.AffinityProperties;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.TreeSet;
+
+/**
+ * 用户亲和路由
+ * <p>
+ * 按一致性哈希确定每个用户的负责实例，本实例只为自己负责的用户保留按用户的内存状态(UserIndexCache)。
+ * 定期刷新成员列表，成员变化时重建哈希环并丢弃归属已转移的用户的状态，新的负责实例在首次请求时重新构建
+ */
+@Component
+@Slf4j
+@ConditionalOnProperty(prefix = "clear.affinity", name = "enabled", havingValue = "true")
+public class AffinityRouter {
+
+    private final ClusterMembership membership;
+    private final List<UserIndexCache<?>> caches;
+    private final String self;
+    private final int virtualNodes;
+    private volatile ConsistentHashRing ring;
+
+    public AffinityRouter(ClusterMembership membership, List<UserIndexCache<?>> caches,
+                          AffinityProperties affinityProperties, MeterRegistry meterRegistry) {
+        if (affinityProperties.getSelf() == null || affinityProperties.getSelf().isBlank()) {
+            throw new IllegalStateException("开启用户亲和路由时必须配置 clear.affinity.self");
+        }
+        this.membership = membership;
+        this.caches = caches;
+        this.self = affinityProperties.getSelf();
+        this.virtualNodes = affinityProperties.getVirtualNodes();
+        // 首次刷新之前使用静态成员列表
+        this.ring = new ConsistentHashRing(withSelf(affinityProperties.getNodes()), virtualNodes);
+        caches.forEach(cache -> cache.retainOwned(this::owns));
+        Gauge.builder("clear.affinity.nodes", this, router -> router.ring.getNodes().size()).register(meterRegistry);
+        log.info("用户亲和路由: 本实例 {}，成员 {}", self, ring.getNodes());
+    }
+
+    @Scheduled(fixedDelayString = "${clear.affinity.refresh-interval:PT5S}")
+    public void refresh() {
+        List<String> nodes;
+        try {
+            nodes = withSelf(membership.refresh());
+        } catch (Exception e) {
+            log.warn("刷新集群成员失败，沿用当前成员: {}", e.getMessage());
+            return;
+        }
+        if (ring.getNodes().equals(List.copyOf(new TreeSet<>(nodes)))) {
+            return;
+        }
+        log.info("集群成员变更: {} -> {}", ring.getNodes(), nodes);
+        ring = new ConsistentHashRing(nodes, virtualNodes);
+        caches.forEach(cache -> cache.retainOwned(this::owns));
+    }
+
+    /**
+     * @return 负责该用户的实例地址
+     */
+    public String owner(String userId) {
+        return ring.owner(userId);
+    }
+
+    public boolean owns(String userId) {
+        return self.equals(ring.owner(userId));
+    }
+
+    public String getSelf() {
+        return self;
+    }
+
+    /**
+     * 本实例总是在环上: 即使注册中心暂时不可见，也不会把所有用户都转发出去
+     */
+    private List<String> withSelf(List<String> nodes) {
+        List<String> result = new ArrayList<>(nodes);
+        if (!result.contains(self)) {
+            result.add(self);
+        }
+        return result;
+    }
+}
@@ -0,0 +1,14 @@
+package cn.wind.clear.affinity;
+
+import java.util.List;
+
+/**
+ * 集群成员发现
+ */
+public interface ClusterMembership {
+
+    /**
+     * 当前在线的实例地址，由 AffinityRouter 定期调用，实现可以在此发送心跳
+     */
+    List<String> refresh();
+}
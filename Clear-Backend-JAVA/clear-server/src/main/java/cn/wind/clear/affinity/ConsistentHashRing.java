@@ -0,0 +1,80 @@
+package cn.wind.clear.affinity;
+
+import java.nio.charset.StandardCharsets;
+import java.util.Arrays;
+import java.util.List;
+import java.util.TreeSet;
+
+/**
+ * 一致性哈希环，创建后不可变
+ * <p>
+ * 每个实例在环上放置 virtualNodes 个点，用户ID哈希后顺时针找到的第一个点所属实例即为负责实例。
+ * 增减一个实例时只有约 1/N 的用户改变归属
+ */
+public class ConsistentHashRing {
+
+    private final List<String> nodes;
+    private final long[] points;
+    private final String[] owners;
+
+    public ConsistentHashRing(List<String> nodes, int virtualNodes) {
+        // 去重并排序，成员相同的环完全一致，与成员列表的顺序无关
+        this.nodes = List.copyOf(new TreeSet<>(nodes));
+        long[] hashes = new long[this.nodes.size() * virtualNodes];
+        String[] hashOwners = new String[hashes.length];
+        int i = 0;
+        for (String node : this.nodes) {
+            for (int v = 0; v < virtualNodes; v++) {
+                hashes[i] = hash(node + "#" + v);
+                hashOwners[i] = node;
+                i++;
+            }
+        }
+        Integer[] order = new Integer[hashes.length];
+        for (int j = 0; j < order.length; j++) {
+            order[j] = j;
+        }
+        Arrays.sort(order, (a, b) -> Long.compare(hashes[a], hashes[b]));
+        this.points = new long[hashes.length];
+        this.owners = new String[hashes.length];
+        for (int j = 0; j < order.length; j++) {
+            points[j] = hashes[order[j]];
+            owners[j] = hashOwners[order[j]];
+        }
+    }
+
+    /**
+     * @return 负责该用户的实例，环为空时返回null
+     */
+    public String owner(String userId) {
+        if (points.length == 0) {
+            return null;
+        }
+        int i = Arrays.binarySearch(points, hash(userId));
+        if (i < 0) {
+            i = -i - 1;
+        }
+        return owners[i == points.length ? 0 : i];
+    }
+
+    public List<String> getNodes() {
+        return nodes;
+    }
+
+    /**
+     * FNV-1a 后做一次 64 位混合，雪花ID等相近的字符串也能均匀分布
+     */
+    static long hash(String key) {
+        long h = 0xcbf29ce484222325L;
+        for (byte b : key.getBytes(StandardCharsets.UTF_8)) {
+            h ^= b;
+            h *= 0x100000001b3L;
+        }
+        h ^= h >>> 33;
+        h *= 0xff51afd7ed558ccdL;
+        h ^= h >>> 33;
+        h *= 0xc4ceb9fe1a85ec53L;
+        h ^= h >>> 33;
+        return h;
+    }
+}
@@ -0,0 +1,78 @@
+package cn.wind.clear.affinity;
+
+import javax.crypto.Mac;
+import javax.crypto.spec.SecretKeySpec;
+import java.nio.charset.StandardCharsets;
+import java.security.GeneralSecurityException;
+import java.security.MessageDigest;
+import java.time.Duration;
+import java.util.Base64;
+
+/**
+ * 实例之间转发请求的标记: X-Clear-Forwarded-By: {转发实例};{时间戳};{签名}
+ * <p>
+ * 签名是以各实例共用的 JWT 密钥对转发实例、时间戳、方法和路径(不含 context-path)计算的 HMAC-SHA256，
+ * 客户端无法自行构造；时间戳与本实例时钟相差超过有效期的标记不被接受，截获的标记也只能在短时间内重放同一请求
+ */
+public class ForwardedMarker {
+
+    public static final String HEADER = "X-Clear-Forwarded-By";
+
+    private static final String ALGORITHM = "HmacSHA256";
+    private static final Duration MAX_AGE = Duration.ofSeconds(30);
+
+    private final SecretKeySpec key;
+
+    public ForwardedMarker(String secretKey) {
+        this.key = new SecretKeySpec(secretKey.getBytes(StandardCharsets.UTF_8), ALGORITHM);
+    }
+
+    /**
+     * 生成标记
+     *
+     * @param node   转发实例的地址
+     * @param method 请求方法
+     * @param path   请求路径，不含 context-path
+     */
+    public String sign(String node, String method, String path) {
+        String timestamp = String.valueOf(System.currentTimeMillis());
+        return node + ";" + timestamp + ";" + signature(node, timestamp, method, path);
+    }
+
+    /**
+     * 校验标记，格式错误、签名不符或已过期时返回false
+     */
+    public boolean verify(String marker, String method, String path) {
+        if (marker == null) {
+            return false;
+        }
+        String[] parts = marker.split(";");
+        if (parts.length != 3) {
+            return false;
+        }
+        long timestamp;
+        try {
+            timestamp = Long.parseLong(parts[1]);
+        } catch (NumberFormatException e) {
+            return false;
+        }
+        if (Math.abs(System.currentTimeMillis() - timestamp) > MAX_AGE.toMillis()) {
+            return false;
+        }
+        byte[] expected = signature(parts[0], parts[1], method, path).getBytes(StandardCharsets.US_ASCII);
+        return MessageDigest.isEqual(expected, parts[2].getBytes(StandardCharsets.US_ASCII));
+    }
+
+    private String signature(String node, String timestamp, String method, String path) {
+        try {
+            // Mac 不是线程安全的，每次新建
+            Mac mac = Mac.getInstance(ALGORITHM);
+            mac.init(key);
+            byte[] digest = mac.doFinal((node + "\n" + timestamp + "\n" + method + "\n" + path)
+                    .getBytes(StandardCharsets.UTF_8));
+            return Base64.getUrlEncoder().withoutPadding().encodeToString(digest);
+        } catch (GeneralSecurityException e) {
+            throw new IllegalStateException(e);
+        }
+    }
+}
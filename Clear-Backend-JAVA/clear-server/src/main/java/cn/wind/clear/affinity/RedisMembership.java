@@ -0,0 +1,49 @@
+package cn.wind.clear.affinity;
+
+import cn.wind.clear.properties.AffinityProperties;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.DisposableBean;
+import org.springframework.data.redis.core.StringRedisTemplate;
+
+import java.util.List;
+import java.util.Set;
+
+/**
+ * 基于 Redis 的成员注册
+ * <p>
+ * 有序集合 clear:affinity:nodes 以实例地址为成员、最近一次心跳时间为分数，
+ * 每次刷新写入本实例的心跳并清除超过 nodeTtl 未心跳的实例；正常停机时立即注销，其用户马上转移
+ */
+@Slf4j
+public class RedisMembership implements ClusterMembership, DisposableBean {
+
+    private static final String NODES_KEY = "clear:affinity:nodes";
+
+    private final StringRedisTemplate stringRedisTemplate;
+    private final String self;
+    private final long ttlMillis;
+
+    public RedisMembership(StringRedisTemplate stringRedisTemplate, AffinityProperties affinityProperties) {
+        this.stringRedisTemplate = stringRedisTemplate;
+        this.self = affinityProperties.getSelf();
+        this.ttlMillis = affinityProperties.getNodeTtl().toMillis();
+    }
+
+    @Override
+    public List<String> refresh() {
+        long now = System.currentTimeMillis();
+        stringRedisTemplate.opsForZSet().add(NODES_KEY, self, now);
+        stringRedisTemplate.opsForZSet().removeRangeByScore(NODES_KEY, Double.NEGATIVE_INFINITY, now - ttlMillis);
+        Set<String> nodes = stringRedisTemplate.opsForZSet().range(NODES_KEY, 0, -1);
+        return nodes == null ? List.of(self) : List.copyOf(nodes);
+    }
+
+    @Override
+    public void destroy() {
+        try {
+            stringRedisTemplate.opsForZSet().remove(NODES_KEY, self);
+        } catch (Exception e) {
+            log.warn("注销实例失败，等待心跳超时后转移: {}", e.getMessage());
+        }
+    }
+}
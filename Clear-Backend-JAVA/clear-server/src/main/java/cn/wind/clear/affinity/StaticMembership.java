@@ -0,0 +1,22 @@
+package cn.wind.clear.affinity;
+
+import cn.wind.clear.properties.AffinityProperties;
+
+import java.util.List;
+
+/**
+ * 静态成员列表(clear.affinity.nodes)，成员变更需要修改配置并重启实例
+ */
+public class StaticMembership implements ClusterMembership {
+
+    private final List<String> nodes;
+
+    public StaticMembership(AffinityProperties affinityProperties) {
+        this.nodes = List.copyOf(affinityProperties.getNodes());
+    }
+
+    @Override
+    public List<String> refresh() {
+        return nodes;
+    }
+}
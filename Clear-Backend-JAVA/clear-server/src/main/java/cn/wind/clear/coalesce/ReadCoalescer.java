@@ -0,0 +1,93 @@
+package cn.wind.clear.coalesce;
+
+import cn.wind.clear.push.ChangeEventBroker;
+import cn.wind.clear.utils.SingleFlight;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.util.concurrent.atomic.AtomicLongArray;
+import java.util.function.Supplier;
+
+/**
+ * 合并同一用户的相同并发读请求
+ * <p>
+ * key 由用户ID、用户数据代数和查询指纹组成。写入提交后递增该用户的代数，
+ * 之后到达的读请求不会再加入提交前开始的执行，读到的数据最多只旧到正在进行的那一次查询。
+ * 代数按用户ID分片保存，分片冲突只会少合并一些请求，不会返回旧数据
+ */
+@Component
+public class ReadCoalescer {
+
+    private static final int STRIPES = 1024;
+
+    private final SingleFlight<Key, Object> flights = new SingleFlight<>();
+    private final AtomicLongArray generations = new AtomicLongArray(STRIPES);
+    private final Counter executed;
+    private final Counter shared;
+
+    public ReadCoalescer(ChangeEventBroker changeEventBroker, MeterRegistry meterRegistry) {
+        this.executed = Counter.builder("clear.coalesce.requests").tag("result", "executed").register(meterRegistry);
+        this.shared = Counter.builder("clear.coalesce.requests").tag("result", "shared").register(meterRegistry);
+        // 其他实例上的写入通过变更广播得知
+        changeEventBroker.subscribe(event -> bump(event.getUserId()));
+    }
+
+    /**
+     * 执行读请求，相同用户、相同指纹的并发请求共享一次执行
+     *
+     * @param userId      用户ID
+     * @param fingerprint 规范化后的查询条件，需正确实现 equals/hashCode
+     * @param supplier    实际查询
+     * @return 查询结果，多个请求共享同一对象，调用方不能修改
+     */
+    @SuppressWarnings("unchecked")
+    public <T> T execute(String userId, Object fingerprint, Supplier<T> supplier) {
+        if (userId == null) {
+            return supplier.get();
+        }
+        Key key = new Key(userId, generations.get(stripe(userId)), fingerprint);
+        boolean[] leader = new boolean[1];
+        T result = (T) flights.execute(key, () -> {
+            leader[0] = true;
+            return supplier.get();
+        });
+        (leader[0] ? executed : shared).increment();
+        return result;
+    }
+
+    /**
+     * 用户数据发生变更，在事务中调用时于提交后生效
+     */
+    public void invalidate(String userId) {
+        if (userId == null) {
+            return;
+        }
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+                @Override
+                public void afterCommit() {
+                    bump(userId);
+                }
+            });
+            return;
+        }
+        bump(userId);
+    }
+
+    private void bump(String userId) {
+        if (userId != null) {
+            generations.incrementAndGet(stripe(userId));
+        }
+    }
+
+    private static int stripe(String userId) {
+        int h = userId.hashCode();
+        return (h ^ (h >>> 16)) & (STRIPES - 1);
+    }
+
+    private record Key(String userId, long generation, Object fingerprint) {
+    }
+}
@@ -0,0 +1,56 @@
+package cn.wind.clear.config;
+
+import cn.wind.clear.affinity.AffinityFilter;
+import cn.wind.clear.affinity.AffinityRouter;
+import cn.wind.clear.affinity.ClusterMembership;
+import cn.wind.clear.affinity.RedisMembership;
+import cn.wind.clear.affinity.StaticMembership;
+import cn.wind.clear.properties.AffinityProperties;
+import cn.wind.clear.properties.JwtProperties;
+import io.micrometer.core.instrument.MeterRegistry;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.boot.web.servlet.FilterRegistrationBean;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.core.Ordered;
+import org.springframework.data.redis.core.StringRedisTemplate;
+
+/**
+ * 用户亲和路由配置
+ * <p>
+ * 转发过滤器排在准入控制之后: 同步转发期间占用本实例的工作线程，负责实例变慢时由本实例的并发上限拒绝多余的请求，
+ * 不会耗尽线程池；转发到达后负责实例的准入控制再约束一次
+ */
+@Configuration
+@Slf4j
+@ConditionalOnProperty(prefix = "clear.affinity", name = "enabled", havingValue = "true")
+public class AffinityConfiguration {
+
+    @Bean
+    @ConditionalOnProperty(prefix = "clear.affinity", name = "discovery", havingValue = "static", matchIfMissing = true)
+    public ClusterMembership staticMembership(AffinityProperties affinityProperties) {
+        log.info("静态集群成员: {}", affinityProperties.getNodes());
+        return new StaticMembership(affinityProperties);
+    }
+
+    @Bean
+    @ConditionalOnProperty(prefix = "clear.affinity", name = "discovery", havingValue = "redis")
+    public ClusterMembership redisMembership(StringRedisTemplate stringRedisTemplate,
+                                             AffinityProperties affinityProperties) {
+        return new RedisMembership(stringRedisTemplate, affinityProperties);
+    }
+
+    @Bean
+    public FilterRegistrationBean<AffinityFilter> affinityFilter(AffinityRouter affinityRouter,
+                                                                 AffinityProperties affinityProperties,
+                                                                 JwtProperties jwtProperties,
+                                                                 MeterRegistry meterRegistry) {
+        log.info("注册用户亲和转发过滤器: {}", affinityProperties.getUrlPatterns());
+        FilterRegistrationBean<AffinityFilter> registration = new FilterRegistrationBean<>(
+                new AffinityFilter(affinityRouter, affinityProperties, jwtProperties, meterRegistry));
+        registration.setUrlPatterns(affinityProperties.getUrlPatterns());
+        registration.setOrder(Ordered.HIGHEST_PRECEDENCE + 125);
+        return registration;
+    }
+}
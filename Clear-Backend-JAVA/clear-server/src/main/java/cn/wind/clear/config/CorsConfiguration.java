@@ -11,7 +11,7 @@ public class CorsConfiguration implements WebMvcConfigurer {
     public void addCorsMappings(CorsRegistry registry) {
         registry.addMapping("/**")  // 所有路径都支持跨域
                 .allowedOriginPatterns("*") // 允许所有来源
-                .allowedMethods("GET", "POST", "PUT", "DELETE")  // 允许的 HTTP 方法
+                .allowedMethods("GET", "POST", "PUT", "PATCH", "DELETE")  // 允许的 HTTP 方法
                 .allowedHeaders("*")  // 允许所有请求头
                 .allowCredentials(true)  // 允许发送凭证（如 cookies）
                 .maxAge(3600);  // 缓存预检请求的结果
@@ -0,0 +1,54 @@
+package cn.wind.clear.config;
+
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.InitializingBean;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.context.annotation.Profile;
+import org.springframework.core.io.ByteArrayResource;
+import org.springframework.core.io.ClassPathResource;
+import org.springframework.jdbc.datasource.init.ResourceDatabasePopulator;
+
+import javax.sql.DataSource;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.util.regex.Pattern;
+
+/**
+ * 嵌入模式(embedded)的数据库配置
+ * <p>
+ * 嵌入模式使用文件存储的 H2(MySQL 兼容模式)，启动时执行打包进 jar 的 init.sql 建表
+ */
+@Configuration
+@Profile("embedded")
+@Slf4j
+public class EmbeddedDatabaseConfiguration {
+
+    // 建库和切换库的语句只对 MySQL 有意义
+    private static final Pattern DATABASE_STATEMENT =
+            Pattern.compile("^\\s*(CREATE DATABASE|USE)\\b[^;]*;", Pattern.CASE_INSENSITIVE | Pattern.MULTILINE);
+
+    private static final Pattern CREATE_TABLE =
+            Pattern.compile("^(\\s*)CREATE TABLE\\s+(?!IF NOT EXISTS)", Pattern.CASE_INSENSITIVE | Pattern.MULTILINE);
+
+    @Bean
+    public InitializingBean embeddedSchemaInitializer(DataSource dataSource) {
+        return () -> {
+            long start = System.nanoTime();
+            new ResourceDatabasePopulator(new ByteArrayResource(schema())).execute(dataSource);
+            log.info("嵌入数据库建表完成，耗时 {} ms", (System.nanoTime() - start) / 1_000_000);
+        };
+    }
+
+    /**
+     * 读取 init.sql，去掉建库语句，建表改为 IF NOT EXISTS，已有的数据文件重复启动时跳过
+     * <p>
+     * 已存在的表不会补充新增的列，与 MySQL 部署一致
+     */
+    private static byte[] schema() throws IOException {
+        String script = new ClassPathResource("db/init.sql").getContentAsString(StandardCharsets.UTF_8);
+        script = DATABASE_STATEMENT.matcher(script).replaceAll("");
+        script = CREATE_TABLE.matcher(script).replaceAll("$1CREATE TABLE IF NOT EXISTS ");
+        return script.getBytes(StandardCharsets.UTF_8);
+    }
+}
@@ -0,0 +1,27 @@
+package cn.wind.clear.config;
+
+import cn.wind.clear.properties.IdProperties;
+import cn.wind.clear.utils.SnowflakeIdWorker;
+import com.baomidou.mybatisplus.core.incrementer.IdentifierGenerator;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+
+/**
+ * 主键生成配置，标注 @TableId(type = ASSIGN_ID) 的实体在 save 和 saveBatch 插入前即得到ID，无需回读自增主键
+ */
+@Configuration
+@Slf4j
+public class IdGeneratorConfiguration {
+
+    @Bean
+    public SnowflakeIdWorker snowflakeIdWorker(IdProperties idProperties) {
+        log.info("雪花ID工作节点: {}", idProperties.getWorkerId());
+        return SnowflakeIdWorker.forServer(idProperties.getWorkerId());
+    }
+
+    @Bean
+    public IdentifierGenerator identifierGenerator(SnowflakeIdWorker snowflakeIdWorker) {
+        return entity -> snowflakeIdWorker.nextId();
+    }
+}
@@ -0,0 +1,52 @@
+package cn.wind.clear.config;
+
+import cn.wind.clear.jfr.JfrEndpoint;
+import cn.wind.clear.jfr.RequestIdFilter;
+import cn.wind.clear.jfr.SqlEventInterceptor;
+import cn.wind.clear.properties.JfrProperties;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.boot.actuate.autoconfigure.web.server.ConditionalOnManagementPort;
+import org.springframework.boot.actuate.autoconfigure.web.server.ManagementPortType;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.boot.web.servlet.FilterRegistrationBean;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.core.Ordered;
+
+/**
+ * JFR 事件配置
+ * <p>
+ * 事件本身始终存在，只有录制进行中(按需录制端点，或启动参数 -XX:StartFlightRecording 的持续录制)时才会提交，
+ * 未录制时每个事件只是一次对象分配与一次开关判断
+ */
+@Configuration
+@Slf4j
+@ConditionalOnProperty(prefix = "clear.jfr", name = "enabled", havingValue = "true", matchIfMissing = true)
+public class JfrConfiguration {
+
+    /**
+     * 请求ID过滤器排在准入控制之前，请求事件包含排队等待的时间
+     */
+    @Bean
+    public FilterRegistrationBean<RequestIdFilter> requestIdFilter() {
+        FilterRegistrationBean<RequestIdFilter> registration = new FilterRegistrationBean<>(new RequestIdFilter());
+        registration.setOrder(Ordered.HIGHEST_PRECEDENCE + 50);
+        return registration;
+    }
+
+    @Bean
+    public SqlEventInterceptor sqlEventInterceptor() {
+        return new SqlEventInterceptor();
+    }
+
+    /**
+     * 录制端点可以开始录制和导出堆栈等运行时数据，只在 actuator 使用独立端口(management.server.port)时注册，
+     * 不随业务端口对外暴露；还需要把 jfr 加入 management.endpoints.web.exposure.include
+     */
+    @Bean
+    @ConditionalOnManagementPort(ManagementPortType.DIFFERENT)
+    public JfrEndpoint jfrEndpoint(JfrProperties jfrProperties) {
+        log.info("注册 JFR 录制端点，单次录制上限 {} / {} MB", jfrProperties.getMaxDuration(), jfrProperties.getMaxSizeMb());
+        return new JfrEndpoint(jfrProperties);
+    }
+}
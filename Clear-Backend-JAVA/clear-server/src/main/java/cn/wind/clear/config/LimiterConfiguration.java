@@ -0,0 +1,41 @@
+package cn.wind.clear.config;
+
+import cn.wind.clear.limiter.AdmissionFilter;
+import cn.wind.clear.limiter.VegasLimiter;
+import cn.wind.clear.properties.JwtProperties;
+import cn.wind.clear.properties.LimiterProperties;
+import io.micrometer.core.instrument.MeterRegistry;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.boot.web.servlet.FilterRegistrationBean;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.core.Ordered;
+
+/**
+ * 准入控制配置，过滤器只作用于访问数据库的路径，SSE 推送和健康检查不受限
+ */
+@Configuration
+@Slf4j
+@ConditionalOnProperty(prefix = "clear.limiter", name = "enabled", havingValue = "true", matchIfMissing = true)
+public class LimiterConfiguration {
+
+    @Bean
+    public VegasLimiter vegasLimiter(LimiterProperties limiterProperties) {
+        return new VegasLimiter(limiterProperties);
+    }
+
+    @Bean
+    public FilterRegistrationBean<AdmissionFilter> admissionFilter(VegasLimiter vegasLimiter,
+                                                                   LimiterProperties limiterProperties,
+                                                                   JwtProperties jwtProperties,
+                                                                   MeterRegistry meterRegistry) {
+        log.info("注册准入控制过滤器: {}", limiterProperties.getUrlPatterns());
+        FilterRegistrationBean<AdmissionFilter> registration =
+                new FilterRegistrationBean<>(new AdmissionFilter(vegasLimiter, jwtProperties, meterRegistry));
+        registration.setUrlPatterns(limiterProperties.getUrlPatterns());
+        // 在 CorsFilter(HIGHEST_PRECEDENCE)之后，拒绝的响应同样带跨域响应头
+        registration.setOrder(Ordered.HIGHEST_PRECEDENCE + 100);
+        return registration;
+    }
+}
@@ -0,0 +1,42 @@
+package cn.wind.clear.config;
+
+import ch.qos.logback.classic.Logger;
+import ch.qos.logback.classic.LoggerContext;
+import ch.qos.logback.classic.spi.ILoggingEvent;
+import ch.qos.logback.core.Appender;
+import cn.wind.clear.logging.DropCountingAsyncAppender;
+import io.micrometer.core.instrument.FunctionCounter;
+import io.micrometer.core.instrument.MeterRegistry;
+import lombok.extern.slf4j.Slf4j;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.SmartInitializingSingleton;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+
+import java.util.Iterator;
+
+/**
+ * 日志管道指标: 异步追加器(logback-spring.xml)丢弃的日志条数
+ */
+@Configuration
+@Slf4j
+public class LoggingConfiguration {
+
+    @Bean
+    public SmartInitializingSingleton droppedLogMetrics(MeterRegistry meterRegistry) {
+        return () -> {
+            if (!(LoggerFactory.getILoggerFactory() instanceof LoggerContext loggerContext)) {
+                return;
+            }
+            Logger root = loggerContext.getLogger(org.slf4j.Logger.ROOT_LOGGER_NAME);
+            for (Iterator<Appender<ILoggingEvent>> it = root.iteratorForAppenders(); it.hasNext(); ) {
+                if (it.next() instanceof DropCountingAsyncAppender appender) {
+                    log.info("异步日志队列: {}，丢弃计数注册为 clear.logging.dropped", appender.getQueueSize());
+                    FunctionCounter.builder("clear.logging.dropped", appender, DropCountingAsyncAppender::getDroppedCount)
+                            .tag("appender", appender.getName())
+                            .register(meterRegistry);
+                }
+            }
+        };
+    }
+}
@@ -3,20 +3,29 @@ package cn.wind.clear.config;
 import com.baomidou.mybatisplus.annotation.DbType;
 import com.baomidou.mybatisplus.extension.plugins.MybatisPlusInterceptor;
 import com.baomidou.mybatisplus.extension.plugins.inner.PaginationInnerInterceptor;
+import com.baomidou.mybatisplus.extension.toolkit.JdbcUtils;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.boot.autoconfigure.jdbc.DataSourceProperties;
 import org.springframework.context.annotation.Bean;
 import org.springframework.context.annotation.Configuration;
 
 @Configuration
+@Slf4j
 public class MybatisPlusConfig {
 
     /**
      * 添加分页插件
+     * <p>
+     * 分页方言按连接地址选择: 默认 MySQL，嵌入模式(embedded)下为 H2。
+     * 地址从已绑定的 DataSourceProperties 读取，其中未解析的环境变量(如镜像构建时的 MYSQL_HOST)不会导致启动失败
      */
     @Bean
-    public MybatisPlusInterceptor mybatisPlusInterceptor() {
+    public MybatisPlusInterceptor mybatisPlusInterceptor(DataSourceProperties dataSourceProperties) {
+        String url = dataSourceProperties.getUrl();
+        DbType dbType = url == null ? DbType.MYSQL : JdbcUtils.getDbType(url);
+        log.info("分页方言: {}", dbType.getDb());
         MybatisPlusInterceptor interceptor = new MybatisPlusInterceptor();
-        interceptor.addInnerInterceptor(new PaginationInnerInterceptor(DbType.MYSQL)); // 如果你的数据库是 MySQL
+        interceptor.addInnerInterceptor(new PaginationInnerInterceptor(dbType));
         return interceptor;
     }
 }
-
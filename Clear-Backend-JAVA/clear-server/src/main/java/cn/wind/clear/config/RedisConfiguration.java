@@ -1,24 +1,35 @@
 package cn.wind.clear.config;
 
 import lombok.extern.slf4j.Slf4j;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
 import org.springframework.context.annotation.Bean;
 import org.springframework.context.annotation.Configuration;
 import org.springframework.data.redis.connection.RedisConnectionFactory;
 import org.springframework.data.redis.core.RedisTemplate;
+import org.springframework.data.redis.serializer.RedisSerializer;
 import org.springframework.data.redis.serializer.StringRedisSerializer;
 
 @Configuration
 @Slf4j
+@ConditionalOnProperty(prefix = "clear.store", name = "type", havingValue = "redis", matchIfMissing = true)
 public class RedisConfiguration {
 
+    /**
+     * 二进制值模板，值由 cn.wind.clear.codec 编码后原样写入，不经过 JDK 序列化
+     * <p>
+     * Bean 名称保持 redisTemplate，Spring Boot 不再创建默认的 JDK 序列化模板
+     */
     @Bean
-    public RedisTemplate redisTemplate(RedisConnectionFactory redisConnectionFactory) {
+    public RedisTemplate<String, byte[]> redisTemplate(RedisConnectionFactory redisConnectionFactory) {
         log.info("开始创建redis模板对象...");
-        RedisTemplate redisTemplate = new RedisTemplate();
+        RedisTemplate<String, byte[]> redisTemplate = new RedisTemplate<>();
         // 设置连接工厂对象
         redisTemplate.setConnectionFactory(redisConnectionFactory);
         // 设置redis key序列化器
         redisTemplate.setKeySerializer(new StringRedisSerializer());
+        // 值为编码好的字节
+        redisTemplate.setValueSerializer(RedisSerializer.byteArray());
+        redisTemplate.setEnableDefaultSerializer(false);
 
         return redisTemplate;
     }
@@ -1,7 +1,17 @@
 package cn.wind.clear.config;
 
 import cn.wind.clear.interceptor.JwtTokenInterceptor;
+import cn.wind.clear.jfr.RecordingMessageConverters;
 import cn.wind.clear.json.JacksonObjectMapper;
+import cn.wind.clear.result.PageResult;
+import cn.wind.clear.result.Result;
+import cn.wind.clear.vo.CategoryVO;
+import cn.wind.clear.vo.TodoCalendarVO;
+import cn.wind.clear.vo.TodoVO;
+import cn.wind.clear.vo.UserLoginVO;
+import cn.wind.clear.vo.UserStatusVO;
+import com.fasterxml.jackson.dataformat.cbor.CBORFactory;
+import com.fasterxml.jackson.dataformat.smile.SmileFactory;
 import jakarta.annotation.Resource;
 import lombok.extern.slf4j.Slf4j;
 import org.springframework.beans.factory.annotation.Autowired;
@@ -34,6 +44,8 @@ public class WebMvcConfiguration extends WebMvcConfigurationSupport {
                 .addPathPatterns("/user/**")
                 .addPathPatterns("/todo/**")
                 .addPathPatterns("/category/**")
+                .addPathPatterns("/tag/**")
+                .addPathPatterns("/push/**")
                 .excludePathPatterns("/user/login")
                 .excludePathPatterns("/user/register");
     }
@@ -46,12 +58,23 @@ public class WebMvcConfiguration extends WebMvcConfigurationSupport {
     protected void extendMessageConverters(List<HttpMessageConverter<?>> converters) {
         log.info("扩展消息转换器");
 
-        // 创建消息转换器对象
-        MappingJackson2HttpMessageConverter converter = new MappingJackson2HttpMessageConverter();
-
+        // 创建消息转换器对象，读写请求体与响应体时记录 JFR 序列化事件
         // 需要为消息转换器设置一个对象转换器，对象转换器可以将Java对象转换为json数据
-        converter.setObjectMapper(new JacksonObjectMapper());
+        MappingJackson2HttpMessageConverter converter = RecordingMessageConverters.json(prefetch(new JacksonObjectMapper()));
 
         converters.add(0, converter);
+
+        // 二进制格式，客户端通过 Accept: application/cbor 或 application/x-jackson-smile 选择
+        converters.add(1, RecordingMessageConverters.cbor(prefetch(new JacksonObjectMapper(new CBORFactory()))));
+        converters.add(2, RecordingMessageConverters.smile(prefetch(new JacksonObjectMapper(new SmileFactory()))));
+    }
+
+    /**
+     * 预先解析高频响应类型的序列化器
+     */
+    private JacksonObjectMapper prefetch(JacksonObjectMapper objectMapper) {
+        objectMapper.prefetchSerializers(Result.class, PageResult.class, TodoVO.class, CategoryVO.class,
+                TodoCalendarVO.class, UserLoginVO.class, UserStatusVO.class);
+        return objectMapper;
     }
 }
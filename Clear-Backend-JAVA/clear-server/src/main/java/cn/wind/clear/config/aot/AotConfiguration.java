@@ -0,0 +1,19 @@
+package cn.wind.clear.config.aot;
+
+import org.springframework.beans.factory.config.BeanDefinition;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.context.annotation.Role;
+
+/**
+ * Spring AOT 兼容配置，MyBatis 的 Mapper 扫描在 AOT 下需要额外处理
+ */
+@Configuration(proxyBeanMethods = false)
+public class AotConfiguration {
+
+    @Bean
+    @Role(BeanDefinition.ROLE_INFRASTRUCTURE)
+    public static MapperFactoryBeanPostProcessor mapperFactoryBeanPostProcessor() {
+        return new MapperFactoryBeanPostProcessor();
+    }
+}
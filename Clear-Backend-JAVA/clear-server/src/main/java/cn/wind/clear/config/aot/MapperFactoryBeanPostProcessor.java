@@ -0,0 +1,44 @@
+package cn.wind.clear.config.aot;
+
+import org.mybatis.spring.mapper.MapperFactoryBean;
+import org.springframework.beans.factory.config.ConstructorArgumentValues;
+import org.springframework.beans.factory.support.MergedBeanDefinitionPostProcessor;
+import org.springframework.beans.factory.support.RootBeanDefinition;
+import org.springframework.core.ResolvableType;
+import org.springframework.util.ClassUtils;
+
+/**
+ * 补全 Mapper 的 FactoryBean 定义
+ * <p>
+ * 扫描得到的定义只以类名字符串作为构造参数，AOT 生成代码时无法据此选出构造器，
+ * 这里在生成前换成 Mapper 接口类型，并带上泛型目标类型，按类型注入 Mapper 时无需提前实例化
+ */
+public class MapperFactoryBeanPostProcessor implements MergedBeanDefinitionPostProcessor {
+
+    @Override
+    public void postProcessMergedBeanDefinition(RootBeanDefinition beanDefinition, Class<?> beanType, String beanName) {
+        if (!beanDefinition.hasBeanClass() || !MapperFactoryBean.class.isAssignableFrom(beanDefinition.getBeanClass())
+                || !beanDefinition.getResolvableType().hasUnresolvableGenerics()) {
+            return;
+        }
+        Class<?> mapperInterface = getMapperInterface(beanDefinition);
+        if (mapperInterface == null) {
+            return;
+        }
+        ConstructorArgumentValues argumentValues = new ConstructorArgumentValues();
+        argumentValues.addGenericArgumentValue(mapperInterface);
+        beanDefinition.setConstructorArgumentValues(argumentValues);
+        beanDefinition.setTargetType(ResolvableType.forClassWithGenerics(beanDefinition.getBeanClass(), mapperInterface));
+    }
+
+    private Class<?> getMapperInterface(RootBeanDefinition beanDefinition) {
+        Object value = beanDefinition.getPropertyValues().get("mapperInterface");
+        if (value instanceof Class<?> type) {
+            return type;
+        }
+        if (value instanceof String name) {
+            return ClassUtils.resolveClassName(name, getClass().getClassLoader());
+        }
+        return null;
+    }
+}
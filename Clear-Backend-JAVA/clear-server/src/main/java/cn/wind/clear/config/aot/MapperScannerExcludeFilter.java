@@ -0,0 +1,18 @@
+package cn.wind.clear.config.aot;
+
+import org.mybatis.spring.mapper.MapperScannerConfigurer;
+import org.springframework.beans.factory.aot.BeanRegistrationExcludeFilter;
+import org.springframework.beans.factory.support.RegisteredBean;
+
+/**
+ * AOT 处理时排除 Mapper 扫描器
+ * <p>
+ * 扫描得到的 Mapper 定义已写入 AOT 代码，运行时不能再扫描一次，否则会重复注册同名 Bean
+ */
+class MapperScannerExcludeFilter implements BeanRegistrationExcludeFilter {
+
+    @Override
+    public boolean isExcludedFromAotProcessing(RegisteredBean registeredBean) {
+        return MapperScannerConfigurer.class.isAssignableFrom(registeredBean.getBeanClass());
+    }
+}
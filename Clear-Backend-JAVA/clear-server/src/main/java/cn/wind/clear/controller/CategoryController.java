@@ -30,7 +30,7 @@ public class CategoryController {
      */
     @GetMapping("/categories")
     public Result<List<CategoryVO>> getCategories() {
-        log.info("获取用户分类数据...");
+        log.debug("获取用户分类数据...");
         List<CategoryVO> list = categoryService.getCategories();
         return Result.success(list);
     }
@@ -72,8 +72,8 @@ public class CategoryController {
      * @return 包含操作结果的响应对象，成功时返回成功消息
      */
     @DeleteMapping("/delete/{id}")
-    public Result<String> deleteCategory(@PathVariable Long id) {
-        categoryService.removeById(id);
+    public Result<String> deleteCategory(@PathVariable String id) {
+        categoryService.deleteCategory(id);
         return Result.success("删除成功");
     }
 }
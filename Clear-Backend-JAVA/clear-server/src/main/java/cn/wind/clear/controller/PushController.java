@@ -0,0 +1,35 @@
+package cn.wind.clear.controller;
+
+import cn.wind.clear.context.RedisContext;
+import cn.wind.clear.push.PushHub;
+import jakarta.annotation.Resource;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.http.MediaType;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RestController;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
+
+/**
+ * Push
+ */
+@RestController
+@RequestMapping("/push")
+@Slf4j
+public class PushController {
+
+    @Resource
+    private PushHub pushHub;
+
+    /**
+     * 订阅数据变更
+     * <p>
+     * 建立 SSE 长连接，当前用户的待办和分类发生变更时推送事件，客户端据此局部刷新而无需轮询
+     *
+     * @return SSE 连接
+     */
+    @GetMapping(value = "/subscribe", produces = MediaType.TEXT_EVENT_STREAM_VALUE)
+    public SseEmitter subscribe() {
+        return pushHub.subscribe(RedisContext.getCurrentId());
+    }
+}
@@ -0,0 +1,74 @@
+package cn.wind.clear.controller;
+
+import cn.wind.clear.dto.TagDTO;
+import cn.wind.clear.result.Result;
+import cn.wind.clear.service.TagService;
+import cn.wind.clear.vo.TagVO;
+import jakarta.annotation.Resource;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.web.bind.annotation.*;
+
+import java.util.List;
+
+/**
+ * Tag
+ */
+@RestController
+@RequestMapping("/tag")
+@Slf4j
+public class TagController {
+
+    @Resource
+    private TagService tagService;
+
+    /**
+     * 获取用户的标签
+     *
+     * @return 包含标签列表的结果对象
+     */
+    @GetMapping("/tags")
+    public Result<List<TagVO>> getTags() {
+        List<TagVO> list = tagService.getTags();
+        return Result.success(list);
+    }
+
+    /**
+     * 添加标签
+     * <p>
+     * 同一用户的标签名称不能重复
+     *
+     * @param tagDTO 标签名称，可带客户端生成的ID
+     * @return 操作结果
+     */
+    @PostMapping("/add")
+    public Result<String> addTag(@RequestBody TagDTO tagDTO) {
+        tagService.addTag(tagDTO);
+        return Result.success("添加成功");
+    }
+
+    /**
+     * 重命名标签
+     *
+     * @param tagDTO 标签ID和新名称
+     * @return 操作结果
+     */
+    @PutMapping("/update")
+    public Result<String> updateTag(@RequestBody TagDTO tagDTO) {
+        tagService.updateTag(tagDTO);
+        return Result.success("修改成功");
+    }
+
+    /**
+     * 删除标签
+     * <p>
+     * 同时移除所有待办上的该标签
+     *
+     * @param id 标签ID
+     * @return 操作结果
+     */
+    @DeleteMapping("/delete/{id}")
+    public Result<String> deleteTag(@PathVariable String id) {
+        tagService.deleteTag(id);
+        return Result.success("删除成功");
+    }
+}
@@ -1,17 +1,31 @@
 package cn.wind.clear.controller;
 
+import cn.wind.clear.dto.MoveTodoDTO;
+import cn.wind.clear.dto.PatchTodoDTO;
+import cn.wind.clear.dto.TodoCalendarQueryDTO;
 import cn.wind.clear.dto.TodoDTO;
 import cn.wind.clear.dto.TodoPageQueryDTO;
 import cn.wind.clear.dto.UpdateTodoDTO;
 import cn.wind.clear.result.PageResult;
 import cn.wind.clear.result.Result;
+import cn.wind.clear.service.SuggestService;
 import cn.wind.clear.service.TodoService;
+import cn.wind.clear.vo.TodoCalendarVO;
+import cn.wind.clear.vo.TodoSuggestVO;
 import cn.wind.clear.vo.TodoVO;
 import jakarta.annotation.Resource;
+import com.fasterxml.jackson.databind.ser.impl.SimpleBeanPropertyFilter;
+import com.fasterxml.jackson.databind.ser.impl.SimpleFilterProvider;
 import lombok.extern.slf4j.Slf4j;
-import org.springframework.cache.annotation.CacheEvict;
+import org.springframework.http.converter.json.MappingJacksonValue;
 import org.springframework.web.bind.annotation.*;
 
+import java.time.LocalDate;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Set;
+import java.util.stream.Collectors;
+
 /**
  * Todo
  */
@@ -23,6 +37,9 @@ public class TodoController {
     @Resource
     TodoService todoService;
 
+    @Resource
+    SuggestService suggestService;
+
     /**
      * 添加待办事项
      * <p>
@@ -41,15 +58,141 @@ public class TodoController {
     /**
      * 待办事项分页查询
      * <p>
-     * 根据查询条件进行分页查询待办事项，结果会被缓存
+     * 根据查询条件进行分页查询待办事项，结果会被缓存；指定 fields 时只查询并返回这些字段
      *
      * @param todoPageQueryDTO 分页查询参数，包含页码、每页大小等查询条件
      * @return 分页结果，包含TodoVO列表和分页信息
      */
     @GetMapping("/page")
-    public Result<PageResult<TodoVO>> pageTodo(TodoPageQueryDTO todoPageQueryDTO) {
+    public MappingJacksonValue pageTodo(TodoPageQueryDTO todoPageQueryDTO) {
         PageResult<TodoVO> pageResult = todoService.pageQuery(todoPageQueryDTO);
-        return Result.success(pageResult);
+        MappingJacksonValue value = new MappingJacksonValue(Result.success(pageResult));
+        if (todoPageQueryDTO.getFields() != null && !todoPageQueryDTO.getFields().isBlank()) {
+            Set<String> fields = Arrays.stream(todoPageQueryDTO.getFields().split(","))
+                    .map(String::trim)
+                    .collect(Collectors.toSet());
+            fields.add("id");
+            value.setFilters(new SimpleFilterProvider()
+                    .addFilter(TodoVO.FIELDS_FILTER, SimpleBeanPropertyFilter.filterOutAllExcept(fields)));
+        }
+        return value;
+    }
+
+    /**
+     * 输入补全
+     * <p>
+     * 按前缀匹配待办标题(整体或其中任一词的开头)和分类名称，不区分大小写
+     *
+     * @param prefix 已输入的内容
+     * @param limit 最多返回条数，可选
+     * @return 匹配的待办和分类
+     */
+    @GetMapping("/suggest")
+    public Result<List<TodoSuggestVO>> suggest(@RequestParam String prefix, @RequestParam(required = false) Integer limit) {
+        List<TodoSuggestVO> suggestions = suggestService.suggest(prefix, limit);
+        return Result.success(suggestions);
+    }
+
+    /**
+     * 待办事项详情
+     * <p>
+     * 返回包含完整内容的待办事项，供列表只查询摘要字段时按需加载
+     *
+     * @param id 待办事项ID
+     * @return 待办事项详情
+     */
+    @GetMapping("/{id}")
+    public Result<TodoVO> getTodo(@PathVariable String id) {
+        TodoVO todoVO = todoService.getTodo(id);
+        return Result.success(todoVO);
+    }
+
+    /**
+     * 部分更新待办事项
+     * <p>
+     * 只更新 fields 中列出的字段；version 与服务端不一致说明数据已在其他设备上修改，返回 409
+     *
+     * @param id 待办事项ID
+     * @param patchTodoDTO 需要更新的字段、字段值和客户端读取时的版本号
+     * @return 更新后的版本号
+     */
+    @PatchMapping("/{id}")
+    public Result<Integer> patchTodo(@PathVariable String id, @RequestBody PatchTodoDTO patchTodoDTO) {
+        Integer version = todoService.patchTodo(id, patchTodoDTO);
+        return Result.success(version);
+    }
+
+    /**
+     * 手动调整待办事项的顺序
+     * <p>
+     * 把待办事项移动到同一分类的 afterId 之后，afterId 为空时移到开头；无论列表多长只改写被移动的这一项，
+     * 按 orderBy=manual 分页查询即可得到调整后的顺序
+     *
+     * @param id 待办事项ID
+     * @param moveTodoDTO 目标位置的前一项
+     * @return 更新后的版本号
+     */
+    @PutMapping("/{id}/move")
+    public Result<Integer> moveTodo(@PathVariable String id, @RequestBody MoveTodoDTO moveTodoDTO) {
+        Integer version = todoService.moveTodo(id, moveTodoDTO);
+        return Result.success(version);
+    }
+
+    /**
+     * 单独保存重复待办的某一次
+     * <p>
+     * 展开的重复实例没有ID，修改、完成或设置标签前先调用此接口保存为普通的待办事项
+     *
+     * @param id 重复系列第一项的ID
+     * @param date 该次的日期
+     * @return 该次待办事项的ID
+     */
+    @PostMapping("/{id}/occurrences/{date}")
+    public Result<String> saveOccurrence(@PathVariable String id, @PathVariable LocalDate date) {
+        String occurrenceId = todoService.saveOccurrence(id, date);
+        return Result.success(occurrenceId);
+    }
+
+    /**
+     * 跳过重复待办的某一次
+     *
+     * @param id 重复系列第一项的ID
+     * @param date 该次的日期
+     * @return 操作结果，成功返回success状态
+     */
+    @DeleteMapping("/{id}/occurrences/{date}")
+    public Result<String> skipOccurrence(@PathVariable String id, @PathVariable LocalDate date) {
+        todoService.skipOccurrence(id, date);
+        return Result.success("删除成功");
+    }
+
+    /**
+     * 设置待办事项的标签
+     * <p>
+     * 用请求中的标签列表覆盖原有标签，空列表表示清除全部标签
+     *
+     * @param id 待办事项ID
+     * @param tagIds 标签ID列表
+     * @return 操作结果，成功返回success状态
+     */
+    @PutMapping("/{id}/tags")
+    public Result<String> setTags(@PathVariable String id, @RequestBody List<String> tagIds) {
+        todoService.setTags(id, tagIds);
+        return Result.success("更新成功");
+    }
+
+    /**
+     * 待办事项日历统计
+     * <p>
+     * 按天返回指定月/周/年内已完成和未完成的待办数量，month、week、year 三选一
+     *
+     * @param todoCalendarQueryDTO 日历查询参数
+     * @return 每天的待办数量统计
+     */
+    @GetMapping("/calendar")
+    public Result<List<TodoCalendarVO>> calendar(TodoCalendarQueryDTO todoCalendarQueryDTO) {
+        List<TodoCalendarVO> days = todoService.calendar(todoCalendarQueryDTO);
+        return Result.success(days);
     }
 
     /**
@@ -2,14 +2,17 @@ package cn.wind.clear.controller;
 
 import cn.wind.clear.constant.JwtClaimsConstant;
 import cn.wind.clear.constant.MessageConstant;
+import cn.wind.clear.dto.AnalyticsQueryDTO;
 import cn.wind.clear.dto.UserDTO;
 import cn.wind.clear.dto.UserLoginDTO;
 import cn.wind.clear.entity.User;
 import cn.wind.clear.exception.BaseException;
 import cn.wind.clear.properties.JwtProperties;
 import cn.wind.clear.result.Result;
+import cn.wind.clear.service.AnalyticsService;
 import cn.wind.clear.service.UserService;
 import cn.wind.clear.utils.JwtUtil;
+import cn.wind.clear.vo.AnalyticsVO;
 import cn.wind.clear.vo.UserLoginVO;
 import cn.wind.clear.vo.UserStatusVO;
 import jakarta.annotation.Resource;
@@ -31,6 +34,8 @@ public class UserController {
     UserService userService;
     @Resource
     private JwtProperties jwtProperties;
+    @Resource
+    private AnalyticsService analyticsService;
 
     /**
      * 用户登录
@@ -121,6 +126,19 @@ public class UserController {
         return Result.success(userStatus);
     }
 
+    /**
+     * 获取用户的待办统计
+     * <p>
+     * 按天、周或月返回范围内创建、完成、逾期的数量，以及各分类的合计，默认最近 12 周按周汇总
+     *
+     * @param analyticsQueryDTO 日期范围、汇总粒度和可选的分类
+     * @return Result 包含趋势与分类统计的结果对象
+     */
+    @GetMapping("/analytics")
+    public Result<AnalyticsVO> getAnalytics(AnalyticsQueryDTO analyticsQueryDTO) {
+        return Result.success(analyticsService.query(analyticsQueryDTO));
+    }
+
 
 
     /**
@@ -0,0 +1,29 @@
+package cn.wind.clear.event;
+
+import lombok.Getter;
+import lombok.ToString;
+
+/**
+ * 领域事件
+ * <p>
+ * 实例是环形队列中预分配的槽位，会被重复使用，监听器如需在回调之外保留数据必须自行复制
+ */
+@Getter
+@ToString
+public class DomainEvent {
+    private DomainEventType type; // 事件类型
+    private String userId; // 数据所属用户id
+    private String entityId; // 变更数据的id
+
+    void set(DomainEventType type, String userId, String entityId) {
+        this.type = type;
+        this.userId = userId;
+        this.entityId = entityId;
+    }
+
+    void clear() {
+        this.type = null;
+        this.userId = null;
+        this.entityId = null;
+    }
+}
@@ -0,0 +1,238 @@
+package cn.wind.clear.event;
+
+import cn.wind.clear.properties.EventBusProperties;
+import io.micrometer.core.instrument.FunctionCounter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.context.SmartLifecycle;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicLongArray;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.concurrent.locks.LockSupport;
+
+/**
+ * 进程内领域事件总线
+ * <p>
+ * 基于预分配槽位的有界环形队列，多个请求线程发布，单个消费线程按批次把事件分发给所有
+ * {@link DomainEventListener}。发布只需一次 CAS 和几次字段写入，不分配对象；队列满时丢弃事件
+ * 并计数，请求线程永远不会因下游处理变慢而阻塞。队列深度、容量和发布/处理/丢弃计数注册为 clear.events.* 指标
+ */
+@Component
+@Slf4j
+public class DomainEventBus implements SmartLifecycle {
+
+    private static final long PARK_NANOS = TimeUnit.MILLISECONDS.toNanos(1);
+
+    private final ObjectProvider<DomainEventListener> listenerProvider;
+    private final int capacity;
+    private final int mask;
+    private final int maxBatch;
+    private final DomainEvent[] slots;
+    // 槽位序号: 等于 pos 表示可写，等于 pos + 1 表示可读
+    private final AtomicLongArray sequences;
+    private final AtomicLong tail = new AtomicLong();
+    private long head;
+
+    private final LongAdder published = new LongAdder();
+    private final LongAdder dropped = new LongAdder();
+    private final AtomicLong consumed = new AtomicLong();
+    private final AtomicLong batches = new AtomicLong();
+    // 消费线程每批开始时看到的队列深度(已占用的槽位数)的最大值
+    private volatile int maxObservedBacklog;
+
+    private volatile boolean running;
+    private volatile boolean parked;
+    private Thread consumer;
+    private List<DomainEventListener> listeners = List.of();
+
+    public DomainEventBus(ObjectProvider<DomainEventListener> listenerProvider, EventBusProperties eventBusProperties,
+                          MeterRegistry meterRegistry) {
+        this.listenerProvider = listenerProvider;
+        int size = Integer.highestOneBit(Math.max(2, eventBusProperties.getBufferSize() - 1)) << 1;
+        this.capacity = size;
+        this.mask = size - 1;
+        this.maxBatch = eventBusProperties.getMaxBatch();
+        this.slots = new DomainEvent[size];
+        this.sequences = new AtomicLongArray(size);
+        for (int i = 0; i < size; i++) {
+            slots[i] = new DomainEvent();
+            sequences.set(i, i);
+        }
+        Gauge.builder("clear.events.backlog", this, DomainEventBus::getBacklog).register(meterRegistry);
+        Gauge.builder("clear.events.backlog.max", this, DomainEventBus::getMaxObservedBacklog).register(meterRegistry);
+        Gauge.builder("clear.events.capacity", this, DomainEventBus::getCapacity).register(meterRegistry);
+        FunctionCounter.builder("clear.events.published", this, DomainEventBus::getPublished).register(meterRegistry);
+        FunctionCounter.builder("clear.events.consumed", this, DomainEventBus::getConsumed).register(meterRegistry);
+        FunctionCounter.builder("clear.events.dropped", this, DomainEventBus::getDropped).register(meterRegistry);
+        FunctionCounter.builder("clear.events.batches", this, DomainEventBus::getBatches).register(meterRegistry);
+    }
+
+    /**
+     * 发布事件
+     * <p>
+     * 当前线程存在事务时，事件在事务提交后才进入队列，回滚则不发布
+     *
+     * @param type 事件类型
+     * @param userId 数据所属用户id
+     * @param entityId 变更数据的id
+     */
+    public void publish(DomainEventType type, String userId, String entityId) {
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+                @Override
+                public void afterCommit() {
+                    enqueue(type, userId, entityId);
+                }
+            });
+            return;
+        }
+        enqueue(type, userId, entityId);
+    }
+
+    private void enqueue(DomainEventType type, String userId, String entityId) {
+        long pos;
+        int index;
+        for (;;) {
+            pos = tail.get();
+            index = (int) (pos & mask);
+            long diff = sequences.get(index) - pos;
+            if (diff == 0) {
+                if (tail.compareAndSet(pos, pos + 1)) {
+                    break;
+                }
+            } else if (diff < 0) {
+                // 队列已满
+                dropped.increment();
+                if (dropped.sum() % 1000 == 1) {
+                    log.warn("领域事件队列已满，已丢弃 {} 个事件", dropped.sum());
+                }
+                return;
+            }
+        }
+        slots[index].set(type, userId, entityId);
+        sequences.lazySet(index, pos + 1);
+        published.increment();
+        if (parked) {
+            LockSupport.unpark(consumer);
+        }
+    }
+
+    private void consume() {
+        while (running || isReadable(head)) {
+            int available = 0;
+            while (available < maxBatch && isReadable(head + available)) {
+                available++;
+            }
+            if (available == 0) {
+                parked = true;
+                if (!isReadable(head)) {
+                    LockSupport.parkNanos(this, PARK_NANOS);
+                }
+                parked = false;
+                continue;
+            }
+            // 一批最多处理 maxBatch 个，队列深度按已占用的槽位计算，包括发布线程正在写入的槽位
+            int backlog = (int) (tail.get() - head);
+            if (backlog > maxObservedBacklog) {
+                maxObservedBacklog = backlog;
+            }
+            for (int i = 0; i < available; i++) {
+                long pos = head + i;
+                int index = (int) (pos & mask);
+                DomainEvent event = slots[index];
+                boolean endOfBatch = i == available - 1;
+                for (DomainEventListener listener : listeners) {
+                    try {
+                        listener.onEvent(event, endOfBatch);
+                    } catch (Exception e) {
+                        log.warn("领域事件处理失败: {} {}", event, e.getMessage());
+                    }
+                }
+                event.clear();
+                sequences.lazySet(index, pos + capacity);
+            }
+            head += available;
+            consumed.addAndGet(available);
+            batches.incrementAndGet();
+        }
+    }
+
+    private boolean isReadable(long pos) {
+        return sequences.get((int) (pos & mask)) == pos + 1;
+    }
+
+    /**
+     * 当前队列中等待处理的事件数
+     */
+    public long getBacklog() {
+        return published.sum() - consumed.get();
+    }
+
+    public long getPublished() {
+        return published.sum();
+    }
+
+    public long getConsumed() {
+        return consumed.get();
+    }
+
+    public long getDropped() {
+        return dropped.sum();
+    }
+
+    public long getBatches() {
+        return batches.get();
+    }
+
+    public int getCapacity() {
+        return capacity;
+    }
+
+    public int getMaxObservedBacklog() {
+        return maxObservedBacklog;
+    }
+
+    @Override
+    public void start() {
+        listeners = listenerProvider.orderedStream().toList();
+        running = true;
+        consumer = new Thread(this::consume, "domain-event-consumer");
+        consumer.setDaemon(true);
+        consumer.start();
+        log.info("领域事件总线已启动, 容量: {}, 监听器: {}", capacity, listeners.size());
+    }
+
+    @Override
+    public void stop() {
+        running = false;
+        if (consumer != null) {
+            LockSupport.unpark(consumer);
+            try {
+                consumer.join(TimeUnit.SECONDS.toMillis(5));
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            }
+        }
+    }
+
+    @Override
+    public boolean isRunning() {
+        return running;
+    }
+
+    /**
+     * 早于 Web 服务启动、晚于 Web 服务停止，保证停机前请求发布的事件都被处理
+     */
+    @Override
+    public int getPhase() {
+        return Integer.MAX_VALUE - 4096;
+    }
+}
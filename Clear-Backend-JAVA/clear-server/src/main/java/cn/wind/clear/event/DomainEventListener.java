@@ -0,0 +1,14 @@
+package cn.wind.clear.event;
+
+/**
+ * 领域事件监听器，在事件总线的消费线程中被调用
+ */
+public interface DomainEventListener {
+
+    /**
+     * 处理事件
+     * @param event 事件，回调返回后会被复用
+     * @param endOfBatch 是否为当前批次的最后一个事件，可用于批量提交
+     */
+    void onEvent(DomainEvent event, boolean endOfBatch);
+}
@@ -0,0 +1,18 @@
+package cn.wind.clear.event;
+
+/**
+ * 领域事件类型
+ */
+public enum DomainEventType {
+    TODO_CREATED,
+    TODO_UPDATED,
+    TODO_DELETED,
+    CATEGORY_CREATED,
+    CATEGORY_UPDATED,
+    CATEGORY_DELETED,
+    TAG_CREATED,
+    TAG_UPDATED,
+    TAG_DELETED,
+    USER_REGISTERED,
+    USER_UPDATED
+}
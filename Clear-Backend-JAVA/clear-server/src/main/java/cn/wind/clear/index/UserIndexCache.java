@@ -0,0 +1,165 @@
+package cn.wind.clear.index;
+
+import cn.wind.clear.push.ChangeEventBroker;
+import cn.wind.clear.utils.SingleFlight;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.atomic.AtomicLongArray;
+import java.util.function.Predicate;
+import java.util.function.Supplier;
+import java.util.function.ToLongFunction;
+
+/**
+ * 按用户缓存的内存索引
+ * <p>
+ * 首次查询时构建，用户数据变更时丢弃，下次查询重新构建。本实例的写入在提交后调用 invalidate，
+ * 其他实例的写入通过变更广播得知。所有索引的估算内存超出预算时按最近最少使用淘汰。
+ * 构建期间发生变更时，构建结果只用于已加入的查询，不放入缓存。
+ * 开启用户亲和路由(AffinityRouter)后只缓存本实例负责的用户，归属变化时丢弃不再负责的用户
+ */
+public class UserIndexCache<T> {
+
+    private static final int STRIPES = 1024;
+
+    private final long budgetBytes;
+    private final ToLongFunction<T> sizeOf;
+    private final LinkedHashMap<String, T> indexes = new LinkedHashMap<>(64, 0.75f, true);
+    private final SingleFlight<String, T> builds = new SingleFlight<>();
+    private final AtomicLongArray generations = new AtomicLongArray(STRIPES);
+    private final Counter hits;
+    private final Counter misses;
+    private volatile Predicate<String> owned = userId -> true;
+    private long usedBytes;
+
+    /**
+     * @param name          指标名称前缀，clear.{name}.bytes / clear.{name}.users / clear.{name}.requests
+     * @param budgetBytes   内存预算
+     * @param sizeOf        单个索引的估算内存
+     */
+    public UserIndexCache(String name, long budgetBytes, ToLongFunction<T> sizeOf,
+                          ChangeEventBroker changeEventBroker, MeterRegistry meterRegistry) {
+        this.budgetBytes = budgetBytes;
+        this.sizeOf = sizeOf;
+        changeEventBroker.subscribe(event -> {
+            if (event.getUserId() != null) {
+                discard(event.getUserId());
+            }
+        });
+        Gauge.builder("clear." + name + ".bytes", this, UserIndexCache::getUsedBytes).register(meterRegistry);
+        Gauge.builder("clear." + name + ".users", this, UserIndexCache::getUsers).register(meterRegistry);
+        this.hits = Counter.builder("clear." + name + ".requests").tag("result", "hit").register(meterRegistry);
+        this.misses = Counter.builder("clear." + name + ".requests").tag("result", "miss").register(meterRegistry);
+    }
+
+    /**
+     * 获取用户的索引，不存在时构建，同一用户的并发构建只执行一次
+     *
+     * @param userId  用户ID
+     * @param builder 从数据库构建索引
+     */
+    public T get(String userId, Supplier<T> builder) {
+        T index = cached(userId);
+        if (index != null) {
+            hits.increment();
+            return index;
+        }
+        misses.increment();
+        // 变更之后到达的查询不加入变更之前开始的构建
+        long generation = generations.get(stripe(userId));
+        return builds.execute(userId + "#" + generation, () -> {
+            T built = builder.get();
+            put(userId, built, generation);
+            return built;
+        });
+    }
+
+    /**
+     * 丢弃用户的索引，在事务中调用时于提交后生效
+     */
+    public void invalidate(String userId) {
+        if (userId == null) {
+            return;
+        }
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+                @Override
+                public void afterCommit() {
+                    discard(userId);
+                }
+            });
+            return;
+        }
+        discard(userId);
+    }
+
+    /**
+     * 设置本实例负责的用户，并丢弃其余用户的索引
+     *
+     * @param owned 用户是否由本实例负责
+     */
+    public void retainOwned(Predicate<String> owned) {
+        this.owned = owned;
+        List<String> released;
+        synchronized (this) {
+            released = indexes.keySet().stream().filter(owned.negate()).toList();
+        }
+        released.forEach(this::discard);
+    }
+
+    private void discard(String userId) {
+        generations.incrementAndGet(stripe(userId));
+        synchronized (this) {
+            T removed = indexes.remove(userId);
+            if (removed != null) {
+                usedBytes -= sizeOf.applyAsLong(removed);
+            }
+        }
+    }
+
+    public synchronized long getUsedBytes() {
+        return usedBytes;
+    }
+
+    public synchronized int getUsers() {
+        return indexes.size();
+    }
+
+    private synchronized T cached(String userId) {
+        return indexes.get(userId);
+    }
+
+    private synchronized void put(String userId, T index, long generation) {
+        long size = sizeOf.applyAsLong(index);
+        // 构建期间数据已变更，单个索引就超出预算，或用户不由本实例负责
+        if (generations.get(stripe(userId)) != generation || size > budgetBytes || !owned.test(userId)) {
+            return;
+        }
+        T previous = indexes.put(userId, index);
+        if (previous != null) {
+            usedBytes -= sizeOf.applyAsLong(previous);
+        }
+        usedBytes += size;
+        Iterator<Map.Entry<String, T>> eldest = indexes.entrySet().iterator();
+        while (usedBytes > budgetBytes && eldest.hasNext()) {
+            Map.Entry<String, T> entry = eldest.next();
+            if (entry.getKey().equals(userId)) {
+                continue;
+            }
+            usedBytes -= sizeOf.applyAsLong(entry.getValue());
+            eldest.remove();
+        }
+    }
+
+    private static int stripe(String userId) {
+        int h = userId.hashCode();
+        return (h ^ (h >>> 16)) & (STRIPES - 1);
+    }
+}
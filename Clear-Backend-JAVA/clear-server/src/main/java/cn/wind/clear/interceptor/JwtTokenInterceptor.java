@@ -2,6 +2,8 @@ package cn.wind.clear.interceptor;
 
 import cn.wind.clear.constant.JwtClaimsConstant;
 import cn.wind.clear.context.RedisContext;
+import cn.wind.clear.context.RequestIdContext;
+import cn.wind.clear.jfr.AuthEvent;
 import cn.wind.clear.properties.JwtProperties;
 import cn.wind.clear.utils.JwtUtil;
 import io.jsonwebtoken.Claims;
@@ -36,6 +38,25 @@ public class JwtTokenInterceptor implements HandlerInterceptor {
             return true;
         }
 
+        // 校验阶段记录为 JFR 事件
+        AuthEvent event = new AuthEvent();
+        event.begin();
+        String outcome = authenticate(request, response);
+        event.end();
+        if (event.shouldCommit()) {
+            event.requestId = RequestIdContext.getRequestId();
+            event.outcome = outcome;
+            event.commit();
+        }
+        return "ok".equals(outcome);
+    }
+
+    /**
+     * 校验令牌，通过时写入用户上下文，不通过时响应401
+     *
+     * @return 校验结果: ok / missing / malformed / invalid
+     */
+    private String authenticate(HttpServletRequest request, HttpServletResponse response) {
         // 1. 从请求头中获取令牌
         String token = request.getHeader(jwtProperties.getTokenName());
 
@@ -43,29 +64,28 @@ public class JwtTokenInterceptor implements HandlerInterceptor {
         if (token == null){
             // 如果令牌不存在，响应401状态码
             response.setStatus(401);
-            return false;
+            return "missing";
         }
 
         String[] res = token.split(" ");
         if (res.length != 2 || !("Bearer".equals(res[0]))) {
             // 如果令牌格式不正确，响应401状态码
             response.setStatus(401);
-            return false;
+            return "malformed";
         }
 
         // 2. 校验令牌
         try {
-            log.info("jwt校验: {}", res[1]);
             Claims claims = JwtUtil.parseJWT(jwtProperties.getSecretKey(), res[1]);
             String userId = claims.get(JwtClaimsConstant.USER_ID).toString();
-            log.info("当前用户id: {}", userId);
+            log.atDebug().setMessage("令牌校验通过").addKeyValue("userId", userId).log();
             RedisContext.setCurrentId(userId);
             // 3. 通过，放行
-            return true;
+            return "ok";
         } catch (Exception e) {
             // 4. 不通过，响应401状态码
             response.setStatus(401);
-            return false;
+            return "invalid";
         }
     }
 }
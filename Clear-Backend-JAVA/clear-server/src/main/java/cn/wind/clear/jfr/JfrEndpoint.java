@@ -0,0 +1,110 @@
+package cn.wind.clear.jfr;
+
+import cn.wind.clear.properties.JfrProperties;
+import jdk.jfr.Configuration;
+import jdk.jfr.Recording;
+import jdk.jfr.RecordingState;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.boot.actuate.endpoint.annotation.DeleteOperation;
+import org.springframework.boot.actuate.endpoint.annotation.ReadOperation;
+import org.springframework.boot.actuate.endpoint.annotation.WriteOperation;
+import org.springframework.boot.actuate.endpoint.web.WebEndpointResponse;
+import org.springframework.boot.actuate.endpoint.web.annotation.WebEndpoint;
+import org.springframework.core.io.ByteArrayResource;
+import org.springframework.core.io.Resource;
+import org.springframework.lang.Nullable;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.text.ParseException;
+import java.time.Duration;
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+/**
+ * 按需 JFR 录制: /actuator/jfr
+ * <p>
+ * POST 开始录制(可选参数 durationSeconds、maxSizeMb，均不超过配置上限)，已有录制进行中时直接返回其状态；
+ * GET 导出当前录制(进行中的录制导出截至此刻的数据)；DELETE 停止并丢弃。
+ * 同一时间只保留一个录制，时长和体积都有上限，忘记停止也不会占满磁盘。
+ * 端点没有鉴权，只在 actuator 使用独立的内网端口时注册(见 JfrConfiguration)
+ */
+@Slf4j
+@WebEndpoint(id = "jfr")
+public class JfrEndpoint {
+
+    private static final long MB = 1024 * 1024;
+
+    private final JfrProperties jfrProperties;
+
+    private Recording recording;
+
+    public JfrEndpoint(JfrProperties jfrProperties) {
+        this.jfrProperties = jfrProperties;
+    }
+
+    @WriteOperation
+    public synchronized Map<String, Object> start(@Nullable Long durationSeconds, @Nullable Long maxSizeMb)
+            throws IOException, ParseException {
+        if (recording != null && recording.getState() == RecordingState.RUNNING) {
+            return status();
+        }
+        close();
+        Duration duration = durationSeconds == null ? jfrProperties.getDefaultDuration() : Duration.ofSeconds(durationSeconds);
+        if (duration.compareTo(jfrProperties.getMaxDuration()) > 0) {
+            duration = jfrProperties.getMaxDuration();
+        }
+        long maxSize = Math.min(maxSizeMb == null ? jfrProperties.getMaxSizeMb() : maxSizeMb, jfrProperties.getMaxSizeMb());
+
+        Recording started = new Recording(Configuration.getConfiguration(jfrProperties.getSettings()));
+        started.setName("clear-on-demand");
+        started.enable(RequestEvent.class);
+        started.enable(AuthEvent.class);
+        started.enable(SqlEvent.class);
+        started.enable(RedisCommandEvent.class);
+        started.enable(SerializationEvent.class);
+        started.setToDisk(true);
+        started.setDuration(duration);
+        started.setMaxSize(maxSize * MB);
+        started.start();
+        recording = started;
+        log.info("开始 JFR 录制，时长 {}，上限 {} MB", duration, maxSize);
+        return status();
+    }
+
+    @ReadOperation(produces = "application/octet-stream")
+    public synchronized WebEndpointResponse<Resource> dump() throws IOException {
+        if (recording == null || recording.getState() == RecordingState.CLOSED) {
+            return new WebEndpointResponse<>(WebEndpointResponse.STATUS_NOT_FOUND);
+        }
+        Path file = Files.createTempFile("clear-", ".jfr");
+        try {
+            recording.dump(file);
+            return new WebEndpointResponse<>(new ByteArrayResource(Files.readAllBytes(file)), WebEndpointResponse.STATUS_OK);
+        } finally {
+            Files.deleteIfExists(file);
+        }
+    }
+
+    @DeleteOperation
+    public synchronized void stop() {
+        close();
+    }
+
+    private Map<String, Object> status() {
+        Map<String, Object> status = new LinkedHashMap<>();
+        status.put("state", recording.getState().name());
+        status.put("startTime", String.valueOf(recording.getStartTime()));
+        status.put("duration", String.valueOf(recording.getDuration()));
+        status.put("maxSizeMb", recording.getMaxSize() / MB);
+        return status;
+    }
+
+    private void close() {
+        if (recording != null) {
+            recording.close();
+            recording = null;
+        }
+    }
+}
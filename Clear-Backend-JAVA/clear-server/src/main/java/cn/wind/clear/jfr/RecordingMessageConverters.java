@@ -0,0 +1,200 @@
+package cn.wind.clear.jfr;
+
+import cn.wind.clear.context.RequestIdContext;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpInputMessage;
+import org.springframework.http.HttpOutputMessage;
+import org.springframework.http.converter.HttpMessageNotReadableException;
+import org.springframework.http.converter.HttpMessageNotWritableException;
+import org.springframework.http.converter.cbor.MappingJackson2CborHttpMessageConverter;
+import org.springframework.http.converter.json.MappingJackson2HttpMessageConverter;
+import org.springframework.http.converter.smile.MappingJackson2SmileHttpMessageConverter;
+import org.springframework.http.converter.json.MappingJacksonValue;
+
+import java.io.FilterInputStream;
+import java.io.FilterOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.lang.reflect.Type;
+
+/**
+ * 记录 JFR 序列化事件(SerializationEvent)的 Jackson 消息转换器
+ * <p>
+ * 读写时给消息体套一层计数流，得到请求体与响应体的字节数，耗时只覆盖 Jackson 读写，不含网络发送
+ */
+public final class RecordingMessageConverters {
+
+    private RecordingMessageConverters() {
+    }
+
+    public static MappingJackson2HttpMessageConverter json(ObjectMapper objectMapper) {
+        return new MappingJackson2HttpMessageConverter(objectMapper) {
+            @Override
+            public Object read(Type type, Class<?> contextClass, HttpInputMessage inputMessage) throws IOException {
+                return recordRead(type, inputMessage, message -> super.read(type, contextClass, message));
+            }
+
+            @Override
+            protected void writeInternal(Object object, Type type, HttpOutputMessage outputMessage) throws IOException {
+                recordWrite(object, outputMessage, message -> super.writeInternal(object, type, message));
+            }
+        };
+    }
+
+    public static MappingJackson2CborHttpMessageConverter cbor(ObjectMapper objectMapper) {
+        return new MappingJackson2CborHttpMessageConverter(objectMapper) {
+            @Override
+            public Object read(Type type, Class<?> contextClass, HttpInputMessage inputMessage) throws IOException {
+                return recordRead(type, inputMessage, message -> super.read(type, contextClass, message));
+            }
+
+            @Override
+            protected void writeInternal(Object object, Type type, HttpOutputMessage outputMessage) throws IOException {
+                recordWrite(object, outputMessage, message -> super.writeInternal(object, type, message));
+            }
+        };
+    }
+
+    public static MappingJackson2SmileHttpMessageConverter smile(ObjectMapper objectMapper) {
+        return new MappingJackson2SmileHttpMessageConverter(objectMapper) {
+            @Override
+            public Object read(Type type, Class<?> contextClass, HttpInputMessage inputMessage) throws IOException {
+                return recordRead(type, inputMessage, message -> super.read(type, contextClass, message));
+            }
+
+            @Override
+            protected void writeInternal(Object object, Type type, HttpOutputMessage outputMessage) throws IOException {
+                recordWrite(object, outputMessage, message -> super.writeInternal(object, type, message));
+            }
+        };
+    }
+
+    @FunctionalInterface
+    private interface Reader {
+        Object read(HttpInputMessage message) throws IOException, HttpMessageNotReadableException;
+    }
+
+    @FunctionalInterface
+    private interface Writer {
+        void write(HttpOutputMessage message) throws IOException, HttpMessageNotWritableException;
+    }
+
+    private static Object recordRead(Type type, HttpInputMessage inputMessage, Reader reader) throws IOException {
+        SerializationEvent event = new SerializationEvent();
+        if (!event.isEnabled()) {
+            return reader.read(inputMessage);
+        }
+        CountingInputStream body = new CountingInputStream(inputMessage.getBody());
+        HttpInputMessage counted = new HttpInputMessage() {
+            @Override
+            public InputStream getBody() {
+                return body;
+            }
+
+            @Override
+            public HttpHeaders getHeaders() {
+                return inputMessage.getHeaders();
+            }
+        };
+        event.begin();
+        try {
+            return reader.read(counted);
+        } finally {
+            event.end();
+            if (event.shouldCommit()) {
+                event.direction = "read";
+                event.valueType = type.getTypeName();
+                commit(event, inputMessage.getHeaders(), body.count);
+            }
+        }
+    }
+
+    private static void recordWrite(Object object, HttpOutputMessage outputMessage, Writer writer) throws IOException {
+        SerializationEvent event = new SerializationEvent();
+        if (!event.isEnabled()) {
+            writer.write(outputMessage);
+            return;
+        }
+        CountingOutputStream body = new CountingOutputStream(outputMessage.getBody());
+        HttpOutputMessage counted = new HttpOutputMessage() {
+            @Override
+            public OutputStream getBody() {
+                return body;
+            }
+
+            @Override
+            public HttpHeaders getHeaders() {
+                return outputMessage.getHeaders();
+            }
+        };
+        event.begin();
+        try {
+            writer.write(counted);
+        } finally {
+            event.end();
+            if (event.shouldCommit()) {
+                Object value = object instanceof MappingJacksonValue container ? container.getValue() : object;
+                event.direction = "write";
+                event.valueType = value == null ? null : value.getClass().getName();
+                commit(event, outputMessage.getHeaders(), body.count);
+            }
+        }
+    }
+
+    private static void commit(SerializationEvent event, HttpHeaders headers, long bytes) {
+        event.requestId = RequestIdContext.getRequestId();
+        event.mediaType = headers.getContentType() == null ? null : headers.getContentType().toString();
+        event.bytes = bytes;
+        event.commit();
+    }
+
+    private static class CountingInputStream extends FilterInputStream {
+
+        private long count;
+
+        CountingInputStream(InputStream in) {
+            super(in);
+        }
+
+        @Override
+        public int read() throws IOException {
+            int b = super.read();
+            if (b >= 0) {
+                count++;
+            }
+            return b;
+        }
+
+        @Override
+        public int read(byte[] b, int off, int len) throws IOException {
+            int n = super.read(b, off, len);
+            if (n > 0) {
+                count += n;
+            }
+            return n;
+        }
+    }
+
+    private static class CountingOutputStream extends FilterOutputStream {
+
+        private long count;
+
+        CountingOutputStream(OutputStream out) {
+            super(out);
+        }
+
+        @Override
+        public void write(int b) throws IOException {
+            out.write(b);
+            count++;
+        }
+
+        @Override
+        public void write(byte[] b, int off, int len) throws IOException {
+            out.write(b, off, len);
+            count += len;
+        }
+    }
+}
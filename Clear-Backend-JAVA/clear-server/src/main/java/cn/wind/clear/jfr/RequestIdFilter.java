@@ -0,0 +1,58 @@
+package cn.wind.clear.jfr;
+
+import cn.wind.clear.context.RequestIdContext;
+import jakarta.servlet.FilterChain;
+import jakarta.servlet.ServletException;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+import org.slf4j.MDC;
+import org.springframework.web.filter.OncePerRequestFilter;
+
+import java.io.IOException;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.regex.Pattern;
+
+/**
+ * 分配请求ID并记录整个请求的 JFR 事件
+ * <p>
+ * 请求ID优先取上游(网关、客户端)传入的 X-Request-Id，否则随机生成，并写回响应头，
+ * 认证、SQL、Redis 与序列化事件都带同一个请求ID，一份录制即可按请求还原完整的时间线。
+ * 请求ID同时放入 MDC(requestId)，日志与录制可以互相对照
+ */
+public class RequestIdFilter extends OncePerRequestFilter {
+
+    public static final String REQUEST_ID_HEADER = "X-Request-Id";
+
+    public static final String REQUEST_ID_MDC_KEY = "requestId";
+
+    // 只接受简单字符的上游请求ID，避免把任意内容写入响应头与录制
+    private static final Pattern VALID_REQUEST_ID = Pattern.compile("[A-Za-z0-9._-]{1,64}");
+
+    @Override
+    protected void doFilterInternal(HttpServletRequest request, HttpServletResponse response, FilterChain filterChain)
+            throws ServletException, IOException {
+        String requestId = request.getHeader(REQUEST_ID_HEADER);
+        if (requestId == null || !VALID_REQUEST_ID.matcher(requestId).matches()) {
+            requestId = Long.toHexString(ThreadLocalRandom.current().nextLong());
+        }
+        response.setHeader(REQUEST_ID_HEADER, requestId);
+        RequestIdContext.setRequestId(requestId);
+        MDC.put(REQUEST_ID_MDC_KEY, requestId);
+        RequestEvent event = new RequestEvent();
+        event.begin();
+        try {
+            filterChain.doFilter(request, response);
+        } finally {
+            event.end();
+            if (event.shouldCommit()) {
+                event.requestId = requestId;
+                event.method = request.getMethod();
+                event.uri = request.getRequestURI();
+                event.status = response.getStatus();
+                event.commit();
+            }
+            RequestIdContext.clear();
+            MDC.remove(REQUEST_ID_MDC_KEY);
+        }
+    }
+}
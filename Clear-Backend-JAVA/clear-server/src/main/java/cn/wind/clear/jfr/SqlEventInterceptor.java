@@ -0,0 +1,61 @@
+package cn.wind.clear.jfr;
+
+import cn.wind.clear.context.RequestIdContext;
+import org.apache.ibatis.cache.CacheKey;
+import org.apache.ibatis.executor.Executor;
+import org.apache.ibatis.mapping.BoundSql;
+import org.apache.ibatis.mapping.MappedStatement;
+import org.apache.ibatis.plugin.Interceptor;
+import org.apache.ibatis.plugin.Intercepts;
+import org.apache.ibatis.plugin.Invocation;
+import org.apache.ibatis.plugin.Signature;
+import org.apache.ibatis.session.ResultHandler;
+import org.apache.ibatis.session.RowBounds;
+
+import java.util.List;
+
+/**
+ * MyBatis 插件，每条映射语句的执行记录为一个 JFR 事件(SqlEvent)，包含 Mapper 方法ID与行数
+ * <p>
+ * 拦截 Executor 而不是 StatementHandler，耗时包含参数绑定与结果映射，与业务代码感知到的一致
+ */
+@Intercepts({
+        @Signature(type = Executor.class, method = "update", args = {MappedStatement.class, Object.class}),
+        @Signature(type = Executor.class, method = "query",
+                args = {MappedStatement.class, Object.class, RowBounds.class, ResultHandler.class}),
+        @Signature(type = Executor.class, method = "query",
+                args = {MappedStatement.class, Object.class, RowBounds.class, ResultHandler.class, CacheKey.class, BoundSql.class})
+})
+public class SqlEventInterceptor implements Interceptor {
+
+    @Override
+    public Object intercept(Invocation invocation) throws Throwable {
+        SqlEvent event = new SqlEvent();
+        event.begin();
+        Object result = null;
+        try {
+            result = invocation.proceed();
+            return result;
+        } finally {
+            event.end();
+            if (event.shouldCommit()) {
+                MappedStatement mappedStatement = (MappedStatement) invocation.getArgs()[0];
+                event.requestId = RequestIdContext.getRequestId();
+                event.mapperId = mappedStatement.getId();
+                event.command = mappedStatement.getSqlCommandType().name();
+                event.rows = rows(result);
+                event.commit();
+            }
+        }
+    }
+
+    private static int rows(Object result) {
+        if (result instanceof List<?> list) {
+            return list.size();
+        }
+        if (result instanceof Integer count) {
+            return count;
+        }
+        return -1;
+    }
+}
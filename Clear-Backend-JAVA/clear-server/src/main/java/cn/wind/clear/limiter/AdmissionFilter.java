@@ -0,0 +1,92 @@
+package cn.wind.clear.limiter;
+
+import cn.wind.clear.constant.JwtClaimsConstant;
+import cn.wind.clear.properties.JwtProperties;
+import cn.wind.clear.utils.JwtUtil;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.servlet.FilterChain;
+import jakarta.servlet.ServletException;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+import org.springframework.http.HttpStatus;
+import org.springframework.web.filter.OncePerRequestFilter;
+
+import java.io.IOException;
+
+/**
+ * 访问数据库请求的准入控制
+ * <p>
+ * 单个用户超出公平份额返回 429，总并发超出自适应上限返回 503，均带 Retry-After。
+ * 过滤器在拦截器之前执行，自行校验令牌并以其中的用户ID作为公平份额的标识，令牌缺失或无效时使用客户端地址，
+ * 同一用户换用多个令牌或伪造令牌都不能获得额外份额。
+ * 排在 CorsFilter(最高优先级)之后，预检请求由 CorsFilter 直接应答不会到达这里，429/503 响应也已带上跨域响应头
+ */
+public class AdmissionFilter extends OncePerRequestFilter {
+
+    private final VegasLimiter limiter;
+    private final JwtProperties jwtProperties;
+    private final Counter userRejected;
+    private final Counter globalRejected;
+
+    public AdmissionFilter(VegasLimiter limiter, JwtProperties jwtProperties, MeterRegistry meterRegistry) {
+        this.limiter = limiter;
+        this.jwtProperties = jwtProperties;
+        Gauge.builder("clear.limiter.limit", limiter, VegasLimiter::getLimit).register(meterRegistry);
+        Gauge.builder("clear.limiter.inflight", limiter, VegasLimiter::getInflight).register(meterRegistry);
+        this.userRejected = Counter.builder("clear.limiter.rejected").tag("reason", "user").register(meterRegistry);
+        this.globalRejected = Counter.builder("clear.limiter.rejected").tag("reason", "global").register(meterRegistry);
+    }
+
+    @Override
+    protected boolean shouldNotFilter(HttpServletRequest request) {
+        // 预检请求不访问数据库
+        return "OPTIONS".equals(request.getMethod());
+    }
+
+    @Override
+    protected void doFilterInternal(HttpServletRequest request, HttpServletResponse response, FilterChain filterChain)
+            throws ServletException, IOException {
+        String userId = userId(request);
+        int stripe = limiter.tryAcquire(userId != null ? userId : request.getRemoteAddr());
+        if (stripe == VegasLimiter.REJECT_USER) {
+            userRejected.increment();
+            reject(response, HttpStatus.TOO_MANY_REQUESTS);
+            return;
+        }
+        if (stripe == VegasLimiter.REJECT_GLOBAL) {
+            globalRejected.increment();
+            reject(response, HttpStatus.SERVICE_UNAVAILABLE);
+            return;
+        }
+        long start = System.nanoTime();
+        try {
+            filterChain.doFilter(request, response);
+        } finally {
+            limiter.release(stripe, System.nanoTime() - start);
+        }
+    }
+
+    /**
+     * 令牌中的用户ID，令牌缺失或无效时返回null
+     */
+    private String userId(HttpServletRequest request) {
+        String token = request.getHeader(jwtProperties.getTokenName());
+        if (token == null || !token.startsWith("Bearer ")) {
+            return null;
+        }
+        try {
+            Object userId = JwtUtil.parseJWT(jwtProperties.getSecretKey(), token.substring(7))
+                    .get(JwtClaimsConstant.USER_ID);
+            return userId == null ? null : userId.toString();
+        } catch (Exception e) {
+            return null;
+        }
+    }
+
+    private void reject(HttpServletResponse response, HttpStatus status) {
+        response.setStatus(status.value());
+        response.setHeader("Retry-After", "1");
+    }
+}
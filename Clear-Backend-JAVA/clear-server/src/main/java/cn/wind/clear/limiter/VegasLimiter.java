@@ -0,0 +1,173 @@
+package cn.wind.clear.limiter;
+
+import cn.wind.clear.properties.LimiterProperties;
+
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicIntegerArray;
+import java.util.concurrent.atomic.LongAccumulator;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Vegas 风格的自适应并发上限
+ * <p>
+ * 以无排队时的最小延迟为基线，估算排队数 queue = limit * (1 - 基线/当前延迟)：
+ * 排队少于 alpha 时增大上限，多于 beta 时减小，连接池排队导致延迟上升时自动减少放行的并发数。
+ * 基线定期重新探测，避免数据量增长后一直按过低的延迟估算。
+ * <p>
+ * 在总上限之内再按用户分片计数，并发过半后单个用户最多占用 limit/(活跃用户数+1) 个名额，
+ * 始终给新到的用户留出余量。分片计数和延迟采样都是无锁的，只有每个窗口一次的上限计算由抢到标记的线程完成
+ */
+public class VegasLimiter {
+
+    /**
+     * 用户超出公平份额
+     */
+    public static final int REJECT_USER = -1;
+
+    /**
+     * 总并发超出上限
+     */
+    public static final int REJECT_GLOBAL = -2;
+
+    private final int minLimit;
+    private final int maxLimit;
+    private final long windowNanos;
+    private final long probeNanos;
+    private final int minPerUser;
+
+    private final AtomicIntegerArray stripes;
+    private final int mask;
+    private final AtomicInteger activeStripes = new AtomicInteger();
+    private final AtomicInteger inflight = new AtomicInteger();
+    private final AtomicInteger peakInflight = new AtomicInteger();
+
+    private final LongAdder rttSum = new LongAdder();
+    private final LongAdder rttCount = new LongAdder();
+    private final LongAccumulator rttMin = new LongAccumulator(Math::min, Long.MAX_VALUE);
+    private final AtomicBoolean updating = new AtomicBoolean();
+    private volatile long nextUpdate;
+    private volatile int limit;
+
+    // 以下字段只在持有 updating 时读写
+    private double estimatedLimit;
+    private long noLoadRtt;
+    private long nextProbe;
+
+    public VegasLimiter(LimiterProperties properties) {
+        this.minLimit = properties.getMinLimit();
+        this.maxLimit = properties.getMaxLimit();
+        this.windowNanos = properties.getWindowMillis() * 1_000_000;
+        this.probeNanos = properties.getProbeSeconds() * 1_000_000_000;
+        this.minPerUser = properties.getMinPerUser();
+        int size = Integer.highestOneBit(Math.max(1, properties.getStripes() - 1)) << 1;
+        this.stripes = new AtomicIntegerArray(size);
+        this.mask = size - 1;
+        this.estimatedLimit = properties.getInitialLimit();
+        this.limit = properties.getInitialLimit();
+        long now = System.nanoTime();
+        this.nextUpdate = now + windowNanos;
+        this.nextProbe = now + probeNanos;
+    }
+
+    /**
+     * 申请一个名额
+     *
+     * @param key 用户标识
+     * @return 成功时返回分片下标，释放时传回；失败时返回 REJECT_USER 或 REJECT_GLOBAL
+     */
+    public int tryAcquire(String key) {
+        int current = inflight.incrementAndGet();
+        int currentLimit = limit;
+        if (current > currentLimit) {
+            inflight.decrementAndGet();
+            return REJECT_GLOBAL;
+        }
+        int stripe = spread(key.hashCode()) & mask;
+        int mine = stripes.incrementAndGet(stripe);
+        if (mine == 1) {
+            activeStripes.incrementAndGet();
+        } else if (current > currentLimit / 2) {
+            int share = Math.max(minPerUser, currentLimit / (activeStripes.get() + 1));
+            if (mine > share) {
+                releaseStripe(stripe);
+                inflight.decrementAndGet();
+                return REJECT_USER;
+            }
+        }
+        if (current > peakInflight.get()) {
+            peakInflight.accumulateAndGet(current, Math::max);
+        }
+        return stripe;
+    }
+
+    /**
+     * 归还名额并记录本次请求耗时
+     */
+    public void release(int stripe, long rttNanos) {
+        releaseStripe(stripe);
+        inflight.decrementAndGet();
+        rttSum.add(rttNanos);
+        rttCount.increment();
+        rttMin.accumulate(rttNanos);
+        long now = System.nanoTime();
+        if (now - nextUpdate >= 0 && updating.compareAndSet(false, true)) {
+            try {
+                update(now);
+            } finally {
+                updating.set(false);
+            }
+        }
+    }
+
+    public int getLimit() {
+        return limit;
+    }
+
+    public int getInflight() {
+        return inflight.get();
+    }
+
+    private void releaseStripe(int stripe) {
+        if (stripes.decrementAndGet(stripe) == 0) {
+            activeStripes.decrementAndGet();
+        }
+    }
+
+    private void update(long now) {
+        nextUpdate = now + windowNanos;
+        long count = rttCount.sumThenReset();
+        long sum = rttSum.sumThenReset();
+        long windowMin = rttMin.getThenReset();
+        int peak = peakInflight.getAndSet(inflight.get());
+        if (count == 0) {
+            return;
+        }
+        if (now - nextProbe >= 0) {
+            // 重新探测基线，以本窗口的最小延迟为准
+            nextProbe = now + probeNanos;
+            noLoadRtt = windowMin;
+        } else if (noLoadRtt == 0 || windowMin < noLoadRtt) {
+            noLoadRtt = windowMin;
+        }
+
+        double rtt = (double) sum / count;
+        double queue = estimatedLimit * (1 - noLoadRtt / rtt);
+        double log = Math.max(1, Math.log10(estimatedLimit));
+        if (queue <= 3 * log) {
+            // 实际并发远低于上限时延迟不能说明容量，不继续放大
+            if (peak < estimatedLimit / 2) {
+                return;
+            }
+            estimatedLimit += log;
+        } else if (queue >= 6 * log) {
+            estimatedLimit -= log;
+        }
+        estimatedLimit = Math.max(minLimit, Math.min(maxLimit, estimatedLimit));
+        limit = (int) estimatedLimit;
+    }
+
+    private static int spread(int h) {
+        return (h ^ (h >>> 16)) * 0x9E3779B1;
+    }
+}
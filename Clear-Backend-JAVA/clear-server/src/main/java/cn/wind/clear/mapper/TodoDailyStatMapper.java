@@ -0,0 +1,71 @@
+package cn.wind.clear.mapper;
+
+import cn.wind.clear.entity.TodoDailyStat;
+import com.baomidou.mybatisplus.core.mapper.BaseMapper;
+import org.apache.ibatis.annotations.Mapper;
+import org.apache.ibatis.annotations.Param;
+
+import java.time.LocalDate;
+import java.util.List;
+
+@Mapper
+public interface TodoDailyStatMapper extends BaseMapper<TodoDailyStat> {
+
+    /**
+     * 把增量累加到统计行，行不存在时插入
+     * @param rows 增量行
+     * @return
+     */
+    int upsert(@Param("rows") List<TodoDailyStat> rows);
+
+    /**
+     * 查询日期范围内的统计行，每天每个分类最多一行
+     * @param userId 用户id
+     * @param start 开始日期(包含)
+     * @param end 结束日期(包含)
+     * @param categoryId 分类id，为空时查询全部分类
+     * @return
+     */
+    List<TodoDailyStat> selectRange(@Param("userId") String userId,
+                                    @Param("start") LocalDate start,
+                                    @Param("end") LocalDate end,
+                                    @Param("categoryId") String categoryId);
+
+    /**
+     * 把分类的统计并入未分类(0)，分类删除后其待办的 category_id 变为 NULL
+     * @param userId 用户id
+     * @param categoryId 被删除的分类id
+     * @return
+     */
+    int mergeIntoNoCategory(@Param("userId") String userId, @Param("categoryId") String categoryId);
+
+    /**
+     * 删除分类的统计行
+     * @param userId 用户id
+     * @param categoryId 分类id
+     * @return
+     */
+    int deleteCategory(@Param("userId") String userId, @Param("categoryId") String categoryId);
+
+    /**
+     * 删除用户的全部统计行
+     * @param userId 用户id
+     * @return
+     */
+    int deleteByUser(@Param("userId") String userId);
+
+    /**
+     * 按 todo 与 todo_archive 的现有数据重新统计用户的全部统计行
+     * @param userId 用户id
+     * @return
+     */
+    int insertRecount(@Param("userId") String userId);
+
+    /**
+     * 按主键顺序查询一批用户id，用于分批回填
+     * @param afterId 上一批的最后一个用户id，第一批传 0
+     * @param limit 批大小
+     * @return
+     */
+    List<String> selectUserIds(@Param("afterId") String afterId, @Param("limit") int limit);
+}
@@ -1,10 +1,170 @@
 package cn.wind.clear.mapper;
 
 import cn.wind.clear.entity.Todo;
+import cn.wind.clear.vo.TodoCalendarVO;
+import com.baomidou.mybatisplus.core.conditions.Wrapper;
 import com.baomidou.mybatisplus.core.mapper.BaseMapper;
+import com.baomidou.mybatisplus.core.metadata.IPage;
+import com.baomidou.mybatisplus.core.toolkit.Constants;
 import org.apache.ibatis.annotations.Mapper;
+import org.apache.ibatis.annotations.Param;
+
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.util.Collection;
+import java.util.List;
 
 @Mapper
 public interface TodoMapper extends BaseMapper<Todo> {
 
+    /**
+     * 按天统计指定时间范围内的to do数量(包含归档数据)
+     * @param userId 用户id
+     * @param start 开始时间(包含)
+     * @param end 结束时间(不包含)
+     * @return 每天的完成/未完成数量
+     */
+    List<TodoCalendarVO> countByDay(@Param("userId") String userId,
+                                    @Param("start") LocalDateTime start,
+                                    @Param("end") LocalDateTime end);
+
+    /**
+     * 分页查询，同时包含 todo 表与归档表，按截止日期倒序或手动排序
+     * @param page 分页参数
+     * @param queryWrapper 查询条件，不能包含排序
+     * @param manual 是否按排序键排序
+     * @return
+     */
+    IPage<Todo> selectPageWithArchive(IPage<Todo> page, @Param(Constants.WRAPPER) Wrapper<Todo> queryWrapper,
+                                      @Param("manual") boolean manual);
+
+    /**
+     * 按条件查询 todo 表与归档表，不分页不排序
+     * @param queryWrapper 查询条件，不能包含排序
+     * @return
+     */
+    List<Todo> selectListWithArchive(@Param(Constants.WRAPPER) Wrapper<Todo> queryWrapper);
+
+    /**
+     * 查询用户归档的to do，只包含 id、status、category_id、due_date，用于构建标签索引
+     * @param userId 用户id
+     * @return
+     */
+    List<Todo> selectArchivedBrief(@Param("userId") String userId);
+
+    /**
+     * 查询归档表中的to do
+     * @param id
+     * @param userId
+     * @return
+     */
+    Todo selectArchived(@Param("id") String id, @Param("userId") String userId);
+
+    /**
+     * 归档表中是否已有该id，不区分用户
+     * @param id
+     * @return
+     */
+    boolean existsArchived(@Param("id") String id);
+
+    /**
+     * 统计用户归档的to do数量
+     * @param userId 用户id
+     * @return
+     */
+    Long countArchived(@Param("userId") String userId);
+
+    /**
+     * 把指定的to do复制到归档表
+     * @param ids
+     * @return
+     */
+    int insertArchive(@Param("ids") List<String> ids);
+
+    /**
+     * 把归档表中的to do复制回 todo 表
+     * @param id
+     * @param userId
+     * @return
+     */
+    int restoreArchive(@Param("id") String id, @Param("userId") String userId);
+
+    /**
+     * 删除归档表中的to do
+     * @param id
+     * @param userId
+     * @return
+     */
+    int deleteArchive(@Param("id") String id, @Param("userId") String userId);
+
+    /**
+     * 查询并锁定列表(用户的一个分类)中排序键最小或最大的一项，只包含 id 与 rank_key
+     * @param userId 用户id
+     * @param categoryId 分类id，为空表示未分类
+     * @param last 是否取最大的一项
+     * @return 列表为空时返回 null
+     */
+    Todo selectRankEdge(@Param("userId") String userId, @Param("categoryId") String categoryId,
+                        @Param("last") boolean last);
+
+    /**
+     * 查询列表中排序键大于指定键的第一项，只包含 id 与 rank_key
+     * @param userId 用户id
+     * @param categoryId 分类id，为空表示未分类
+     * @param rankKey 排序键
+     * @return 没有后一项时返回 null
+     */
+    Todo selectRankSuccessor(@Param("userId") String userId, @Param("categoryId") String categoryId,
+                             @Param("rankKey") String rankKey);
+
+    /**
+     * 按顺序查询并锁定整个列表，只包含 id 与 rank_key，用于重新分配排序键
+     * @param userId 用户id
+     * @param categoryId 分类id，为空表示未分类
+     * @return
+     */
+    List<Todo> selectRankList(@Param("userId") String userId, @Param("categoryId") String categoryId);
+
+    /**
+     * 改写排序键，不递增版本号
+     * @param id
+     * @param rankKey
+     * @return
+     */
+    int updateRank(@Param("id") String id, @Param("rankKey") String rankKey);
+
+    /**
+     * 查询重复系列在日期范围内已单独保存(包含归档数据)或已跳过的实例
+     * @param seriesIds 系列第一项的id
+     * @param from 开始日期(包含)
+     * @param to 结束日期(不包含)
+     * @return 实例的 series_id 与 occurrence_date
+     */
+    List<Todo> selectOccurrenceExceptions(@Param("seriesIds") Collection<String> seriesIds,
+                                          @Param("from") LocalDate from, @Param("to") LocalDate to);
+
+    /**
+     * 查询已单独保存的实例(包含归档数据)
+     * @param seriesId 系列第一项的id
+     * @param occurrenceDate 实例的日期
+     * @return 实例的id，未保存时返回 null
+     */
+    String selectOccurrenceId(@Param("seriesId") String seriesId, @Param("occurrenceDate") LocalDate occurrenceDate);
+
+    /**
+     * 记录跳过的实例，已记录时不变
+     * @param seriesId 系列第一项的id
+     * @param occurrenceDate 跳过的日期
+     * @param userId 用户id
+     * @return
+     */
+    int insertOccurrenceSkip(@Param("seriesId") String seriesId, @Param("occurrenceDate") LocalDate occurrenceDate,
+                             @Param("userId") String userId);
+
+    /**
+     * 删除系列的全部跳过记录
+     * @param seriesId 系列第一项的id
+     * @return
+     */
+    int deleteOccurrenceSkips(@Param("seriesId") String seriesId);
 }
@@ -0,0 +1,10 @@
+package cn.wind.clear.mapper;
+
+import cn.wind.clear.entity.TodoTag;
+import com.baomidou.mybatisplus.core.mapper.BaseMapper;
+import org.apache.ibatis.annotations.Mapper;
+
+@Mapper
+public interface TodoTagMapper extends BaseMapper<TodoTag> {
+
+}
@@ -0,0 +1,21 @@
+package cn.wind.clear.push;
+
+import java.util.function.Consumer;
+
+/**
+ * 变更事件广播，负责把事件分发到所有实例
+ */
+public interface ChangeEventBroker {
+
+    /**
+     * 发布变更事件
+     * @param event
+     */
+    void publish(ChangeEvent event);
+
+    /**
+     * 订阅本实例收到的变更事件
+     * @param subscriber
+     */
+    void subscribe(Consumer<ChangeEvent> subscriber);
+}
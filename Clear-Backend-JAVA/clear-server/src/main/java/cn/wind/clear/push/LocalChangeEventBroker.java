@@ -0,0 +1,36 @@
+package cn.wind.clear.push;
+
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.stereotype.Component;
+
+import java.util.List;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.function.Consumer;
+
+/**
+ * 进程内广播，单实例部署或测试时使用
+ */
+@Component
+@Slf4j
+@ConditionalOnProperty(prefix = "clear.push", name = "broker", havingValue = "local")
+public class LocalChangeEventBroker implements ChangeEventBroker {
+
+    private final List<Consumer<ChangeEvent>> subscribers = new CopyOnWriteArrayList<>();
+
+    @Override
+    public void publish(ChangeEvent event) {
+        for (Consumer<ChangeEvent> subscriber : subscribers) {
+            try {
+                subscriber.accept(event);
+            } catch (Exception e) {
+                log.warn("变更事件处理失败: {}", e.getMessage());
+            }
+        }
+    }
+
+    @Override
+    public void subscribe(Consumer<ChangeEvent> subscriber) {
+        subscribers.add(subscriber);
+    }
+}
@@ -0,0 +1,37 @@
+package cn.wind.clear.push;
+
+import cn.wind.clear.event.DomainEvent;
+import cn.wind.clear.event.DomainEventListener;
+import jakarta.annotation.Resource;
+import org.springframework.stereotype.Component;
+
+/**
+ * 把待办、分类和标签的领域事件转换为推送事件并广播
+ */
+@Component
+public class PushEventListener implements DomainEventListener {
+
+    @Resource
+    private ChangeEventBroker changeEventBroker;
+
+    @Override
+    public void onEvent(DomainEvent event, boolean endOfBatch) {
+        String type;
+        String action;
+        switch (event.getType()) {
+            case TODO_CREATED -> { type = ChangeEvent.TYPE_TODO; action = ChangeEvent.ACTION_CREATE; }
+            case TODO_UPDATED -> { type = ChangeEvent.TYPE_TODO; action = ChangeEvent.ACTION_UPDATE; }
+            case TODO_DELETED -> { type = ChangeEvent.TYPE_TODO; action = ChangeEvent.ACTION_DELETE; }
+            case CATEGORY_CREATED -> { type = ChangeEvent.TYPE_CATEGORY; action = ChangeEvent.ACTION_CREATE; }
+            case CATEGORY_UPDATED -> { type = ChangeEvent.TYPE_CATEGORY; action = ChangeEvent.ACTION_UPDATE; }
+            case CATEGORY_DELETED -> { type = ChangeEvent.TYPE_CATEGORY; action = ChangeEvent.ACTION_DELETE; }
+            case TAG_CREATED -> { type = ChangeEvent.TYPE_TAG; action = ChangeEvent.ACTION_CREATE; }
+            case TAG_UPDATED -> { type = ChangeEvent.TYPE_TAG; action = ChangeEvent.ACTION_UPDATE; }
+            case TAG_DELETED -> { type = ChangeEvent.TYPE_TAG; action = ChangeEvent.ACTION_DELETE; }
+            default -> {
+                return;
+            }
+        }
+        changeEventBroker.publish(new ChangeEvent(type, action, event.getEntityId(), event.getUserId()));
+    }
+}
@@ -0,0 +1,174 @@
+package cn.wind.clear.push;
+
+import cn.wind.clear.properties.PushProperties;
+import jakarta.annotation.PreDestroy;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.stereotype.Component;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
+
+import java.util.Map;
+import java.util.Queue;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * SSE 连接管理
+ * <p>
+ * 连接基于 Servlet 异步请求，空闲连接不占用线程；事件由少量发送线程写出，
+ * 每个连接有独立的有界队列，积压超过上限的慢连接会被断开，由客户端重连后重新拉取数据
+ */
+@Component
+@Slf4j
+public class PushHub {
+
+    private final PushProperties pushProperties;
+    private final Map<String, Set<Connection>> connections = new ConcurrentHashMap<>();
+    private final ExecutorService dispatcher;
+    private final ScheduledExecutorService heartbeat;
+
+    public PushHub(ChangeEventBroker changeEventBroker, PushProperties pushProperties) {
+        this.pushProperties = pushProperties;
+        this.dispatcher = Executors.newFixedThreadPool(pushProperties.getDispatchThreads(), r -> {
+            Thread thread = new Thread(r, "push-dispatch");
+            thread.setDaemon(true);
+            return thread;
+        });
+        this.heartbeat = Executors.newSingleThreadScheduledExecutor(r -> {
+            Thread thread = new Thread(r, "push-heartbeat");
+            thread.setDaemon(true);
+            return thread;
+        });
+        long interval = pushProperties.getHeartbeatSeconds();
+        this.heartbeat.scheduleAtFixedRate(this::sendHeartbeat, interval, interval, TimeUnit.SECONDS);
+        changeEventBroker.subscribe(this::dispatch);
+    }
+
+    /**
+     * 建立连接
+     * @param userId 当前用户id
+     * @return SSE 连接
+     */
+    public SseEmitter subscribe(String userId) {
+        SseEmitter emitter = new SseEmitter(TimeUnit.MINUTES.toMillis(pushProperties.getTimeoutMinutes()));
+        Connection connection = new Connection(userId, emitter);
+        // 加入与移除都在 compute 中完成，不会加入一个刚因为变空而被移出 map 的集合
+        Set<Connection> userConnections = connections.compute(userId, (k, set) -> {
+            Set<Connection> result = set == null ? ConcurrentHashMap.newKeySet() : set;
+            result.add(connection);
+            return result;
+        });
+
+        // 超过单用户连接数上限时断开最早的连接
+        while (userConnections.size() > pushProperties.getMaxConnectionsPerUser()) {
+            userConnections.stream()
+                    .min((a, b) -> Long.compare(a.createdAt, b.createdAt))
+                    .ifPresent(Connection::close);
+        }
+
+        emitter.onCompletion(connection::remove);
+        emitter.onTimeout(connection::remove);
+        emitter.onError(e -> connection.remove());
+        connection.offer(SseEmitter.event().comment("connected"));
+        return emitter;
+    }
+
+    /**
+     * 当前实例的在线连接数
+     */
+    public int getConnectionCount() {
+        return connections.values().stream().mapToInt(Set::size).sum();
+    }
+
+    private void dispatch(ChangeEvent event) {
+        Set<Connection> userConnections = connections.get(event.getUserId());
+        if (userConnections == null) {
+            return;
+        }
+        for (Connection connection : userConnections) {
+            connection.offer(SseEmitter.event().name(event.getType()).data(event));
+        }
+    }
+
+    private void sendHeartbeat() {
+        for (Set<Connection> userConnections : connections.values()) {
+            for (Connection connection : userConnections) {
+                connection.offer(SseEmitter.event().comment("ping"));
+            }
+        }
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        heartbeat.shutdownNow();
+        dispatcher.shutdownNow();
+        connections.values().forEach(userConnections -> userConnections.forEach(Connection::close));
+    }
+
+    /**
+     * 单个 SSE 连接，保证事件按顺序写出
+     */
+    private class Connection {
+        private final String userId;
+        private final SseEmitter emitter;
+        private final long createdAt = System.nanoTime();
+        private final Queue<SseEmitter.SseEventBuilder> queue = new ConcurrentLinkedQueue<>();
+        private final AtomicInteger pending = new AtomicInteger();
+        private final AtomicBoolean draining = new AtomicBoolean();
+
+        Connection(String userId, SseEmitter emitter) {
+            this.userId = userId;
+            this.emitter = emitter;
+        }
+
+        void offer(SseEmitter.SseEventBuilder event) {
+            if (pending.incrementAndGet() > pushProperties.getMaxPending()) {
+                log.warn("推送积压过多，断开连接: {}", userId);
+                close();
+                return;
+            }
+            queue.offer(event);
+            if (draining.compareAndSet(false, true)) {
+                dispatcher.execute(this::drain);
+            }
+        }
+
+        private void drain() {
+            try {
+                SseEmitter.SseEventBuilder event;
+                while ((event = queue.poll()) != null) {
+                    pending.decrementAndGet();
+                    emitter.send(event);
+                }
+            } catch (Exception e) {
+                close();
+                return;
+            } finally {
+                draining.set(false);
+            }
+            // 释放标记后可能有新事件入队
+            if (!queue.isEmpty() && draining.compareAndSet(false, true)) {
+                dispatcher.execute(this::drain);
+            }
+        }
+
+        void close() {
+            remove();
+            queue.clear();
+            emitter.complete();
+        }
+
+        void remove() {
+            connections.computeIfPresent(userId, (k, set) -> {
+                set.remove(this);
+                return set.isEmpty() ? null : set;
+            });
+        }
+    }
+}
@@ -0,0 +1,93 @@
+package cn.wind.clear.push;
+
+import cn.wind.clear.json.JacksonObjectMapper;
+import cn.wind.clear.properties.PushProperties;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.DisposableBean;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.context.SmartLifecycle;
+import org.springframework.data.redis.connection.RedisConnectionFactory;
+import org.springframework.data.redis.core.StringRedisTemplate;
+import org.springframework.data.redis.listener.ChannelTopic;
+import org.springframework.data.redis.listener.RedisMessageListenerContainer;
+import org.springframework.stereotype.Component;
+
+import java.nio.charset.StandardCharsets;
+import java.util.List;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.function.Consumer;
+
+/**
+ * 基于 Redis 发布订阅的广播，事件会到达所有实例(包括发布者自身)
+ * <p>
+ * 订阅随容器生命周期启动，仅刷新上下文(如 AOT/CDS 训练运行)时不会连接 Redis
+ */
+@Component
+@Slf4j
+@ConditionalOnProperty(prefix = "clear.push", name = "broker", havingValue = "redis", matchIfMissing = true)
+public class RedisChangeEventBroker implements ChangeEventBroker, SmartLifecycle, DisposableBean {
+
+    private static final ObjectMapper MAPPER = new JacksonObjectMapper();
+
+    private final StringRedisTemplate stringRedisTemplate;
+    private final String channel;
+    private final RedisMessageListenerContainer container;
+    private final List<Consumer<ChangeEvent>> subscribers = new CopyOnWriteArrayList<>();
+
+    public RedisChangeEventBroker(StringRedisTemplate stringRedisTemplate,
+                                  RedisConnectionFactory redisConnectionFactory,
+                                  PushProperties pushProperties) {
+        this.stringRedisTemplate = stringRedisTemplate;
+        this.channel = pushProperties.getChannel();
+
+        this.container = new RedisMessageListenerContainer();
+        this.container.setConnectionFactory(redisConnectionFactory);
+        this.container.addMessageListener((message, pattern) -> {
+            try {
+                ChangeEvent event = MAPPER.readValue(message.getBody(), ChangeEvent.class);
+                for (Consumer<ChangeEvent> subscriber : subscribers) {
+                    subscriber.accept(event);
+                }
+            } catch (Exception e) {
+                log.warn("变更事件处理失败: {}", new String(message.getBody(), StandardCharsets.UTF_8));
+            }
+        }, new ChannelTopic(channel));
+        this.container.afterPropertiesSet();
+    }
+
+    @Override
+    public void start() {
+        container.start();
+    }
+
+    @Override
+    public void stop() {
+        container.stop();
+    }
+
+    @Override
+    public boolean isRunning() {
+        return container.isRunning();
+    }
+
+    @Override
+    public void publish(ChangeEvent event) {
+        try {
+            stringRedisTemplate.convertAndSend(channel, MAPPER.writeValueAsString(event));
+        } catch (Exception e) {
+            // 推送失败不影响业务写入，客户端重连后会重新拉取
+            log.warn("变更事件发布失败: {}", e.getMessage());
+        }
+    }
+
+    @Override
+    public void subscribe(Consumer<ChangeEvent> subscriber) {
+        subscribers.add(subscriber);
+    }
+
+    @Override
+    public void destroy() throws Exception {
+        container.destroy();
+    }
+}
@@ -0,0 +1,33 @@
+package cn.wind.clear.service;
+
+import cn.wind.clear.dto.AnalyticsQueryDTO;
+import cn.wind.clear.entity.Todo;
+import cn.wind.clear.entity.TodoDailyStat;
+import cn.wind.clear.vo.AnalyticsVO;
+import com.baomidou.mybatisplus.extension.service.IService;
+
+public interface AnalyticsService extends IService<TodoDailyStat> {
+
+    /**
+     * 按待办修改前后的状态增量更新每日统计，需在待办写操作的事务内调用
+     *
+     * @param before 修改前的待办，新增时为空
+     * @param after 修改后的待办，删除时为空
+     */
+    void recordChange(Todo before, Todo after);
+
+    /**
+     * 分类删除后把其统计并入未分类
+     */
+    void mergeCategory(String userId, String categoryId);
+
+    /**
+     * 查询当前用户的趋势与分类统计
+     */
+    AnalyticsVO query(AnalyticsQueryDTO analyticsQueryDTO);
+
+    /**
+     * 按现有待办重新统计用户的全部每日统计
+     */
+    void recount(String userId);
+}
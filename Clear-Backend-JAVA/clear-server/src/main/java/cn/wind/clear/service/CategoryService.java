@@ -18,5 +18,12 @@ public interface CategoryService extends IService<Category> {
 
     void updateCategory(CategoryDTO categoryDTO);
 
+    void deleteCategory(String id);
+
     String getCategoryNameById(String categoryId);
+
+    /**
+     * 校验分类属于指定用户，null 表示未分类
+     */
+    void checkCategory(String userId, String categoryId);
 }
@@ -0,0 +1,10 @@
+package cn.wind.clear.service;
+
+import cn.wind.clear.vo.TodoSuggestVO;
+
+import java.util.List;
+
+public interface SuggestService {
+
+    List<TodoSuggestVO> suggest(String prefix, Integer limit);
+}
@@ -0,0 +1,24 @@
+package cn.wind.clear.service;
+
+import cn.wind.clear.dto.TagDTO;
+import cn.wind.clear.entity.Tag;
+import cn.wind.clear.vo.TagVO;
+import com.baomidou.mybatisplus.extension.service.IService;
+
+import java.util.List;
+
+public interface TagService extends IService<Tag> {
+
+    List<TagVO> getTags();
+
+    void addTag(TagDTO tagDTO);
+
+    void updateTag(TagDTO tagDTO);
+
+    void deleteTag(String id);
+
+    /**
+     * 校验标签都属于指定用户
+     */
+    void checkTags(String userId, List<String> tagIds);
+}
@@ -1,14 +1,22 @@
 package cn.wind.clear.service;
 
+import cn.wind.clear.dto.MoveTodoDTO;
+import cn.wind.clear.dto.PatchTodoDTO;
+import cn.wind.clear.dto.TodoCalendarQueryDTO;
 import cn.wind.clear.dto.TodoDTO;
 import cn.wind.clear.dto.TodoPageQueryDTO;
 import cn.wind.clear.dto.UpdateTodoDTO;
 import cn.wind.clear.entity.Todo;
 import cn.wind.clear.result.PageResult;
+import cn.wind.clear.vo.TodoCalendarVO;
 import cn.wind.clear.vo.TodoVO;
 import cn.wind.clear.vo.UserStatusVO;
 import com.baomidou.mybatisplus.extension.service.IService;
 
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.util.List;
+
 public interface TodoService extends IService<Todo> {
     /**
      * 添加to do
@@ -23,18 +31,86 @@ public interface TodoService extends IService<Todo> {
      */
     PageResult<TodoVO> pageQuery(TodoPageQueryDTO todoPageQueryDTO);
 
+    /**
+     * 查询to do详情
+     * @param id
+     * @return
+     */
+    TodoVO getTodo(String id);
+
     /**
      * to do 删除
      * @param id
      */
     void deleteTodo(String id);
 
+    /**
+     * 设置to do的标签
+     * @param id
+     * @param tagIds
+     */
+    void setTags(String id, List<String> tagIds);
+
     /**
      * 更新to do
      * @param updateTodoDTO
      */
     void udpateTodo(UpdateTodoDTO updateTodoDTO);
 
+    /**
+     * 按字段部分更新to do
+     * @param id
+     * @param patchTodoDTO
+     * @return 更新后的版本号
+     */
+    Integer patchTodo(String id, PatchTodoDTO patchTodoDTO);
+
+    /**
+     * 手动排序: 把to do移动到同一分类的另一项之后，只改写这一项的排序键
+     * @param id
+     * @param moveTodoDTO
+     * @return 更新后的版本号
+     */
+    Integer moveTodo(String id, MoveTodoDTO moveTodoDTO);
+
+    /**
+     * 单独保存重复待办的某一次，已保存时返回已有的id
+     * @param id 系列第一项的id
+     * @param date 该次的日期
+     * @return 该次的to do id
+     */
+    String saveOccurrence(String id, LocalDate date);
+
+    /**
+     * 跳过重复待办的某一次
+     * @param id 系列第一项的id
+     * @param date 该次的日期
+     */
+    void skipOccurrence(String id, LocalDate date);
+
+    /**
+     * 按当前顺序为列表(用户的一个分类)重新分配等间隔的排序键
+     * @param userId 用户id
+     * @param categoryId 分类id，为空表示未分类
+     * @return 改写的行数
+     */
+    int rebalanceRanks(String userId, String categoryId);
+
+    /**
+     * to do 日历统计
+     * @param todoCalendarQueryDTO
+     * @return
+     */
+    List<TodoCalendarVO> calendar(TodoCalendarQueryDTO todoCalendarQueryDTO);
+
+    /**
+     * 归档已完成的to do
+     * @param before 完成时间上限
+     * @param limit 本批次最大行数
+     * @return 本批次迁移的行数
+     */
+    int archiveCompleted(LocalDateTime before, int limit);
+
     Long getNumOfDoneOrUndone(String currentId, Integer enabled);
 
     UserStatusVO getTodoStatus(String currentId);
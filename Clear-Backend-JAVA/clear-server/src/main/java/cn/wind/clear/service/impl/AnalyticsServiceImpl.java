@@ -0,0 +1,78 @@
+package cn.wind.clear.service.impl;
+
+import cn.wind.clear.analytics.TodoAnalytics;
+import cn.wind.clear.analytics.TodoDailyStatDiff;
+import cn.wind.clear.context.RedisContext;
+import cn.wind.clear.dto.AnalyticsQueryDTO;
+import cn.wind.clear.entity.Category;
+import cn.wind.clear.entity.Todo;
+import cn.wind.clear.entity.TodoDailyStat;
+import cn.wind.clear.mapper.CategoryMapper;
+import cn.wind.clear.mapper.TodoDailyStatMapper;
+import cn.wind.clear.properties.AnalyticsProperties;
+import cn.wind.clear.service.AnalyticsService;
+import cn.wind.clear.vo.AnalyticsVO;
+import com.baomidou.mybatisplus.core.conditions.query.LambdaQueryWrapper;
+import com.baomidou.mybatisplus.extension.service.impl.ServiceImpl;
+import jakarta.annotation.Resource;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.time.LocalDate;
+import java.util.List;
+import java.util.Map;
+import java.util.stream.Collectors;
+
+/**
+ * 待办统计
+ * <p>
+ * todo_daily_stat 按 (用户, 日期, 分类) 保存创建、完成、逾期数量，待办的每次写操作在同一事务内累加增量，
+ * 查询只读取范围内的统计行，耗时与天数成正比，与用户的待办数量无关
+ */
+@Service
+@Slf4j
+public class AnalyticsServiceImpl extends ServiceImpl<TodoDailyStatMapper, TodoDailyStat>
+        implements AnalyticsService {
+
+    @Resource
+    private CategoryMapper categoryMapper;
+    @Resource
+    private AnalyticsProperties analyticsProperties;
+
+    @Override
+    public void recordChange(Todo before, Todo after) {
+        List<TodoDailyStat> rows = TodoDailyStatDiff.diff(before, after);
+        if (!rows.isEmpty()) {
+            this.baseMapper.upsert(rows);
+        }
+    }
+
+    @Override
+    public void mergeCategory(String userId, String categoryId) {
+        this.baseMapper.mergeIntoNoCategory(userId, categoryId);
+        this.baseMapper.deleteCategory(userId, categoryId);
+    }
+
+    @Override
+    public AnalyticsVO query(AnalyticsQueryDTO analyticsQueryDTO) {
+        String userId = RedisContext.getCurrentId();
+        LocalDate today = LocalDate.now();
+        TodoAnalytics.Range range = TodoAnalytics.resolve(analyticsQueryDTO, analyticsProperties.getMaxRangeDays(), today);
+        List<TodoDailyStat> rows = this.baseMapper.selectRange(userId, range.start(), range.end(),
+                analyticsQueryDTO.getCategoryId());
+        Map<String, String> categoryNames = categoryMapper.selectList(new LambdaQueryWrapper<Category>()
+                        .select(Category::getId, Category::getName)
+                        .eq(Category::getUserId, userId))
+                .stream()
+                .collect(Collectors.toMap(Category::getId, Category::getName));
+        return TodoAnalytics.aggregate(range, rows, categoryNames, today);
+    }
+
+    @Override
+    @Transactional(rollbackFor = Exception.class)
+    public void recount(String userId) {
+        this.baseMapper.deleteByUser(userId);
+        this.baseMapper.insertRecount(userId);
+    }
+}
@@ -1,24 +1,50 @@
 package cn.wind.clear.service.impl;
 
+import cn.wind.clear.coalesce.ReadCoalescer;
 import cn.wind.clear.context.RedisContext;
 import cn.wind.clear.dto.CategoryDTO;
 import cn.wind.clear.entity.Category;
+import cn.wind.clear.event.DomainEventBus;
+import cn.wind.clear.event.DomainEventType;
 import cn.wind.clear.exception.BaseException;
 import cn.wind.clear.mapper.CategoryMapper;
+import cn.wind.clear.properties.IdProperties;
+import cn.wind.clear.service.AnalyticsService;
 import cn.wind.clear.service.CategoryService;
+import cn.wind.clear.suggest.PrefixIndexCache;
+import cn.wind.clear.tag.TagIndexCache;
+import cn.wind.clear.utils.SnowflakeIdWorker;
 import cn.wind.clear.vo.CategoryVO;
 import com.baomidou.mybatisplus.extension.service.impl.ServiceImpl;
+import jakarta.annotation.Resource;
 import org.springframework.beans.BeanUtils;
+import org.springframework.dao.DuplicateKeyException;
 import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
 
 import java.util.List;
 import java.util.stream.Collectors;
 
+import static cn.wind.clear.constant.MessageConstant.CATEGORY_NOT_EXIST;
+import static cn.wind.clear.constant.MessageConstant.INVALID_ID;
 import static cn.wind.clear.constant.MessageConstant.SYSTEM_ERROR;
 
 @Service
 public class CategoryServiceImpl extends ServiceImpl<CategoryMapper, Category>
         implements CategoryService {
+    @Resource
+    private DomainEventBus domainEventBus;
+    @Resource
+    private IdProperties idProperties;
+    @Resource
+    private ReadCoalescer readCoalescer;
+    @Resource
+    private TagIndexCache tagIndexCache;
+    @Resource
+    private PrefixIndexCache prefixIndexCache;
+    @Resource
+    private AnalyticsService analyticsService;
+
     @Override
     public String getDefaultCategoryId(String currentId, String defaultCategory) {
         return this.lambdaQuery()
@@ -43,11 +69,9 @@ public class CategoryServiceImpl extends ServiceImpl<CategoryMapper, Category>
     @Override
     public List<CategoryVO>     getCategories() {
         String currentId = RedisContext.getCurrentId();
-        List<Category> categories = this.getCategoriesByUserId(currentId);
-
-        return categories.stream()
+        return readCoalescer.execute(currentId, "categories", () -> this.getCategoriesByUserId(currentId).stream()
                 .map(category -> new CategoryVO(category.getId(), category.getName()))
-                .collect(Collectors.toList());
+                .collect(Collectors.toList()));
     }
 
     @Override
@@ -59,13 +83,26 @@ public class CategoryServiceImpl extends ServiceImpl<CategoryMapper, Category>
                 .ifPresent(category -> {
                     throw new BaseException("分类已存在");
                 });
+        // 客户端生成的ID必须是客户端范围内的雪花ID，重复由主键约束发现
+        if (categoryDTO.getId() != null
+                && !SnowflakeIdWorker.isValidClientId(categoryDTO.getId(), idProperties.getMaxClientSkewMillis())) {
+            throw new BaseException(INVALID_ID);
+        }
         Category category = new Category();
         category.setUserId(RedisContext.getCurrentId());
         BeanUtils.copyProperties(categoryDTO, category);
-        boolean isOk = this.save(category);
+        boolean isOk;
+        try {
+            isOk = this.save(category);
+        } catch (DuplicateKeyException e) {
+            throw new BaseException(INVALID_ID);
+        }
         if (!isOk) {
             throw new BaseException(SYSTEM_ERROR);
         }
+        readCoalescer.invalidate(category.getUserId());
+        prefixIndexCache.invalidate(category.getUserId());
+        domainEventBus.publish(DomainEventType.CATEGORY_CREATED, category.getUserId(), category.getId());
     }
 
     @Override
@@ -86,6 +123,24 @@ public class CategoryServiceImpl extends ServiceImpl<CategoryMapper, Category>
         if (!isOk) {
             throw new BaseException(SYSTEM_ERROR);
         }
+        readCoalescer.invalidate(category.getUserId());
+        prefixIndexCache.invalidate(category.getUserId());
+        domainEventBus.publish(DomainEventType.CATEGORY_UPDATED, category.getUserId(), category.getId());
+    }
+
+    @Override
+    @Transactional(rollbackFor = Exception.class)
+    public void deleteCategory(String id) {
+        boolean isOk = this.removeById(id);
+        if (!isOk) {
+            throw new BaseException(SYSTEM_ERROR);
+        }
+        // 分类下的待办变为未分类，统计随之并入未分类
+        analyticsService.mergeCategory(RedisContext.getCurrentId(), id);
+        readCoalescer.invalidate(RedisContext.getCurrentId());
+        prefixIndexCache.invalidate(RedisContext.getCurrentId());
+        tagIndexCache.invalidate(RedisContext.getCurrentId());
+        domainEventBus.publish(DomainEventType.CATEGORY_DELETED, RedisContext.getCurrentId(), id);
     }
 
     @Override
@@ -93,4 +148,18 @@ public class CategoryServiceImpl extends ServiceImpl<CategoryMapper, Category>
         return this.lambdaQuery().eq(Category::getId, categoryId)
                 .one().getName();
     }
+
+    @Override
+    public void checkCategory(String userId, String categoryId) {
+        if (categoryId == null) {
+            return;
+        }
+        boolean owned = this.lambdaQuery()
+                .eq(Category::getId, categoryId)
+                .eq(Category::getUserId, userId)
+                .exists();
+        if (!owned) {
+            throw new BaseException(CATEGORY_NOT_EXIST);
+        }
+    }
 }
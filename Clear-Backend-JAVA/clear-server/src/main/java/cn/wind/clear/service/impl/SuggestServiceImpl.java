@@ -0,0 +1,69 @@
+package cn.wind.clear.service.impl;
+
+import cn.wind.clear.context.RedisContext;
+import cn.wind.clear.entity.Category;
+import cn.wind.clear.entity.Todo;
+import cn.wind.clear.properties.SuggestProperties;
+import cn.wind.clear.service.CategoryService;
+import cn.wind.clear.service.SuggestService;
+import cn.wind.clear.service.TodoService;
+import cn.wind.clear.suggest.PrefixIndex;
+import cn.wind.clear.suggest.PrefixIndexCache;
+import cn.wind.clear.vo.TodoSuggestVO;
+import jakarta.annotation.Resource;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.stereotype.Service;
+
+import java.util.List;
+
+@Service
+@Slf4j
+public class SuggestServiceImpl implements SuggestService {
+
+    @Resource
+    private TodoService todoService;
+    @Resource
+    private CategoryService categoryService;
+    @Resource
+    private PrefixIndexCache prefixIndexCache;
+    @Resource
+    private SuggestProperties suggestProperties;
+
+    /**
+     * 标题和分类名称的前缀补全
+     *
+     * @param prefix 用户已输入的内容
+     * @param limit  最多返回条数
+     * @return 匹配的待办和分类
+     */
+    @Override
+    public List<TodoSuggestVO> suggest(String prefix, Integer limit) {
+        if (prefix == null || prefix.isBlank()) {
+            return List.of();
+        }
+        int size = limit == null ? suggestProperties.getDefaultLimit()
+                : Math.max(1, Math.min(limit, suggestProperties.getMaxLimit()));
+        String userId = RedisContext.getCurrentId();
+        return prefixIndexCache.get(userId, () -> buildIndex(userId)).search(prefix, size);
+    }
+
+    /**
+     * 只读取 id 和标题，已归档的待办不参与补全
+     */
+    private PrefixIndex buildIndex(String userId) {
+        PrefixIndex.Builder builder = PrefixIndex.builder();
+        List<Todo> todos = todoService.lambdaQuery()
+                .select(Todo::getId, Todo::getTitle)
+                .eq(Todo::getUserId, userId)
+                .list();
+        for (Todo todo : todos) {
+            builder.add(TodoSuggestVO.TYPE_TODO, todo.getId(), todo.getTitle());
+        }
+        for (Category category : categoryService.getCategoriesByUserId(userId)) {
+            builder.add(TodoSuggestVO.TYPE_CATEGORY, category.getId(), category.getName());
+        }
+        PrefixIndex index = builder.build();
+        log.info("构建前缀索引: 用户 {}, {} 个键", userId, index.size());
+        return index;
+    }
+}
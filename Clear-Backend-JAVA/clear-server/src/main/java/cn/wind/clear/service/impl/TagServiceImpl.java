@@ -0,0 +1,149 @@
+package cn.wind.clear.service.impl;
+
+import cn.wind.clear.coalesce.ReadCoalescer;
+import cn.wind.clear.constant.MessageConstant;
+import cn.wind.clear.context.RedisContext;
+import cn.wind.clear.dto.TagDTO;
+import cn.wind.clear.entity.Tag;
+import cn.wind.clear.event.DomainEventBus;
+import cn.wind.clear.event.DomainEventType;
+import cn.wind.clear.exception.BaseException;
+import cn.wind.clear.mapper.TagMapper;
+import cn.wind.clear.properties.IdProperties;
+import cn.wind.clear.service.TagService;
+import cn.wind.clear.tag.TagIndexCache;
+import cn.wind.clear.utils.SnowflakeIdWorker;
+import cn.wind.clear.vo.TagVO;
+import com.baomidou.mybatisplus.extension.service.impl.ServiceImpl;
+import jakarta.annotation.Resource;
+import org.springframework.dao.DuplicateKeyException;
+import org.springframework.stereotype.Service;
+
+import java.util.HashSet;
+import java.util.List;
+import java.util.stream.Collectors;
+
+@Service
+public class TagServiceImpl extends ServiceImpl<TagMapper, Tag>
+        implements TagService {
+    @Resource
+    private DomainEventBus domainEventBus;
+    @Resource
+    private IdProperties idProperties;
+    @Resource
+    private ReadCoalescer readCoalescer;
+    @Resource
+    private TagIndexCache tagIndexCache;
+
+    /**
+     * 获取用户的标签
+     *
+     * @return
+     */
+    @Override
+    public List<TagVO> getTags() {
+        String currentId = RedisContext.getCurrentId();
+        return this.lambdaQuery()
+                .eq(Tag::getUserId, currentId)
+                .list()
+                .stream()
+                .map(tag -> new TagVO(tag.getId(), tag.getName()))
+                .collect(Collectors.toList());
+    }
+
+    @Override
+    public void addTag(TagDTO tagDTO) {
+        if (tagDTO.getName() == null || tagDTO.getName().isBlank()) {
+            throw new BaseException(MessageConstant.EMPTY_TAG_NAME);
+        }
+        String userId = RedisContext.getCurrentId();
+        if (exists(userId, tagDTO.getName(), null)) {
+            throw new BaseException(MessageConstant.TAG_EXIST);
+        }
+        // 客户端生成的ID必须是客户端范围内的雪花ID，重复由主键约束发现
+        if (tagDTO.getId() != null
+                && !SnowflakeIdWorker.isValidClientId(tagDTO.getId(), idProperties.getMaxClientSkewMillis())) {
+            throw new BaseException(MessageConstant.INVALID_ID);
+        }
+        Tag tag = Tag.builder()
+                .id(tagDTO.getId())
+                .name(tagDTO.getName())
+                .userId(userId)
+                .build();
+        boolean isOk;
+        try {
+            isOk = this.save(tag);
+        } catch (DuplicateKeyException e) {
+            // 同名标签并发创建时由 (user_id, name) 唯一索引发现
+            throw new BaseException(tagDTO.getId() != null && this.getById(tagDTO.getId()) != null
+                    ? MessageConstant.INVALID_ID : MessageConstant.TAG_EXIST);
+        }
+        if (!isOk) {
+            throw new BaseException(MessageConstant.SYSTEM_ERROR);
+        }
+        domainEventBus.publish(DomainEventType.TAG_CREATED, userId, tag.getId());
+    }
+
+    @Override
+    public void updateTag(TagDTO tagDTO) {
+        String userId = RedisContext.getCurrentId();
+        Tag tag = this.getById(tagDTO.getId());
+        if (tag == null || !tag.getUserId().equals(userId)) {
+            throw new BaseException(MessageConstant.TAG_NOT_EXIST);
+        }
+        if (tagDTO.getName() == null || tagDTO.getName().isBlank()) {
+            throw new BaseException(MessageConstant.EMPTY_TAG_NAME);
+        }
+        if (exists(userId, tagDTO.getName(), tag.getId())) {
+            throw new BaseException(MessageConstant.TAG_EXIST);
+        }
+        tag.setName(tagDTO.getName());
+        boolean isOk = this.updateById(tag);
+        if (!isOk) {
+            throw new BaseException(MessageConstant.SYSTEM_ERROR);
+        }
+        domainEventBus.publish(DomainEventType.TAG_UPDATED, userId, tag.getId());
+    }
+
+    /**
+     * 删除标签，待办上的关联由外键级联删除
+     *
+     * @param id
+     */
+    @Override
+    public void deleteTag(String id) {
+        String userId = RedisContext.getCurrentId();
+        boolean isOk = this.lambdaUpdate()
+                .eq(Tag::getId, id)
+                .eq(Tag::getUserId, userId)
+                .remove();
+        if (!isOk) {
+            throw new BaseException(MessageConstant.TAG_NOT_EXIST);
+        }
+        readCoalescer.invalidate(userId);
+        tagIndexCache.invalidate(userId);
+        domainEventBus.publish(DomainEventType.TAG_DELETED, userId, id);
+    }
+
+    @Override
+    public void checkTags(String userId, List<String> tagIds) {
+        if (tagIds == null || tagIds.isEmpty()) {
+            return;
+        }
+        long owned = this.lambdaQuery()
+                .eq(Tag::getUserId, userId)
+                .in(Tag::getId, new HashSet<>(tagIds))
+                .count();
+        if (owned != new HashSet<>(tagIds).size()) {
+            throw new BaseException(MessageConstant.TAG_NOT_EXIST);
+        }
+    }
+
+    private boolean exists(String userId, String name, String excludeId) {
+        return this.lambdaQuery()
+                .eq(Tag::getUserId, userId)
+                .eq(Tag::getName, name)
+                .ne(excludeId != null, Tag::getId, excludeId)
+                .exists();
+    }
+}
@@ -1,44 +1,154 @@
 package cn.wind.clear.service.impl;
 
+import cn.wind.clear.coalesce.ReadCoalescer;
+import cn.wind.clear.codec.TodoCalendarCodec;
 import cn.wind.clear.constant.CategoryConstant;
 import cn.wind.clear.constant.MessageConstant;
 import cn.wind.clear.constant.StatusConstant;
 import cn.wind.clear.context.RedisContext;
+import cn.wind.clear.dto.MoveTodoDTO;
+import cn.wind.clear.dto.PatchTodoDTO;
+import cn.wind.clear.dto.TodoCalendarQueryDTO;
 import cn.wind.clear.dto.TodoDTO;
 import cn.wind.clear.dto.TodoPageQueryDTO;
 import cn.wind.clear.dto.UpdateTodoDTO;
 import cn.wind.clear.entity.Todo;
+import cn.wind.clear.entity.TodoTag;
+import cn.wind.clear.event.DomainEventBus;
+import cn.wind.clear.event.DomainEventType;
 import cn.wind.clear.exception.BaseException;
+import cn.wind.clear.exception.ConflictException;
+import cn.wind.clear.logging.LogRateLimiter;
 import cn.wind.clear.mapper.TodoMapper;
+import cn.wind.clear.mapper.TodoTagMapper;
+import cn.wind.clear.properties.ArchiveProperties;
+import cn.wind.clear.properties.IdProperties;
+import cn.wind.clear.properties.RankProperties;
+import cn.wind.clear.properties.RecurrenceProperties;
+import cn.wind.clear.properties.TagProperties;
+import cn.wind.clear.recurrence.TodoRecurrence;
 import cn.wind.clear.result.PageResult;
+import cn.wind.clear.service.AnalyticsService;
 import cn.wind.clear.service.CategoryService;
+import cn.wind.clear.service.TagService;
 import cn.wind.clear.service.TodoService;
+import cn.wind.clear.tag.TagBitmapIndex;
+import cn.wind.clear.suggest.PrefixIndexCache;
+import cn.wind.clear.tag.TagIndexCache;
+import cn.wind.clear.utils.RankKeys;
+import cn.wind.clear.utils.RecurrenceRule;
+import cn.wind.clear.utils.RedisUtils;
+import cn.wind.clear.utils.SnowflakeIdWorker;
+import cn.wind.clear.vo.TodoCalendarVO;
 import cn.wind.clear.vo.TodoVO;
 import cn.wind.clear.vo.UserStatusVO;
 import com.baomidou.mybatisplus.core.conditions.query.LambdaQueryWrapper;
+import com.baomidou.mybatisplus.core.conditions.update.LambdaUpdateWrapper;
+import com.baomidou.mybatisplus.core.metadata.IPage;
+import com.baomidou.mybatisplus.core.toolkit.support.SFunction;
 import com.baomidou.mybatisplus.extension.plugins.pagination.Page;
 import com.baomidou.mybatisplus.extension.service.impl.ServiceImpl;
 import jakarta.annotation.Resource;
 import lombok.extern.slf4j.Slf4j;
+import org.roaringbitmap.RoaringBitmap;
 import org.springframework.beans.BeanUtils;
+import org.springframework.dao.DuplicateKeyException;
 import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
 
+import java.time.DayOfWeek;
+import java.time.Duration;
 import java.time.LocalDate;
 import java.time.LocalDateTime;
+import java.time.YearMonth;
+import java.time.format.DateTimeParseException;
+import java.time.temporal.TemporalAdjusters;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashSet;
+import java.util.LinkedHashMap;
+import java.util.LinkedHashSet;
 import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.Set;
+import java.util.StringJoiner;
+import java.util.TreeSet;
+import java.util.concurrent.TimeUnit;
+import java.util.stream.Collectors;
 
 @Service
 @Slf4j
 public class TodoServiceImpl extends ServiceImpl<TodoMapper, Todo>
         implements TodoService {
+    // 用户 to do 数据版本号，写操作递增，用于使缓存失效
+    private static final String VERSION_KEY_PREFIX = "clear:todo:version:user:";
+    // 日历统计缓存
+    private static final String CALENDAR_KEY_PREFIX = "clear:todo:calendar:user:";
+    private static final long CALENDAR_CACHE_TTL_HOURS = 24;
+    // 分页排序方式
+    private static final String ORDER_BY_DUE = "due";
+    private static final String ORDER_BY_MANUAL = "manual";
+    // DATETIME 的取值范围是 1000-9999 年，按年查询的结束日期是下一年的 1 月 1 日
+    private static final int MIN_CALENDAR_YEAR = 1000;
+    private static final int MAX_CALENDAR_YEAR = 9998;
+    // 分页查询日志每秒最多一条
+    private static final LogRateLimiter PAGE_QUERY_LOG = new LogRateLimiter(1, Duration.ofSeconds(1));
+    // 分页查询可选字段与对应的列，categoryName 由 categoryId 查得
+    private static final Map<String, SFunction<Todo, ?>> FIELD_COLUMNS = new LinkedHashMap<>();
+
+    static {
+        FIELD_COLUMNS.put("id", Todo::getId);
+        FIELD_COLUMNS.put("title", Todo::getTitle);
+        FIELD_COLUMNS.put("content", Todo::getContent);
+        FIELD_COLUMNS.put("status", Todo::getStatus);
+        FIELD_COLUMNS.put("categoryId", Todo::getCategoryId);
+        FIELD_COLUMNS.put("categoryName", Todo::getCategoryId);
+        FIELD_COLUMNS.put("dueDate", Todo::getDueDate);
+        FIELD_COLUMNS.put("createdAt", Todo::getCreatedAt);
+        FIELD_COLUMNS.put("updatedAt", Todo::getUpdatedAt);
+        FIELD_COLUMNS.put("version", Todo::getVersion);
+        FIELD_COLUMNS.put("tagIds", Todo::getId);
+        FIELD_COLUMNS.put("recurrence", Todo::getRecurrence);
+        FIELD_COLUMNS.put("seriesId", Todo::getSeriesId);
+        FIELD_COLUMNS.put("occurrenceDate", Todo::getOccurrenceDate);
+    }
+
     @Resource
     CategoryService categoryService;
+    @Resource
+    DomainEventBus domainEventBus;
+    @Resource
+    ArchiveProperties archiveProperties;
+    @Resource
+    IdProperties idProperties;
+    @Resource
+    ReadCoalescer readCoalescer;
+    @Resource
+    TagService tagService;
+    @Resource
+    TagIndexCache tagIndexCache;
+    @Resource
+    PrefixIndexCache prefixIndexCache;
+    @Resource
+    TagProperties tagProperties;
+    @Resource
+    TodoTagMapper todoTagMapper;
+    @Resource
+    AnalyticsService analyticsService;
+    @Resource
+    RankProperties rankProperties;
+    @Resource
+    RecurrenceProperties recurrenceProperties;
 
     /**
      * 添加to do
      *
      * @param todoDTO
      */
+    @Transactional(rollbackFor = Exception.class)
     public void addTodo(TodoDTO todoDTO) {
         if (todoDTO.getTitle() == null || todoDTO.getTitle().isEmpty()) {
             throw new BaseException(MessageConstant.EMPTY_TITLE);
@@ -48,24 +158,120 @@ public class TodoServiceImpl extends ServiceImpl<TodoMapper, Todo>
             throw new BaseException(MessageConstant.DATE_EXPIRE);
         }
 
+        // 客户端生成的ID必须是客户端范围内的雪花ID；todo 表中的重复由主键约束发现，归档表没有约束需要先查询
+        if (todoDTO.getId() != null
+                && (!SnowflakeIdWorker.isValidClientId(todoDTO.getId(), idProperties.getMaxClientSkewMillis())
+                || this.baseMapper.existsArchived(todoDTO.getId()))) {
+            throw new BaseException(MessageConstant.INVALID_ID);
+        }
+
+        categoryService.checkCategory(RedisContext.getCurrentId(), todoDTO.getCategoryId());
+
         Todo todo = new Todo();
         BeanUtils.copyProperties(todoDTO, todo);
         todo.setCategoryId(todoDTO.getCategoryId() != null
                 ? todoDTO.getCategoryId()
                 : categoryService.getDefaultCategoryId(RedisContext.getCurrentId(), CategoryConstant.DEFAULT_CATEGORY));
         todo.setDueDate(todoDTO.getDueDate() == null ? null : todoDTO.getDueDate());
+        todo.setRecurrence(TodoRecurrence.normalize(todoDTO.getRecurrence(), todo.getDueDate()));
         todo.setStatus(StatusConstant.DISABLED);
         todo.setUserId(RedisContext.getCurrentId());
+        // 每日统计按创建日期计数，不依赖数据库默认值
+        todo.setCreatedAt(LocalDateTime.now());
+        // 新的to do排在所在分类的末尾
+        todo.setRankKey(appendRank(todo.getUserId(), todo.getCategoryId()));
 
-        boolean isOk = this.save(todo);
+        boolean isOk;
+        try {
+            isOk = this.save(todo);
+        } catch (DuplicateKeyException e) {
+            throw new BaseException(MessageConstant.INVALID_ID);
+        }
         if (!isOk) {
             throw new BaseException(MessageConstant.SYSTEM_ERROR);
         }
+        saveTags(todo.getId(), todo.getUserId(), todoDTO.getTagIds());
+        analyticsService.recordChange(null, todo);
+        bumpVersion(todo.getUserId());
+        domainEventBus.publish(DomainEventType.TODO_CREATED, todo.getUserId(), todo.getId());
+    }
+
+    /**
+     * 设置to do的标签，覆盖原有标签
+     *
+     * @param id
+     * @param tagIds
+     */
+    @Override
+    @Transactional(rollbackFor = Exception.class)
+    public void setTags(String id, List<String> tagIds) {
+        String userId = RedisContext.getCurrentId();
+        boolean exists = this.lambdaQuery()
+                .eq(Todo::getId, id)
+                .eq(Todo::getUserId, userId)
+                .exists() || this.baseMapper.selectArchived(id, userId) != null;
+        if (!exists) {
+            throw new BaseException(MessageConstant.TODO_NOT_EXIST);
+        }
+        todoTagMapper.delete(new LambdaQueryWrapper<TodoTag>()
+                .eq(TodoTag::getTodoId, id)
+                .eq(TodoTag::getUserId, userId));
+        saveTags(id, userId, tagIds);
+        bumpVersion(userId);
+        domainEventBus.publish(DomainEventType.TODO_UPDATED, userId, id);
+    }
+
+    private void saveTags(String todoId, String userId, List<String> tagIds) {
+        if (tagIds == null || tagIds.isEmpty()) {
+            return;
+        }
+        Set<String> distinct = new LinkedHashSet<>(tagIds);
+        if (distinct.size() > tagProperties.getMaxTagsPerTodo()) {
+            throw new BaseException(MessageConstant.TOO_MANY_TAGS);
+        }
+        tagService.checkTags(userId, List.copyOf(distinct));
+        todoTagMapper.insert(distinct.stream()
+                .map(tagId -> new TodoTag(todoId, tagId, userId))
+                .toList());
     }
 
     @Override
     public PageResult<TodoVO> pageQuery(TodoPageQueryDTO todoPageQueryDTO) {
-        log.info("Todo分页查询: {}", todoPageQueryDTO);
+        // 每个请求都会经过，限流输出，不记录关键字等用户内容
+        if (log.isInfoEnabled() && PAGE_QUERY_LOG.tryAcquire()) {
+            log.atInfo().setMessage("Todo分页查询")
+                    .addKeyValue("page", todoPageQueryDTO.getPage())
+                    .addKeyValue("pageSize", todoPageQueryDTO.getPageSize())
+                    .addKeyValue("status", todoPageQueryDTO.getStatus())
+                    .addKeyValue("categoryId", todoPageQueryDTO.getCategoryId())
+                    .addKeyValue("keyword", todoPageQueryDTO.getKeyword() != null)
+                    .addKeyValue("fields", todoPageQueryDTO.getFields())
+                    .addKeyValue("orderBy", todoPageQueryDTO.getOrderBy())
+                    .addKeyValue("suppressed", PAGE_QUERY_LOG.drainSuppressed())
+                    .log();
+        }
+        // 多端同时刷新和客户端重试会发出相同的查询，合并为一次执行
+        List<Object> fingerprint = Arrays.asList("page",
+                todoPageQueryDTO.getPage(), todoPageQueryDTO.getPageSize(),
+                todoPageQueryDTO.getCategoryId(), todoPageQueryDTO.getStatus(),
+                todoPageQueryDTO.getStartDate(), todoPageQueryDTO.getEndDate(),
+                todoPageQueryDTO.getKeyword(), normalizeFields(todoPageQueryDTO.getFields()),
+                todoPageQueryDTO.getTagIds() == null ? null : new TreeSet<>(todoPageQueryDTO.getTagIds()),
+                isMatchAllTags(todoPageQueryDTO), isManualOrder(todoPageQueryDTO));
+        return readCoalescer.execute(RedisContext.getCurrentId(), fingerprint, () -> doPageQuery(todoPageQueryDTO));
+    }
+
+    /**
+     * 规范化字段列表，顺序和重复不影响查询结果
+     */
+    private String normalizeFields(String fields) {
+        if (fields == null || fields.isBlank()) {
+            return null;
+        }
+        return String.join(",", new TreeSet<>(Arrays.stream(fields.split(",")).map(String::trim).toList()));
+    }
+
+    private PageResult<TodoVO> doPageQuery(TodoPageQueryDTO todoPageQueryDTO) {
         LambdaQueryWrapper<Todo> queryWrapper = new LambdaQueryWrapper<>();
         String userId = RedisContext.getCurrentId();
         Integer status = todoPageQueryDTO.getStatus();
@@ -74,35 +280,75 @@ public class TodoServiceImpl extends ServiceImpl<TodoMapper, Todo>
                 .eq(categoryId != null,Todo::getCategoryId, categoryId)
                 .eq(status != null, Todo::getStatus, status)
                 .like(todoPageQueryDTO.getKeyword() != null, Todo::getContent, todoPageQueryDTO.getKeyword());
-        // 如果只有开始日期，则查询开始日期后的数据
-        if (todoPageQueryDTO.getStartDate() != null && todoPageQueryDTO.getEndDate() == null) {
-            LocalDate startOfDay = todoPageQueryDTO.getStartDate();
-            LocalDate endOfDay = LocalDate.of(2099, 12, 31); // 使用固定的未来日期作为终点
-            queryWrapper.ge(Todo::getDueDate, startOfDay)
-                    .lt(Todo::getDueDate, endOfDay);
-        }
-        // 如果只有结束日期，则查询结束日期前的数据
-        else if(todoPageQueryDTO.getStartDate() == null && todoPageQueryDTO.getEndDate() != null){
-            LocalDate startOfDay = LocalDate.of(1970, 1, 1); // 使用一个较早的日期作为起点
-            LocalDate endOfDay = todoPageQueryDTO.getEndDate().plusDays(1); // 结束日期加1天，以包含整个结束日期
-            queryWrapper.ge(Todo::getDueDate, startOfDay)
-                    .lt(Todo::getDueDate, endOfDay);
-        }
-        else if (todoPageQueryDTO.getStartDate() != null) {
-            // 有开始和结束日期，查询日期范围
-            queryWrapper.ge(Todo::getDueDate, todoPageQueryDTO.getStartDate())
-                    .lt(Todo::getDueDate, todoPageQueryDTO.getEndDate().plusDays(1));
-        }
-        queryWrapper.orderByDesc(Todo::getDueDate);
+        LocalDate[] dueRange = dueRange(todoPageQueryDTO);
+        if (dueRange != null) {
+            queryWrapper.ge(Todo::getDueDate, dueRange[0])
+                    .lt(Todo::getDueDate, dueRange[1]);
+        }
+        // 只查询请求的字段，列表不需要时不读取 content 等大字段
+        boolean withCategoryName = true;
+        boolean withTagIds = true;
+        String fields = todoPageQueryDTO.getFields();
+        if (fields != null && !fields.isBlank()) {
+            // id 用于标识，due_date 用于排序，总是查询
+            Set<String> selected = new LinkedHashSet<>(List.of("id", "dueDate"));
+            withCategoryName = false;
+            withTagIds = false;
+            for (String field : fields.split(",")) {
+                String name = field.trim();
+                if (!FIELD_COLUMNS.containsKey(name)) {
+                    throw new BaseException(MessageConstant.UNKNOWN_FIELD + name);
+                }
+                if ("tagIds".equals(name)) {
+                    withTagIds = true;
+                    name = "id";
+                }
+                if ("categoryName".equals(name)) {
+                    withCategoryName = true;
+                    name = "categoryId";
+                }
+                selected.add(name);
+            }
+            List<SFunction<Todo, ?>> columns = new ArrayList<>(selected.stream()
+                    .<SFunction<Todo, ?>>map(FIELD_COLUMNS::get)
+                    .toList());
+            if (isManualOrder(todoPageQueryDTO)) {
+                // 合并归档表时在外层按排序键排序
+                columns.add(Todo::getRankKey);
+            }
+            queryWrapper.select(columns);
+        }
+        boolean fillCategoryName = withCategoryName;
+        boolean fillTagIds = withTagIds;
         Page<Todo> page =
                 new Page<>(todoPageQueryDTO.getPage(), todoPageQueryDTO.getPageSize());
-        Page<Todo> res = this.page(page, queryWrapper);
+        // 日期范围内的重复实例不在表中，按规则展开后与查询结果合并，合并时从第一条读到当前页
+        TodoRecurrence.Window window = TodoRecurrence.window(todoPageQueryDTO, isManualOrder(todoPageQueryDTO));
+        List<Todo> occurrences = window == null ? List.of() : expandOccurrences(userId, todoPageQueryDTO, window);
+        Page<Todo> query = occurrences.isEmpty() ? page : new Page<>(1, page.getCurrent() * page.getSize());
+        IPage<Todo> res;
+        if (todoPageQueryDTO.getTagIds() != null && !todoPageQueryDTO.getTagIds().isEmpty()) {
+            res = pageByTags(todoPageQueryDTO, queryWrapper, query, userId, dueRange);
+        } else {
+            res = pageBySql(todoPageQueryDTO, queryWrapper, query);
+        }
+        if (!occurrences.isEmpty()) {
+            page.setTotal(res.getTotal() + occurrences.size());
+            page.setRecords(TodoRecurrence.merge(res.getRecords(), occurrences, page.offset(), page.getSize()));
+            res = page;
+        }
+        Map<String, List<String>> tagIds = withTagIds ? getTagIds(res.getRecords()) : Map.of();
         List<TodoVO> todoList = res.getRecords().stream()
                 .map(todo -> {
                     TodoVO todoVO = new TodoVO();
                     BeanUtils.copyProperties(todo, todoVO);
-                    String categoryName = categoryService.getCategoryNameById(todo.getCategoryId());
-                    todoVO.setCategoryName(categoryName);
+                    if (fillCategoryName) {
+                        String categoryName = categoryService.getCategoryNameById(todo.getCategoryId());
+                        todoVO.setCategoryName(categoryName);
+                    }
+                    if (fillTagIds) {
+                        todoVO.setTagIds(tagIds.getOrDefault(tagOwner(todo), List.of()));
+                    }
                     return todoVO;
                 })
                 .toList();
@@ -112,16 +358,256 @@ public class TodoServiceImpl extends ServiceImpl<TodoMapper, Todo>
         return result;
     }
 
+    private IPage<Todo> pageBySql(TodoPageQueryDTO todoPageQueryDTO, LambdaQueryWrapper<Todo> queryWrapper, Page<Todo> page) {
+        boolean manual = isManualOrder(todoPageQueryDTO);
+        if (includeArchive(todoPageQueryDTO)) {
+            // 查询已完成或较早的数据时才合并归档表
+            return this.baseMapper.selectPageWithArchive(page, queryWrapper, manual);
+        }
+        if (manual) {
+            // 指定分类时按 (user_id, category_id, rank_key) 索引顺序读取
+            queryWrapper.orderByAsc(Todo::getRankKey).orderByAsc(Todo::getId);
+        } else {
+            queryWrapper.orderByDesc(Todo::getDueDate);
+        }
+        return this.page(page, queryWrapper);
+    }
+
+    /**
+     * 按标签分页
+     * <p>
+     * 标签、状态、分类和日期在用户的标签位图索引中筛选，没有关键字时分页也在索引中完成，只回表查询当前页；
+     * 有关键字或手动排序时以索引结果作为 id 条件交给 SQL，结果过多时不展开 id 列表，改用 todo_tag 子查询筛选标签
+     */
+    private IPage<Todo> pageByTags(TodoPageQueryDTO todoPageQueryDTO, LambdaQueryWrapper<Todo> queryWrapper,
+                                   Page<Todo> page, String userId, LocalDate[] dueRange) {
+        TagBitmapIndex index = tagIndexCache.get(userId, () -> buildTagIndex(userId));
+        boolean withArchive = includeArchive(todoPageQueryDTO);
+        RoaringBitmap matched = index.match(todoPageQueryDTO.getTagIds(), isMatchAllTags(todoPageQueryDTO),
+                todoPageQueryDTO.getStatus(), todoPageQueryDTO.getCategoryId(),
+                dueRange == null ? null : dueRange[0].atStartOfDay(),
+                dueRange == null ? null : dueRange[1].atStartOfDay(),
+                withArchive);
+        if (matched.isEmpty()) {
+            page.setTotal(0);
+            return page;
+        }
+        if (todoPageQueryDTO.getKeyword() != null || isManualOrder(todoPageQueryDTO)) {
+            // 索引内只能按截止日期分页
+            if (matched.getLongCardinality() <= tagProperties.getMaxInIds()) {
+                queryWrapper.in(Todo::getId, index.ids(matched));
+            } else {
+                applyTagFilter(queryWrapper, userId, todoPageQueryDTO.getTagIds(), isMatchAllTags(todoPageQueryDTO));
+            }
+            return pageBySql(todoPageQueryDTO, queryWrapper, page);
+        }
+        List<String> ids = index.page(matched, (page.getCurrent() - 1) * page.getSize(), (int) page.getSize());
+        page.setTotal(matched.getLongCardinality());
+        if (ids.isEmpty()) {
+            return page;
+        }
+        queryWrapper.in(Todo::getId, ids);
+        List<Todo> rows = withArchive ? this.baseMapper.selectListWithArchive(queryWrapper) : this.list(queryWrapper);
+        Map<String, Todo> byId = rows.stream().collect(Collectors.toMap(Todo::getId, todo -> todo, (a, b) -> a));
+        page.setRecords(ids.stream().map(byId::get).filter(Objects::nonNull).toList());
+        return page;
+    }
+
+    /**
+     * 标签筛选作为 todo_tag 子查询: any 为带有任一标签，all 为带有全部标签；状态、分类和日期条件已在 queryWrapper 中
+     * <p>
+     * 不是数字的标签id不会匹配任何待办，直接忽略，调用前已确认至少匹配一条
+     */
+    private void applyTagFilter(LambdaQueryWrapper<Todo> queryWrapper, String userId, List<String> tagIds,
+                                boolean matchAll) {
+        List<Object> params = new ArrayList<>();
+        params.add(Long.valueOf(userId));
+        for (String tagId : new LinkedHashSet<>(tagIds)) {
+            try {
+                params.add(Long.valueOf(tagId));
+            } catch (NumberFormatException e) {
+                // 忽略
+            }
+        }
+        StringJoiner placeholders = new StringJoiner(",");
+        for (int i = 1; i < params.size(); i++) {
+            placeholders.add("{" + i + "}");
+        }
+        String having = "";
+        if (matchAll) {
+            having = " GROUP BY todo_id HAVING COUNT(*) = {" + params.size() + "}";
+            params.add(params.size() - 1);
+        }
+        queryWrapper.apply("id IN (SELECT todo_id FROM todo_tag WHERE user_id = {0} AND tag_id IN ("
+                + placeholders + ")" + having + ")", params.toArray());
+    }
+
+    private TagBitmapIndex buildTagIndex(String userId) {
+        List<Todo> todos = this.lambdaQuery()
+                .select(Todo::getId, Todo::getStatus, Todo::getCategoryId, Todo::getDueDate)
+                .eq(Todo::getUserId, userId)
+                .list();
+        List<Todo> archived = this.baseMapper.selectArchivedBrief(userId);
+        List<TodoTag> todoTags = todoTagMapper.selectList(new LambdaQueryWrapper<TodoTag>()
+                .eq(TodoTag::getUserId, userId));
+        TagBitmapIndex index = TagBitmapIndex.build(todos, archived, todoTags);
+        log.info("构建标签索引: 用户 {}, {} 条待办, {} 条标签关联", userId, index.size(), todoTags.size());
+        return index;
+    }
+
+    /**
+     * 展开范围内符合查询条件的重复实例，按截止日期倒序
+     * <p>
+     * 系列的第一项走 (user_id, recurrence) 索引读取，读取量只与用户的重复系列数有关，展开量只与范围有关
+     *
+     * @param todoPageQueryDTO 分页查询条件；日历查询时为 null，不筛选也不限制范围
+     */
+    private List<Todo> expandOccurrences(String userId, TodoPageQueryDTO todoPageQueryDTO, TodoRecurrence.Window window) {
+        boolean filtered = todoPageQueryDTO != null;
+        String categoryId = filtered ? todoPageQueryDTO.getCategoryId() : null;
+        String keyword = filtered ? todoPageQueryDTO.getKeyword() : null;
+        List<Todo> series = this.lambdaQuery()
+                .eq(Todo::getUserId, userId)
+                .isNotNull(Todo::getRecurrence)
+                .lt(Todo::getDueDate, window.to())
+                .eq(categoryId != null, Todo::getCategoryId, categoryId)
+                .like(keyword != null, Todo::getContent, keyword)
+                .list();
+        if (filtered && todoPageQueryDTO.getTagIds() != null && !todoPageQueryDTO.getTagIds().isEmpty()) {
+            Set<String> wanted = new HashSet<>(todoPageQueryDTO.getTagIds());
+            boolean matchAll = isMatchAllTags(todoPageQueryDTO);
+            Map<String, List<String>> tagIds = getTagIds(series);
+            series = series.stream()
+                    .filter(first -> {
+                        long matched = tagIds.getOrDefault(first.getId(), List.of()).stream()
+                                .filter(wanted::contains)
+                                .count();
+                        return matchAll ? matched == wanted.size() : matched > 0;
+                    })
+                    .toList();
+        }
+        if (series.isEmpty()) {
+            return List.of();
+        }
+        if (filtered) {
+            TodoRecurrence.checkWindow(window, recurrenceProperties.getMaxWindowDays());
+        }
+        Set<String> exceptions = this.baseMapper.selectOccurrenceExceptions(series.stream().map(Todo::getId).toList(),
+                        window.from().toLocalDate(), window.to().toLocalDate())
+                .stream()
+                .map(todo -> TodoRecurrence.exceptionKey(todo.getSeriesId(), todo.getOccurrenceDate()))
+                .collect(Collectors.toSet());
+        return TodoRecurrence.expand(series, exceptions, window);
+    }
+
+    /**
+     * 批量查询to do的标签，展开的重复实例使用系列第一项的标签
+     */
+    private Map<String, List<String>> getTagIds(List<Todo> todos) {
+        if (todos.isEmpty()) {
+            return Map.of();
+        }
+        return todoTagMapper.selectList(new LambdaQueryWrapper<TodoTag>()
+                        .in(TodoTag::getTodoId, todos.stream().map(TodoServiceImpl::tagOwner).distinct().toList()))
+                .stream()
+                .collect(Collectors.groupingBy(TodoTag::getTodoId,
+                        Collectors.mapping(TodoTag::getTagId, Collectors.toList())));
+    }
+
+    private static String tagOwner(Todo todo) {
+        return todo.getId() != null ? todo.getId() : todo.getSeriesId();
+    }
+
+    private boolean isMatchAllTags(TodoPageQueryDTO todoPageQueryDTO) {
+        return "all".equalsIgnoreCase(todoPageQueryDTO.getTagMode());
+    }
+
+    private boolean isManualOrder(TodoPageQueryDTO todoPageQueryDTO) {
+        String orderBy = todoPageQueryDTO.getOrderBy();
+        if (orderBy == null || ORDER_BY_DUE.equals(orderBy)) {
+            return false;
+        }
+        if (ORDER_BY_MANUAL.equals(orderBy)) {
+            // 排序键只在同一分类内有意义
+            if (todoPageQueryDTO.getCategoryId() == null) {
+                throw new BaseException(MessageConstant.MANUAL_ORDER_CATEGORY);
+            }
+            return true;
+        }
+        throw new BaseException(MessageConstant.UNKNOWN_ORDER + orderBy);
+    }
+
+    /**
+     * 截止日期范围 [开始, 结束)，未指定日期时返回 null
+     */
+    private LocalDate[] dueRange(TodoPageQueryDTO todoPageQueryDTO) {
+        LocalDate startDate = todoPageQueryDTO.getStartDate();
+        LocalDate endDate = todoPageQueryDTO.getEndDate();
+        if (startDate == null && endDate == null) {
+            return null;
+        }
+        return new LocalDate[]{
+                // 只有结束日期时使用一个较早的日期作为起点
+                startDate != null ? startDate : LocalDate.of(1970, 1, 1),
+                // 结束日期加1天，以包含整个结束日期；只有开始日期时使用固定的未来日期作为终点
+                endDate != null ? endDate.plusDays(1) : LocalDate.of(2099, 12, 31)
+        };
+    }
+
+    /**
+     * 查询to do详情
+     *
+     * @param id
+     * @return
+     */
+    @Override
+    public TodoVO getTodo(String id) {
+        String userId = RedisContext.getCurrentId();
+        Todo todo = this.lambdaQuery()
+                .eq(Todo::getId, id)
+                .eq(Todo::getUserId, userId)
+                .one();
+        if (todo == null) {
+            todo = this.baseMapper.selectArchived(id, userId);
+        }
+        if (todo == null) {
+            throw new BaseException(MessageConstant.TODO_NOT_EXIST);
+        }
+        TodoVO todoVO = new TodoVO();
+        BeanUtils.copyProperties(todo, todoVO);
+        todoVO.setCategoryName(categoryService.getCategoryNameById(todo.getCategoryId()));
+        todoVO.setTagIds(getTagIds(List.of(todo)).getOrDefault(todo.getId(), List.of()));
+        return todoVO;
+    }
+
     /**
      * 删除to do
      *
      * @param id
      */
+    @Transactional(rollbackFor = Exception.class)
     public void deleteTodo(String id) {
-        boolean isOk = this.removeById(id);
+        String userId = RedisContext.getCurrentId();
+        Todo before = lockTodo(id, userId);
+        boolean isOk = this.removeById(id) || this.baseMapper.deleteArchive(id, userId) > 0;
         if (!isOk) {
             throw new BaseException(MessageConstant.SYSTEM_ERROR);
         }
+        // 删除的待办不再计入统计，与回填的结果一致
+        analyticsService.recordChange(before, null);
+        if (before != null && before.getSeriesId() != null) {
+            // 删除单独保存的重复实例后，这一次不再展开
+            this.baseMapper.insertOccurrenceSkip(before.getSeriesId(), before.getOccurrenceDate(), userId);
+        }
+        if (before != null && before.getRecurrence() != null) {
+            // 删除整个系列，已单独保存的实例保留为普通的to do
+            this.baseMapper.deleteOccurrenceSkips(id);
+        }
+        todoTagMapper.delete(new LambdaQueryWrapper<TodoTag>()
+                .eq(TodoTag::getTodoId, id)
+                .eq(TodoTag::getUserId, userId));
+        bumpVersion(userId);
+        domainEventBus.publish(DomainEventType.TODO_DELETED, userId, id);
     }
 
     /**
@@ -129,22 +615,570 @@ public class TodoServiceImpl extends ServiceImpl<TodoMapper, Todo>
      *
      * @param updateTodoDTO
      */
+    @Transactional(rollbackFor = Exception.class)
     public void udpateTodo(UpdateTodoDTO updateTodoDTO) {
+        if (updateTodoDTO.getDueDate() != null && updateTodoDTO.getDueDate().isBefore(LocalDateTime.now())) {
+            throw new BaseException(MessageConstant.DATE_EXPIRE);
+        }
         Todo todo = new Todo();
         BeanUtils.copyProperties(updateTodoDTO, todo);
         todo.setUserId(RedisContext.getCurrentId());
-        boolean isOk = this.updateById(todo);
+        categoryService.checkCategory(todo.getUserId(), todo.getCategoryId());
+        Todo before = lockTodo(todo.getId(), todo.getUserId());
+        LambdaUpdateWrapper<Todo> updateWrapper = new LambdaUpdateWrapper<Todo>()
+                .eq(Todo::getId, todo.getId())
+                .eq(Todo::getUserId, todo.getUserId())
+                .setSql("version = version + 1");
+        setCompletedAt(updateWrapper, before, todo.getStatus());
+        if (updateTodoDTO.getRecurrence() != null) {
+            LocalDateTime dueDate = todo.getDueDate() != null || before == null ? todo.getDueDate() : before.getDueDate();
+            todo.setRecurrence(TodoRecurrence.normalize(updateTodoDTO.getRecurrence(), dueDate));
+            // 空字符串表示取消重复
+            updateWrapper.set(todo.getRecurrence() == null, Todo::getRecurrence, null);
+        }
+        if (before != null && todo.getCategoryId() != null && !todo.getCategoryId().equals(before.getCategoryId())) {
+            // 换到其他分类时排在新分类的末尾
+            todo.setRankKey(appendRank(todo.getUserId(), todo.getCategoryId()));
+        }
+        boolean isOk = this.update(todo, updateWrapper);
+        if (!isOk && restoreArchived(todo.getId(), todo.getUserId())) {
+            // 已归档的to do被修改时先移回 todo 表
+            isOk = this.update(todo, updateWrapper);
+        }
         if (!isOk) {
             throw new BaseException(MessageConstant.SYSTEM_ERROR);
         }
+        if (before != null) {
+            analyticsService.recordChange(before, this.getById(todo.getId()));
+        }
+        bumpVersion(todo.getUserId());
+        domainEventBus.publish(DomainEventType.TODO_UPDATED, todo.getUserId(), todo.getId());
+    }
+
+    /**
+     * 按字段部分更新to do
+     * <p>
+     * 只写入字段掩码中的列，并以版本号做乐观并发控制，版本不一致时抛出冲突异常
+     *
+     * @param id
+     * @param patchTodoDTO
+     * @return 更新后的版本号
+     */
+    @Override
+    @Transactional(rollbackFor = Exception.class)
+    public Integer patchTodo(String id, PatchTodoDTO patchTodoDTO) {
+        List<String> fields = patchTodoDTO.getFields();
+        if (fields == null || fields.isEmpty() || patchTodoDTO.getVersion() == null) {
+            throw new BaseException(MessageConstant.EMPTY_FIELDS);
+        }
+
+        String userId = RedisContext.getCurrentId();
+        Todo before = lockTodo(id, userId);
+        LambdaUpdateWrapper<Todo> updateWrapper = new LambdaUpdateWrapper<Todo>()
+                .eq(Todo::getId, id)
+                .eq(Todo::getUserId, userId)
+                .eq(Todo::getVersion, patchTodoDTO.getVersion());
+        for (String field : fields) {
+            switch (field) {
+                case "title" -> {
+                    if (patchTodoDTO.getTitle() == null || patchTodoDTO.getTitle().isEmpty()) {
+                        throw new BaseException(MessageConstant.EMPTY_TITLE);
+                    }
+                    updateWrapper.set(Todo::getTitle, patchTodoDTO.getTitle());
+                }
+                case "content" -> updateWrapper.set(Todo::getContent, patchTodoDTO.getContent());
+                case "categoryId" -> {
+                    // null 表示移到未分类
+                    categoryService.checkCategory(userId, patchTodoDTO.getCategoryId());
+                    updateWrapper.set(Todo::getCategoryId, patchTodoDTO.getCategoryId());
+                }
+                case "status" -> {
+                    if (patchTodoDTO.getStatus() == null) {
+                        throw new BaseException(MessageConstant.EMPTY_STATUS);
+                    }
+                    updateWrapper.set(Todo::getStatus, patchTodoDTO.getStatus());
+                }
+                case "dueDate" -> {
+                    // null 表示清空截止日期
+                    if (patchTodoDTO.getDueDate() != null && patchTodoDTO.getDueDate().isBefore(LocalDateTime.now())) {
+                        throw new BaseException(MessageConstant.DATE_EXPIRE);
+                    }
+                    updateWrapper.set(Todo::getDueDate, patchTodoDTO.getDueDate());
+                }
+                case "recurrence" -> {
+                    // 与截止日期一起在下面校验
+                }
+                default -> throw new BaseException(MessageConstant.UNKNOWN_FIELD + field);
+            }
+        }
+        if (before != null && (fields.contains("recurrence") || fields.contains("dueDate"))) {
+            // 有重复规则时截止日期不能清空
+            String recurrence = TodoRecurrence.normalize(
+                    fields.contains("recurrence") ? patchTodoDTO.getRecurrence() : before.getRecurrence(),
+                    fields.contains("dueDate") ? patchTodoDTO.getDueDate() : before.getDueDate());
+            if (fields.contains("recurrence")) {
+                updateWrapper.set(Todo::getRecurrence, recurrence);
+            }
+        }
+        updateWrapper.setSql("version = version + 1");
+        if (before != null) {
+            setCompletedAt(updateWrapper, before, fields.contains("status") ? patchTodoDTO.getStatus() : null);
+            if (fields.contains("categoryId") && !Objects.equals(patchTodoDTO.getCategoryId(), before.getCategoryId())) {
+                // 换到其他分类时排在新分类的末尾
+                updateWrapper.set(Todo::getRankKey, appendRank(userId, patchTodoDTO.getCategoryId()));
+            }
+        }
+
+        boolean isOk = this.update(updateWrapper);
+        if (!isOk && restoreArchived(id, userId)) {
+            // 已归档的to do被修改时先移回 todo 表
+            isOk = this.update(updateWrapper);
+        }
+        if (!isOk) {
+            boolean exists = this.lambdaQuery()
+                    .eq(Todo::getId, id)
+                    .eq(Todo::getUserId, userId)
+                    .exists();
+            if (!exists) {
+                throw new BaseException(MessageConstant.TODO_NOT_EXIST);
+            }
+            throw new ConflictException(MessageConstant.VERSION_CONFLICT);
+        }
+        analyticsService.recordChange(before, this.getById(id));
+        bumpVersion(userId);
+        domainEventBus.publish(DomainEventType.TODO_UPDATED, userId, id);
+        return patchTodoDTO.getVersion() + 1;
+    }
+
+    /**
+     * 手动排序
+     * <p>
+     * 在目标位置前后两项的排序键之间生成新键，只改写被移动的这一项；前一项(或列表第一项)加锁，
+     * 同时插入同一位置的移动依次执行，不会生成相同的键。遇到缺失排序键的历史数据、两项之间已没有空间或新键超过长度上限时，
+     * 先重新分配整个列表
+     *
+     * @param id
+     * @param moveTodoDTO
+     * @return 更新后的版本号
+     */
+    @Override
+    @Transactional(rollbackFor = Exception.class)
+    public Integer moveTodo(String id, MoveTodoDTO moveTodoDTO) {
+        String userId = RedisContext.getCurrentId();
+        Todo todo = lockTodo(id, userId);
+        if (todo == null) {
+            throw new BaseException(MessageConstant.TODO_NOT_EXIST);
+        }
+        String afterId = moveTodoDTO.getAfterId();
+        if (id.equals(afterId)) {
+            return todo.getVersion();
+        }
+        Todo after = afterId == null ? null : lockRankNeighbour(afterId, userId);
+        if (after != null && !Objects.equals(after.getCategoryId(), todo.getCategoryId())) {
+            throw new BaseException(MessageConstant.RANK_CATEGORY_MISMATCH);
+        }
+        String rankKey = rankAfter(userId, todo.getCategoryId(), after);
+        if (rankKey == null) {
+            rebalanceRanks(userId, todo.getCategoryId());
+            after = afterId == null ? null : lockRankNeighbour(afterId, userId);
+            rankKey = rankAfter(userId, todo.getCategoryId(), after);
+        }
+
+        LambdaUpdateWrapper<Todo> updateWrapper = new LambdaUpdateWrapper<Todo>()
+                .eq(Todo::getId, id)
+                .eq(Todo::getUserId, userId)
+                .set(Todo::getRankKey, rankKey)
+                .setSql("version = version + 1");
+        // 状态不变，只固定历史数据的完成时间，每日统计没有变化
+        setCompletedAt(updateWrapper, todo, null);
+        boolean isOk = this.update(updateWrapper);
+        if (!isOk && restoreArchived(id, userId)) {
+            // 已归档的to do被移动时先移回 todo 表
+            isOk = this.update(updateWrapper);
+        }
+        if (!isOk) {
+            throw new BaseException(MessageConstant.SYSTEM_ERROR);
+        }
+        bumpVersion(userId);
+        domainEventBus.publish(DomainEventType.TODO_UPDATED, userId, id);
+        return todo.getVersion() + 1;
+    }
+
+    /**
+     * 单独保存重复待办的某一次
+     * <p>
+     * 按规则展开的实例没有 id，修改、完成或设置标签前先保存为普通的to do，内容与标签取自系列的第一项；
+     * 已经保存过时返回已有的 id，第一次即系列的第一项本身
+     *
+     * @param id 系列第一项的id
+     * @param date 该次的日期
+     * @return 该次的to do id
+     */
+    @Override
+    @Transactional(rollbackFor = Exception.class)
+    public String saveOccurrence(String id, LocalDate date) {
+        String userId = RedisContext.getCurrentId();
+        Todo first = lockSeries(id, userId);
+        if (date.equals(first.getDueDate().toLocalDate())) {
+            return first.getId();
+        }
+        String saved = this.baseMapper.selectOccurrenceId(id, date);
+        if (saved != null) {
+            return saved;
+        }
+        Todo todo = TodoRecurrence.occurrence(first, occurrenceDueDate(first, date));
+        todo.setCreatedAt(LocalDateTime.now());
+        todo.setUpdatedAt(null);
+        todo.setRankKey(appendRank(userId, todo.getCategoryId()));
+        if (!this.save(todo)) {
+            throw new BaseException(MessageConstant.SYSTEM_ERROR);
+        }
+        List<String> tagIds = getTagIds(List.of(first)).getOrDefault(first.getId(), List.of());
+        if (!tagIds.isEmpty()) {
+            todoTagMapper.insert(tagIds.stream().map(tagId -> new TodoTag(todo.getId(), tagId, userId)).toList());
+        }
+        analyticsService.recordChange(null, todo);
+        bumpVersion(userId);
+        domainEventBus.publish(DomainEventType.TODO_CREATED, userId, todo.getId());
+        return todo.getId();
+    }
+
+    /**
+     * 跳过重复待办的某一次，已单独保存时删除该to do
+     *
+     * @param id 系列第一项的id
+     * @param date 该次的日期
+     */
+    @Override
+    @Transactional(rollbackFor = Exception.class)
+    public void skipOccurrence(String id, LocalDate date) {
+        String userId = RedisContext.getCurrentId();
+        Todo first = lockSeries(id, userId);
+        String saved = this.baseMapper.selectOccurrenceId(id, date);
+        if (saved != null) {
+            // 删除时记录跳过
+            deleteTodo(saved);
+            return;
+        }
+        // 第一次是系列的第一项本身，删除它即删除整个系列
+        if (date.equals(first.getDueDate().toLocalDate())) {
+            throw new BaseException(MessageConstant.OCCURRENCE_NOT_EXIST);
+        }
+        occurrenceDueDate(first, date);
+        this.baseMapper.insertOccurrenceSkip(id, date, userId);
+        bumpVersion(userId);
+        domainEventBus.publish(DomainEventType.TODO_UPDATED, userId, id);
+    }
+
+    /**
+     * 读取并锁定重复系列的第一项，同一系列的保存与跳过依次执行
+     */
+    private Todo lockSeries(String id, String userId) {
+        Todo first = this.lambdaQuery()
+                .eq(Todo::getId, id)
+                .eq(Todo::getUserId, userId)
+                .last("FOR UPDATE")
+                .one();
+        if (first == null) {
+            throw new BaseException(MessageConstant.TODO_NOT_EXIST);
+        }
+        if (first.getRecurrence() == null) {
+            throw new BaseException(MessageConstant.OCCURRENCE_NOT_EXIST);
+        }
+        return first;
+    }
+
+    /**
+     * 该日期的实例的截止时间，日期不在规则内或已跳过时抛出异常
+     */
+    private LocalDateTime occurrenceDueDate(Todo first, LocalDate date) {
+        List<LocalDateTime> dueDates = RecurrenceRule.parse(first.getRecurrence())
+                .occurrences(first.getDueDate(), date.atStartOfDay(), date.plusDays(1).atStartOfDay());
+        if (dueDates.isEmpty()
+                || !this.baseMapper.selectOccurrenceExceptions(List.of(first.getId()), date, date.plusDays(1)).isEmpty()) {
+            throw new BaseException(MessageConstant.OCCURRENCE_NOT_EXIST);
+        }
+        return dueDates.get(0);
+    }
+
+    /**
+     * 读取并锁定移动目标的前一项
+     */
+    private Todo lockRankNeighbour(String id, String userId) {
+        Todo todo = this.lambdaQuery()
+                .select(Todo::getId, Todo::getCategoryId, Todo::getRankKey)
+                .eq(Todo::getId, id)
+                .eq(Todo::getUserId, userId)
+                .last("FOR UPDATE")
+                .one();
+        if (todo == null) {
+            throw new BaseException(MessageConstant.TODO_NOT_EXIST);
+        }
+        return todo;
+    }
+
+    /**
+     * 紧跟在 after 之后(为空时在列表开头)的排序键，需要重新分配时返回 null
+     */
+    private String rankAfter(String userId, String categoryId, Todo after) {
+        if (after == null) {
+            Todo first = this.baseMapper.selectRankEdge(userId, categoryId, false);
+            if (first != null && first.getRankKey() == null) {
+                return null;
+            }
+            return RankKeys.between(null, first == null ? null : first.getRankKey(), rankProperties.getMaxKeyLength());
+        }
+        if (after.getRankKey() == null) {
+            return null;
+        }
+        Todo next = this.baseMapper.selectRankSuccessor(userId, categoryId, after.getRankKey());
+        return RankKeys.between(after.getRankKey(), next == null ? null : next.getRankKey(), rankProperties.getMaxKeyLength());
+    }
+
+    /**
+     * 列表末尾的排序键，加锁读取最后一项，同时添加的to do依次排列
+     */
+    private String appendRank(String userId, String categoryId) {
+        Todo last = this.baseMapper.selectRankEdge(userId, categoryId, true);
+        String rankKey = RankKeys.between(last == null ? null : last.getRankKey(), null, rankProperties.getMaxKeyLength());
+        if (rankKey == null) {
+            rebalanceRanks(userId, categoryId);
+            last = this.baseMapper.selectRankEdge(userId, categoryId, true);
+            rankKey = RankKeys.between(last.getRankKey(), null, rankProperties.getMaxKeyLength());
+        }
+        return rankKey;
+    }
+
+    /**
+     * 重新分配排序键
+     * <p>
+     * 锁定整个列表后按当前顺序改写为等间隔的短键，顺序不变，不递增版本号，缓存的分页结果仍然有效
+     *
+     * @param userId 用户id
+     * @param categoryId 分类id，为空表示未分类
+     * @return 改写的行数
+     */
+    @Override
+    @Transactional(rollbackFor = Exception.class)
+    public int rebalanceRanks(String userId, String categoryId) {
+        List<Todo> todos = this.baseMapper.selectRankList(userId, categoryId);
+        int updated = 0;
+        for (int i = 0; i < todos.size(); i++) {
+            String rankKey = RankKeys.spaced(i, todos.size());
+            if (!rankKey.equals(todos.get(i).getRankKey())) {
+                updated += this.baseMapper.updateRank(todos.get(i).getId(), rankKey);
+            }
+        }
+        return updated;
+    }
+
+    /**
+     * to do 日历统计
+     * <p>
+     * 一次 GROUP BY 查询得到范围内每天的数量，结果按用户数据版本号缓存
+     *
+     * @param todoCalendarQueryDTO
+     * @return
+     */
+    @Override
+    public List<TodoCalendarVO> calendar(TodoCalendarQueryDTO todoCalendarQueryDTO) {
+        LocalDate start;
+        LocalDate end;
+        if (todoCalendarQueryDTO.getMonth() != null) {
+            YearMonth month;
+            try {
+                month = YearMonth.parse(todoCalendarQueryDTO.getMonth());
+            } catch (DateTimeParseException e) {
+                throw new BaseException(MessageConstant.CALENDAR_RANGE_ERROR);
+            }
+            start = month.atDay(1);
+            end = month.plusMonths(1).atDay(1);
+        } else if (todoCalendarQueryDTO.getWeek() != null) {
+            start = todoCalendarQueryDTO.getWeek().with(TemporalAdjusters.previousOrSame(DayOfWeek.MONDAY));
+            end = start.plusWeeks(1);
+        } else if (todoCalendarQueryDTO.getYear() != null) {
+            int year = todoCalendarQueryDTO.getYear();
+            if (year < MIN_CALENDAR_YEAR || year > MAX_CALENDAR_YEAR) {
+                throw new BaseException(MessageConstant.CALENDAR_RANGE_ERROR);
+            }
+            start = LocalDate.of(year, 1, 1);
+            end = start.plusYears(1);
+        } else {
+            throw new BaseException(MessageConstant.CALENDAR_RANGE_ERROR);
+        }
+
+        String userId = RedisContext.getCurrentId();
+        String key = CALENDAR_KEY_PREFIX + userId + ":" + getVersion(userId) + ":" + start + ":" + end;
+        List<TodoCalendarVO> cached = RedisUtils.get(key, TodoCalendarCodec.INSTANCE);
+        if (cached != null) {
+            return cached;
+        }
+
+        List<TodoCalendarVO> days = this.baseMapper.countByDay(userId, start.atStartOfDay(), end.atStartOfDay());
+        // 重复实例按规则展开后计入未完成数量
+        days = TodoRecurrence.addToCalendar(days, expandOccurrences(userId, null, TodoRecurrence.window(start, end)));
+        RedisUtils.set(key, days, TodoCalendarCodec.INSTANCE, CALENDAR_CACHE_TTL_HOURS, TimeUnit.HOURS);
+        return days;
+    }
+
+    /**
+     * 归档已完成的to do
+     * <p>
+     * 把完成时间早于指定时间的to do移入归档表，每次最多迁移 limit 行；
+     * 没有完成时间的历史数据以更新时间作为完成时间，两个条件都走 (status, completed_at, updated_at) 索引的范围扫描
+     *
+     * @param before 完成时间上限
+     * @param limit 本批次最大行数
+     * @return 本批次迁移的行数
+     */
+    @Override
+    @Transactional(rollbackFor = Exception.class)
+    public int archiveCompleted(LocalDateTime before, int limit) {
+        List<Todo> todos = this.lambdaQuery()
+                .select(Todo::getId, Todo::getUserId)
+                .eq(Todo::getStatus, StatusConstant.ENABLED)
+                .and(wrapper -> wrapper.lt(Todo::getCompletedAt, before)
+                        .or(legacy -> legacy.isNull(Todo::getCompletedAt).lt(Todo::getUpdatedAt, before)))
+                // 重复系列的第一项保存着规则，需要留在 todo 表中展开
+                .isNull(Todo::getRecurrence)
+                .last("LIMIT " + limit)
+                .list();
+        if (todos.isEmpty()) {
+            return 0;
+        }
+        List<String> ids = todos.stream().map(Todo::getId).toList();
+        this.baseMapper.insertArchive(ids);
+        this.removeByIds(ids);
+        // 标签索引记录了to do是否已归档，日历缓存也随之失效
+        todos.stream().map(Todo::getUserId).distinct().forEach(this::bumpVersion);
+        return ids.size();
+    }
+
+    /**
+     * 查询条件是否需要包含归档数据
+     * <p>
+     * 归档表只有已完成的to do，只有查询已完成数据，或查询范围早于归档线时才需要合并
+     */
+    private boolean includeArchive(TodoPageQueryDTO todoPageQueryDTO) {
+        if (!archiveProperties.getEnabled()) {
+            return false;
+        }
+        Integer status = todoPageQueryDTO.getStatus();
+        if (StatusConstant.ENABLED.equals(status)) {
+            return true;
+        }
+        if (status != null) {
+            return false;
+        }
+        LocalDate archiveLine = LocalDate.now().minusDays(archiveProperties.getRetentionDays());
+        LocalDate startDate = todoPageQueryDTO.getStartDate();
+        if (startDate != null) {
+            return startDate.isBefore(archiveLine);
+        }
+        return todoPageQueryDTO.getEndDate() != null;
+    }
+
+    /**
+     * 读取并锁定修改前的to do，用于计算每日统计的增量；同一to do的并发修改在此排队，增量不会重复计算
+     *
+     * @return 不存在或不属于该用户时返回 null
+     */
+    private Todo lockTodo(String id, String userId) {
+        if (id == null) {
+            return null;
+        }
+        Todo todo = this.lambdaQuery()
+                .eq(Todo::getId, id)
+                .eq(Todo::getUserId, userId)
+                .last("FOR UPDATE")
+                .one();
+        return todo != null ? todo : this.baseMapper.selectArchived(id, userId);
+    }
+
+    /**
+     * 状态变化时维护完成时间
+     * <p>
+     * 变为已完成时记录当前时间，变为未完成时清空；没有完成时间的历史数据保持已完成时，
+     * 以修改前的更新时间作为完成时间，避免这次修改改变它被统计的完成日期
+     *
+     * @param status 修改后的状态，为空表示不修改状态
+     */
+    private void setCompletedAt(LambdaUpdateWrapper<Todo> updateWrapper, Todo before, Integer status) {
+        if (before == null) {
+            return;
+        }
+        boolean wasCompleted = StatusConstant.ENABLED.equals(before.getStatus());
+        boolean completed = status == null ? wasCompleted : StatusConstant.ENABLED.equals(status);
+        if (completed && !wasCompleted) {
+            updateWrapper.set(Todo::getCompletedAt, LocalDateTime.now());
+        } else if (completed && before.getCompletedAt() == null) {
+            updateWrapper.set(Todo::getCompletedAt, before.getUpdatedAt());
+        } else if (!completed && before.getCompletedAt() != null) {
+            updateWrapper.set(Todo::getCompletedAt, null);
+        }
+    }
+
+    /**
+     * 把归档的to do移回 todo 表
+     *
+     * @return 是否存在该归档数据
+     */
+    private boolean restoreArchived(String id, String userId) {
+        if (id == null || this.baseMapper.restoreArchive(id, userId) == 0) {
+            return false;
+        }
+        this.baseMapper.deleteArchive(id, userId);
+        return true;
+    }
+
+    /**
+     * 获取用户 to do 数据版本号
+     */
+    private String getVersion(String userId) {
+        String version = RedisUtils.get(VERSION_KEY_PREFIX + userId);
+        return version == null ? "0" : version;
+    }
+
+    /**
+     * 递增用户 to do 数据版本号，旧版本的缓存随之失效
+     * <p>
+     * 在事务中调用时于提交后递增，否则提交前读到新版本号的查询会把未提交前的结果缓存在新版本下
+     */
+    private void bumpVersion(String userId) {
+        if (userId != null) {
+            afterCommit(() -> RedisUtils.increment(VERSION_KEY_PREFIX + userId));
+        }
+        readCoalescer.invalidate(userId);
+        tagIndexCache.invalidate(userId);
+        prefixIndexCache.invalidate(userId);
+    }
+
+    /**
+     * 在事务中调用时于提交后执行，否则立即执行
+     */
+    private static void afterCommit(Runnable action) {
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+                @Override
+                public void afterCommit() {
+                    action.run();
+                }
+            });
+            return;
+        }
+        action.run();
     }
 
     @Override
     public Long getNumOfDoneOrUndone(String currentId, Integer enabled) {
-        return this.lambdaQuery()
+        Long count = this.lambdaQuery()
                 .eq(Todo::getUserId, currentId)
                 .eq(Todo::getStatus, enabled)
                 .count();
+        if (StatusConstant.ENABLED.equals(enabled)) {
+            count += this.baseMapper.countArchived(currentId);
+        }
+        return count;
     }
 
     @Override
@@ -152,7 +1186,7 @@ public class TodoServiceImpl extends ServiceImpl<TodoMapper, Todo>
         Long numOfDone = this.lambdaQuery()
                 .eq(Todo::getUserId, currentId)
                 .eq(Todo::getStatus, StatusConstant.ENABLED)
-                .count();
+                .count() + this.baseMapper.countArchived(currentId);
         Long numOfUndone = this.lambdaQuery()
                 .eq(Todo::getUserId, currentId)
                 .eq(Todo::getStatus, StatusConstant.DISABLED)
@@ -8,6 +8,8 @@ import cn.wind.clear.dto.UserDTO;
 import cn.wind.clear.dto.UserLoginDTO;
 import cn.wind.clear.entity.Category;
 import cn.wind.clear.entity.User;
+import cn.wind.clear.event.DomainEventBus;
+import cn.wind.clear.event.DomainEventType;
 import cn.wind.clear.exception.BaseException;
 import cn.wind.clear.mapper.UserMapper;
 import cn.wind.clear.service.CategoryService;
@@ -32,6 +34,8 @@ public class UserServiceImpl extends ServiceImpl<UserMapper, User>
     private TodoService todoService;
     @Resource
     private CategoryService categoryService;
+    @Resource
+    private DomainEventBus domainEventBus;
 
     /**
      * 用户登陆
@@ -39,7 +43,7 @@ public class UserServiceImpl extends ServiceImpl<UserMapper, User>
      * @return
      */
     public User login(UserLoginDTO userLoginDTO) {
-        log.info("用户登陆: {}", userLoginDTO);
+        log.atInfo().setMessage("用户登陆").addKeyValue("username", userLoginDTO.getUsername()).log();
 
         if (userLoginDTO.getUsername() == null || userLoginDTO.getUsername().isBlank()){
             throw new BaseException(MessageConstant.EMPTY_NAME);
@@ -68,7 +72,7 @@ public class UserServiceImpl extends ServiceImpl<UserMapper, User>
 
     @Override
     public User register(UserDTO userDTO) {
-        log.info("新用户注册: {}", userDTO);
+        log.atInfo().setMessage("新用户注册").addKeyValue("username", userDTO.getUsername()).log();
         if (userDTO.getUsername() == null || userDTO.getUsername().isBlank()){
             throw new BaseException(MessageConstant.EMPTY_NAME);
         }
@@ -107,17 +111,21 @@ public class UserServiceImpl extends ServiceImpl<UserMapper, User>
             throw new BaseException(MessageConstant.SYSTEM_ERROR);
         }
 
+        domainEventBus.publish(DomainEventType.USER_REGISTERED, newUser.getId(), newUser.getId());
+        domainEventBus.publish(DomainEventType.CATEGORY_CREATED, newUser.getId(), category.getId());
         return newUser;
     }
 
     @Override
     public void updateTheme(Integer theme) {
-        boolean isOk = this.lambdaUpdate().eq(User::getId, RedisContext.getCurrentId())
+        String userId = RedisContext.getCurrentId();
+        boolean isOk = this.lambdaUpdate().eq(User::getId, userId)
                 .set(User::getTheme, theme)
                 .update();
         if (!isOk) {
             throw new BaseException(MessageConstant.SYSTEM_ERROR);
         }
+        domainEventBus.publish(DomainEventType.USER_UPDATED, userId, userId);
     }
 
     @Override
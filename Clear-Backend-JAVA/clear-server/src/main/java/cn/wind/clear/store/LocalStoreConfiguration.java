@@ -0,0 +1,19 @@
+package cn.wind.clear.store;
+
+import cn.wind.clear.utils.LocalKeyValueStore;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+
+/**
+ * 进程内键值存储，单实例部署或嵌入模式下代替 Redis
+ */
+@Configuration
+@ConditionalOnProperty(prefix = "clear.store", name = "type", havingValue = "local")
+public class LocalStoreConfiguration {
+
+    @Bean
+    public LocalKeyValueStore localKeyValueStore() {
+        return new LocalKeyValueStore();
+    }
+}
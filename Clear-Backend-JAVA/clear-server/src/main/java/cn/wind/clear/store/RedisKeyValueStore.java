@@ -0,0 +1,56 @@
+package cn.wind.clear.store;
+
+import cn.wind.clear.utils.KeyValueStore;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.data.redis.core.RedisTemplate;
+import org.springframework.data.redis.core.StringRedisTemplate;
+import org.springframework.stereotype.Component;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * 基于 Redis 的键值存储，多实例共享
+ */
+@Component
+@ConditionalOnProperty(prefix = "clear.store", name = "type", havingValue = "redis", matchIfMissing = true)
+public class RedisKeyValueStore implements KeyValueStore {
+
+    private final StringRedisTemplate stringRedisTemplate;
+
+    private final RedisTemplate<String, byte[]> redisTemplate;
+
+    public RedisKeyValueStore(StringRedisTemplate stringRedisTemplate, RedisTemplate<String, byte[]> redisTemplate) {
+        this.stringRedisTemplate = stringRedisTemplate;
+        this.redisTemplate = redisTemplate;
+    }
+
+    @Override
+    public String get(String key) {
+        return stringRedisTemplate.opsForValue().get(key);
+    }
+
+    @Override
+    public void set(String key, String value, long timeout, TimeUnit unit) {
+        stringRedisTemplate.opsForValue().set(key, value, timeout, unit);
+    }
+
+    @Override
+    public byte[] getBytes(String key) {
+        return redisTemplate.opsForValue().get(key);
+    }
+
+    @Override
+    public void setBytes(String key, byte[] value, long timeout, TimeUnit unit) {
+        redisTemplate.opsForValue().set(key, value, timeout, unit);
+    }
+
+    @Override
+    public Long increment(String key) {
+        return stringRedisTemplate.opsForValue().increment(key);
+    }
+
+    @Override
+    public void delete(String key) {
+        stringRedisTemplate.delete(key);
+    }
+}
@@ -0,0 +1,127 @@
+package cn.wind.clear.suggest;
+
+import cn.wind.clear.vo.TodoSuggestVO;
+
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Locale;
+import java.util.Set;
+
+/**
+ * 单个用户的前缀索引
+ * <p>
+ * 以排序数组保存「小写键 → 原文」，每个标题除整体外，空白分隔的每个词开头也作为一个键，
+ * 查询时二分定位到第一个不小于前缀的键后顺序扫描。构建后不可变，数据变更时整体重建
+ */
+public class PrefixIndex {
+
+    // 每个键或条目除字符外的大致开销: 对象头、字段和数组引用
+    private static final int OBJECT_OVERHEAD = 56;
+
+    private final String[] keys;
+    private final Entry[] entries;
+    private final long estimatedBytes;
+
+    private PrefixIndex(String[] keys, Entry[] entries, long estimatedBytes) {
+        this.keys = keys;
+        this.entries = entries;
+        this.estimatedBytes = estimatedBytes;
+    }
+
+    /**
+     * 前缀匹配，同一条数据只返回一次，按键的字典序
+     *
+     * @param prefix 前缀，不区分大小写
+     * @param limit  最多返回条数
+     */
+    public List<TodoSuggestVO> search(String prefix, int limit) {
+        String key = normalize(prefix);
+        int i = lowerBound(key);
+        Set<Entry> matched = new LinkedHashSet<>();
+        while (i < keys.length && matched.size() < limit && keys[i].startsWith(key)) {
+            matched.add(entries[i++]);
+        }
+        List<TodoSuggestVO> result = new ArrayList<>(matched.size());
+        for (Entry entry : matched) {
+            result.add(new TodoSuggestVO(entry.type, entry.id, entry.text));
+        }
+        return result;
+    }
+
+    public long getEstimatedBytes() {
+        return estimatedBytes;
+    }
+
+    public int size() {
+        return keys.length;
+    }
+
+    private int lowerBound(String key) {
+        int low = 0;
+        int high = keys.length;
+        while (low < high) {
+            int mid = (low + high) >>> 1;
+            if (keys[mid].compareTo(key) < 0) {
+                low = mid + 1;
+            } else {
+                high = mid;
+            }
+        }
+        return low;
+    }
+
+    static String normalize(String text) {
+        return text.strip().toLowerCase(Locale.ROOT);
+    }
+
+    public static Builder builder() {
+        return new Builder();
+    }
+
+    private record Entry(String type, String id, String text) {
+    }
+
+    private record Key(String key, Entry entry) {
+    }
+
+    public static class Builder {
+        private final List<Key> keys = new ArrayList<>();
+        private long bytes;
+
+        public Builder add(String type, String id, String text) {
+            if (text == null || text.isBlank()) {
+                return this;
+            }
+            Entry entry = new Entry(type, id, text);
+            bytes += 2 * OBJECT_OVERHEAD + 2L * (id.length() + text.length());
+            String normalized = normalize(text);
+            addKey(normalized, entry);
+            // 每个词的开头也可以匹配
+            for (int i = 1; i < normalized.length(); i++) {
+                if (Character.isWhitespace(normalized.charAt(i - 1)) && !Character.isWhitespace(normalized.charAt(i))) {
+                    addKey(normalized.substring(i), entry);
+                }
+            }
+            return this;
+        }
+
+        private void addKey(String key, Entry entry) {
+            keys.add(new Key(key, entry));
+            // 键为新字符串，不与原文共享字符数组
+            bytes += OBJECT_OVERHEAD + 2L * key.length();
+        }
+
+        public PrefixIndex build() {
+            keys.sort(Comparator.comparing(Key::key));
+            String[] sortedKeys = new String[keys.size()];
+            Entry[] sortedEntries = new Entry[keys.size()];
+            for (int i = 0; i < keys.size(); i++) {
+                sortedKeys[i] = keys.get(i).key();
+                sortedEntries[i] = keys.get(i).entry();
+            }
+            return new PrefixIndex(sortedKeys, sortedEntries, bytes);
+        }
+    }
+}
@@ -0,0 +1,22 @@
+package cn.wind.clear.suggest;
+
+import cn.wind.clear.index.UserIndexCache;
+import cn.wind.clear.properties.SuggestProperties;
+import cn.wind.clear.push.ChangeEventBroker;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.springframework.stereotype.Component;
+
+/**
+ * 按用户缓存前缀索引，待办或分类变更时丢弃
+ * <p>
+ * 本实例的写入由 TodoServiceImpl、CategoryServiceImpl 在提交后调用 invalidate，不依赖可能丢失的变更广播
+ */
+@Component
+public class PrefixIndexCache extends UserIndexCache<PrefixIndex> {
+
+    public PrefixIndexCache(SuggestProperties suggestProperties, ChangeEventBroker changeEventBroker,
+                            MeterRegistry meterRegistry) {
+        super("suggest", suggestProperties.getMemoryBudget().toBytes(), PrefixIndex::getEstimatedBytes,
+                changeEventBroker, meterRegistry);
+    }
+}
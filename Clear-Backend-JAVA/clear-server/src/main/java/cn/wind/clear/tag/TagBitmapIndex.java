@@ -0,0 +1,235 @@
+package cn.wind.clear.tag;
+
+import cn.wind.clear.constant.StatusConstant;
+import cn.wind.clear.entity.Todo;
+import cn.wind.clear.entity.TodoTag;
+import org.roaringbitmap.FastAggregation;
+import org.roaringbitmap.RoaringBitmap;
+
+import java.time.LocalDateTime;
+import java.time.ZoneOffset;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+/**
+ * 单个用户的标签位图索引
+ * <p>
+ * 用户的每条待办(包括归档)按截止日期倒序分配一个序号，标签、分类、完成状态、是否归档各对应一个 Roaring 位图，
+ * 多标签的任一/全部、状态和分类筛选都是位图运算；日期范围在序号上是连续区间，同样转换为位图求交。
+ * 序号顺序即分页顺序，第 k 条结果直接用 select(k) 取得，只有当前页的数据需要回表查询。
+ * 构建后不可变，数据变更时整体重建
+ */
+public class TagBitmapIndex {
+
+    // 无截止日期的待办排在最后，与 ORDER BY due_date DESC 一致
+    private static final long NO_DUE_DATE = Long.MIN_VALUE;
+    // 每个序号的大致开销: id 字符串、截止日期和数组引用
+    private static final int ORDINAL_BYTES = 112;
+
+    private final String[] ids;
+    private final long[] dueDates;
+    private final RoaringBitmap done;
+    private final RoaringBitmap archived;
+    private final Map<String, RoaringBitmap> tags;
+    private final Map<String, RoaringBitmap> categories;
+    private final long estimatedBytes;
+
+    private TagBitmapIndex(String[] ids, long[] dueDates, RoaringBitmap done, RoaringBitmap archived,
+                           Map<String, RoaringBitmap> tags, Map<String, RoaringBitmap> categories) {
+        this.ids = ids;
+        this.dueDates = dueDates;
+        this.done = done;
+        this.archived = archived;
+        this.tags = tags;
+        this.categories = categories;
+        long bytes = (long) ORDINAL_BYTES * ids.length + done.getLongSizeInBytes() + archived.getLongSizeInBytes();
+        for (RoaringBitmap bitmap : tags.values()) {
+            bytes += bitmap.getLongSizeInBytes() + ORDINAL_BYTES;
+        }
+        for (RoaringBitmap bitmap : categories.values()) {
+            bytes += bitmap.getLongSizeInBytes() + ORDINAL_BYTES;
+        }
+        this.estimatedBytes = bytes;
+    }
+
+    /**
+     * 构建索引
+     *
+     * @param todos    用户的待办，只需 id、status、categoryId、dueDate
+     * @param archived 用户已归档的待办，同上
+     * @param todoTags 用户的待办标签关联
+     */
+    public static TagBitmapIndex build(List<Todo> todos, List<Todo> archived, List<TodoTag> todoTags) {
+        List<Todo> all = new ArrayList<>(todos.size() + archived.size());
+        all.addAll(todos);
+        all.addAll(archived);
+        // 同一截止日期按 id 倒序，保证每次构建顺序一致
+        all.sort(Comparator.comparingLong((Todo todo) -> epochSecond(todo.getDueDate())).reversed()
+                .thenComparing(Todo::getId, Comparator.reverseOrder()));
+
+        int size = all.size();
+        String[] ids = new String[size];
+        long[] dueDates = new long[size];
+        Map<String, Integer> ordinals = new HashMap<>(size * 2);
+        RoaringBitmap archivedBitmap = new RoaringBitmap();
+        RoaringBitmap doneBitmap = new RoaringBitmap();
+        Map<String, RoaringBitmap> categoryBitmaps = new HashMap<>();
+        Set<String> archivedIds = new HashSet<>(archived.size() * 2);
+        for (Todo todo : archived) {
+            archivedIds.add(todo.getId());
+        }
+        for (int i = 0; i < size; i++) {
+            Todo todo = all.get(i);
+            ids[i] = todo.getId();
+            dueDates[i] = epochSecond(todo.getDueDate());
+            ordinals.put(todo.getId(), i);
+            if (StatusConstant.ENABLED.equals(todo.getStatus())) {
+                doneBitmap.add(i);
+            }
+            if (archivedIds.contains(todo.getId())) {
+                archivedBitmap.add(i);
+            }
+            if (todo.getCategoryId() != null) {
+                categoryBitmaps.computeIfAbsent(todo.getCategoryId(), k -> new RoaringBitmap()).add(i);
+            }
+        }
+        Map<String, RoaringBitmap> tagBitmaps = new HashMap<>();
+        for (TodoTag todoTag : todoTags) {
+            Integer ordinal = ordinals.get(todoTag.getTodoId());
+            if (ordinal != null) {
+                tagBitmaps.computeIfAbsent(todoTag.getTagId(), k -> new RoaringBitmap()).add(ordinal);
+            }
+        }
+        doneBitmap.runOptimize();
+        archivedBitmap.runOptimize();
+        tagBitmaps.values().forEach(RoaringBitmap::runOptimize);
+        categoryBitmaps.values().forEach(RoaringBitmap::runOptimize);
+        return new TagBitmapIndex(ids, dueDates, doneBitmap, archivedBitmap, tagBitmaps, categoryBitmaps);
+    }
+
+    /**
+     * 筛选
+     *
+     * @param tagIds         标签，为空时不按标签筛选
+     * @param matchAll       true 时需包含全部标签，否则包含任一标签
+     * @param status         完成状态，可为空
+     * @param categoryId     分类，可为空
+     * @param dueFrom        截止日期下限(包含)，可为空
+     * @param dueTo          截止日期上限(不包含)，可为空
+     * @param includeArchive 是否包含归档的待办
+     * @return 匹配的序号，按截止日期倒序
+     */
+    public RoaringBitmap match(List<String> tagIds, boolean matchAll, Integer status, String categoryId,
+                               LocalDateTime dueFrom, LocalDateTime dueTo, boolean includeArchive) {
+        RoaringBitmap result;
+        if (tagIds == null || tagIds.isEmpty()) {
+            result = RoaringBitmap.bitmapOfRange(0, ids.length);
+        } else {
+            List<RoaringBitmap> bitmaps = new ArrayList<>(tagIds.size());
+            for (String tagId : tagIds) {
+                RoaringBitmap bitmap = tags.get(tagId);
+                if (bitmap == null) {
+                    if (matchAll) {
+                        return new RoaringBitmap();
+                    }
+                    continue;
+                }
+                bitmaps.add(bitmap);
+            }
+            if (bitmaps.isEmpty()) {
+                return new RoaringBitmap();
+            }
+            // 位图属于索引，不能原地修改，后续运算在副本上进行
+            if (bitmaps.size() == 1) {
+                result = bitmaps.get(0).clone();
+            } else {
+                result = matchAll ? FastAggregation.and(bitmaps.iterator()) : FastAggregation.or(bitmaps.iterator());
+            }
+        }
+        if (StatusConstant.ENABLED.equals(status)) {
+            result.and(done);
+        } else if (StatusConstant.DISABLED.equals(status)) {
+            result.andNot(done);
+        }
+        if (categoryId != null) {
+            RoaringBitmap category = categories.get(categoryId);
+            if (category == null) {
+                return new RoaringBitmap();
+            }
+            result.and(category);
+        }
+        if (!includeArchive) {
+            result.andNot(archived);
+        }
+        if (dueFrom != null || dueTo != null) {
+            // 序号按截止日期倒序: 上限决定区间起点，下限决定区间终点
+            int from = dueTo == null ? 0 : firstBefore(dueTo.toEpochSecond(ZoneOffset.UTC));
+            int to = dueFrom == null ? firstBefore(NO_DUE_DATE + 1) : firstBefore(dueFrom.toEpochSecond(ZoneOffset.UTC));
+            if (from >= to) {
+                return new RoaringBitmap();
+            }
+            result.and(RoaringBitmap.bitmapOfRange(from, to));
+        }
+        return result;
+    }
+
+    /**
+     * 取匹配结果中的一页
+     *
+     * @param matched match 返回的序号
+     * @param offset  起始位置
+     * @param size    条数
+     * @return 待办id，按截止日期倒序
+     */
+    public List<String> page(RoaringBitmap matched, long offset, int size) {
+        long cardinality = matched.getLongCardinality();
+        List<String> page = new ArrayList<>(size);
+        for (long i = offset; i < cardinality && page.size() < size; i++) {
+            page.add(ids[matched.select((int) i)]);
+        }
+        return page;
+    }
+
+    /**
+     * 取匹配结果中的全部待办id
+     */
+    public List<String> ids(RoaringBitmap matched) {
+        List<String> result = new ArrayList<>(matched.getCardinality());
+        matched.forEach((int ordinal) -> result.add(ids[ordinal]));
+        return result;
+    }
+
+    public long getEstimatedBytes() {
+        return estimatedBytes;
+    }
+
+    public int size() {
+        return ids.length;
+    }
+
+    /**
+     * 第一个截止日期早于 epochSecond 的序号
+     */
+    private int firstBefore(long epochSecond) {
+        int low = 0;
+        int high = dueDates.length;
+        while (low < high) {
+            int mid = (low + high) >>> 1;
+            if (dueDates[mid] >= epochSecond) {
+                low = mid + 1;
+            } else {
+                high = mid;
+            }
+        }
+        return low;
+    }
+
+    private static long epochSecond(LocalDateTime dateTime) {
+        return dateTime == null ? NO_DUE_DATE : dateTime.toEpochSecond(ZoneOffset.UTC);
+    }
+}
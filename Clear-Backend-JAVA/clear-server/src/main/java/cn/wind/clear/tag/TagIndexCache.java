@@ -0,0 +1,20 @@
+package cn.wind.clear.tag;
+
+import cn.wind.clear.index.UserIndexCache;
+import cn.wind.clear.properties.TagProperties;
+import cn.wind.clear.push.ChangeEventBroker;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.springframework.stereotype.Component;
+
+/**
+ * 按用户缓存标签位图索引，待办、分类或标签变更时丢弃
+ */
+@Component
+public class TagIndexCache extends UserIndexCache<TagBitmapIndex> {
+
+    public TagIndexCache(TagProperties tagProperties, ChangeEventBroker changeEventBroker,
+                         MeterRegistry meterRegistry) {
+        super("tag-index", tagProperties.getIndexMemoryBudget().toBytes(), TagBitmapIndex::getEstimatedBytes,
+                changeEventBroker, meterRegistry);
+    }
+}
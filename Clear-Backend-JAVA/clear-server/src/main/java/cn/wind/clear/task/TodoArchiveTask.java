@@ -0,0 +1,45 @@
+package cn.wind.clear.task;
+
+import cn.wind.clear.properties.ArchiveProperties;
+import cn.wind.clear.service.TodoService;
+import jakarta.annotation.Resource;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+import java.time.LocalDateTime;
+
+/**
+ * 已完成 to do 归档任务
+ * <p>
+ * 定期把完成时间超过保留天数的 to do 分批移入 todo_archive，使 todo 表只保留活跃数据
+ */
+@Component
+@Slf4j
+public class TodoArchiveTask {
+
+    @Resource
+    private TodoService todoService;
+    @Resource
+    private ArchiveProperties archiveProperties;
+
+    @Scheduled(initialDelayString = "${clear.archive.initial-delay:PT5M}",
+            fixedDelayString = "${clear.archive.interval:PT1H}")
+    public void archive() {
+        if (!archiveProperties.getEnabled()) {
+            return;
+        }
+        LocalDateTime before = LocalDateTime.now().minusDays(archiveProperties.getRetentionDays());
+        int total = 0;
+        for (int i = 0; i < archiveProperties.getMaxBatchesPerRun(); i++) {
+            int moved = todoService.archiveCompleted(before, archiveProperties.getBatchSize());
+            total += moved;
+            if (moved < archiveProperties.getBatchSize()) {
+                break;
+            }
+        }
+        if (total > 0) {
+            log.info("归档已完成to do: {} 条", total);
+        }
+    }
+}
@@ -0,0 +1,61 @@
+package cn.wind.clear.task;
+
+import cn.wind.clear.mapper.TodoDailyStatMapper;
+import cn.wind.clear.properties.AnalyticsProperties;
+import cn.wind.clear.service.AnalyticsService;
+import jakarta.annotation.Resource;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.stereotype.Component;
+
+import java.util.List;
+
+/**
+ * 每日统计回填任务
+ * <p>
+ * 升级到每日统计或统计口径变化后开启一次: 启动后在后台线程中按用户分批，用 todo 与 todo_archive 的现有数据
+ * 重新统计。每个用户在单独的事务中先删后插，回填期间该用户的统计查询可能短暂看到不完整的结果
+ */
+@Component
+@Slf4j
+@ConditionalOnProperty(prefix = "clear.analytics", name = "backfill", havingValue = "true")
+public class TodoDailyStatBackfillTask {
+
+    @Resource
+    private AnalyticsService analyticsService;
+    @Resource
+    private TodoDailyStatMapper todoDailyStatMapper;
+    @Resource
+    private AnalyticsProperties analyticsProperties;
+
+    @EventListener(ApplicationReadyEvent.class)
+    public void start() {
+        Thread thread = new Thread(this::backfill, "todo-daily-stat-backfill");
+        thread.setDaemon(true);
+        thread.start();
+    }
+
+    private void backfill() {
+        long startedAt = System.currentTimeMillis();
+        String afterId = "0";
+        int total = 0;
+        while (true) {
+            List<String> userIds = todoDailyStatMapper.selectUserIds(afterId, analyticsProperties.getBackfillBatchSize());
+            for (String userId : userIds) {
+                try {
+                    analyticsService.recount(userId);
+                } catch (Exception e) {
+                    log.warn("回填每日统计失败: 用户 {}: {}", userId, e.toString());
+                }
+            }
+            total += userIds.size();
+            if (userIds.size() < analyticsProperties.getBackfillBatchSize()) {
+                break;
+            }
+            afterId = userIds.get(userIds.size() - 1);
+        }
+        log.info("回填每日统计完成: {} 个用户, 耗时 {} ms", total, System.currentTimeMillis() - startedAt);
+    }
+}
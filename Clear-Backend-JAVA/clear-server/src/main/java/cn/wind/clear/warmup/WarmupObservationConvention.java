@@ -0,0 +1,31 @@
+package cn.wind.clear.warmup;
+
+import io.micrometer.common.KeyValue;
+import io.micrometer.common.KeyValues;
+import org.springframework.http.server.observation.DefaultServerRequestObservationConvention;
+import org.springframework.http.server.observation.ServerRequestObservationContext;
+import org.springframework.stereotype.Component;
+
+/**
+ * http.server.requests 增加 warmup 标签，统计首分钟延迟时可以排除预热产生的合成流量
+ * <p>
+ * 只有 WarmupRunner 自己发出的请求(带本进程的预热密钥)标记为预热，客户端无法借此把请求排除出延迟统计
+ */
+@Component
+public class WarmupObservationConvention extends DefaultServerRequestObservationConvention {
+
+    private static final KeyValue WARMUP = KeyValue.of("warmup", "true");
+    private static final KeyValue NORMAL = KeyValue.of("warmup", "false");
+
+    private final WarmupRunner warmupRunner;
+
+    public WarmupObservationConvention(WarmupRunner warmupRunner) {
+        this.warmupRunner = warmupRunner;
+    }
+
+    @Override
+    public KeyValues getLowCardinalityKeyValues(ServerRequestObservationContext context) {
+        boolean warmup = warmupRunner.isWarmupRequest(context.getCarrier());
+        return super.getLowCardinalityKeyValues(context).and(warmup ? WARMUP : NORMAL);
+    }
+}
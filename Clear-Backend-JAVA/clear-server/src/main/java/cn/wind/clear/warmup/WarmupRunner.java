@@ -0,0 +1,195 @@
+package cn.wind.clear.warmup;
+
+import cn.wind.clear.affinity.ForwardedMarker;
+import cn.wind.clear.constant.JwtClaimsConstant;
+import cn.wind.clear.properties.JwtProperties;
+import cn.wind.clear.properties.WarmupProperties;
+import cn.wind.clear.utils.JwtUtil;
+import com.alibaba.druid.pool.DruidDataSource;
+import jakarta.annotation.Resource;
+import jakarta.servlet.http.HttpServletRequest;
+import lombok.extern.slf4j.Slf4j;
+import org.apache.ibatis.session.SqlSessionFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.ApplicationArguments;
+import org.springframework.boot.ApplicationRunner;
+import org.springframework.boot.web.context.WebServerApplicationContext;
+import org.springframework.context.ApplicationContext;
+import org.springframework.stereotype.Component;
+
+import javax.sql.DataSource;
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.nio.charset.StandardCharsets;
+import java.security.MessageDigest;
+import java.time.Duration;
+import java.time.YearMonth;
+import java.util.List;
+import java.util.Map;
+import java.util.UUID;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * 就绪前预热
+ * <p>
+ * ApplicationRunner 执行完之后应用才会进入 ACCEPTING_TRAFFIC 状态，此时 Web 服务器已经监听端口，
+ * 可以用回环地址向自身发送合成请求，让连接池、SQL 元数据、JWT 解析器、序列化器和拦截器到服务的调用链在真实流量到达前完成初始化和 JIT 编译
+ */
+@Component
+@Slf4j
+public class WarmupRunner implements ApplicationRunner {
+
+    /**
+     * 预热请求头，用于在请求指标中区分合成流量
+     */
+    public static final String WARMUP_HEADER = "X-Clear-Warmup";
+
+    // 预热请求头的值，只在预热期间存在、只有本进程知道，客户端自带的请求头不会被当作预热流量
+    private volatile String warmupKey;
+
+    @Resource
+    private WarmupProperties warmupProperties;
+
+    @Resource
+    private JwtProperties jwtProperties;
+
+    @Resource
+    private DataSource dataSource;
+
+    @Resource
+    private SqlSessionFactory sqlSessionFactory;
+
+    @Resource
+    private ApplicationContext applicationContext;
+
+    @Value("${server.servlet.context-path:}")
+    private String contextPath;
+
+    @Override
+    public void run(ApplicationArguments args) {
+        if (!Boolean.TRUE.equals(warmupProperties.getEnabled())) {
+            return;
+        }
+        long start = System.currentTimeMillis();
+        warmPool();
+        warmStatements();
+        driveRequests();
+        log.info("预热完成，耗时 {} ms", System.currentTimeMillis() - start);
+    }
+
+    /**
+     * 连接池建立初始连接，默认 Druid 在第一次取连接时才初始化
+     */
+    private void warmPool() {
+        try {
+            if (!dataSource.isWrapperFor(DruidDataSource.class)) {
+                return;
+            }
+            DruidDataSource druidDataSource = dataSource.unwrap(DruidDataSource.class);
+            if (!druidDataSource.isInited()) {
+                druidDataSource.setInitialSize(Math.max(druidDataSource.getInitialSize(), warmupProperties.getPoolInitialSize()));
+                druidDataSource.init();
+            }
+            log.info("预热连接池: {} 个连接", druidDataSource.getPoolingCount());
+        } catch (Exception e) {
+            // 数据库暂不可用时不阻止启动，连接仍会在第一次请求时建立
+            log.warn("预热连接池失败: {}", e.getMessage());
+        }
+    }
+
+    /**
+     * 解析尚未完成的 MappedStatement(XML 中引用未加载的 resultMap/sql 片段等)
+     */
+    private void warmStatements() {
+        int count = sqlSessionFactory.getConfiguration().getMappedStatementNames().size();
+        log.info("预热 SQL 映射: {} 条", count);
+    }
+
+    /**
+     * 以预热租户身份向自身发送只读请求，覆盖 JwtTokenInterceptor、Controller、Service、Mapper 和消息转换器
+     * <p>
+     * 请求带有实例间转发标记，开启会话亲和时不会因为预热租户归属其他实例而被转发出去；标记有有效期，发送时才签名
+     */
+    private void driveRequests() {
+        Duration duration = warmupProperties.getDuration();
+        if (duration == null || duration.isZero() || !(applicationContext instanceof WebServerApplicationContext context)) {
+            return;
+        }
+        warmupKey = UUID.randomUUID().toString();
+        String baseUrl = "http://127.0.0.1:" + context.getWebServer().getPort() + contextPath;
+        String token = "Bearer " + JwtUtil.createJWT(jwtProperties.getSecretKey(), duration.toMillis() + 60_000,
+                Map.of(JwtClaimsConstant.USER_ID, warmupProperties.getUserId()));
+        String month = YearMonth.now().toString();
+        List<HttpRequest> requests = List.of(
+                get(baseUrl + "/user/status", token, "application/json"),
+                get(baseUrl + "/category/categories", token, "application/json"),
+                get(baseUrl + "/todo/page?page=1&pageSize=20", token, "application/json"),
+                get(baseUrl + "/todo/page?page=1&pageSize=20&fields=title,status,dueDate", token, "application/json"),
+                get(baseUrl + "/todo/calendar?month=" + month, token, "application/json"),
+                get(baseUrl + "/todo/suggest?prefix=a", token, "application/json"),
+                get(baseUrl + "/todo/page?page=1&pageSize=20", token, "application/x-jackson-smile"));
+
+        ForwardedMarker forwardedMarker = new ForwardedMarker(jwtProperties.getSecretKey());
+        HttpClient client = HttpClient.newBuilder().connectTimeout(Duration.ofSeconds(2)).build();
+        Map<Integer, LongAdder> statuses = new ConcurrentHashMap<>();
+        long deadline = System.nanoTime() + duration.toNanos();
+        int concurrency = Math.max(1, warmupProperties.getConcurrency());
+        ExecutorService executor = Executors.newFixedThreadPool(concurrency);
+        for (int i = 0; i < concurrency; i++) {
+            int offset = i;
+            executor.execute(() -> {
+                for (int n = offset; System.nanoTime() < deadline; n++) {
+                    HttpRequest request = requests.get(n % requests.size());
+                    int status;
+                    try {
+                        status = client.send(HttpRequest.newBuilder(request, (name, value) -> true)
+                                .header(ForwardedMarker.HEADER, forwardedMarker.sign("warmup", "GET",
+                                        request.uri().getPath().substring(contextPath.length())))
+                                .build(), HttpResponse.BodyHandlers.discarding()).statusCode();
+                    } catch (InterruptedException e) {
+                        Thread.currentThread().interrupt();
+                        return;
+                    } catch (Exception e) {
+                        status = -1;
+                    }
+                    statuses.computeIfAbsent(status, s -> new LongAdder()).increment();
+                }
+            });
+        }
+        executor.shutdown();
+        try {
+            executor.awaitTermination(duration.toMillis() + 10_000, TimeUnit.MILLISECONDS);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+        executor.shutdownNow();
+        warmupKey = null;
+        log.info("预热请求: {}", statuses);
+    }
+
+    /**
+     * 是否是本进程发出的预热请求
+     */
+    public boolean isWarmupRequest(HttpServletRequest request) {
+        String key = warmupKey;
+        String value = request.getHeader(WARMUP_HEADER);
+        return key != null && value != null
+                && MessageDigest.isEqual(key.getBytes(StandardCharsets.UTF_8), value.getBytes(StandardCharsets.UTF_8));
+    }
+
+    private HttpRequest get(String url, String token, String accept) {
+        return HttpRequest.newBuilder(URI.create(url))
+                .timeout(Duration.ofSeconds(5))
+                .header(jwtProperties.getTokenName(), token)
+                .header("Accept", accept)
+                .header(WARMUP_HEADER, warmupKey)
+                .GET()
+                .build();
+    }
+}
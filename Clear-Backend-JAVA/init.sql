@@ -3,17 +3,20 @@ CREATE DATABASE IF NOT EXISTS Clear DEFAULT CHARACTER SET utf8mb4 COLLATE utf8mb
 USE Clear;
 
 -- 创建用户表
+-- 用户ID与其他表一样由服务端分配雪花ID；已有数据库: ALTER TABLE user MODIFY id BIGINT NOT NULL COMMENT '用户ID(雪花ID)';
 CREATE TABLE user (
-    id BIGINT AUTO_INCREMENT PRIMARY KEY COMMENT '用户ID',
+    id BIGINT PRIMARY KEY COMMENT '用户ID(雪花ID)',
     username VARCHAR(50) NOT NULL UNIQUE COMMENT '用户名',
     password VARCHAR(100) NOT NULL COMMENT '密码（加密存储）',
+    email VARCHAR(100) NULL COMMENT '邮箱',
+    theme TINYINT NULL COMMENT '主题',
     created_at DATETIME DEFAULT CURRENT_TIMESTAMP COMMENT '注册时间',
     updated_at DATETIME DEFAULT CURRENT_TIMESTAMP ON UPDATE CURRENT_TIMESTAMP COMMENT '信息更新时间'
 ) ENGINE=InnoDB DEFAULT CHARSET=utf8mb4 COMMENT='用户表';
 
 -- 创建分类表
 CREATE TABLE category (
-    id BIGINT AUTO_INCREMENT PRIMARY KEY COMMENT '分类ID',
+    id BIGINT PRIMARY KEY COMMENT '分类ID(雪花ID)',
     user_id BIGINT NOT NULL COMMENT '所属用户ID',
     name VARCHAR(50) NOT NULL COMMENT '分类名称',
     created_at DATETIME DEFAULT CURRENT_TIMESTAMP COMMENT '创建时间',
@@ -23,7 +26,7 @@ CREATE TABLE category (
 
 -- 创建待办事项表
 CREATE TABLE todo (
-    id BIGINT AUTO_INCREMENT PRIMARY KEY COMMENT 'Todo ID',
+    id BIGINT PRIMARY KEY COMMENT 'Todo ID(雪花ID)',
     user_id BIGINT NOT NULL COMMENT '关联的用户ID',
     title VARCHAR(255) NOT NULL COMMENT '待办事项标题',
     content TEXT NULL COMMENT '待办事项内容',
@@ -32,6 +35,84 @@ CREATE TABLE todo (
     due_date DATETIME NULL COMMENT '截止日期',
     created_at DATETIME DEFAULT CURRENT_TIMESTAMP COMMENT '创建时间',
     updated_at DATETIME DEFAULT CURRENT_TIMESTAMP ON UPDATE CURRENT_TIMESTAMP COMMENT '更新时间',
+    version INT NOT NULL DEFAULT 0 COMMENT '版本号（乐观锁）',
+    completed_at DATETIME NULL COMMENT '完成时间',
+    rank_key VARCHAR(255) CHARACTER SET ascii COLLATE ascii_bin NULL COMMENT '手动排序键（同一分类内按字典序排列）',
+    recurrence VARCHAR(255) CHARACTER SET ascii NULL COMMENT '重复规则（RRULE 子集），只在重复系列的第一项上',
+    series_id BIGINT NULL COMMENT '所属重复系列（第一项的ID），只有单独保存的实例有',
+    occurrence_date DATE NULL COMMENT '单独保存的实例在系列中的日期',
+    INDEX idx_todo_user_due (user_id, due_date),
+    INDEX idx_todo_status_completed (status, completed_at, updated_at),
+    INDEX idx_todo_user_category_rank (user_id, category_id, rank_key),
+    INDEX idx_todo_user_recurrence (user_id, recurrence),
+    UNIQUE KEY uk_todo_series_occurrence (series_id, occurrence_date),
     FOREIGN KEY (user_id) REFERENCES user(id) ON DELETE CASCADE,
     FOREIGN KEY (category_id) REFERENCES category(id) ON DELETE SET NULL
 ) ENGINE=InnoDB DEFAULT CHARSET=utf8mb4 COMMENT='待办事项表';
+
+-- 创建待办事项归档表，存放完成时间较早的待办事项，结构与 todo 表一致
+CREATE TABLE todo_archive (
+    id BIGINT PRIMARY KEY COMMENT 'Todo ID',
+    user_id BIGINT NOT NULL COMMENT '关联的用户ID',
+    title VARCHAR(255) NOT NULL COMMENT '待办事项标题',
+    content TEXT NULL COMMENT '待办事项内容',
+    status TINYINT(1) NOT NULL DEFAULT 1 COMMENT '状态（0=未完成，1=已完成）',
+    category_id BIGINT DEFAULT NULL COMMENT '分类ID',
+    due_date DATETIME NULL COMMENT '截止日期',
+    created_at DATETIME DEFAULT CURRENT_TIMESTAMP COMMENT '创建时间',
+    updated_at DATETIME DEFAULT CURRENT_TIMESTAMP COMMENT '更新时间',
+    version INT NOT NULL DEFAULT 0 COMMENT '版本号（乐观锁）',
+    completed_at DATETIME NULL COMMENT '完成时间',
+    rank_key VARCHAR(255) CHARACTER SET ascii COLLATE ascii_bin NULL COMMENT '手动排序键',
+    recurrence VARCHAR(255) CHARACTER SET ascii NULL COMMENT '重复规则',
+    series_id BIGINT NULL COMMENT '所属重复系列',
+    occurrence_date DATE NULL COMMENT '在系列中的日期',
+    INDEX idx_todo_archive_user_due (user_id, due_date),
+    INDEX idx_todo_archive_series (series_id, occurrence_date),
+    FOREIGN KEY (user_id) REFERENCES user(id) ON DELETE CASCADE,
+    FOREIGN KEY (category_id) REFERENCES category(id) ON DELETE SET NULL
+) ENGINE=InnoDB DEFAULT CHARSET=utf8mb4 COMMENT='待办事项归档表';
+
+-- 创建重复待办跳过日期表，删除的单次实例记录在这里，展开时不再生成
+CREATE TABLE todo_occurrence_skip (
+    series_id BIGINT NOT NULL COMMENT '重复系列（第一项的ID）',
+    occurrence_date DATE NOT NULL COMMENT '跳过的日期',
+    user_id BIGINT NOT NULL COMMENT '所属用户ID',
+    PRIMARY KEY (series_id, occurrence_date),
+    FOREIGN KEY (user_id) REFERENCES user(id) ON DELETE CASCADE
+) ENGINE=InnoDB DEFAULT CHARSET=utf8mb4 COMMENT='重复待办跳过日期表';
+
+-- 创建标签表
+CREATE TABLE tag (
+    id BIGINT PRIMARY KEY COMMENT '标签ID(雪花ID)',
+    user_id BIGINT NOT NULL COMMENT '所属用户ID',
+    name VARCHAR(50) NOT NULL COMMENT '标签名称',
+    created_at DATETIME DEFAULT CURRENT_TIMESTAMP COMMENT '创建时间',
+    updated_at DATETIME DEFAULT CURRENT_TIMESTAMP ON UPDATE CURRENT_TIMESTAMP COMMENT '更新时间',
+    UNIQUE KEY uk_tag_user_name (user_id, name),
+    FOREIGN KEY (user_id) REFERENCES user(id) ON DELETE CASCADE
+) ENGINE=InnoDB DEFAULT CHARSET=utf8mb4 COMMENT='标签表';
+
+-- 创建待办事项与标签关联表
+-- todo_id 不设外键: 待办归档时在 todo 与 todo_archive 之间移动，关联保持不变
+CREATE TABLE todo_tag (
+    todo_id BIGINT NOT NULL COMMENT 'Todo ID',
+    tag_id BIGINT NOT NULL COMMENT '标签ID',
+    user_id BIGINT NOT NULL COMMENT '所属用户ID，按用户加载标签索引',
+    PRIMARY KEY (todo_id, tag_id),
+    INDEX idx_todo_tag_user (user_id),
+    FOREIGN KEY (tag_id) REFERENCES tag(id) ON DELETE CASCADE
+) ENGINE=InnoDB DEFAULT CHARSET=utf8mb4 COMMENT='待办事项标签关联表';
+
+-- 创建待办每日统计表，按 (用户, 日期, 分类) 预聚合，由待办的写操作增量维护，历史数据由回填任务重新统计
+-- category_id 为 0 表示没有分类；删除分类时该分类的统计并入 0
+CREATE TABLE todo_daily_stat (
+    user_id BIGINT NOT NULL COMMENT '用户ID',
+    stat_date DATE NOT NULL COMMENT '日期',
+    category_id BIGINT NOT NULL DEFAULT 0 COMMENT '分类ID',
+    created INT NOT NULL DEFAULT 0 COMMENT '当天创建的数量',
+    completed INT NOT NULL DEFAULT 0 COMMENT '当天完成的数量',
+    overdue INT NOT NULL DEFAULT 0 COMMENT '截止日期在当天且未按时完成的数量',
+    PRIMARY KEY (user_id, stat_date, category_id),
+    FOREIGN KEY (user_id) REFERENCES user(id) ON DELETE CASCADE
+) ENGINE=InnoDB DEFAULT CHARSET=utf8mb4 COMMENT='待办每日统计表';
@@ -0,0 +1,212 @@
+#!/usr/bin/env bash
+# /user /category /todo 接口契约测试，clear-server 与 clear-server-reactive 运行同一组用例
+# 检查 HTTP 状态码、Result.code 和返回数据的字段，每次运行注册一个新用户，不依赖已有数据
+# 用法: scripts/contract-test.sh [http://127.0.0.1:8888/api]
+# 依赖 curl 与 jq，令牌请求头名称取 TOKEN_NAME 环境变量(默认 token)
+set -euo pipefail
+
+API=${1:-http://127.0.0.1:8888/api}
+TOKEN_NAME=${TOKEN_NAME:-token}
+USERNAME="contract$(date +%s%N)"
+TODAY=$(date +%F)
+AUTH=()
+PASSED=0
+FAILED=0
+
+# 发送请求，设置 STATUS 与 BODY
+call() {
+    local method=$1 path=$2 data=${3:-} out
+    local args=(-s -o - -w '\n%{http_code}' -X "$method" "${AUTH[@]}")
+    [[ -n "$data" ]] && args+=(-H 'Content-Type: application/json' -d "$data")
+    out=$(curl "${args[@]}" "$API$path")
+    STATUS=${out##*$'\n'}
+    BODY=${out%$'\n'*}
+}
+
+# 断言 jq 表达式对 BODY 的结果为 true
+check() {
+    local name=$1 filter=$2
+    if [[ "$(jq -r "$filter" <<< "$BODY" 2> /dev/null)" == "true" ]]; then
+        PASSED=$((PASSED + 1))
+    else
+        FAILED=$((FAILED + 1))
+        echo "FAIL $name: $STATUS $BODY" >&2
+    fi
+}
+
+check_status() {
+    local name=$1 expected=$2
+    if [[ "$STATUS" == "$expected" ]]; then
+        PASSED=$((PASSED + 1))
+    else
+        FAILED=$((FAILED + 1))
+        echo "FAIL $name: 期望 HTTP $expected，实际 $STATUS" >&2
+    fi
+}
+
+TODO_KEYS='["categoryId","categoryName","content","createdAt","dueDate","id","occurrenceDate","recurrence","seriesId","status","tagIds","title","updatedAt","version"]'
+
+# 用户
+call GET /todo/page
+check_status "未登录" 401
+call POST /user/register "{\"username\":\"$USERNAME\",\"password\":\"secret123\"}"
+check "注册" '.code == 1 and (.data | keys) == ["id","theme","tk","username"]'
+call POST /user/register "{\"username\":\"$USERNAME\",\"password\":\"secret123\"}"
+check "重复注册" '.code == 0 and (.msg | length) > 0'
+call POST /user/login "{\"username\":\"$USERNAME\",\"password\":\"wrong\"}"
+check "密码错误" '.code == 0'
+call POST /user/login "{\"username\":\"$USERNAME\",\"password\":\"secret123\"}"
+check "登录" ".code == 1 and .data.username == \"$USERNAME\" and (.data.tk | length) > 0"
+AUTH=(-H "$TOKEN_NAME: Bearer $(jq -r .data.tk <<< "$BODY")")
+call PUT /user/theme/2
+check "主题" '.code == 1'
+call GET /user/status
+check "状态" '.code == 1 and .data.numOfDone == 0 and .data.numOfUndone == 0'
+
+# 分类
+call GET /category/categories
+check "默认分类" '.code == 1 and (.data | length) == 1 and (.data[0] | keys) == ["categoryId","categoryName"]'
+DEFAULT_CATEGORY=$(jq -r '.data[0].categoryId' <<< "$BODY")
+call POST /category/add '{"name":"work"}'
+check "添加分类" '.code == 1'
+call POST /category/add '{"name":"work"}'
+check "重复分类" '.code == 0'
+call POST /category/add '{"name":"bad","id":"abc"}'
+check "非法分类ID" '.code == 0'
+call GET /category/categories
+WORK=$(jq -r '.data[] | select(.categoryName == "work") | .categoryId' <<< "$BODY")
+call PUT /category/update "{\"id\":\"$WORK\",\"name\":\"office\"}"
+check "修改分类" '.code == 1'
+call GET /category/categories
+check "分类列表" '(.data | map(.categoryName) | sort) == ["office","默认"]'
+
+# 待办
+call POST /todo/addTodo '{"title":""}'
+check "空标题" '.code == 0'
+call POST /todo/addTodo '{"title":"expired","dueDate":"2000-01-01 00:00:00"}'
+check "过期日期" '.code == 0'
+for i in 1 2 3; do
+    call POST /todo/addTodo "{\"title\":\"task $i\",\"content\":\"apple $i\",\"dueDate\":\"2099-03-0$i 10:00:00\",\"categoryId\":\"$WORK\"}"
+    check "添加待办 $i" '.code == 1 and .data == "添加成功"'
+done
+call POST /todo/addTodo '{"title":"default category","dueDate":"2099-04-01 10:00:00"}'
+check "默认分类待办" '.code == 1'
+
+call GET '/todo/page?page=1&pageSize=2'
+check "分页" ".code == 1 and .data.total == 4 and .data.size == 2 and .data.current == 1 and (.data.records | length) == 2 and (.data.records[0] | keys) == $TODO_KEYS"
+check "分页排序" '.data.records[0].title == "default category" and .data.records[0].categoryName == "默认" and .data.records[0].tagIds == []'
+call GET "/todo/page?page=2&pageSize=2&categoryId=$WORK"
+check "分类筛选" '.data.total == 3 and (.data.records | map(.title)) == ["task 1"]'
+call GET '/todo/page?page=1&pageSize=10&keyword=apple%202'
+check "关键字" '(.data.records | map(.title)) == ["task 2"]'
+call GET '/todo/page?page=1&pageSize=10&startDate=2099-03-02&endDate=2099-03-03'
+check "日期范围" '(.data.records | map(.title)) == ["task 3","task 2"]'
+call GET '/todo/page?page=1&pageSize=10&fields=title,categoryName'
+check "字段筛选" '(.data.records[0] | keys) == ["categoryName","id","title"]'
+call GET '/todo/page?page=1&pageSize=10&fields=password'
+check "未知字段" '.code == 0'
+call GET "/todo/page?page=1&pageSize=10&categoryId=$WORK&keyword=apple%203&fields=id"
+call PUT "/todo/$(jq -r '.data.records[0].id' <<< "$BODY")/move" '{}'
+check "调整顺序" '.code == 1 and .data == 1'
+call GET "/todo/page?page=1&pageSize=10&categoryId=$WORK&orderBy=manual&fields=title"
+check "手动排序" '(.data.records | map(.title)) == ["task 3","task 1","task 2"]'
+call GET '/todo/page?page=1&pageSize=10&orderBy=manual'
+check "手动排序缺少分类" '.code == 0'
+call GET '/todo/page?page=1&pageSize=10&orderBy=title'
+check "未知排序" '.code == 0'
+
+call GET '/todo/page?page=1&pageSize=10&keyword=apple%201'
+ID=$(jq -r '.data.records[0].id' <<< "$BODY")
+VERSION=$(jq -r '.data.records[0].version' <<< "$BODY")
+call GET "/todo/$ID"
+check "详情" ".code == 1 and (.data | keys) == $TODO_KEYS and .data.content == \"apple 1\" and .data.categoryName == \"office\""
+call PATCH "/todo/$ID" "{\"fields\":[\"title\",\"status\"],\"title\":\"task 1 done\",\"status\":1,\"version\":$VERSION}"
+check "部分更新" ".code == 1 and .data == $((VERSION + 1))"
+call PATCH "/todo/$ID" "{\"fields\":[\"title\"],\"title\":\"stale\",\"version\":$VERSION}"
+check_status "版本冲突" 409
+check "版本冲突" '.code == 0'
+call PATCH "/todo/$ID" "{\"fields\":[\"userId\"],\"version\":$((VERSION + 1))}"
+check "不支持的字段" '.code == 0'
+call PATCH "/todo/$ID" "{\"fields\":[\"status\"],\"status\":null,\"version\":$((VERSION + 1))}"
+check "空状态" '.code == 0'
+call PATCH "/todo/$ID" "{\"fields\":[\"dueDate\"],\"dueDate\":\"2000-01-01 00:00:00\",\"version\":$((VERSION + 1))}"
+check "部分更新过期日期" '.code == 0'
+call PATCH "/todo/$ID" "{\"fields\":[\"categoryId\"],\"categoryId\":\"1\",\"version\":$((VERSION + 1))}"
+check "部分更新他人分类" '.code == 0'
+call PUT /todo/updateTodo "{\"id\":\"$ID\",\"categoryId\":\"1\"}"
+check "更新他人分类" '.code == 0'
+call PUT /todo/updateTodo "{\"id\":\"$ID\",\"content\":\"apple one\"}"
+check "更新" '.code == 1'
+call GET "/todo/$ID"
+check "更新结果" ".data.title == \"task 1 done\" and .data.status == 1 and .data.content == \"apple one\" and .data.version == $((VERSION + 2))"
+call GET '/todo/page?page=1&pageSize=10&status=1'
+check "状态筛选" '.data.total == 1 and .data.records[0].title == "task 1 done"'
+call GET /user/status
+check "完成统计" '.data.numOfDone == 1 and .data.numOfUndone == 3'
+
+call GET "/user/analytics?granularity=day&startDate=$TODAY&endDate=$TODAY"
+check "每日统计" ".code == 1 and (.data.buckets | map([.date, .created, .completed, .overdue])) == [[\"$TODAY\",4,1,0]]"
+check "分类统计" '(.data.categories | map([.categoryName, .created, .completed]) | sort) == [["office",3,1],["默认",1,0]] and (.data.categories[0] | keys) == ["categoryId","categoryName","completed","created","overdue"]'
+call GET "/user/analytics?categoryId=$WORK"
+check "默认范围" '.code == 1 and .data.granularity == "week" and (.data.buckets | length) >= 12 and (.data.buckets | map(.created) | add) == 3'
+call GET '/user/analytics?granularity=year'
+check "统计粒度错误" '.code == 0'
+call GET '/user/analytics?startDate=2020-01-01&endDate=2099-01-01'
+check "统计范围错误" '.code == 0'
+
+call GET '/todo/calendar?month=2099-03'
+check "月历" '.code == 1 and . as $r | ($r.data | map([.date, .done, .undone])) == [["2099-03-01",1,0],["2099-03-02",0,1],["2099-03-03",0,1]]'
+call GET '/todo/calendar?week=2099-03-02'
+check "周历" '(.data | length) == 2'
+call GET '/todo/calendar?month=2099-13'
+check "日历参数错误" '.code == 0'
+call GET '/todo/calendar?year=1000000000'
+check_status "年份超出范围" 200
+check "年份超出范围" '.code == 0'
+
+call DELETE "/todo/deleteTodo/$ID"
+check "删除" '.code == 1'
+call GET "/todo/$ID"
+check "删除后详情" '.code == 0'
+call GET '/todo/calendar?month=2099-03'
+check "删除后月历" '(.data | length) == 2'
+call DELETE "/category/delete/$DEFAULT_CATEGORY"
+check "删除分类" '.code == 1'
+call GET "/user/analytics?granularity=month&startDate=$TODAY&endDate=$TODAY"
+check "删除后统计" '(.data.buckets | map([.created, .completed])) == [[3,0]] and (.data.categories | map([.categoryId, .categoryName, .created]) | sort_by(.[2])) == [["0",null,1],["'"$WORK"'","office",2]]'
+
+# 重复待办
+call POST /todo/addTodo "{\"title\":\"bad rule\",\"dueDate\":\"2099-05-01 09:00:00\",\"categoryId\":\"$WORK\",\"recurrence\":\"FREQ=HOURLY\"}"
+check "重复规则错误" '.code == 0'
+call POST /todo/addTodo "{\"title\":\"no due date\",\"categoryId\":\"$WORK\",\"recurrence\":\"FREQ=DAILY\"}"
+check "重复缺少截止日期" '.code == 0'
+call POST /todo/addTodo "{\"title\":\"weekly\",\"content\":\"standup\",\"dueDate\":\"2099-05-04 09:00:00\",\"categoryId\":\"$WORK\",\"recurrence\":\"freq=weekly;count=4\"}"
+check "添加重复待办" '.code == 1'
+call GET '/todo/page?page=1&pageSize=10&keyword=standup'
+check "无范围只有第一项" '.data.total == 1 and .data.records[0].recurrence == "FREQ=WEEKLY;COUNT=4"'
+SERIES=$(jq -r '.data.records[0].id' <<< "$BODY")
+call GET '/todo/page?page=1&pageSize=10&startDate=2099-05-01&endDate=2099-05-31'
+check "展开重复" '.data.total == 4 and (.data.records | map(.dueDate[0:10])) == ["2099-05-25","2099-05-18","2099-05-11","2099-05-04"] and .data.records[0].id == null and .data.records[0].seriesId == "'"$SERIES"'" and .data.records[0].occurrenceDate == "2099-05-25"'
+call POST "/todo/$SERIES/occurrences/2099-05-11"
+check "保存实例" '.code == 1 and (.data | length) > 0 and .data != "'"$SERIES"'"'
+OCCURRENCE=$(jq -r '.data' <<< "$BODY")
+call POST "/todo/$SERIES/occurrences/2099-05-11"
+check "重复保存实例" '.data == "'"$OCCURRENCE"'"'
+call POST "/todo/$SERIES/occurrences/2099-05-12"
+check "不在规则内" '.code == 0'
+call DELETE "/todo/$SERIES/occurrences/2099-05-18"
+check "跳过实例" '.code == 1'
+call GET '/todo/page?page=2&pageSize=2&startDate=2099-05-01&endDate=2099-05-31'
+check "合并分页" '.data.total == 3 and (.data.records | map(.dueDate[0:10])) == ["2099-05-04"]'
+call GET '/todo/page?page=1&pageSize=2&startDate=2099-05-01&endDate=2099-05-31'
+check "保存的实例" '(.data.records | map(.id)) == [null,"'"$OCCURRENCE"'"] and .data.records[1].seriesId == "'"$SERIES"'"'
+call GET '/todo/calendar?month=2099-05'
+check "重复月历" '(.data | map([.date, .undone])) == [["2099-05-04",1],["2099-05-11",1],["2099-05-25",1]]'
+call DELETE "/todo/deleteTodo/$OCCURRENCE"
+call GET '/todo/page?page=1&pageSize=10&startDate=2099-05-01&endDate=2099-05-31'
+check "删除实例" '.data.total == 2'
+call GET '/todo/page?page=1&pageSize=10&startDate=2099-01-01&endDate=2100-12-31'
+check "展开范围过大" '.code == 0'
+
+echo "$API: $PASSED passed, $FAILED failed"
+[[ "$FAILED" -eq 0 ]]
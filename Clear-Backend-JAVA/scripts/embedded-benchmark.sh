@@ -0,0 +1,78 @@
+#!/usr/bin/env bash
+# 嵌入模式(embedded)与生产配置(prod)的启动耗时和内存对比
+# 1. 两种配置都以上下文刷新完成(spring.context.exit=onRefresh)为终点，prod 不连接 MySQL 与 Redis
+# 2. 嵌入模式完整启动到 readiness 为 UP，发送几个请求后读取常驻内存和堆使用
+# 用法: mvn package -DskipTests && scripts/embedded-benchmark.sh [次数]
+# 以 mvn -Pfast-startup -Daot.profiles=embedded package 构建时，额外对比解压+AOT+CDS，完整启动也使用该方式
+set -euo pipefail
+
+ROUNDS=${1:-5}
+ROOT=$(cd "$(dirname "$0")/.." && pwd)
+JAR="$ROOT/clear-server/target/clear-server-1.0.0.jar"
+WORK=$(mktemp -d)
+trap 'rm -rf "$WORK"' EXIT
+
+export SECRET_KEY=${SECRET_KEY:-$(head -c 48 /dev/urandom | base64)} TOKEN_NAME=${TOKEN_NAME:-token}
+# prod 配置中的占位符，刷新阶段不会真正连接
+export MYSQL_HOST=127.0.0.1 MYSQL_USERNAME=clear MYSQL_PASSWORD=clear REDIS_HOST=127.0.0.1 REDIS_PASSWORD=clear
+export CLEAR_DATA_DIR="$WORK/data"
+
+EMBEDDED_OPTS=(-XX:TieredStopAtLevel=1 -XX:+UseSerialGC -Xmx64m -Xss512k)
+
+# 运行到进程退出，输出 "耗时ms 峰值RSS(KB)"
+run() {
+    local start pid peak=0 hwm
+    start=$(date +%s%N)
+    "$@" > /dev/null 2>&1 &
+    pid=$!
+    while kill -0 "$pid" 2> /dev/null; do
+        hwm=$(awk '/VmHWM/ {print $2}' "/proc/$pid/status" 2> /dev/null || true)
+        [[ -n "$hwm" && "$hwm" -gt "$peak" ]] && peak=$hwm
+        sleep 0.05
+    done
+    echo "$(( ($(date +%s%N) - start) / 1000000 )) $peak"
+}
+
+measure() {
+    local name=$1; shift
+    local total=0 rss=0 ms kb
+    for _ in $(seq "$ROUNDS"); do
+        read -r ms kb < <(run "$@" -Dspring.context.exit=onRefresh -jar "$JAR")
+        total=$(( total + ms )); rss=$(( rss + kb ))
+    done
+    printf '%-28s %6d ms  peak rss %6d MB\n' "$name" $(( total / ROUNDS )) $(( rss / ROUNDS / 1024 ))
+}
+
+echo "== 上下文刷新 =="
+measure "prod" java -Dspring.profiles.active=prod
+measure "embedded" java -Dspring.profiles.active=embedded
+measure "embedded (small heap)" java "${EMBEDDED_OPTS[@]}" -Dspring.profiles.active=embedded
+
+if unzip -l "$JAR" 'BOOT-INF/classes/cn/wind/clear/ClearApplication__BeanFactoryRegistrations.class' > /dev/null 2>&1; then
+    java -Djarmode=tools -jar "$JAR" extract --destination "$WORK/application" > /dev/null
+    JAR=$WORK/application/clear-server-1.0.0.jar
+    JSA=$WORK/application/application.jsa
+    java -XX:ArchiveClassesAtExit="$JSA" "${EMBEDDED_OPTS[@]}" -Dspring.aot.enabled=true \
+        -Dspring.profiles.active=embedded -Dspring.context.exit=onRefresh -jar "$JAR" > /dev/null 2>&1
+    EMBEDDED_OPTS+=(-XX:SharedArchiveFile="$JSA" -Dspring.aot.enabled=true)
+    measure "embedded (small heap+aot+cds)" java "${EMBEDDED_OPTS[@]}" -Dspring.profiles.active=embedded
+fi
+
+echo "== 嵌入模式完整启动 =="
+start=$(date +%s%N)
+java "${EMBEDDED_OPTS[@]}" -jar "$JAR" --spring.profiles.active=embedded > "$WORK/embedded.log" 2>&1 &
+pid=$!
+until curl -sf http://127.0.0.1:8888/api/actuator/health/readiness > /dev/null; do sleep 0.05; done
+printf '%-28s %6d ms\n' "ready" $(( ($(date +%s%N) - start) / 1000000 ))
+API=http://127.0.0.1:8888/api
+curl -sf -H 'Content-Type: application/json' -d '{"username":"bench","password":"bench123"}' "$API/user/register" > /dev/null
+TOKEN=$(curl -sf -H 'Content-Type: application/json' -d '{"username":"bench","password":"bench123"}' "$API/user/login" \
+    | sed -E 's/.*"tk":"([^"]+)".*/\1/')
+for i in $(seq 100); do
+    curl -sf -H "$TOKEN_NAME: Bearer $TOKEN" -H 'Content-Type: application/json' \
+        -d "{\"title\":\"task $i\",\"dueDate\":\"2030-01-01 10:00:00\"}" "$API/todo/addTodo" > /dev/null
+    curl -sf -H "$TOKEN_NAME: Bearer $TOKEN" "$API/todo/page?page=1&pageSize=20" > /dev/null
+done
+printf '%-28s %6d MB\n' "rss after 200 requests" $(( $(awk '/VmRSS/ {print $2}' "/proc/$pid/status") / 1024 ))
+jcmd "$pid" GC.heap_info | grep -E 'total'
+kill "$pid"
@@ -0,0 +1,48 @@
+#!/usr/bin/env bash
+# clear-server 负载测试: 生成测试数据后按目标 RPS 回放混合请求，结果(JSON)写入 OUTPUT
+# 服务端以嵌入模式(embedded)启动，H2 文件数据库与本地存储代替 MySQL 与 Redis，每次运行使用新的数据目录
+# 需要压测 MySQL/Redis 部署时，直接运行 clear-loadtest 的 generate 与 run 子命令(见 LoadTestApplication)
+# 用法: mvn package -DskipTests && scripts/loadtest.sh [用户数] [RPS] [持续秒数] [OUTPUT]
+set -euo pipefail
+
+USERS=${1:-200}
+RPS=${2:-200}
+DURATION=${3:-60}
+OUTPUT=${4:-loadtest-result.json}
+ROOT=$(cd "$(dirname "$0")/.." && pwd)
+SERVER_JAR=$ROOT/clear-server/target/clear-server-1.0.0.jar
+LOADTEST_JAR=$ROOT/clear-loadtest/target/clear-loadtest-1.0.0.jar
+WORK=$(mktemp -d)
+PID=
+trap '[[ -n "$PID" ]] && kill "$PID" 2> /dev/null; rm -rf "$WORK"' EXIT
+
+export SECRET_KEY=${SECRET_KEY:-$(head -c 48 /dev/urandom | base64 | tr -d '\n')} TOKEN_NAME=${TOKEN_NAME:-token}
+export CLEAR_DATA_DIR=$WORK/data
+API=http://127.0.0.1:8888/api
+
+start_server() {
+    java -Xmx512m -jar "$SERVER_JAR" --spring.profiles.active=embedded \
+        --server.tomcat.threads.max=200 --server.tomcat.max-connections=10000 \
+        --spring.datasource.hikari.maximum-pool-size=10 >> "$WORK/server.log" 2>&1 &
+    PID=$!
+    until curl -s -o /dev/null "$API/user/login"; do
+        kill -0 "$PID" 2> /dev/null || { cat "$WORK/server.log" >&2; exit 1; }
+        sleep 0.2
+    done
+}
+
+stop_server() {
+    kill "$PID"
+    wait "$PID" 2> /dev/null || true
+    PID=
+}
+
+# 首次启动创建表结构，H2 文件数据库同一时间只允许一个进程打开，生成数据前先停止服务端
+start_server
+stop_server
+java -jar "$LOADTEST_JAR" generate --users="$USERS" --jdbc-user=clear --jdbc-password= \
+    --jdbc-url="jdbc:h2:file:$CLEAR_DATA_DIR/clear;MODE=MySQL;DATABASE_TO_LOWER=TRUE;NON_KEYWORDS=USER"
+
+start_server
+java -jar "$LOADTEST_JAR" run --base-url="$API" --users="$USERS" --rps="$RPS" --duration="$DURATION" --output="$OUTPUT"
+stop_server
@@ -0,0 +1,71 @@
+#!/usr/bin/env bash
+# 日志开销对比: 同一份数据、同一请求比例，服务端分别在关闭日志、异步输出、同步输出下运行
+# 每个用户的待办较少，单个请求的数据库开销小，日志开销在总耗时中的占比更明显
+# 压测驱动的目标速率高于服务端能力，同时在途请求上限固定，成功请求的吞吐量即服务端饱和吞吐量
+# DEBUG 级别下每个请求输出令牌校验与 SQL 日志，用于观察日志量大时同步与异步的差别
+# 服务端日志写入文件，每种模式结束后统计日志行数与异步队列丢弃条数(clear.logging.dropped)
+# 默认只回放读请求(嵌入模式下写请求的耗时主要是 H2 提交)，MIX 环境变量可改为其它比例
+# 用法: mvn package -DskipTests && scripts/logging-benchmark.sh [持续秒数] [用户数]
+set -euo pipefail
+
+DURATION=${1:-30}
+USERS=${2:-50}
+MIX=${MIX:-page=60,status=25,search=15}
+ROOT=$(cd "$(dirname "$0")/.." && pwd)
+SERVER_JAR=$ROOT/clear-server/target/clear-server-1.0.0.jar
+LOADTEST_JAR=$ROOT/clear-loadtest/target/clear-loadtest-1.0.0.jar
+WORK=$(mktemp -d)
+PID=
+trap '[[ -n "$PID" ]] && kill "$PID" 2> /dev/null; rm -rf "$WORK"' EXIT
+
+export SECRET_KEY=${SECRET_KEY:-$(head -c 48 /dev/urandom | base64 | tr -d '\n')} TOKEN_NAME=${TOKEN_NAME:-token}
+export CLEAR_DATA_DIR=$WORK/data
+# 默认只暴露 health，统计丢弃条数需要 metrics 端点
+export MANAGEMENT_EXPOSURE=${MANAGEMENT_EXPOSURE:-health,metrics}
+API=http://127.0.0.1:8888/api
+
+start_server() {
+    local log=$1
+    shift
+    java -Xmx512m -XX:+UseSerialGC -jar "$SERVER_JAR" --spring.profiles.active=embedded \
+        --server.tomcat.threads.max=64 --spring.datasource.hikari.maximum-pool-size=10 "$@" > "$log" 2>&1 &
+    PID=$!
+    until curl -s -o /dev/null "$API/user/login"; do
+        kill -0 "$PID" 2> /dev/null || { cat "$log" >&2; exit 1; }
+        sleep 0.2
+    done
+}
+
+stop_server() {
+    kill "$PID"
+    wait "$PID" 2> /dev/null || true
+    PID=
+}
+
+# 建表后停止服务端再生成数据(H2 文件数据库同一时间只允许一个进程打开)
+start_server "$WORK/init.log"
+stop_server
+java -jar "$LOADTEST_JAR" generate --users="$USERS" --todos-median=30 --jdbc-user=clear --jdbc-password= \
+    --jdbc-url="jdbc:h2:file:$CLEAR_DATA_DIR/clear;MODE=MySQL;DATABASE_TO_LOWER=TRUE;NON_KEYWORDS=USER" > /dev/null
+
+bench() {
+    local name=$1
+    shift
+    start_server "$WORK/$name.log" "$@"
+    java -jar "$LOADTEST_JAR" run --base-url="$API" --users="$USERS" --rps=2000 --max-in-flight=64 --mix="$MIX" \
+        --duration="$DURATION" --warmup=15 --output="$WORK/$name.json" > /dev/null 2>&1
+    local dropped
+    # 同步输出时没有异步队列，指标不存在
+    dropped=$(curl -s "$API/actuator/metrics/clear.logging.dropped" | jq -r '.measurements[0].value | floor' 2> /dev/null || true)
+    stop_server
+    jq -r --arg name "$name" --arg lines "$(wc -l < "$WORK/$name.log")" --arg dropped "${dropped:--}" \
+        '"\($name | . + "            " | .[:12]) \(.total.throughput | floor) req/s  p50 \(.total.p50Ms) ms  p99 \(.total.p99Ms) ms  log lines \($lines)  dropped \($dropped)"' \
+        "$WORK/$name.json"
+}
+
+echo "cores: $(nproc), duration: ${DURATION}s, users: $USERS, mix: $MIX"
+bench off --logging.level.root=OFF
+bench async
+bench sync --clear.logging.appender=CONSOLE
+bench async-debug --logging.level.cn.wind.clear=DEBUG
+bench sync-debug --logging.level.cn.wind.clear=DEBUG --clear.logging.appender=CONSOLE
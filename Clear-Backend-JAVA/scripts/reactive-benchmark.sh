@@ -0,0 +1,122 @@
+#!/usr/bin/env bash
+# clear-server 与 clear-server-reactive 高并发对比: 每核吞吐量与每连接内存
+# 两个服务都以嵌入模式(embedded)启动，堆大小相同，Tomcat 线程与连接数放宽到 prod 默认值
+# 每个并发级别: C 个连接各自循环请求 /todo/page，持续 DURATION 秒，记录吞吐量、p99 与压测中的常驻内存
+# 每连接内存 = (压测中 RSS - 空闲 RSS) / C
+# 用法: mvn package -DskipTests && scripts/reactive-benchmark.sh [持续秒数] [并发级别...]
+set -euo pipefail
+
+DURATION=${1:-20}
+shift || true
+if (( $# )); then LEVELS=("$@"); else LEVELS=(64 256 1024); fi
+ROOT=$(cd "$(dirname "$0")/.." && pwd)
+WORK=$(mktemp -d)
+PID=
+trap '[[ -n "$PID" ]] && kill "$PID" 2> /dev/null; rm -rf "$WORK"' EXIT
+
+export SECRET_KEY=${SECRET_KEY:-$(head -c 48 /dev/urandom | base64 | tr -d '\n')} TOKEN_NAME=${TOKEN_NAME:-token}
+JAVA_OPTS=(-Xmx256m -XX:+UseSerialGC)
+CORES=$(nproc)
+
+# 闭环压测客户端: 每个连接发出请求、收到响应后立即发出下一个
+cat > "$WORK/Load.java" <<'EOF'
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.time.Duration;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.Executors;
+import java.util.concurrent.atomic.AtomicLong;
+
+public class Load {
+    public static void main(String[] args) throws Exception {
+        URI uri = URI.create(args[0]);
+        String header = args[1], token = args[2];
+        int connections = Integer.parseInt(args[3]);
+        long end = System.nanoTime() + Duration.ofSeconds(Long.parseLong(args[4])).toNanos();
+        HttpClient client = HttpClient.newBuilder().executor(Executors.newFixedThreadPool(2)).build();
+        HttpRequest request = HttpRequest.newBuilder(uri).header(header, "Bearer " + token).build();
+        AtomicLong ok = new AtomicLong(), failed = new AtomicLong();
+        ConcurrentLinkedQueue<Long> latencies = new ConcurrentLinkedQueue<>();
+        CountDownLatch done = new CountDownLatch(connections);
+        long start = System.nanoTime();
+        for (int i = 0; i < connections; i++) {
+            new Object() {
+                void next() {
+                    if (System.nanoTime() > end) {
+                        done.countDown();
+                        return;
+                    }
+                    long sent = System.nanoTime();
+                    client.sendAsync(request, HttpResponse.BodyHandlers.discarding()).whenComplete((response, e) -> {
+                        if (e == null && response.statusCode() == 200) {
+                            ok.incrementAndGet();
+                            latencies.add(System.nanoTime() - sent);
+                        } else {
+                            failed.incrementAndGet();
+                        }
+                        next();
+                    });
+                }
+            }.next();
+        }
+        done.await();
+        double seconds = (System.nanoTime() - start) / 1e9;
+        long[] sorted = latencies.stream().mapToLong(Long::longValue).sorted().toArray();
+        double p99 = sorted.length == 0 ? 0 : sorted[(int) (sorted.length * 0.99)] / 1e6;
+        System.out.printf("%.0f %.1f %d%n", ok.get() / seconds, p99, failed.get());
+        System.exit(0);
+    }
+}
+EOF
+javac -d "$WORK" "$WORK/Load.java"
+
+rss() {
+    awk '/VmRSS/ {print $2}' "/proc/$1/status"
+}
+
+bench() {
+    local name=$1 jar=$2 port=$3
+    shift 3
+    CLEAR_DATA_DIR="$WORK/$name" java "${JAVA_OPTS[@]}" -jar "$jar" --spring.profiles.active=embedded "$@" \
+        > "$WORK/$name.log" 2>&1 &
+    PID=$!
+    local api=http://127.0.0.1:$port/api
+    until curl -s -o /dev/null "$api/user/login"; do sleep 0.2; done
+    curl -sf -H 'Content-Type: application/json' -d '{"username":"bench","password":"bench123"}' "$api/user/register" > /dev/null
+    local token
+    token=$(curl -sf -H 'Content-Type: application/json' -d '{"username":"bench","password":"bench123"}' "$api/user/login" \
+        | sed -E 's/.*"tk":"([^"]+)".*/\1/')
+    for i in $(seq 50); do
+        curl -sf -H "$TOKEN_NAME: Bearer $token" -H 'Content-Type: application/json' \
+            -d "{\"title\":\"task $i\",\"content\":\"content $i\",\"dueDate\":\"2099-01-01 10:00:00\"}" "$api/todo/addTodo" > /dev/null
+    done
+    # 预热 JIT
+    java -cp "$WORK" Load "$api/todo/page?page=1&pageSize=20" "$TOKEN_NAME" "$token" 16 10 > /dev/null
+    local idle
+    idle=$(rss "$PID")
+    for c in "${LEVELS[@]}"; do
+        java -cp "$WORK" Load "$api/todo/page?page=1&pageSize=20" "$TOKEN_NAME" "$token" "$c" "$DURATION" > "$WORK/result" &
+        local load=$! peak=0 now
+        while kill -0 "$load" 2> /dev/null; do
+            now=$(rss "$PID")
+            (( now > peak )) && peak=$now
+            sleep 0.5
+        done
+        read -r rps p99 failed < "$WORK/result"
+        printf '%-10s %6d conns %8d req/s %8d req/s/core  p99 %8s ms  errors %6d  rss %5d MB  %6.1f KB/conn\n' \
+            "$name" "$c" "$rps" $(( rps / CORES )) "$p99" "$failed" $(( peak / 1024 )) \
+            "$(awk "BEGIN {print ($peak - $idle) / $c}")"
+    done
+    kill "$PID"
+    wait "$PID" 2> /dev/null || true
+    PID=
+}
+
+echo "cores: $CORES, duration: ${DURATION}s, heap: ${JAVA_OPTS[*]}"
+bench servlet "$ROOT/clear-server/target/clear-server-1.0.0.jar" 8888 \
+    --server.tomcat.threads.max=200 --server.tomcat.max-connections=10000 --spring.datasource.hikari.maximum-pool-size=10
+bench reactive "$ROOT/clear-server-reactive/target/clear-server-reactive-1.0.0.jar" 8889 \
+    --spring.r2dbc.pool.max-size=10
@@ -0,0 +1,51 @@
+#!/usr/bin/env bash
+# 启动耗时对比: 普通 jar / 解压 / 解压+AOT / 解压+AOT+CDS
+# 以第一个成功的接口请求(登录接口返回 HTTP 200，经过数据库查询)为终点，服务端以嵌入模式运行，不依赖 MySQL 与 Redis
+# AOT 代码的条件装配在构建时确定，需按嵌入模式构建；CDS 归档与 Dockerfile 一样由只刷新上下文的训练运行得到
+# 用法: mvn -Pfast-startup -Daot.profiles=embedded package -DskipTests && scripts/startup-benchmark.sh [次数]
+set -euo pipefail
+
+ROUNDS=${1:-5}
+ROOT=$(cd "$(dirname "$0")/.." && pwd)
+JAR="$ROOT/clear-server/target/clear-server-1.0.0.jar"
+WORK=$(mktemp -d)
+PID=
+trap '[[ -n "$PID" ]] && kill "$PID" 2> /dev/null; rm -rf "$WORK"' EXIT
+
+export SECRET_KEY=${SECRET_KEY:-$(head -c 48 /dev/urandom | base64 | tr -d '\n')} TOKEN_NAME=${TOKEN_NAME:-token}
+export SPRING_PROFILES_ACTIVE=embedded
+API=http://127.0.0.1:8888/api
+
+java -Djarmode=tools -jar "$JAR" extract --destination "$WORK/application" > /dev/null
+APP="$WORK/application/clear-server-1.0.0.jar"
+JSA="$WORK/application/application.jsa"
+CLEAR_DATA_DIR=$WORK/training java -XX:ArchiveClassesAtExit="$JSA" -Dspring.aot.enabled=true \
+    -Dspring.context.exit=onRefresh -jar "$APP" > /dev/null 2>&1
+
+measure() {
+    local name=$1; shift
+    local total=0
+    for round in $(seq "$ROUNDS"); do
+        local start end
+        rm -rf "$WORK/data"
+        start=$(date +%s%N)
+        CLEAR_DATA_DIR=$WORK/data "$@" -jar "${JAR_UNDER_TEST}" > "$WORK/server.log" 2>&1 &
+        PID=$!
+        until [[ "$(curl -s -o /dev/null -w '%{http_code}' -H 'Content-Type: application/json' \
+                -d '{"username":"startup","password":"startup"}' "$API/user/login")" == 200 ]]; do
+            kill -0 "$PID" 2> /dev/null || { cat "$WORK/server.log" >&2; exit 1; }
+            sleep 0.02
+        done
+        end=$(date +%s%N)
+        kill "$PID"
+        wait "$PID" 2> /dev/null || true
+        PID=
+        total=$(( total + (end - start) / 1000000 ))
+    done
+    printf '%-20s %6d ms\n' "$name" $(( total / ROUNDS ))
+}
+
+JAR_UNDER_TEST=$JAR measure "jar" java
+JAR_UNDER_TEST=$APP measure "extracted" java
+JAR_UNDER_TEST=$APP measure "extracted+aot" java -Dspring.aot.enabled=true
+JAR_UNDER_TEST=$APP measure "extracted+aot+cds" java -XX:SharedArchiveFile="$JSA" -Dspring.aot.enabled=true